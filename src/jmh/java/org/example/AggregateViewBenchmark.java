@@ -0,0 +1,72 @@
+package org.example;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// SPARQL over the triples vs the same named query answered from CatalogViews.
+// 21000000 triples is about a million synthetic games. The full drains still return
+// most of the catalog for query2 (uniform sales), so the first10 pair is the one that
+// shows the sorted index: the SPARQL has to sort every game before the first row.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx16g" })
+@State(Scope.Benchmark)
+public class AggregateViewBenchmark {
+
+    @Param({"100000", "21000000"})
+    public String triples;
+
+    @Param({"query1", "query2", "query5", "query6"})
+    public String queryName;
+
+    private Model model;
+    private QueryRegistry registry;
+    private CatalogViews views;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Model base = BenchmarkCatalogs.load(triples);
+        model = CatalogReasoning.reasoningModel(base, "hierarchy");
+        registry = new QueryRegistry();
+        views = new CatalogViews(base);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        views.close();
+    }
+
+    @Benchmark
+    public long sparql() {
+        return drain(registry.select(queryName, Map.of(), model), Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long views() {
+        return drain(views.select(queryName, Map.of(), model), Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long sparqlFirst10() {
+        return drain(registry.select(registry.named(queryName), Map.of(), model, 0, 10), Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long viewsFirst10() {
+        return drain(views.select(queryName, Map.of(), model), 10);
+    }
+
+    private static long drain(ResultSet results, long max) {
+        long rows = 0;
+        while (rows < max && results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+// GraphAnalytics on a synthetic catalog of about 10M resource edges by default:
+// projection time, then PageRank (per iteration), components and label propagation at
+// 1, 2, 4, ... up to all cores.
+//
+//   java -Xmx16g -cp target/benchmarks.jar org.example.AnalyticsReport [edges]
+//
+// The projection is fed straight from the generator, no Model in between; a game
+// brings about 7 resource edges (developer, publisher, genre, series, characters, ...).
+public class AnalyticsReport {
+    private static final int EDGES_PER_GAME = 7;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        long triples = edges / EDGES_PER_GAME * SyntheticCatalogGenerator.TRIPLES_PER_GAME;
+
+        long start = System.nanoTime();
+        GraphAnalytics.Builder builder = new GraphAnalytics.Builder(GraphAnalytics.ALL_EDGES);
+        new SyntheticCatalogGenerator(triples, BenchmarkCatalogs.SEED).generate(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                builder.add(triple);
+            }
+        });
+        long generated = System.nanoTime();
+        GraphAnalytics.Projection projection = builder.build();
+        System.out.printf("%,d nodes, %,d edges: generate+collect %d ms, CSR build %d ms%n",
+            projection.nodeCount(), projection.edgeCount(), (generated - start) / 1_000_000,
+            (System.nanoTime() - generated) / 1_000_000);
+
+        System.out.printf("%-8s %16s %14s %16s%n", "threads", "pagerank ms/it", "wcc ms", "labelprop ms");
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+            try (GraphAnalytics analytics = new GraphAnalytics(threads)) {
+                analytics.pageRank(projection, 0.85, 2, 0); // warm up
+                long t = System.nanoTime();
+                analytics.pageRank(projection, 0.85, ITERATIONS, 0);
+                double pageRank = (System.nanoTime() - t) / 1e6 / ITERATIONS;
+                t = System.nanoTime();
+                analytics.components(projection);
+                double wcc = (System.nanoTime() - t) / 1e6;
+                t = System.nanoTime();
+                analytics.communities(projection, 10);
+                double labels = (System.nanoTime() - t) / 1e6;
+                System.out.printf("%-8d %16.1f %14.1f %16.1f%n", threads, pageRank, wcc, labels);
+            }
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
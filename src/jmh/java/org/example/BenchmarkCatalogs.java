@@ -0,0 +1,48 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// shared setup for the JMH benchmarks
+// "ps2" means the hand-written catalog from ResearchGraphWithReasoning,
+// anything else is a triple budget for SyntheticCatalogGenerator
+class BenchmarkCatalogs {
+    static final long SEED = 42;
+
+    static Model load(String size) {
+        if ("ps2".equals(size)) {
+            return ResearchGraphWithReasoning.buildBaseModel();
+        }
+        return new SyntheticCatalogGenerator(Long.parseLong(size), SEED).generateModel();
+    }
+
+    // writes the catalog to a temp Turtle file so parse benchmarks read from disk
+    static File writeTurtle(String size) throws IOException {
+        File file = File.createTempFile("catalog-" + size + "-", ".ttl");
+        file.deleteOnExit();
+        if ("ps2".equals(size)) {
+            try (OutputStream out = new FileOutputStream(file)) {
+                load(size).write(out, "TURTLE");
+            }
+        } else {
+            new SyntheticCatalogGenerator(Long.parseLong(size), SEED).writeTurtle(file.getPath());
+        }
+        return file;
+    }
+
+    static File writeNTriples(String size) throws IOException {
+        File file = File.createTempFile("catalog-" + size + "-", ".nt");
+        file.deleteOnExit();
+        if ("ps2".equals(size)) {
+            try (OutputStream out = new FileOutputStream(file)) {
+                load(size).write(out, "N-TRIPLES");
+            }
+        } else {
+            new SyntheticCatalogGenerator(Long.parseLong(size), SEED).writeNTriples(file.getPath());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// The same synthetic games built the way ResearchGraphWithReasoning does it
+// (createResource().addProperty(...) chains) and through CatalogBuilder.
+// Run with -prof gc for the allocation rate (gc.alloc.rate.norm is bytes per build):
+//   java -jar target/benchmarks.jar CatalogBuilderBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogBuilderBenchmark {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    @Param({"10000", "100000"})
+    public int games;
+
+    @Benchmark
+    public long modelApi() {
+        Model model = ModelFactory.createDefaultModel();
+        Property hasTitle = model.createProperty(NS + "hasTitle");
+        Property developedBy = model.createProperty(NS + "developedBy");
+        Property hasGenre = model.createProperty(NS + "hasGenre");
+        Property releasedIn = model.createProperty(NS + "releasedIn");
+        Property hasRating = model.createProperty(NS + "hasRating");
+        Property hasSalesCount = model.createProperty(NS + "hasSalesCount");
+        Property hasMetacriticScore = model.createProperty(NS + "hasMetacriticScore");
+        Property partOfSeries = model.createProperty(NS + "partOfSeries");
+        Property hasLocation = model.createProperty(NS + "hasLocation");
+        Property hasMultiplayer = model.createProperty(NS + "hasMultiplayer");
+        Resource rpg = model.createResource(NS + "RPG");
+        for (int i = 0; i < games; i++) {
+            model.createResource(NS + "Game" + i)
+                .addProperty(RDF.type, rpg)
+                .addProperty(hasTitle, "Game Title " + i)
+                .addProperty(developedBy, model.createResource(NS + "Developer" + (i % 500)))
+                .addProperty(hasGenre, model.createResource(NS + "RPGGenre"))
+                .addProperty(releasedIn, Integer.toString(2000 + i % 14), XSDDatatype.XSDgYear)
+                .addProperty(hasRating, (5 + i % 5) + ".5", XSDDatatype.XSDdecimal)
+                .addProperty(hasSalesCount, Integer.toString(10000 + i), XSDDatatype.XSDint)
+                .addProperty(hasMetacriticScore, Integer.toString(40 + i % 60), XSDDatatype.XSDint)
+                .addProperty(partOfSeries, model.createResource(NS + "Series" + (i % 1000)))
+                .addProperty(hasLocation, "Location " + (i % 500))
+                .addProperty(hasMultiplayer, "No");
+        }
+        return model.size();
+    }
+
+    @Benchmark
+    public long builder() {
+        Model model = ModelFactory.createDefaultModel();
+        try (CatalogBuilder builder = new CatalogBuilder(model)) {
+            for (int i = 0; i < games; i++) {
+                builder.add(new CatalogBuilder.Game("Game" + i)
+                    .type("RPG")
+                    .title("Game Title " + i)
+                    .developer("Developer" + (i % 500))
+                    .genre("RPGGenre")
+                    .year(2000 + i % 14)
+                    .rating((5 + i % 5) + ".5")
+                    .sales(10000 + i)
+                    .score(40 + i % 60)
+                    .series("Series" + (i % 1000))
+                    .location("Location " + (i % 500))
+                    .multiplayer(false));
+            }
+        }
+        return model.size();
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.openjdk.jmh.annotations.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Stage 1: how long does it take to parse the catalog from Turtle / N-Triples,
+// serially and with ParallelCatalogLoader?
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogLoadBenchmark {
+
+    @Param({"ps2", "10000", "100000", "1000000", "10000000"})
+    public String triples;
+
+    private File turtleFile;
+    private File ntriplesFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        turtleFile = BenchmarkCatalogs.writeTurtle(triples);
+        ntriplesFile = BenchmarkCatalogs.writeNTriples(triples);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        turtleFile.delete();
+        ntriplesFile.delete();
+    }
+
+    @Benchmark
+    public long parseTurtle() {
+        Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, turtleFile.getPath());
+        return model.size();
+    }
+
+    @Benchmark
+    public long parseNTriples() {
+        Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, ntriplesFile.getPath());
+        return model.size();
+    }
+
+    @Benchmark
+    public long parallelNTriples() {
+        Model model = ModelFactory.createDefaultModel();
+        new ParallelCatalogLoader().load(ntriplesFile.getPath(), model);
+        return model.size();
+    }
+
+    // Turtle still parses on one thread, but off the inserting thread
+    @Benchmark
+    public long pipelinedTurtle() {
+        Model model = ModelFactory.createDefaultModel();
+        new ParallelCatalogLoader().load(turtleFile.getPath(), model);
+        return model.size();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Stage 3: throughput and latency distribution of each of the eight catalog queries
+// against a warmed-up reasoning model, like main() runs them
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogQueryBenchmark {
+
+    @Param({"ps2", "10000", "100000", "1000000", "10000000"})
+    public String triples;
+
+    @Param({"query1", "query2", "query3", "query4", "query5", "query6", "query7", "query8"})
+    public String queryName;
+
+    // see CatalogReasoning for what each one does
+    @Param({"rdfs", "materialized", "incremental", "hierarchy"})
+    public String reasoner;
+
+    private Model infModel;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Model baseModel = BenchmarkCatalogs.load(triples);
+        if ("materialized".equals(reasoner)) {
+            // computed here rather than through the closure file, which belongs to one catalog
+            infModel = MaterializedClosure.withClosure(baseModel, MaterializedClosure.materialize(baseModel));
+        } else {
+            infModel = CatalogReasoning.reasoningModel(baseModel, reasoner);
+        }
+        if (infModel instanceof InfModel) {
+            ((InfModel) infModel).prepare();
+        }
+        query = QueryFactory.create(CatalogQueries.get(queryName));
+    }
+
+    @Benchmark
+    public long runQuery() {
+        long rows = 0;
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, infModel)) {
+            ResultSet results = qexec.execSelect();
+            while (results.hasNext()) {
+                results.next();
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
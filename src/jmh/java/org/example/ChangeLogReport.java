@@ -0,0 +1,90 @@
+package org.example;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDF;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Replica catch-up through CatalogChangeLog: for N = 1k, 10k, 100k, 1M changes on the
+// primary, how long a replica that was current before them takes to replay the tail
+// (and at how many changes per second), against bootstrapping a new replica from a
+// fresh snapshot. After each round the replica's base model and inferred Query 1 are
+// checked against the primary.
+//
+//   java -Xmx8g -cp target/benchmarks.jar org.example.ChangeLogReport [catalogTriples] [maxChanges]
+public class ChangeLogReport {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public static void main(String[] args) throws IOException {
+        long triples = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long maxChanges = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+
+        Model primary = new SyntheticCatalogGenerator(triples, BenchmarkCatalogs.SEED).generateModel();
+        Path dir = Files.createTempDirectory("changelog");
+        System.out.printf("%-10s %12s %14s %16s %14s %11s%n",
+            "changes", "log ms", "replay ms", "replay changes/s", "bootstrap ms", "consistent");
+        long next = 0;
+        try (CatalogChangeLog log = new CatalogChangeLog(primary, dir, Long.MAX_VALUE)) {
+            for (long n = 1_000; n <= maxChanges; n *= 10) {
+                CatalogChangeLog.Replica replica = new CatalogChangeLog.Replica(dir, "hierarchy");
+
+                long start = System.nanoTime();
+                next = change(primary, next, n);
+                log.flush();
+                double logMs = (System.nanoTime() - start) / 1e6;
+
+                start = System.nanoTime();
+                long replayed = replica.catchUp();
+                double replayMs = (System.nanoTime() - start) / 1e6;
+
+                // what a brand new replica would do instead: compact, then load the snapshot
+                log.snapshot();
+                start = System.nanoTime();
+                CatalogChangeLog.Replica fresh = new CatalogChangeLog.Replica(dir, "hierarchy");
+                double bootstrapMs = (System.nanoTime() - start) / 1e6;
+
+                boolean consistent = replica.base().isIsomorphicWith(primary)
+                    && rows(replica.inferred()) == rows(CatalogReasoning.reasoningModel(primary, "hierarchy"))
+                    && fresh.base().size() == primary.size();
+                System.out.printf("%-10d %12.1f %14.1f %16.0f %14.1f %11s%n", n, logMs, replayMs,
+                    replayed / (replayMs / 1000), bootstrapMs, consistent);
+            }
+        }
+    }
+
+    // n changes: new games (type, then title), every fifth change deleting the triple
+    // added just before it
+    private static long change(Model model, long next, long n) {
+        Node rpg = NodeFactory.createURI(NS + "RPG");
+        Node title = NodeFactory.createURI(NS + "hasTitle");
+        Triple last = null;
+        for (long i = 0; i < n; i++) {
+            if (i % 5 == 4 && last != null) {
+                model.remove(model.asStatement(last));
+                continue;
+            }
+            Node game = NodeFactory.createURI(NS + "ReplayGame" + (next / 2));
+            last = next % 2 == 0 ? Triple.create(game, RDF.type.asNode(), rpg)
+                : Triple.create(game, title, NodeFactory.createLiteral("Replay Game " + next));
+            model.add(model.asStatement(last));
+            next++;
+        }
+        return next;
+    }
+
+    private static long rows(Model model) {
+        ResultSet results = new QueryRegistry().select("query1", Map.of(), model);
+        long rows = 0;
+        while (results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
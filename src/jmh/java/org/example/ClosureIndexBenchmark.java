@@ -0,0 +1,96 @@
+package org.example;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// isSequelOf+ as a property path vs fn:sequelOf from ClosureIndex, on `chains`
+// synthetic franchises of `length` sequels each (Chain3Game0 <- Chain3Game1 <- ...).
+// descendants asks from the first game down, ancestors from the last game up, and
+// update adds and removes one sequel at the end of a chain (two relabels of it).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClosureIndexBenchmark {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final String PREFIXES = "PREFIX ps2: <" + NS + "> PREFIX fn: <" + ClosureIndex.FN + "> ";
+
+    @Param({"100", "1000", "10000"})
+    public int length;
+
+    @Param({"10"})
+    public int chains;
+
+    private Model model;
+    private Property isSequelOf;
+    private Resource first;
+    private Resource last;
+    private Resource extra;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = ModelFactory.createDefaultModel();
+        isSequelOf = model.createProperty(NS + "isSequelOf");
+        for (int c = 0; c < chains; c++) {
+            for (int i = 1; i < length; i++) {
+                model.add(game(c, i), isSequelOf, game(c, i - 1));
+            }
+        }
+        first = game(0, 0);
+        last = game(0, length - 1);
+        extra = model.createResource(NS + "ExtraSequel");
+        new ClosureIndex(model, ClosureIndex.IS_SEQUEL_OF).register(ClosureIndex.FN + "sequelOf");
+    }
+
+    private Resource game(int chain, int i) {
+        return model.createResource(NS + "Chain" + chain + "Game" + i);
+    }
+
+    @Benchmark
+    public long pathDescendants() {
+        return count("SELECT ?g { ?g ps2:isSequelOf+ <" + first.getURI() + "> }");
+    }
+
+    @Benchmark
+    public long indexDescendants() {
+        return count("SELECT ?g { ?g fn:sequelOf <" + first.getURI() + "> }");
+    }
+
+    @Benchmark
+    public long pathAncestors() {
+        return count("SELECT ?g { <" + last.getURI() + "> ps2:isSequelOf+ ?g }");
+    }
+
+    @Benchmark
+    public long indexAncestors() {
+        return count("SELECT ?g { <" + last.getURI() + "> fn:sequelOf ?g }");
+    }
+
+    @Benchmark
+    public long update() {
+        model.add(extra, isSequelOf, last);
+        model.remove(extra, isSequelOf, last);
+        return model.size();
+    }
+
+    private long count(String query) {
+        try (QueryExecution qexec = QueryExecutionFactory.create(PREFIXES + query, model)) {
+            ResultSet results = qexec.execSelect();
+            long rows = 0;
+            while (results.hasNext()) {
+                results.next();
+                rows++;
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Old exporter (node lines repeated per statement, lookups per statement) vs the
+// streaming one that declares every node once. Each trial also prints the size of
+// the .dot file each one produces, since that is half the point.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DotExportBenchmark {
+
+    @Param({"ps2", "100000", "1000000"})
+    public String triples;
+
+    private Model model;
+    private File legacyFile;
+    private File streamingFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        model = BenchmarkCatalogs.load(triples);
+        legacyFile = File.createTempFile("legacy-", ".dot");
+        streamingFile = File.createTempFile("streaming-", ".dot");
+        legacyFile.deleteOnExit();
+        streamingFile.deleteOnExit();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSizes() {
+        System.out.printf("%n[%s triples] legacy .dot %,d bytes, streaming .dot %,d bytes%n",
+            triples, legacyFile.length(), streamingFile.length());
+    }
+
+    @Benchmark
+    public long legacy() {
+        LegacyDotExporter.exportToDot(model, legacyFile.getPath());
+        return legacyFile.length();
+    }
+
+    @Benchmark
+    public long streaming() {
+        GraphVizExporter.exportToDot(model, streamingFile.getPath());
+        return streamingFile.length();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Catalog query latency on the default graph vs EncodedGraph (on and off heap), with
+// the hierarchy reasoner on top so the graph lookups dominate. For bytes per triple
+// see GraphMemoryReport - JMH isn't the right tool for heap sizes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodedGraphBenchmark {
+
+    @Param({"100000", "1000000"})
+    public String triples;
+
+    @Param({"default", "encoded", "encoded-offheap"})
+    public String graph;
+
+    @Param({"query1", "query2", "query4", "query6"})
+    public String queryName;
+
+    private Model model;
+    private QueryRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Model base = new SyntheticCatalogGenerator(Long.parseLong(triples), BenchmarkCatalogs.SEED)
+            .generateModel(CatalogGraphs.createModel(graph));
+        model = CatalogReasoning.reasoningModel(base, "hierarchy");
+        registry = new QueryRegistry();
+    }
+
+    @Benchmark
+    public long query() {
+        ResultSet results = registry.select(queryName, Map.of(), model);
+        long rows = 0;
+        while (results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
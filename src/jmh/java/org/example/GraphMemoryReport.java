@@ -0,0 +1,49 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+// Heap (and direct memory) per triple for each -Dps2.graph kind. One JVM per run so
+// nothing else is lying around on the heap:
+//   java -cp target/benchmarks.jar org.example.GraphMemoryReport default         10000000
+//   java -cp target/benchmarks.jar org.example.GraphMemoryReport encoded         10000000
+//   java -cp target/benchmarks.jar org.example.GraphMemoryReport encoded-offheap 10000000
+public class GraphMemoryReport {
+
+    public static void main(String[] args) {
+        String kind = args.length > 0 ? args[0] : "default";
+        long triples = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        long start = System.nanoTime();
+        Model model = new SyntheticCatalogGenerator(triples, BenchmarkCatalogs.SEED)
+            .generateModel(CatalogGraphs.createModel(kind));
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        long size = model.size();
+
+        System.out.printf("%-16s triples=%d build=%d ms heap=%d MB (%.1f B/triple) direct=%d MB (%.1f B/triple)%n",
+            kind, size, buildMillis, heap / (1024 * 1024), (double) heap / size,
+            direct / (1024 * 1024), (double) direct / size);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.*;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.vocabulary.RDF;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Ingest one game and immediately ask for all games, the way our continuous
+// ingestion looks: incremental maintenance vs re-creating the RDFS InfModel
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncrementalReasoningBenchmark {
+    private static final String COUNT_GAMES =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT (COUNT(?game) AS ?games) WHERE { ?game a ps2:Game }";
+
+    @Param({"10000", "100000", "1000000"})
+    public String triples;
+
+    private Model baseModel;
+    private IncrementalTypeReasoner reasoner;
+    private Model incremental;
+    private long next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        baseModel = BenchmarkCatalogs.load(triples);
+    }
+
+    @Benchmark
+    public long incrementalAddAndQuery() {
+        // attached on first use (during warm-up) so the recompute benchmark never
+        // pays for the listener
+        if (reasoner == null) {
+            reasoner = new IncrementalTypeReasoner(baseModel);
+            incremental = reasoner.model();
+        }
+        Resource game = addGame();
+        long count = countGames(incremental);
+        baseModel.remove(game.listProperties().toList());
+        return count;
+    }
+
+    @Benchmark
+    public long recomputeAddAndQuery() {
+        Resource game = addGame();
+        InfModel infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSReasoner(), baseModel);
+        long count = countGames(infModel);
+        baseModel.remove(game.listProperties().toList());
+        return count;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (reasoner != null) {
+            reasoner.close();
+        }
+    }
+
+    private Resource addGame() {
+        String ns = ResearchGraphWithReasoning.NS;
+        return baseModel.createResource(ns + "IngestedGame" + (next++))
+            .addProperty(RDF.type, baseModel.createResource(ns + "RPG"))
+            .addProperty(baseModel.createProperty(ns + "hasTitle"), "Ingested Game")
+            .addProperty(baseModel.createProperty(ns + "hasRating"), "8.5", XSDDatatype.XSDdecimal);
+    }
+
+    private static long countGames(Model model) {
+        try (QueryExecution qexec = QueryExecutionFactory.create(COUNT_GAMES, model)) {
+            return qexec.execSelect().next().getLiteral("games").getLong();
+        }
+    }
+}
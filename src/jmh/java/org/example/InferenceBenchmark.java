@@ -0,0 +1,36 @@
+package org.example;
+
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Stage 2: cost of createInfModel plus the forward pass of the RDFS reasoner
+// (prepare() is what the first query would otherwise pay for)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InferenceBenchmark {
+
+    @Param({"ps2", "10000", "100000", "1000000", "10000000"})
+    public String triples;
+
+    private Model baseModel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        baseModel = BenchmarkCatalogs.load(triples);
+    }
+
+    @Benchmark
+    public InfModel createInfModelWarmUp() {
+        InfModel infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSReasoner(), baseModel);
+        infModel.prepare();
+        return infModel;
+    }
+}
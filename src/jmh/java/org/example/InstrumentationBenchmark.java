@@ -0,0 +1,58 @@
+package org.example;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// What QueryMetrics costs per query: the same cached plan run with -Dps2.metrics
+// off / basic / detailed. basic should be within noise of off; detailed pays for the
+// lookup-counting graph wrapper and is only meant for chasing a specific query.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    @Param({"ps2", "10000"})
+    public String triples;
+
+    @Param({"query2", "query3", "query6"})
+    public String queryName;
+
+    @Param({"off", "basic", "detailed"})
+    public String metrics;
+
+    private Model model;
+    private QueryRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        QueryMetrics.setLevel(QueryMetrics.Level.valueOf(metrics.toUpperCase()));
+        QueryMetrics.setSlowQueryMillis(Long.MAX_VALUE / 1_000_000); // keep the log out of the numbers
+        model = CatalogReasoning.reasoningModel(BenchmarkCatalogs.load(triples), "hierarchy");
+        registry = new QueryRegistry();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        if (QueryMetrics.level() != QueryMetrics.Level.OFF) {
+            System.out.println(queryName + " (" + metrics + "): " + QueryMetrics.stats(queryName));
+        }
+        QueryMetrics.setLevel(QueryMetrics.Level.BASIC);
+    }
+
+    @Benchmark
+    public long select() {
+        ResultSet results = registry.select(queryName, Map.of(), model);
+        long rows = 0;
+        while (results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
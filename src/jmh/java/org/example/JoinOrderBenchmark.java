@@ -0,0 +1,57 @@
+package org.example;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The multi-pattern queries in ARQ's plan vs the one StatsOptimizer picks from the
+// catalog statistics. setup() prints the chosen plan with estimated vs actual rows, so
+// the timings can be read against it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JoinOrderBenchmark {
+
+    @Param({"ps2", "100000"})
+    public String triples;
+
+    @Param({"query3", "query4", "query6", "query8"})
+    public String queryName;
+
+    private Model model;
+    private QueryRegistry arq;
+    private QueryRegistry stats;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = CatalogReasoning.reasoningModel(BenchmarkCatalogs.load(triples), "hierarchy");
+        arq = new QueryRegistry();
+        stats = new QueryRegistry();
+        stats.setOptimizer(new StatsOptimizer(CatalogStatistics.collect(model.getGraph())));
+        System.out.print(stats.explain(stats.named(queryName), Map.of(), model));
+    }
+
+    @Benchmark
+    public long arqOrder() {
+        return drain(arq.select(queryName, Map.of(), model));
+    }
+
+    @Benchmark
+    public long statisticsOrder() {
+        return drain(stats.select(queryName, Map.of(), model));
+    }
+
+    private static long drain(ResultSet results) {
+        long rows = 0;
+        while (results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example;
+
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Re-parsing each call (what runQuery used to do) vs reusing the cached plan from
+// QueryRegistry with the threshold passed as a parameter. Small catalogs show the
+// parse/optimise overhead best, since execution is cheap there.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryRegistryBenchmark {
+
+    @Param({"ps2", "10000"})
+    public String triples;
+
+    @Param({"query2", "query3", "query6"})
+    public String queryName;
+
+    private Model model;
+    private QueryRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = CatalogReasoning.reasoningModel(BenchmarkCatalogs.load(triples), "hierarchy");
+        registry = new QueryRegistry();
+    }
+
+    @Benchmark
+    public long parseEveryCall() {
+        Query query = QueryFactory.create(CatalogQueries.get(queryName));
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, model)) {
+            return drain(qexec.execSelect());
+        }
+    }
+
+    @Benchmark
+    public long cachedPlan() {
+        return drain(registry.select(queryName, Map.of(), model));
+    }
+
+    private static long drain(ResultSet results) {
+        long rows = 0;
+        while (results.hasNext()) {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
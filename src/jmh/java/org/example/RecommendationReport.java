@@ -0,0 +1,103 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFBase;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// GameRecommender on a synthetic catalog (a million games by default): build time,
+// lookup latency, recall@k against the exact full scan, and the cost of games added
+// one at a time afterwards.
+//
+//   java -Xmx16g -cp target/benchmarks.jar org.example.RecommendationReport [games] [lookups] [recallSamples]
+//
+// Only the triples the recommender reads are kept, so a million games fit comfortably.
+// Recall counts ties as hits: a match scoring at least the exact k-th best is as good.
+public class RecommendationReport {
+    private static final int K = 10;
+    private static final Set<String> KEPT = Set.of("hasGenre", "developedBy", "partOfSeries", "wonAward", "hasRating");
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int recallSamples = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Model model = ModelFactory.createDefaultModel();
+        Graph graph = model.getGraph();
+        long start = System.nanoTime();
+        new SyntheticCatalogGenerator(games * SyntheticCatalogGenerator.TRIPLES_PER_GAME, BenchmarkCatalogs.SEED)
+            .generate(new StreamRDFBase() {
+                @Override
+                public void triple(Triple triple) {
+                    if (KEPT.contains(triple.getPredicate().getLocalName())) {
+                        graph.add(triple);
+                    }
+                }
+            });
+        System.out.printf("Generated %,d feature triples for %,d games in %d ms%n", graph.size(), games,
+            (System.nanoTime() - start) / 1_000_000);
+
+        start = System.nanoTime();
+        GameRecommender recommender = new GameRecommender(model);
+        System.out.printf("Indexed %,d games in %d ms%n", recommender.size(), (System.nanoTime() - start) / 1_000_000);
+
+        Random random = new Random(BenchmarkCatalogs.SEED);
+        // warm up, then time
+        for (int i = 0; i < Math.min(lookups, 2_000); i++) {
+            recommender.similar(game(random.nextLong(games)), K);
+        }
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            Node game = game(random.nextLong(games));
+            long t = System.nanoTime();
+            recommender.similar(game, K);
+            latencies[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("similar(k=%d): p50 %.3f ms, p99 %.3f ms, max %.3f ms over %,d lookups%n", K,
+            latencies[lookups / 2] / 1e6, latencies[(int) (lookups * 0.99)] / 1e6, latencies[lookups - 1] / 1e6, lookups);
+
+        long found = 0;
+        long expected = 0;
+        long scanNanos = 0;
+        for (int i = 0; i < recallSamples; i++) {
+            List<Node> liked = List.of(game(random.nextLong(games)));
+            long t = System.nanoTime();
+            List<GameRecommender.Match> exact = recommender.exact(liked, K);
+            scanNanos += System.nanoTime() - t;
+            if (exact.isEmpty()) {
+                continue;
+            }
+            double kth = exact.get(exact.size() - 1).similarity();
+            expected += exact.size();
+            found += recommender.recommend(liked, K).stream().filter(m -> m.similarity() >= kth).count();
+        }
+        System.out.printf("recall@%d: %.3f over %d games (exact scan %.1f ms per lookup)%n", K,
+            expected == 0 ? 1.0 : (double) found / expected, recallSamples, scanNanos / 1e6 / recallSamples);
+
+        // new games one by one, each looked up straight away so it is re-indexed
+        int added = 10_000;
+        Node genre = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "ActionGenre");
+        start = System.nanoTime();
+        for (int i = 0; i < added; i++) {
+            Node game = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "NewGame" + i);
+            model.add(model.asStatement(Triple.create(game, CatalogViews.HAS_GENRE, genre)));
+            model.add(model.asStatement(Triple.create(game, CatalogViews.DEVELOPED_BY,
+                NodeFactory.createURI(ResearchGraphWithReasoning.NS + "Developer" + random.nextInt(1000)))));
+            recommender.similar(game, K);
+        }
+        System.out.printf("added %,d games at %.1f us each (add + re-index + lookup)%n", added,
+            (System.nanoTime() - start) / 1e3 / added);
+    }
+
+    private static Node game(long i) {
+        return NodeFactory.createURI(ResearchGraphWithReasoning.NS + "Game" + i);
+    }
+}
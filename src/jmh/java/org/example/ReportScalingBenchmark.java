@@ -0,0 +1,52 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A nightly-report sized batch (the eight catalog queries `repeat` times over) through
+// ReportRunner with 1, 2, 4 ... threads. Time per batch should drop close to 1/threads
+// until the cores (or memory bandwidth) run out.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportScalingBenchmark {
+
+    @Param({"100000"})
+    public String triples;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"25"})
+    public int repeat;
+
+    private Model model;
+    private ReportRunner runner;
+    private List<ReportRunner.Request> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = ReportRunner.readSafe(CatalogReasoning.reasoningModel(BenchmarkCatalogs.load(triples), "hierarchy"));
+        runner = new ReportRunner(threads);
+        batch = new ArrayList<>();
+        for (int i = 0; i < repeat; i++) {
+            batch.addAll(ReportRunner.requests(CatalogQueries.all().keySet()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        runner.close();
+    }
+
+    @Benchmark
+    public int batch() {
+        return runner.run(batch, model).size();
+    }
+}
@@ -0,0 +1,154 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load on CatalogServer: N client threads each fire the eight catalog
+// queries back to back for a fixed time, at N = 1, 2, 4, ... maxConcurrency, and we
+// print throughput and p50 / p99 / max latency per level.
+//
+//   java -cp target/benchmarks.jar org.example.ServerLoadReport [url] [seconds] [maxConcurrency] [writeEveryMs]
+//
+// Without a url (or with "embedded") it starts a server on a 100k-triple synthetic
+// catalog itself. writeEveryMs > 0 adds a writer that publishes a new snapshot that
+// often, to check readers don't notice.
+public class ServerLoadReport {
+    private static final String[] QUERIES = {
+        "query1", "query2", "query3", "query4", "query5", "query6", "query7", "query8"
+    };
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "embedded";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int maxConcurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long writeEveryMs = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        CatalogServer embedded = null;
+        if ("embedded".equals(url)) {
+            CatalogSnapshots snapshots = new CatalogSnapshots(
+                new SyntheticCatalogGenerator(100_000, BenchmarkCatalogs.SEED).generateModel());
+            // the writer needs /update, which is off unless asked for
+            embedded = new CatalogServer(snapshots, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                maxConcurrency, writeEveryMs > 0);
+            embedded.start();
+            url = embedded.url();
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Thread writer = writeEveryMs > 0 ? startWriter(client, url, writeEveryMs) : null;
+
+        // one short pass first so the JIT and the plan cache are warm
+        run(client, url, Math.min(4, maxConcurrency), 2);
+        System.out.printf("%-12s %12s %10s %10s %10s %8s%n", "concurrency", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (int concurrency = 1; concurrency <= maxConcurrency; concurrency *= 2) {
+            Result result = run(client, url, concurrency, seconds);
+            System.out.printf("%-12d %12.0f %10.2f %10.2f %10.2f %8d%n", concurrency,
+                result.latencies.length / (double) seconds,
+                percentile(result.latencies, 50), percentile(result.latencies, 99),
+                percentile(result.latencies, 100), result.errors);
+        }
+
+        if (writer != null) {
+            writer.interrupt();
+        }
+        if (embedded != null) {
+            embedded.stop();
+        }
+    }
+
+    private static class Result {
+        final long[] latencies;
+        final long errors;
+
+        Result(long[] latencies, long errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+    }
+
+    private static Result run(HttpClient client, String url, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < concurrency; t++) {
+            int offset = t;
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[1024];
+                int n = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(url + "/query/" + QUERIES[i % QUERIES.length] + "?format=tsv")).build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (n == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, n * 2);
+                    }
+                    latencies[n++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, n);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] part = future.get();
+            int before = all.length;
+            all = Arrays.copyOf(all, before + part.length);
+            System.arraycopy(part, 0, all, before, part.length);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    // adds one made-up game per round, each one a new snapshot
+    private static Thread startWriter(HttpClient client, String url, long everyMs) {
+        Thread writer = new Thread(() -> {
+            for (long i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                String update = "PREFIX ps2: <" + ResearchGraphWithReasoning.NS + ">\n"
+                    + "INSERT DATA { ps2:LoadTestGame" + i + " a ps2:ActionGame ; ps2:hasTitle \"Load Test " + i + "\" }";
+                try {
+                    client.send(HttpRequest.newBuilder(URI.create(url + "/update"))
+                        .POST(HttpRequest.BodyPublishers.ofString(update)).build(), HttpResponse.BodyHandlers.discarding());
+                    Thread.sleep(everyMs);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Update failed: " + e.getMessage());
+                }
+            }
+        }, "snapshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return writer;
+    }
+}
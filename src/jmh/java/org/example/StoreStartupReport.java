@@ -0,0 +1,82 @@
+package org.example;
+
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.riot.RDFDataMgr;
+import java.io.File;
+import java.io.IOException;
+
+// Startup time and heap footprint of the in-memory path vs the TDB2 store.
+// Each mode should run in its own JVM so nothing is already cached:
+//   java -cp target/benchmarks.jar org.example.StoreStartupReport memory    1000000
+//   java -cp target/benchmarks.jar org.example.StoreStartupReport tdb2-load 1000000
+//   java -cp target/benchmarks.jar org.example.StoreStartupReport tdb2-open 1000000
+// "startup" means: catalog available and the first catalog query answered.
+public class StoreStartupReport {
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "memory";
+        long triples = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        String catalogFile = "synthetic_catalog_" + triples + ".ttl";
+        String directory = "ps2_catalog_tdb2_" + triples;
+
+        if (!new File(catalogFile).exists()) {
+            new SyntheticCatalogGenerator(triples, BenchmarkCatalogs.SEED).writeTurtle(catalogFile);
+        }
+
+        long start = System.nanoTime();
+        long rows;
+        switch (mode) {
+            case "memory": {
+                Model model = ModelFactory.createDefaultModel();
+                RDFDataMgr.read(model, catalogFile);
+                rows = firstQuery(model);
+                break;
+            }
+            case "tdb2-load":
+            case "tdb2-open": {
+                if ("tdb2-load".equals(mode)) {
+                    deleteDirectory(new File(directory));
+                }
+                Dataset dataset = CatalogStore.open(directory, catalogFile);
+                rows = dataset.calculateRead(() -> firstQuery(dataset.getDefaultModel()));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("mode must be memory, tdb2-load or tdb2-open");
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.printf("%-10s triples=%d startup=%d ms heap=%d MB (query1 rows=%d)%n",
+            mode, triples, millis, heapMb, rows);
+    }
+
+    private static long firstQuery(Model baseModel) {
+        InfModel infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSReasoner(), baseModel);
+        long rows = 0;
+        try (QueryExecution qexec = QueryExecutionFactory.create(CatalogQueries.QUERY_1, infModel)) {
+            ResultSet results = qexec.execSelect();
+            while (results.hasNext()) {
+                results.next();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void deleteDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                deleteDirectory(file);
+            }
+        }
+        directory.delete();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.system.Txn;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Title / location search through the Lucene index vs the FILTER scans we'd write
+// without it. 21000000 triples is about a million synthetic titles ("Game Title 123456").
+// There is no FILTER that does a fuzzy match, so fuzzyIndex is measured against the
+// case-insensitive CONTAINS scan, which is the cheapest thing SPARQL could do instead.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextSearchBenchmark {
+    private static final String PREFIXES =
+        "PREFIX ps2: <http://example.org/ps2games#> PREFIX text: <" + CatalogTextIndex.TEXT_NS + "> ";
+
+    @Param({"100000", "21000000"})
+    public String triples;
+
+    private Dataset text;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        text = CatalogTextIndex.inMemory(BenchmarkCatalogs.load(triples));
+    }
+
+    @Benchmark
+    public long prefixIndex() {
+        return count("SELECT ?game ?title { (?game ?score ?title) text:query (ps2:hasTitle \"1234*\" 1000) }");
+    }
+
+    @Benchmark
+    public long prefixFilter() {
+        return count("SELECT ?game ?title { ?game ps2:hasTitle ?title FILTER(REGEX(?title, \"\\\\b1234\")) }");
+    }
+
+    @Benchmark
+    public long fuzzyIndex() {
+        return count("SELECT ?game ?title { (?game ?score ?title) text:query (ps2:hasTitle \"12354~1\" 1000) }");
+    }
+
+    @Benchmark
+    public long containsFilter() {
+        return count("SELECT ?game ?title { ?game ps2:hasTitle ?title FILTER(CONTAINS(LCASE(?title), \"12345\")) }");
+    }
+
+    @Benchmark
+    public long query3Index() {
+        return CatalogTextIndex.query3(text, Map.of()).size();
+    }
+
+    @Benchmark
+    public long query3Filter() {
+        return count(CatalogQueries.get("query3").replace("PREFIX ps2: <http://example.org/ps2games#> ", ""));
+    }
+
+    private long count(String query) {
+        return Txn.calculateRead(text, () -> {
+            try (QueryExecution qexec = QueryExecutionFactory.create(PREFIXES + query, text)) {
+                ResultSet results = qexec.execSelect();
+                long rows = 0;
+                while (results.hasNext()) {
+                    results.next();
+                    rows++;
+                }
+                return rows;
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+// TiledGraphExporter on a synthetic catalog (100k games by default, several times that in
+// nodes): layout time, export time and heap, then per level how many tiles were written
+// and how big they get - the viewer draws at most 12 tiles at once, so the largest tile
+// bounds what one frame has to fetch and draw however big the catalog is.
+//
+//   java -Xmx8g -cp target/benchmarks.jar org.example.TileExportReport [games]
+public class TileExportReport {
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Model model = new SyntheticCatalogGenerator(games * SyntheticCatalogGenerator.TRIPLES_PER_GAME,
+            BenchmarkCatalogs.SEED).generateModel();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long modelHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        TiledGraphExporter exporter = new TiledGraphExporter(model.getGraph());
+        double layoutMs = (System.nanoTime() - start) / 1e6;
+        long layoutHeap = runtime.totalMemory() - runtime.freeMemory() - modelHeap;
+
+        Path directory = Files.createTempDirectory("tiles");
+        start = System.nanoTime();
+        int tiles = exporter.export(directory);
+        double exportMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%,d nodes, %,d edges: layout %.0f ms (~%,d MB over the model), %,d tiles in %.0f ms%n",
+            exporter.nodeCount(), exporter.edgeCount(), layoutMs, layoutHeap >> 20, tiles, exportMs);
+
+        System.out.printf("%-6s %8s %14s %14s %14s%n", "level", "tiles", "total KB", "mean KB", "largest KB");
+        for (int level = 0; level < 3; level++) {
+            try (Stream<Path> files = Files.list(directory.resolve(Integer.toString(level)))) {
+                long[] sizes = files.mapToLong(TileExportReport::size).toArray();
+                long total = 0;
+                long largest = 0;
+                for (long size : sizes) {
+                    total += size;
+                    largest = Math.max(largest, size);
+                }
+                System.out.printf("%-6d %8d %14d %14d %14d%n", level, sizes.length, total >> 10,
+                    sizes.length == 0 ? 0 : (total / sizes.length) >> 10, largest >> 10);
+            }
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.openjdk.jmh.annotations.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Query 1, 2 and 6 against the old all-strings catalog (casting every row with
+// xsd:double / xsd:int) versus the typed catalog comparing natively
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedLiteralBenchmark {
+
+    // the query text as it was before literals were typed
+    private static final Map<String, String> STRING_QUERIES = new HashMap<>();
+
+    static {
+        STRING_QUERIES.put("query1",
+            "PREFIX ps2: <http://example.org/ps2games#> " +
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
+            "SELECT ?title ?type ?rating WHERE { " +
+            "  ?game a ps2:Game . " +
+            "  ?game ps2:hasTitle ?title . " +
+            "  ?game a ?type . " +
+            "  ?game ps2:hasRating ?rating . " +
+            "  FILTER(?type != ps2:Game) " +
+            "} ORDER BY DESC(xsd:double(?rating))");
+        STRING_QUERIES.put("query2",
+            "PREFIX ps2: <http://example.org/ps2games#> " +
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
+            "SELECT ?title ?sales ?developer WHERE { " +
+            "  ?game a ps2:Game . " +
+            "  ?game ps2:hasTitle ?title . " +
+            "  ?game ps2:hasSalesCount ?sales . " +
+            "  ?game ps2:developedBy ?dev . " +
+            "  ?dev ps2:hasName ?developer . " +
+            "  FILTER(xsd:int(?sales) > 5000000) " +
+            "} ORDER BY DESC(xsd:int(?sales))");
+        STRING_QUERIES.put("query6",
+            "PREFIX ps2: <http://example.org/ps2games#> " +
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
+            "SELECT ?title ?score ?year ?genre WHERE { " +
+            "  ?game a ps2:Game . " +
+            "  ?game ps2:hasTitle ?title . " +
+            "  ?game ps2:hasMetacriticScore ?score . " +
+            "  ?game ps2:releasedIn ?year . " +
+            "  ?game ps2:hasGenre ?genreRes . " +
+            "  ?genreRes ps2:hasName ?genre . " +
+            "  FILTER(xsd:int(?score) >= 90) " +
+            "} ORDER BY DESC(xsd:int(?score))");
+    }
+
+    @Param({"10000", "100000", "1000000"})
+    public String triples;
+
+    @Param({"query1", "query2", "query6"})
+    public String queryName;
+
+    @Param({"string", "typed"})
+    public String literals;
+
+    private InfModel infModel;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean typed = "typed".equals(literals);
+        SyntheticCatalogGenerator generator =
+            new SyntheticCatalogGenerator(Long.parseLong(triples), BenchmarkCatalogs.SEED, typed);
+        infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSReasoner(), generator.generateModel());
+        infModel.prepare();
+        query = QueryFactory.create(typed ? CatalogQueries.get(queryName) : STRING_QUERIES.get(queryName));
+    }
+
+    @Benchmark
+    public long runQuery() {
+        long rows = 0;
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, infModel)) {
+            ResultSet results = qexec.execSelect();
+            while (results.hasNext()) {
+                results.next();
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
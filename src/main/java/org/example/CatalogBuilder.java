@@ -0,0 +1,506 @@
+package org.example;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.atlas.json.JsonValue;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.Transactional;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.RDF;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Typed, batched way to build a catalog, for generating or importing big ones.
+//
+// The hand-written catalog goes resource by resource through the Model API: every
+// addProperty makes a Resource, a Property, a Literal and a Statement wrapper and fires
+// a listener event on its own. Here records (Game, Developer, Character, Series,
+// Award) turn straight into Triples, IRIs are made once and reused, and triples are
+// handed to the graph in batches with one bulk add (one event) per batch - inside a
+// write transaction when building into a Dataset such as the TDB2 store.
+//
+// Records can also come from streams: readCsv() takes a header row naming the fields
+// (id,type,title,developer,...) and readJsonLines() one JSON object per line with a
+// "kind" field. Both read a row at a time, so the input can be any size.
+//
+// Literals get the same datatypes LiteralNormalizer gives them.
+public class CatalogBuilder implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node HAS_TITLE = property("hasTitle");
+    private static final Node HAS_NAME = property("hasName");
+    private static final Node DEVELOPED_BY = property("developedBy");
+    private static final Node PUBLISHED_BY = property("publishedBy");
+    private static final Node HAS_GENRE = property("hasGenre");
+    private static final Node RELEASED_IN = property("releasedIn");
+    private static final Node HAS_RATING = property("hasRating");
+    private static final Node HAS_SALES_COUNT = property("hasSalesCount");
+    private static final Node HAS_METACRITIC_SCORE = property("hasMetacriticScore");
+    private static final Node PART_OF_SERIES = property("partOfSeries");
+    private static final Node HAS_PROTAGONIST = property("hasProtagonist");
+    private static final Node HAS_ANTAGONIST = property("hasAntagonist");
+    private static final Node HAS_LOCATION = property("hasLocation");
+    private static final Node SUPPORTS_FEATURE = property("supportsFeature");
+    private static final Node HAS_AGE_RATING = property("hasAgeRating");
+    private static final Node WON_AWARD = property("wonAward");
+    private static final Node IS_SEQUEL_OF = property("isSequelOf");
+    private static final Node HAS_GAMEPLAY_HOURS = property("hasGameplayHours");
+    private static final Node HAS_MULTIPLAYER = property("hasMultiplayer");
+    private static final Node FOUNDED_IN = property("foundedIn");
+    private static final Node HEADQUARTERED_IN = property("headquarteredIn");
+
+    private static Node property(String localName) {
+        return NodeFactory.createURI(NS + localName);
+    }
+
+    // --- records ---
+
+    // common part: an id (local name in the ps2 namespace, or a full IRI) and
+    // field-by-name setting for the CSV / JSON readers
+    public abstract static class Record {
+        final String id;
+
+        Record(String id) {
+            this.id = id;
+        }
+
+        abstract void set(String field, String value);
+
+        abstract void emit(CatalogBuilder builder);
+    }
+
+    public static class Game extends Record {
+        String type = "Game";
+        String title, developer, publisher, genre, year, rating, sales, score, series, sequelOf;
+        String protagonist, antagonist, location, ageRating, gameplayHours, multiplayer;
+        final List<String> awards = new ArrayList<>();
+        final List<String> features = new ArrayList<>();
+
+        public Game(String id) {
+            super(id);
+        }
+
+        // class local name: RPG, ActionGame, PlatformGame ...
+        public Game type(String type) { this.type = type; return this; }
+        public Game title(String title) { this.title = title; return this; }
+        public Game developer(String id) { this.developer = id; return this; }
+        public Game publisher(String id) { this.publisher = id; return this; }
+        public Game genre(String id) { this.genre = id; return this; }
+        public Game year(int year) { this.year = Integer.toString(year); return this; }
+        public Game rating(String rating) { this.rating = rating; return this; }
+        public Game sales(long sales) { this.sales = Long.toString(sales); return this; }
+        public Game score(int score) { this.score = Integer.toString(score); return this; }
+        public Game series(String id) { this.series = id; return this; }
+        public Game sequelOf(String id) { this.sequelOf = id; return this; }
+        public Game protagonist(String id) { this.protagonist = id; return this; }
+        public Game antagonist(String id) { this.antagonist = id; return this; }
+        public Game location(String location) { this.location = location; return this; }
+        public Game ageRating(String ageRating) { this.ageRating = ageRating; return this; }
+        public Game gameplayHours(int hours) { this.gameplayHours = Integer.toString(hours); return this; }
+        public Game multiplayer(boolean multiplayer) { this.multiplayer = multiplayer ? "Yes" : "No"; return this; }
+        public Game award(String id) { awards.add(id); return this; }
+        public Game feature(String id) { features.add(id); return this; }
+
+        @Override
+        void set(String field, String value) {
+            switch (field) {
+                case "type": type = value; break;
+                case "title": title = value; break;
+                case "developer": developer = value; break;
+                case "publisher": publisher = value; break;
+                case "genre": genre = value; break;
+                case "year": year = value; break;
+                case "rating": rating = value; break;
+                case "sales": sales = value; break;
+                case "score": score = value; break;
+                case "series": series = value; break;
+                case "sequelOf": sequelOf = value; break;
+                case "protagonist": protagonist = value; break;
+                case "antagonist": antagonist = value; break;
+                case "location": location = value; break;
+                case "ageRating": ageRating = value; break;
+                case "gameplayHours": gameplayHours = value; break;
+                case "multiplayer": multiplayer = value; break;
+                case "awards": awards.addAll(split(value)); break;
+                case "features": features.addAll(split(value)); break;
+                default: throw new IllegalArgumentException("Unknown game field: " + field);
+            }
+        }
+
+        @Override
+        void emit(CatalogBuilder b) {
+            Node game = b.iri(id);
+            b.add(game, TYPE, b.iri(type));
+            b.literal(game, HAS_TITLE, title);
+            b.resource(game, DEVELOPED_BY, developer);
+            b.resource(game, PUBLISHED_BY, publisher);
+            b.resource(game, HAS_GENRE, genre);
+            b.typed(game, RELEASED_IN, year, XSDDatatype.XSDgYear);
+            b.typed(game, HAS_RATING, rating, XSDDatatype.XSDdecimal);
+            b.typed(game, HAS_SALES_COUNT, sales, XSDDatatype.XSDint);
+            b.typed(game, HAS_METACRITIC_SCORE, score, XSDDatatype.XSDint);
+            b.resource(game, PART_OF_SERIES, series);
+            b.resource(game, IS_SEQUEL_OF, sequelOf);
+            b.resource(game, HAS_PROTAGONIST, protagonist);
+            b.resource(game, HAS_ANTAGONIST, antagonist);
+            b.literal(game, HAS_LOCATION, location);
+            b.literal(game, HAS_AGE_RATING, ageRating);
+            b.literal(game, HAS_GAMEPLAY_HOURS, gameplayHours);
+            b.literal(game, HAS_MULTIPLAYER, multiplayer);
+            for (String award : awards) {
+                b.resource(game, WON_AWARD, award);
+            }
+            for (String feature : features) {
+                b.resource(game, SUPPORTS_FEATURE, feature);
+            }
+        }
+    }
+
+    // developers and publishers (type "Publisher")
+    public static class Developer extends Record {
+        String type = "Developer";
+        String name, founded, headquarters;
+
+        public Developer(String id) {
+            super(id);
+        }
+
+        public Developer type(String type) { this.type = type; return this; }
+        public Developer name(String name) { this.name = name; return this; }
+        public Developer founded(int year) { this.founded = Integer.toString(year); return this; }
+        public Developer headquarters(String location) { this.headquarters = location; return this; }
+
+        @Override
+        void set(String field, String value) {
+            switch (field) {
+                case "type": type = value; break;
+                case "name": name = value; break;
+                case "founded": founded = value; break;
+                case "headquarters": headquarters = value; break;
+                default: throw new IllegalArgumentException("Unknown developer field: " + field);
+            }
+        }
+
+        @Override
+        void emit(CatalogBuilder b) {
+            Node developer = b.iri(id);
+            b.add(developer, TYPE, b.iri(type));
+            b.literal(developer, HAS_NAME, name);
+            b.typed(developer, FOUNDED_IN, founded, XSDDatatype.XSDgYear);
+            b.literal(developer, HEADQUARTERED_IN, headquarters);
+        }
+    }
+
+    // Protagonist, Antagonist or plain Character
+    public static class Character extends Record {
+        String type = "Character";
+        String name;
+
+        public Character(String id) {
+            super(id);
+        }
+
+        public Character type(String type) { this.type = type; return this; }
+        public Character name(String name) { this.name = name; return this; }
+
+        @Override
+        void set(String field, String value) {
+            switch (field) {
+                case "type": type = value; break;
+                case "name": name = value; break;
+                default: throw new IllegalArgumentException("Unknown character field: " + field);
+            }
+        }
+
+        @Override
+        void emit(CatalogBuilder b) {
+            Node character = b.iri(id);
+            b.add(character, TYPE, b.iri(type));
+            b.literal(character, HAS_NAME, name);
+        }
+    }
+
+    // GameSeries, Award (and Genre) are all "a type and a name"
+    public static class Named extends Record {
+        private final String type;
+        String name;
+
+        Named(String id, String type) {
+            super(id);
+            this.type = type;
+        }
+
+        public Named name(String name) { this.name = name; return this; }
+
+        @Override
+        void set(String field, String value) {
+            if (!"name".equals(field)) {
+                throw new IllegalArgumentException("Unknown " + type + " field: " + field);
+            }
+            name = value;
+        }
+
+        @Override
+        void emit(CatalogBuilder b) {
+            Node node = b.iri(id);
+            b.add(node, TYPE, b.iri(type));
+            b.literal(node, HAS_NAME, name);
+        }
+    }
+
+    public static class Series extends Named {
+        public Series(String id) {
+            super(id, "GameSeries");
+        }
+    }
+
+    public static class Award extends Named {
+        public Award(String id) {
+            super(id, "Award");
+        }
+    }
+
+    // record for a CSV file / "kind" value
+    static Record create(String kind, String id) {
+        switch (kind) {
+            case "game": return new Game(id);
+            case "developer": return new Developer(id);
+            case "publisher": return new Developer(id).type("Publisher");
+            case "character": return new Character(id);
+            case "series": return new Series(id);
+            case "award": return new Award(id);
+            case "genre": return new Named(id, "Genre");
+            default: throw new IllegalArgumentException("Unknown record kind: " + kind);
+        }
+    }
+
+    // --- the builder ---
+
+    private final Graph graph;
+    private final Transactional transactional;
+    private final Triple[] buffer;
+    private final List<Triple> bufferView;
+    private int buffered = 0;
+    // every IRI we've made, so a developer referenced by 10000 games is one Node
+    private final Map<String, Node> iris = new HashMap<>();
+    private long triples = 0;
+    private long batches = 0;
+
+    public CatalogBuilder(Model model) {
+        this(model.getGraph(), null, DEFAULT_BATCH_SIZE);
+    }
+
+    // into the default graph of dataset, one write transaction per batch
+    public CatalogBuilder(Dataset dataset) {
+        this(dataset.asDatasetGraph().getDefaultGraph(), dataset, DEFAULT_BATCH_SIZE);
+    }
+
+    public CatalogBuilder(Graph graph, Transactional transactional, int batchSize) {
+        this.graph = graph;
+        this.transactional = transactional;
+        this.buffer = new Triple[batchSize];
+        this.bufferView = Arrays.asList(buffer);
+    }
+
+    public CatalogBuilder add(Record record) {
+        record.emit(this);
+        return this;
+    }
+
+    public CatalogBuilder add(Iterable<? extends Record> records) {
+        for (Record record : records) {
+            record.emit(this);
+        }
+        return this;
+    }
+
+    // hands the buffered triples to the graph in one go
+    public void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        List<Triple> batch = bufferView.subList(0, buffered);
+        if (transactional != null) {
+            Txn.executeWrite(transactional, () -> GraphUtil.add(graph, batch));
+        } else {
+            GraphUtil.add(graph, batch);
+        }
+        Arrays.fill(buffer, 0, buffered, null);
+        triples += buffered;
+        batches++;
+        buffered = 0;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        CatalogGraphs.compact(graph);
+    }
+
+    public long triples() {
+        return triples + buffered;
+    }
+
+    public long batches() {
+        return batches;
+    }
+
+    void add(Node s, Node p, Node o) {
+        buffer[buffered++] = Triple.create(s, p, o);
+        if (buffered == buffer.length) {
+            flush();
+        }
+    }
+
+    // missing (null / empty) values are simply not added
+    void literal(Node s, Node p, String value) {
+        if (value != null && !value.isEmpty()) {
+            add(s, p, NodeFactory.createLiteral(value));
+        }
+    }
+
+    void typed(Node s, Node p, String value, RDFDatatype datatype) {
+        if (value != null && !value.isEmpty()) {
+            add(s, p, NodeFactory.createLiteral(value, datatype));
+        }
+    }
+
+    void resource(Node s, Node p, String id) {
+        if (id != null && !id.isEmpty()) {
+            add(s, p, iri(id));
+        }
+    }
+
+    Node iri(String id) {
+        return iris.computeIfAbsent(id, k -> NodeFactory.createURI(k.contains(":") ? k : NS + k));
+    }
+
+    // --- streaming input ---
+
+    // one kind of record per file: a header row with id plus field names, then one
+    // record per line; quoted values may contain commas, lists are ';'-separated
+    public long readCsv(Reader in, String kind) throws IOException {
+        BufferedReader reader = new BufferedReader(in, 1 << 16);
+        String header = reader.readLine();
+        if (header == null) {
+            return 0;
+        }
+        List<String> columns = parseCsvLine(header);
+        int idColumn = columns.indexOf("id");
+        if (idColumn < 0) {
+            throw new IllegalArgumentException("CSV header has no id column: " + header);
+        }
+        long records = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            Record record = create(kind, values.get(idColumn));
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                if (i != idColumn && !values.get(i).isEmpty()) {
+                    record.set(columns.get(i), values.get(i));
+                }
+            }
+            add(record);
+            records++;
+        }
+        return records;
+    }
+
+    // {"kind":"game","id":"FinalFantasyX","title":"Final Fantasy X","awards":["BestRPG"],...}
+    public long readJsonLines(Reader in) throws IOException {
+        BufferedReader reader = new BufferedReader(in, 1 << 16);
+        long records = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonObject object = JSON.parse(line);
+            Record record = create(string(object.get("kind")), string(object.get("id")));
+            for (String field : object.keys()) {
+                if (!"kind".equals(field) && !"id".equals(field)) {
+                    record.set(field, string(object.get(field)));
+                }
+            }
+            add(record);
+            records++;
+        }
+        return records;
+    }
+
+    private static String string(JsonValue value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isString()) {
+            return value.getAsString().value();
+        }
+        if (value.isNumber()) {
+            return value.getAsNumber().value().toString();
+        }
+        if (value.isBoolean()) {
+            return value.getAsBoolean().value() ? "Yes" : "No";
+        }
+        if (value.isArray()) {
+            List<String> items = new ArrayList<>();
+            value.getAsArray().forEach(item -> items.add(string(item)));
+            return String.join(";", items);
+        }
+        throw new IllegalArgumentException("Unsupported JSON value: " + value);
+    }
+
+    private static List<String> split(String list) {
+        List<String> items = new ArrayList<>();
+        for (String item : list.split(";")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,421 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdfpatch.RDFChanges;
+import org.apache.jena.rdfpatch.RDFPatchOps;
+import org.apache.jena.rdfpatch.text.RDFChangesWriterText;
+import org.apache.jena.rdfpatch.text.RDFPatchReaderText;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+// Append-only change log of the base model in RDF Patch text format, so a replica can
+// start from the latest snapshot and replay only what happened since, instead of
+// rerunning the builder or re-reading the whole Turtle file.
+//
+// The directory holds generations:
+//
+//   snapshot-<gen>.rt     - the whole base model when generation gen started (RDF Thrift)
+//   changes-<gen>.rdfp    - every add / delete after that, batched into TX ... TC blocks
+//
+// Attaching takes a fresh snapshot (the primary's model is the truth), and so does every
+// snapshotEvery changes after that - compaction is simply starting a new generation. The
+// previous generation is kept so replicas part-way through it can finish, anything older
+// is deleted. A removeAll, which the model only reports as a pattern, also starts a new
+// generation since there is no per-triple record of what went.
+//
+// Changes reach the file (and replicas) when a batch is committed: every BATCH changes,
+// on flush(), at a snapshot and on close().
+public class CatalogChangeLog extends StatementListener implements AutoCloseable {
+    static final int BATCH = 1_000;
+    private static final String SNAPSHOT = "snapshot-";
+    private static final String CHANGES = "changes-";
+
+    private final Model baseModel;
+    private final Path directory;
+    private final long snapshotEvery;
+    private long generation;
+    private OutputStream out;
+    private RDFChangesWriterText writer;
+    private int pending;
+    private long sinceSnapshot;
+    private long changes;
+
+    public CatalogChangeLog(Model baseModel, Path directory, long snapshotEvery) {
+        this.baseModel = baseModel;
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.generation = latestGeneration(directory);
+        snapshot();
+        baseModel.register(this);
+    }
+
+    @Override
+    public void addedStatement(Statement stmt) {
+        record(stmt.asTriple(), true);
+    }
+
+    @Override
+    public void removedStatement(Statement stmt) {
+        record(stmt.asTriple(), false);
+    }
+
+    // removeAll and friends only say which pattern went: start over from a snapshot
+    @Override
+    public void notifyEvent(Model m, Object event) {
+        if (event != GraphEvents.startRead && event != GraphEvents.finishRead) {
+            snapshot();
+        }
+    }
+
+    private synchronized void record(Triple triple, boolean added) {
+        if (pending == 0) {
+            writer.txnBegin();
+        }
+        if (added) {
+            writer.add(null, triple.getSubject(), triple.getPredicate(), triple.getObject());
+        } else {
+            writer.delete(null, triple.getSubject(), triple.getPredicate(), triple.getObject());
+        }
+        changes++;
+        sinceSnapshot++;
+        if (++pending >= BATCH) {
+            flush();
+        }
+        if (sinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    // commits the open batch so replicas can see it
+    public synchronized void flush() {
+        if (pending == 0) {
+            return;
+        }
+        writer.txnCommit();
+        writer.finish();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pending = 0;
+    }
+
+    // starts a new generation: the model as it is now, and an empty change file after it
+    public synchronized void snapshot() {
+        try {
+            if (writer != null) {
+                flush();
+                out.close();
+            }
+            long next = generation + 1;
+            Path temp = directory.resolve(SNAPSHOT + next + ".tmp");
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                RDFDataMgr.write(file, baseModel, Lang.RDFTHRIFT);
+            }
+            // the change file exists before the snapshot shows up, so a replica that
+            // sees snapshot-<next> always finds changes-<next>
+            out = new BufferedOutputStream(Files.newOutputStream(changes(directory, next),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+            writer = RDFPatchOps.textWriter(out);
+            Files.move(temp, snapshot(directory, next), StandardCopyOption.ATOMIC_MOVE);
+            generation = next;
+            sinceSnapshot = 0;
+            deleteBefore(generation - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteBefore(long keep) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                long gen = generationOf(file);
+                if (gen >= 0 && gen < keep) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // changes logged since this log was attached
+    public synchronized long changes() {
+        return changes;
+    }
+
+    @Override
+    public synchronized void close() {
+        baseModel.unregister(this);
+        flush();
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path snapshot(Path directory, long generation) {
+        return directory.resolve(SNAPSHOT + generation + ".rt");
+    }
+
+    static Path changes(Path directory, long generation) {
+        return directory.resolve(CHANGES + generation + ".rdfp");
+    }
+
+    // -1 for files that aren't ours
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        int dash = name.indexOf('-');
+        int dot = name.indexOf('.');
+        if (dash < 0 || dot < dash || !(name.startsWith(SNAPSHOT) || name.startsWith(CHANGES))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(dash + 1, dot));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // newest complete snapshot in directory, 0 if none
+    static long latestGeneration(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(SNAPSHOT)
+                    && f.getFileName().toString().endsWith(".rt"))
+                .mapToLong(CatalogChangeLog::generationOf).max().orElse(0);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A copy of the primary's base model kept up to date from the log directory:
+    // bootstraps from the latest snapshot, then catchUp() applies whatever committed
+    // batches have been appended since (following on into newer generations, or
+    // reloading the snapshot if it fell so far behind its generation was deleted).
+    // A replica of a directory no primary has written to yet starts empty and picks up
+    // the first snapshot on its next catch-up.
+    //
+    // inferred() is a reasoning model over the copy (CatalogReasoning mode); rule
+    // InfModels are rebound after a catch-up that changed anything, the listener-based
+    // modes follow the base model by themselves ("materialized" doesn't follow changes at
+    // all, so it is no use here). A reload from a snapshot swaps the whole base model,
+    // so every mode is rebuilt from scratch after one.
+    public static class Replica {
+        private final Path directory;
+        private final Model base = ModelFactory.createDefaultModel();
+        private final Model inferred;
+        // brings inferred back in line with base after a reload
+        private final Runnable rebuild;
+        private long generation;
+        private long offset;
+        private long applied;
+        // reloaded from a snapshot since the last catch-up
+        private boolean reloaded;
+
+        public Replica(Path directory, String reasoner) {
+            this.directory = directory;
+            bootstrap(latestGeneration(directory));
+            if ("incremental".equals(reasoner)) {
+                IncrementalTypeReasoner incremental = new IncrementalTypeReasoner(base);
+                this.inferred = incremental.model();
+                this.rebuild = incremental::rebuild;
+            } else if ("hierarchy".equals(reasoner)) {
+                HierarchyReasoner hierarchy = new HierarchyReasoner(base);
+                this.inferred = ModelFactory.createModelForGraph(hierarchy);
+                this.rebuild = hierarchy::invalidate;
+            } else {
+                this.inferred = CatalogReasoning.reasoningModel(base, reasoner);
+                this.rebuild = inferred instanceof InfModel ? ((InfModel) inferred)::rebind : () -> { };
+            }
+            reloaded = false;
+        }
+
+        private void bootstrap(long gen) {
+            base.removeAll();
+            // generation 0 is "no snapshot yet": a primary's first one is 1
+            if (gen > 0) {
+                RDFDataMgr.read(base, snapshot(directory, gen).toString(), Lang.RDFTHRIFT);
+            }
+            generation = gen;
+            offset = 0;
+            reloaded = true;
+        }
+
+        // changes applied; 0 when already up to date
+        public synchronized long catchUp() {
+            long before = applied;
+            while (true) {
+                boolean found = applyTail();
+                long latest = latestGeneration(directory);
+                if (latest == generation) {
+                    break;
+                }
+                // the writer flushes before snapshotting, so one more read has all of it
+                if (found && applyTail()) {
+                    generation++;
+                    offset = 0;
+                } else {
+                    // our generation is gone, start again from the newest snapshot
+                    bootstrap(latest);
+                }
+            }
+            if (reloaded || (applied != before && inferred instanceof InfModel)) {
+                rebuild.run();
+            }
+            reloaded = false;
+            return applied - before;
+        }
+
+        // applies the committed batches after offset; false if the file is gone
+        private boolean applyTail() {
+            Path file = changes(directory, generation);
+            byte[] tail;
+            try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+                long length = in.length();
+                if (length <= offset) {
+                    return true;
+                }
+                tail = new byte[(int) (length - offset)];
+                in.seek(offset);
+                in.readFully(tail);
+            } catch (FileNotFoundException e) {
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int end = lastCommit(tail);
+            if (end == 0) {
+                return true; // a batch still being written
+            }
+            try (InputStream batch = new ByteArrayInputStream(tail, 0, end)) {
+                new RDFPatchReaderText(batch).apply(new Apply(base.getGraph()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offset += end;
+            return true;
+        }
+
+        // bytes up to and including the last "TC ." line
+        private static int lastCommit(byte[] bytes) {
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            int tc = text.lastIndexOf("\nTC .");
+            if (tc < 0) {
+                return 0;
+            }
+            int newline = text.indexOf('\n', tc + 1);
+            int end = newline < 0 ? text.length() : newline + 1;
+            return text.substring(0, end).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        public Model base() {
+            return base;
+        }
+
+        public Model inferred() {
+            return inferred;
+        }
+
+        public synchronized long generation() {
+            return generation;
+        }
+
+        // changes applied since bootstrap
+        public synchronized long applied() {
+            return applied;
+        }
+
+        // patch rows straight onto the graph, so listeners on the replica see them
+        private class Apply implements RDFChanges {
+            private final Graph graph;
+
+            Apply(Graph graph) {
+                this.graph = graph;
+            }
+
+            @Override
+            public void header(String field, Node value) {
+            }
+
+            @Override
+            public void add(Node g, Node s, Node p, Node o) {
+                graph.add(Triple.create(s, p, o));
+                applied++;
+            }
+
+            @Override
+            public void delete(Node g, Node s, Node p, Node o) {
+                graph.delete(Triple.create(s, p, o));
+                applied++;
+            }
+
+            @Override
+            public void addPrefix(Node gn, String prefix, String uriStr) {
+                graph.getPrefixMapping().setNsPrefix(prefix, uriStr);
+            }
+
+            @Override
+            public void deletePrefix(Node gn, String prefix) {
+                graph.getPrefixMapping().removeNsPrefix(prefix);
+            }
+
+            @Override
+            public void txnBegin() {
+            }
+
+            @Override
+            public void txnCommit() {
+            }
+
+            @Override
+            public void txnAbort() {
+            }
+
+            @Override
+            public void segment() {
+            }
+
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void finish() {
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+// Which in-memory graph holds the base catalog, set with -Dps2.graph:
+//   default         - Jena's default in-memory graph (what we always did)
+//   encoded         - EncodedGraph, dictionary ids in sorted int arrays
+//   encoded-offheap - the same with the arrays in direct buffers
+public class CatalogGraphs {
+
+    public static Model createModel() {
+        return createModel(System.getProperty("ps2.graph", "default"));
+    }
+
+    public static Model createModel(String kind) {
+        switch (kind) {
+            case "default":
+                return ModelFactory.createDefaultModel();
+            case "encoded":
+                return EncodedGraph.createModel(false);
+            case "encoded-offheap":
+                return EncodedGraph.createModel(true);
+            default:
+                throw new IllegalArgumentException("Unknown ps2.graph: " + kind);
+        }
+    }
+
+    // done adding: fold the pending writes of an EncodedGraph into its arrays
+    public static void compact(Model model) {
+        compact(model.getGraph());
+    }
+
+    public static void compact(Graph graph) {
+        if (graph instanceof EncodedGraph) {
+            ((EncodedGraph) graph).compact();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the eight catalog queries that ResearchGraphWithReasoning runs
+// kept in one place so the benchmarks and main run exactly the same text
+public class CatalogQueries {
+
+    // Query 1: Find all games (inferred from subclasses)
+    // this will find RPGs, Action games etc because reasoner knows they're Games
+    public static final String QUERY_1 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?title ?type ?rating WHERE { " +
+        "  ?game a ps2:Game . " + // find things that are Games
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game a ?type . " + // what specific type
+        "  ?game ps2:hasRating ?rating . " +
+        "  FILTER(?type != ps2:Game) " + // don't show generic Game type
+        "} ORDER BY DESC(?rating)"; // order by rating, highest first (ratings are xsd:decimal)
+
+    // Query 2: Find best-selling games
+    // only games that sold more than 5 million copies
+    public static final String QUERY_2 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?title ?sales ?developer WHERE { " +
+        "  ?game a ps2:Game . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:hasSalesCount ?sales . " +
+        "  ?game ps2:developedBy ?dev . " +
+        "  ?dev ps2:hasName ?developer . " +
+        "  FILTER(?sales > ?minSales) " + // more than 5 million by default, sales are typed so no cast
+        "} ORDER BY DESC(?sales)"; // highest sales first
+
+    // Query 3: Find Japanese developers and their games
+    // interesting cultural analysis
+    public static final String QUERY_3 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?developer ?title ?year WHERE { " +
+        "  ?dev a ps2:Developer . " +
+        "  ?dev ps2:hasName ?developer . " +
+        "  ?dev ps2:headquarteredIn ?location . " +
+        "  ?game ps2:developedBy ?dev . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:releasedIn ?year . " +
+        "  FILTER(CONTAINS(?location, ?country)) " + // only japanese companies by default
+        "} ORDER BY ?developer ?year";
+
+    // Query 4: Find action games with protagonists
+    // looking at character relationships
+    public static final String QUERY_4 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?title ?protagonist ?location WHERE { " +
+        "  ?game a ?gameClass . " + // only action games by default
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:hasProtagonist ?protag . " +
+        "  ?protag ps2:hasName ?protagonist . " +
+        "  ?game ps2:hasLocation ?location . " +
+        "} ORDER BY ?title";
+
+    // Query 5: Find game series with multiple games
+    // using aggregation to count games per series
+    public static final String QUERY_5 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?seriesName (COUNT(?game) AS ?gameCount) WHERE { " +
+        "  ?series a ps2:GameSeries . " +
+        "  ?series ps2:hasName ?seriesName . " +
+        "  ?game ps2:partOfSeries ?series . " +
+        "} GROUP BY ?seriesName " + // group by series
+        "HAVING (COUNT(?game) > 0) " + // only series with games
+        "ORDER BY DESC(?gameCount)"; // most games first
+
+    // Query 6: Find games with high Metacritic scores
+    // critic favorites
+    public static final String QUERY_6 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?title ?score ?year ?genre WHERE { " +
+        "  ?game a ps2:Game . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:hasMetacriticScore ?score . " +
+        "  ?game ps2:releasedIn ?year . " +
+        "  ?game ps2:hasGenre ?genreRes . " +
+        "  ?genreRes ps2:hasName ?genre . " +
+        "  FILTER(?score >= ?minScore) " + // 90+ metacritic score by default
+        "} ORDER BY DESC(?score)"; // highest scores first
+
+    // Query 7: Find sequels and their predecessors
+    // sequel relationships
+    public static final String QUERY_7 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?sequelTitle ?originalTitle WHERE { " +
+        "  ?sequel ps2:isSequelOf ?original . " + // sequel relationship
+        "  ?sequel ps2:hasTitle ?sequelTitle . " +
+        "  ?original ps2:hasTitle ?originalTitle . " +
+        "} ORDER BY ?originalTitle";
+
+    // Query 8: Find award-winning games
+    // games that won awards
+    public static final String QUERY_8 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "SELECT ?title ?awardName ?developer WHERE { " +
+        "  ?game ps2:wonAward ?award . " + // games with awards
+        "  ?award ps2:hasName ?awardName . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:developedBy ?dev . " +
+        "  ?dev ps2:hasName ?developer . " +
+        "} ORDER BY ?awardName";
+
+    private static final Map<String, String> TEMPLATES = new LinkedHashMap<>();
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+    private static final Map<String, String> TITLES = new LinkedHashMap<>();
+    private static final Map<String, Map<String, Node>> DEFAULTS = new HashMap<>();
+
+    static {
+        register("query1", "Query 1: All PS2 Games by Rating", QUERY_1, Map.of());
+        register("query2", "Query 2: Best-Selling PS2 Games (>5M sales)", QUERY_2,
+            Map.of("minSales", NodeValue.makeInteger(5000000).asNode()));
+        register("query3", "Query 3: Japanese Developers and Their Games", QUERY_3,
+            Map.of("country", NodeFactory.createLiteral("Japan")));
+        register("query4", "Query 4: Action Games with Protagonists", QUERY_4,
+            Map.of("gameClass", NodeFactory.createURI(ResearchGraphWithReasoning.NS + "ActionGame")));
+        register("query5", "Query 5: Game Series with Game Counts", QUERY_5, Map.of());
+        register("query6", "Query 6: High-Scoring Games (Metacritic >= 90)", QUERY_6,
+            Map.of("minScore", NodeValue.makeInteger(90).asNode()));
+        register("query7", "Query 7: Game Sequels and Their Predecessors", QUERY_7, Map.of());
+        register("query8", "Query 8: Award-Winning Games", QUERY_8, Map.of());
+    }
+
+    private static void register(String name, String title, String template, Map<String, Node> defaults) {
+        TEMPLATES.put(name, template);
+        DEFAULTS.put(name, defaults);
+        TITLES.put(name, title);
+        // plain SPARQL with the default parameters filled in, runnable anywhere
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(template);
+        defaults.forEach(pss::setParam);
+        QUERIES.put(name, pss.toString());
+    }
+
+    // name -> SPARQL text (defaults filled in), in the order main prints them
+    public static Map<String, String> all() {
+        return Collections.unmodifiableMap(QUERIES);
+    }
+
+    public static String get(String name) {
+        String query = QUERIES.get(name);
+        if (query == null) {
+            throw new IllegalArgumentException("Unknown catalog query: " + name);
+        }
+        return query;
+    }
+
+    // the query with its parameters (?minSales, ?country, ?gameClass, ?minScore) left as variables
+    public static String template(String name) {
+        get(name);
+        return TEMPLATES.get(name);
+    }
+
+    // parameter name -> default value
+    public static Map<String, Node> defaults(String name) {
+        get(name);
+        return DEFAULTS.get(name);
+    }
+
+    public static String title(String name) {
+        return TITLES.getOrDefault(name, name);
+    }
+
+    // runs every catalog query against both models and returns the names of the ones
+    // whose answers differ (compared as multisets, ORDER BY ties can come out either way)
+    public static List<String> compareAll(Model expected, Model actual) {
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, String> entry : QUERIES.entrySet()) {
+            if (!ResultSetCompare.equalsByTerm(select(entry.getValue(), expected), select(entry.getValue(), actual))) {
+                mismatches.add(entry.getKey());
+            }
+        }
+        return mismatches;
+    }
+
+    private static ResultSetRewindable select(String queryString, Model model) {
+        try (QueryExecution qexec = QueryExecutionFactory.create(queryString, model)) {
+            return ResultSetFactory.copyResults(qexec.execSelect());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.ReasonerRegistry;
+
+// Picks how the catalog queries see inferred types, set with -Dps2.reasoner:
+//   rdfs         - Jena's RDFS rule reasoner over the base model (default, what we always did)
+//   materialized - precomputed closure loaded from -Dps2.closure.file, no reasoner at query time
+//   incremental  - type/subclass entailments kept up to date as the base model changes
+//   hierarchy    - subclass-only lookup-time expansion, no rule engine (HierarchyReasoner)
+public class CatalogReasoning {
+
+    public static Model reasoningModel(Model baseModel) {
+        return reasoningModel(baseModel, System.getProperty("ps2.reasoner", "rdfs"));
+    }
+
+    public static Model reasoningModel(Model baseModel, String mode) {
+        switch (mode) {
+            case "rdfs":
+                Reasoner reasoner = ReasonerRegistry.getRDFSReasoner();
+                return ModelFactory.createInfModel(reasoner, baseModel);
+            case "materialized":
+                String file = System.getProperty("ps2.closure.file", MaterializedClosure.DEFAULT_FILE);
+                return MaterializedClosure.loadOrMaterialize(baseModel, file);
+            case "incremental":
+                return new IncrementalTypeReasoner(baseModel).model();
+            case "hierarchy":
+                return HierarchyReasoner.createModel(baseModel);
+            default:
+                throw new IllegalArgumentException("Unknown ps2.reasoner: " + mode);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Small HTTP front end for the catalog, on the JDK's built-in server so we don't pull
+// in Fuseki for eight queries. Requests run on a fixed thread pool, each against the
+// snapshot that was current when it arrived (see CatalogSnapshots), so updates never
+// block queries.
+//
+//   GET  /queries                          names and titles of the catalog queries
+//   GET  /query/query2?minSales=10000000   a named query, parameters override defaults
+//        &format=json|tsv|csv|jsonl        (default json = SPARQL JSON results)
+//        &offset=0&limit=100               optional window
+//   GET  /sparql?query=SELECT...           any SELECT (also POST with the query as body)
+//   POST /update                           SPARQL Update, published as a new snapshot
+//   GET  /snapshot                         current snapshot version and size
+//
+// There is no authentication, so by default the server listens on loopback only and
+// /update answers 403: an update can LOAD any file or URL the process can read, or
+// CLEAR the catalog. -Dps2.host=0.0.0.0 exposes it, -Dps2.allowUpdates=true turns
+// updates on - only do either behind something that checks who is asking.
+//
+// Parameter values: 42 and 9.5 are numbers, ps2:ActionGame and <http://...> are IRIs,
+// "..." is an N-Triples literal, anything else a plain string.
+public class CatalogServer {
+    private final CatalogSnapshots snapshots;
+    private final QueryRegistry registry = new QueryRegistry();
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final boolean allowUpdates;
+
+    // loopback only, updates refused
+    public CatalogServer(CatalogSnapshots snapshots, int port, int threads) throws IOException {
+        this(snapshots, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, false);
+    }
+
+    public CatalogServer(CatalogSnapshots snapshots, InetSocketAddress address, int threads,
+                         boolean allowUpdates) throws IOException {
+        this.snapshots = snapshots;
+        this.allowUpdates = allowUpdates;
+        this.server = HttpServer.create(address, 0);
+        this.pool = Executors.newFixedThreadPool(threads);
+        server.setExecutor(pool);
+        server.createContext("/queries", this::listQueries);
+        server.createContext("/query/", this::namedQuery);
+        server.createContext("/sparql", this::sparql);
+        server.createContext("/update", this::update);
+        server.createContext("/snapshot", this::snapshot);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    // the port actually bound (useful when started with port 0)
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    // base URL of the server as bound, e.g. http://127.0.0.1:3030
+    public String url() {
+        InetAddress host = server.getAddress().getAddress();
+        String address = host.isAnyLocalAddress() ? "localhost"
+            : host instanceof Inet6Address ? "[" + host.getHostAddress() + "]" : host.getHostAddress();
+        return "http://" + address + ":" + port();
+    }
+
+    private void listQueries(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            StringBuilder json = new StringBuilder("[");
+            for (String name : CatalogQueries.all().keySet()) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("{\"name\":").append(StreamingResultWriter.json(name))
+                    .append(",\"title\":").append(StreamingResultWriter.json(CatalogQueries.title(name))).append('}');
+            }
+            respond(exchange, 200, "application/json", json.append("]\n").toString());
+        });
+    }
+
+    private void namedQuery(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String name = exchange.getRequestURI().getPath().substring("/query/".length());
+            Map<String, String> params = parameters(exchange.getRequestURI().getRawQuery());
+            StreamingResultWriter.Format format = StreamingResultWriter.Format.parse(params.getOrDefault("format", "json"));
+            String offset = params.remove("offset");
+            String limit = params.remove("limit");
+            params.remove("format");
+
+            Map<String, Node> values = new HashMap<>();
+            params.forEach((var, value) -> values.put(var, parseValue(value)));
+
+            CatalogSnapshots.Snapshot snapshot = snapshots.current();
+            QueryRegistry.CompiledQuery compiled = registry.named(name);
+            ResultSet results = limit == null && offset == null
+                ? registry.select(compiled, values, snapshot.model())
+                : registry.select(compiled, values, snapshot.model(),
+                    offset == null ? 0 : window("offset", offset), limit == null ? Query.NOLIMIT : window("limit", limit));
+            stream(exchange, snapshot, results, format);
+        });
+    }
+
+    // offset / limit: a non-negative number, anything else is the client's mistake
+    private static long window(String name, String value) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+        if (parsed < 0) {
+            throw new IllegalArgumentException(name + " must not be negative: " + value);
+        }
+        return parsed;
+    }
+
+    private void sparql(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            Map<String, String> params = parameters(exchange.getRequestURI().getRawQuery());
+            String query = "POST".equals(exchange.getRequestMethod()) ? body(exchange) : params.get("query");
+            if (query == null) {
+                throw new IllegalArgumentException("Missing query");
+            }
+            StreamingResultWriter.Format format = StreamingResultWriter.Format.parse(params.getOrDefault("format", "json"));
+            QueryRegistry.CompiledQuery compiled = registry.compile(query);
+            if (!compiled.query().isSelectType()) {
+                throw new IllegalArgumentException("Only SELECT queries are served here");
+            }
+            CatalogSnapshots.Snapshot snapshot = snapshots.current();
+            stream(exchange, snapshot, registry.select(compiled, Map.of(), snapshot.model()), format);
+        });
+    }
+
+    private void update(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (!allowUpdates) {
+                respond(exchange, 403, "text/plain", "Updates are disabled on this server (-Dps2.allowUpdates=true)\n");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                throw new IllegalArgumentException("Use POST for updates");
+            }
+            // parse before publishing so a bad request can't leave a half-applied change
+            UpdateRequest request = UpdateFactory.create(body(exchange));
+            CatalogSnapshots.Snapshot published = snapshots.publish(model -> UpdateAction.execute(request, model));
+            respond(exchange, 200, "application/json", "{\"version\":" + published.version() + "}\n");
+        });
+    }
+
+    private void snapshot(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            CatalogSnapshots.Snapshot snapshot = snapshots.current();
+            respond(exchange, 200, "application/json",
+                "{\"version\":" + snapshot.version() + ",\"triples\":" + snapshot.base().size() + "}\n");
+        });
+    }
+
+    private interface Handler {
+        void run() throws IOException;
+    }
+
+    // bad input -> 400, anything else -> 500, always closes the exchange
+    private static void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            handler.run();
+        } catch (IllegalArgumentException | QueryParseException e) {
+            if (exchange.getResponseCode() == -1) {
+                respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error serving " + exchange.getRequestURI() + ": " + e);
+            // once rows are streaming the status is already out, all we can do is cut it short
+            if (exchange.getResponseCode() == -1) {
+                respond(exchange, 500, "text/plain", "Internal error\n");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void stream(HttpExchange exchange, CatalogSnapshots.Snapshot snapshot, ResultSet results,
+                               StreamingResultWriter.Format format) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType(format));
+        exchange.getResponseHeaders().set("X-Snapshot-Version", String.valueOf(snapshot.version()));
+        exchange.sendResponseHeaders(200, 0); // chunked, rows go out as they are produced
+        try (OutputStream out = exchange.getResponseBody()) {
+            StreamingResultWriter.write(results, format, out);
+        }
+    }
+
+    private static String contentType(StreamingResultWriter.Format format) {
+        switch (format) {
+            case TSV: return "text/tab-separated-values; charset=utf-8";
+            case CSV: return "text/csv; charset=utf-8";
+            case JSONL: return "application/x-ndjson";
+            default: return "application/sparql-results+json";
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parameters(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    static Node parseValue(String value) {
+        if (value.matches("[+-]?[0-9]+")) {
+            return QueryRegistry.toNode(Long.parseLong(value));
+        }
+        if (value.matches("[+-]?[0-9]*\\.[0-9]+")) {
+            return QueryRegistry.toNode(new BigDecimal(value));
+        }
+        if (value.startsWith("ps2:")) {
+            return NodeFactory.createURI(ResearchGraphWithReasoning.NS + value.substring(4));
+        }
+        if (value.startsWith("<") || value.startsWith("\"")) {
+            return NodeFactoryExtra.parseNode(value);
+        }
+        return QueryRegistry.toNode(value);
+    }
+
+    // java -Dps2.port=3030 -Dps2.server.threads=32 [-Dps2.host=...] [-Dps2.allowUpdates=true]
+    //      org.example.CatalogServer [catalog file]
+    public static void main(String[] args) throws IOException {
+        Model base = args.length > 0 ? ParallelCatalogLoader.loadModel(args[0]) : ResearchGraphWithReasoning.buildBaseModel();
+        int port = Integer.getInteger("ps2.port", 3030);
+        int threads = Integer.getInteger("ps2.server.threads", Runtime.getRuntime().availableProcessors() * 2);
+        String host = System.getProperty("ps2.host");
+        InetSocketAddress address = host == null
+            ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port) : new InetSocketAddress(host, port);
+        boolean allowUpdates = Boolean.getBoolean("ps2.allowUpdates");
+
+        CatalogServer server = new CatalogServer(new CatalogSnapshots(base), address, threads, allowUpdates);
+        server.start();
+        System.out.println("Serving " + base.size() + " triples on " + server.url() + "/ with " + threads
+            + " threads" + (allowUpdates ? ", updates enabled" : ""));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.compose.Delta;
+import org.apache.jena.graph.compose.DisjointUnion;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Read-mostly view of the catalog for serving queries from many threads.
+//
+// Readers grab the current Snapshot and query it for as long as they like; it never
+// changes underneath them, so they never take a lock. Writers go through publish():
+// the change is first staged in a Delta over the private master copy, and only once it
+// has run to the end are its additions and deletions applied to master (with
+// IncrementalTypeReasoner keeping the type / subclass entailments in step) - a change
+// that throws half-way leaves master as it was. Base and entailments are then copied
+// into a fresh snapshot and swapped in with one reference write. Readers still on the
+// old snapshot finish on it and it gets collected after.
+//
+// A publish costs a copy of the catalog, so this is meant for occasional writes
+// (a nightly import, an admin fix), not a write per request. Writers queue up on each
+// other, never on readers.
+public class CatalogSnapshots {
+
+    // one immutable version of the catalog
+    public static class Snapshot {
+        private final long version;
+        private final Model base;
+        private final Model model;
+
+        Snapshot(long version, Model base, Model model) {
+            this.version = version;
+            this.base = base;
+            this.model = model;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        // asserted triples only
+        public Model base() {
+            return base;
+        }
+
+        // base + entailed types, what the catalog queries run against
+        public Model model() {
+            return model;
+        }
+    }
+
+    private final Model master;
+    private final IncrementalTypeReasoner reasoner;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public CatalogSnapshots(Model initialBase) {
+        this.master = ModelFactory.createDefaultModel();
+        master.add(initialBase);
+        master.setNsPrefixes(initialBase.getNsPrefixMap());
+        this.reasoner = new IncrementalTypeReasoner(master);
+        current.set(copy(1));
+    }
+
+    public Snapshot current() {
+        return current.get();
+    }
+
+    // applies change to the master copy and publishes the result as the new snapshot;
+    // if change throws, nothing is applied and the current snapshot stays
+    public synchronized Snapshot publish(Consumer<Model> change) {
+        Delta staged = new Delta(master.getGraph());
+        Model staging = ModelFactory.createModelForGraph(staged);
+        staging.setNsPrefixes(master.getNsPrefixMap());
+        change.accept(staging);
+        staged.getDeletions().find().forEachRemaining(master.getGraph()::delete);
+        staged.getAdditions().find().forEachRemaining(master.getGraph()::add);
+        Snapshot next = copy(current.get().version() + 1);
+        current.set(next);
+        return next;
+    }
+
+    private Snapshot copy(long version) {
+        Model base = CatalogGraphs.createModel();
+        GraphUtil.addInto(base.getGraph(), master.getGraph());
+        base.setNsPrefixes(master.getNsPrefixMap());
+        CatalogGraphs.compact(base);
+
+        Graph entailed = GraphFactory.createDefaultGraph();
+        GraphUtil.addInto(entailed, reasoner.entailedGraph());
+
+        Model model = ModelFactory.createModelForGraph(new DisjointUnion(base.getGraph(), entailed));
+        model.setNsPrefixes(master.getNsPrefixMap());
+        return new Snapshot(version, base, model);
+    }
+}
@@ -0,0 +1,270 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_GreaterThan;
+import org.apache.jena.sparql.expr.E_GreaterThanOrEqual;
+import org.apache.jena.sparql.expr.E_LessThan;
+import org.apache.jena.sparql.expr.E_LessThanOrEqual;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_NotEquals;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunction;
+import org.apache.jena.sparql.expr.ExprFunction2;
+import org.apache.jena.vocabulary.RDF;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// What StatsOptimizer knows about the catalog, gathered in one pass over a graph
+// (the inference model, so rdf:type counts include inferred types):
+//
+//   per predicate   - triples, distinct subjects, distinct objects
+//   per class       - instances (rdf:type with that object)
+//   numeric values  - an equi-depth histogram of the objects of every predicate whose
+//                     objects are mostly numbers (hasRating, hasSalesCount, ...)
+//
+// From those, estimate() guesses how many rows one triple pattern yields per incoming
+// row given which variables are already bound, and selectivity() what fraction of rows
+// a FILTER keeps. The usual independence assumptions apply; they only have to rank
+// plans, not predict them exactly.
+//
+// Distinct counts are exact (hash sets during collection), fine up to ~10^7 triples.
+public class CatalogStatistics {
+    static final int BUCKETS = 32;
+    // FILTERs we can't say anything about
+    static final double DEFAULT_SELECTIVITY = 0.5;
+    static final double RANGE_SELECTIVITY = 0.33;
+
+    private static final Node TYPE = RDF.type.asNode();
+
+    private static class PredicateStats {
+        long triples;
+        long distinctSubjects;
+        long distinctObjects;
+    }
+
+    // equi-depth: bounds[i] is the smallest value of bucket i, bounds[BUCKETS] the max
+    public static class Histogram {
+        private final double[] bounds;
+        private final long values;
+
+        Histogram(double[] sorted) {
+            this.values = sorted.length;
+            int buckets = (int) Math.min(BUCKETS, sorted.length);
+            this.bounds = new double[buckets + 1];
+            for (int i = 0; i < buckets; i++) {
+                bounds[i] = sorted[(int) ((long) i * sorted.length / buckets)];
+            }
+            bounds[buckets] = sorted[sorted.length - 1];
+        }
+
+        // fraction of values strictly above x, interpolating inside the bucket
+        public double fractionAbove(double x) {
+            int buckets = bounds.length - 1;
+            if (x < bounds[0]) {
+                return 1;
+            }
+            if (x >= bounds[buckets]) {
+                return 0;
+            }
+            int i = Arrays.binarySearch(bounds, x);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            i = Math.min(i, buckets - 1);
+            double width = bounds[i + 1] - bounds[i];
+            double inside = width == 0 ? 1 : (x - bounds[i]) / width;
+            return Math.max(0, 1 - (i + inside) / buckets);
+        }
+
+        public long values() {
+            return values;
+        }
+    }
+
+    private final long triples;
+    private final Map<Node, PredicateStats> predicates;
+    private final Map<Node, Long> instances;
+    private final Map<Node, Histogram> histograms;
+
+    private CatalogStatistics(long triples, Map<Node, PredicateStats> predicates, Map<Node, Long> instances,
+                              Map<Node, Histogram> histograms) {
+        this.triples = triples;
+        this.predicates = predicates;
+        this.instances = instances;
+        this.histograms = histograms;
+    }
+
+    public static CatalogStatistics collect(Graph graph) {
+        Map<Node, Set<Node>> subjects = new HashMap<>();
+        Map<Node, Set<Node>> objects = new HashMap<>();
+        Map<Node, Long> counts = new HashMap<>();
+        Map<Node, Long> instances = new HashMap<>();
+        Map<Node, List<BigDecimal>> numbers = new HashMap<>();
+        long[] triples = { 0 };
+        graph.find().forEachRemaining(t -> {
+            Node p = t.getPredicate();
+            triples[0]++;
+            counts.merge(p, 1L, Long::sum);
+            subjects.computeIfAbsent(p, k -> new HashSet<>()).add(t.getSubject());
+            objects.computeIfAbsent(p, k -> new HashSet<>()).add(t.getObject());
+            if (TYPE.equals(p)) {
+                instances.merge(t.getObject(), 1L, Long::sum);
+            }
+            BigDecimal number = CatalogViews.number(t.getObject());
+            if (number != null) {
+                numbers.computeIfAbsent(p, k -> new ArrayList<>()).add(number);
+            }
+        });
+
+        Map<Node, PredicateStats> predicates = new HashMap<>();
+        counts.forEach((p, n) -> {
+            PredicateStats stats = new PredicateStats();
+            stats.triples = n;
+            stats.distinctSubjects = subjects.get(p).size();
+            stats.distinctObjects = objects.get(p).size();
+            predicates.put(p, stats);
+        });
+        Map<Node, Histogram> histograms = new HashMap<>();
+        numbers.forEach((p, values) -> {
+            // only where most objects are numbers, a stray "42" under hasName means nothing
+            if (values.size() * 2 >= counts.get(p)) {
+                double[] sorted = values.stream().mapToDouble(BigDecimal::doubleValue).sorted().toArray();
+                histograms.put(p, new Histogram(sorted));
+            }
+        });
+        return new CatalogStatistics(triples[0], predicates, instances, histograms);
+    }
+
+    public long triples() {
+        return triples;
+    }
+
+    public long count(Node predicate) {
+        PredicateStats stats = predicates.get(predicate);
+        return stats == null ? 0 : stats.triples;
+    }
+
+    public long distinctSubjects(Node predicate) {
+        PredicateStats stats = predicates.get(predicate);
+        return stats == null ? 0 : stats.distinctSubjects;
+    }
+
+    public long distinctObjects(Node predicate) {
+        PredicateStats stats = predicates.get(predicate);
+        return stats == null ? 0 : stats.distinctObjects;
+    }
+
+    public long instances(Node cls) {
+        return instances.getOrDefault(cls, 0L);
+    }
+
+    public Histogram histogram(Node predicate) {
+        return histograms.get(predicate);
+    }
+
+    // rows the pattern gives for one incoming row, with the variables in bound already set
+    public double estimate(Triple pattern, Set<Var> bound) {
+        boolean s = isBound(pattern.getSubject(), bound);
+        boolean o = isBound(pattern.getObject(), bound);
+        Node p = pattern.getPredicate();
+        if (!p.isConcrete()) {
+            // variable predicate: the whole graph, narrowed a little by whatever is bound
+            return (double) triples / ((s ? 10 : 1) * (o ? 10 : 1));
+        }
+        PredicateStats stats = predicates.get(p);
+        if (stats == null) {
+            return 0;
+        }
+        if (TYPE.equals(p) && pattern.getObject().isConcrete()) {
+            double members = instances(pattern.getObject());
+            return s ? Math.min(1, members / Math.max(1, stats.distinctSubjects)) : members;
+        }
+        double n = stats.triples;
+        if (s && o) {
+            return Math.min(1, n / ((double) stats.distinctSubjects * stats.distinctObjects));
+        }
+        if (s) {
+            return n / stats.distinctSubjects;
+        }
+        if (o) {
+            return n / stats.distinctObjects;
+        }
+        return n;
+    }
+
+    private static boolean isBound(Node node, Set<Var> bound) {
+        return node.isConcrete() || (Var.isVar(node) && bound.contains(Var.alloc(node)));
+    }
+
+    // fraction of rows expr keeps; objectOf says which predicate a variable came from,
+    // so comparisons against constants can use that predicate's histogram
+    public double selectivity(Expr expr, Map<Var, Node> objectOf) {
+        if (expr instanceof E_LogicalAnd) {
+            E_LogicalAnd and = (E_LogicalAnd) expr;
+            return selectivity(and.getArg1(), objectOf) * selectivity(and.getArg2(), objectOf);
+        }
+        if (!(expr instanceof ExprFunction2)) {
+            return DEFAULT_SELECTIVITY;
+        }
+        ExprFunction2 compare = (ExprFunction2) expr;
+        Var var = variable(compare.getArg1());
+        Expr constant = compare.getArg2();
+        boolean flipped = false;
+        if (var == null || !constant.isConstant()) {
+            var = variable(compare.getArg2());
+            constant = compare.getArg1();
+            flipped = true;
+        }
+        if (var == null || !constant.isConstant()) {
+            return DEFAULT_SELECTIVITY;
+        }
+        Node predicate = objectOf.get(var);
+        if (expr instanceof E_Equals) {
+            long distinct = predicate == null ? 0 : distinctObjects(predicate);
+            return distinct == 0 ? 0.1 : 1.0 / distinct;
+        }
+        if (expr instanceof E_NotEquals) {
+            return 0.9;
+        }
+        boolean above = expr instanceof E_GreaterThan || expr instanceof E_GreaterThanOrEqual;
+        boolean below = expr instanceof E_LessThan || expr instanceof E_LessThanOrEqual;
+        if (!above && !below) {
+            return DEFAULT_SELECTIVITY;
+        }
+        Histogram histogram = predicate == null ? null : histogram(predicate);
+        BigDecimal threshold = CatalogViews.number(constant.getConstant().asNode());
+        if (histogram == null || threshold == null) {
+            return RANGE_SELECTIVITY;
+        }
+        double fraction = histogram.fractionAbove(threshold.doubleValue());
+        // "5 < ?x" is "?x > 5"
+        return above != flipped ? fraction : 1 - fraction;
+    }
+
+    // ?x, or a cast / function of just ?x such as xsd:int(?score)
+    private static Var variable(Expr expr) {
+        if (expr.isVariable()) {
+            return expr.asVar();
+        }
+        if (expr instanceof ExprFunction && ((ExprFunction) expr).numArgs() == 1
+                && ((ExprFunction) expr).getArg(1).isVariable()) {
+            return ((ExprFunction) expr).getArg(1).asVar();
+        }
+        return null;
+    }
+
+    // for EXPLAIN
+    static String format(double rows) {
+        return rows >= 100 ? String.format("%,.0f", rows) : String.format("%.2f", rows);
+    }
+}
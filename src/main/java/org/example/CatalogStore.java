@@ -0,0 +1,54 @@
+package org.example;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+import org.apache.jena.tdb2.loader.base.LoaderOps;
+import java.io.File;
+
+// Persistent home for the catalog: a TDB2 dataset on local disk.
+// First start bulk-loads the Turtle file, every start after that just opens the
+// (memory-mapped) database files, so nothing has to be re-ingested.
+public class CatalogStore {
+    public static final String DEFAULT_DIRECTORY = "ps2_catalog_tdb2";
+
+    // opens the store at directory, importing catalogFile if the store is empty
+    public static Dataset open(String directory, String catalogFile) {
+        Dataset dataset = TDB2Factory.connectDataset(directory);
+        boolean empty = Txn.calculateRead(dataset, () -> dataset.asDatasetGraph().isEmpty());
+        if (empty) {
+            bulkLoad(dataset, catalogFile);
+        }
+        return dataset;
+    }
+
+    // initial import through the TDB2 parallel loader - much faster than adding
+    // triples through the Model API, but it expects an empty database. Returns the
+    // number of triples loaded
+    public static long bulkLoad(Dataset dataset, String catalogFile) {
+        if (!new File(catalogFile).exists()) {
+            throw new IllegalArgumentException("Catalog file not found: " + catalogFile);
+        }
+        DataLoader loader = LoaderFactory.parallelLoader(dataset.asDatasetGraph(), LoaderOps.outputToLog());
+        loader.startBulk();
+        try {
+            loader.load(catalogFile);
+            loader.finishBulk();
+        } catch (RuntimeException e) {
+            loader.finishException(e);
+            throw e;
+        }
+        return loader.countTriples();
+    }
+
+    // -Dps2.store=tdb2 switches ResearchGraphWithReasoning over to this store
+    public static boolean enabled() {
+        return "tdb2".equalsIgnoreCase(System.getProperty("ps2.store", "memory"));
+    }
+
+    public static String directory() {
+        return System.getProperty("ps2.store.dir", DEFAULT_DIRECTORY);
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.query.text.DatasetGraphText;
+import org.apache.jena.query.text.Entity;
+import org.apache.jena.query.text.EntityDefinition;
+import org.apache.jena.query.text.TextDatasetFactory;
+import org.apache.jena.query.text.TextIndex;
+import org.apache.jena.query.text.TextIndexConfig;
+import org.apache.jena.query.text.TextQueryFuncs;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Lucene index (jena-text) over the catalog's free-text properties, so searches like
+// Query 3's FILTER(CONTAINS(?location, 'Japan')) look up a handful of documents
+// instead of string-matching every developer:
+//
+//   title    - ps2:hasTitle        (games)
+//   name     - ps2:hasName         (developers, characters, awards, series, genres)
+//   location - ps2:headquarteredIn (developers)
+//
+// The index is part of a text dataset wrapped around the real one: anything added or
+// removed through it inside a write transaction is (un)indexed at commit. Triples that
+// go around it (TDB2's bulk loader, the plain base model) are not - open() catches up
+// with a full reindex when it finds no index on disk.
+//
+// Queries use the text:query property function, e.g.
+//   (?game ?score ?title) text:query (ps2:hasTitle "fant*" 20)
+// and have to run against the text dataset (QueryRegistry's Algebra.exec over a bare
+// graph can't see the index).
+public class CatalogTextIndex {
+    public static final String TEXT_NS = "http://jena.apache.org/text#";
+    public static final Node HAS_TITLE = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "hasTitle");
+    public static final Node HAS_NAME = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "hasName");
+    public static final Node HEADQUARTERED_IN = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "headquarteredIn");
+
+    // Query 3 with the location narrowed down by the index first. This is word-level
+    // matching, not CONTAINS: Lucene only finds whole words (any case), so ?country
+    // "Japan" finds "Tokyo, Japan" but "Jap" finds nothing where the plain Query 3 would.
+    // The FILTER stays, so a hit still has to contain ?country exactly as written - the
+    // rows are the plain query's whenever ?country is one or more whole words.
+    // ?maxHits caps the developers the index hands back, text:query's own default is 10000
+    public static final String QUERY_3 =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "PREFIX text: <" + TEXT_NS + "> " +
+        "SELECT ?developer ?title ?year WHERE { " +
+        "  (?dev ?score ?location) text:query (ps2:headquarteredIn ?country ?maxHits) . " +
+        "  ?dev a ps2:Developer . " +
+        "  ?dev ps2:hasName ?developer . " +
+        "  ?game ps2:developedBy ?dev . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "  ?game ps2:releasedIn ?year . " +
+        "  FILTER(CONTAINS(?location, ?country)) " +
+        "} ORDER BY ?developer ?year";
+
+    public static final int DEFAULT_MAX_HITS = 100_000;
+
+    // one search hit
+    public static class Hit {
+        private final Node subject;
+        private final Node literal;
+        private final float score;
+
+        Hit(Node subject, Node literal, float score) {
+            this.subject = subject;
+            this.literal = literal;
+            this.score = score;
+        }
+
+        public Node subject() {
+            return subject;
+        }
+
+        public Node literal() {
+            return literal;
+        }
+
+        public float score() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return subject + " " + literal + " (" + score + ")";
+        }
+    }
+
+    static EntityDefinition entityDefinition() {
+        EntityDefinition definition = new EntityDefinition("uri", "title", HAS_TITLE);
+        definition.set("name", HAS_NAME);
+        definition.set("location", HEADQUARTERED_IN);
+        return definition;
+    }
+
+    // wraps dataset with a text index kept in directory
+    public static Dataset create(Dataset dataset, Directory directory) {
+        TextIndexConfig config = new TextIndexConfig(entityDefinition());
+        config.setValueStored(true); // so text:query can hand back the matching literal
+        return TextDatasetFactory.createLucene(dataset, directory, config);
+    }
+
+    // in-memory dataset and index holding a copy of baseModel, indexed as it is loaded
+    public static Dataset inMemory(Model baseModel) {
+        Dataset dataset = create(DatasetFactory.createTxnMem(), new ByteBuffersDirectory());
+        Txn.executeWrite(dataset, () -> {
+            dataset.getDefaultModel().setNsPrefixes(baseModel.getNsPrefixMap());
+            dataset.getDefaultModel().add(baseModel);
+        });
+        return dataset;
+    }
+
+    // text index in indexDirectory over an existing (e.g. TDB2) dataset; builds the
+    // index from what is already in the dataset if there isn't one yet
+    public static Dataset open(Dataset dataset, String indexDirectory) {
+        try {
+            Directory directory = FSDirectory.open(Paths.get(indexDirectory));
+            boolean exists = DirectoryReader.indexExists(directory);
+            Dataset text = create(dataset, directory);
+            if (!exists) {
+                reindex(text);
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // (re)indexes every title / name / location in the default graph, returns how many
+    public static long reindex(Dataset text) {
+        DatasetGraphText graph = (DatasetGraphText) text.asDatasetGraph();
+        TextIndex index = graph.getTextIndex();
+        EntityDefinition definition = index.getDocDef();
+        long[] count = { 0 };
+        Txn.executeRead(text, () -> {
+            for (Node predicate : new Node[] { HAS_TITLE, HAS_NAME, HEADQUARTERED_IN }) {
+                graph.getDefaultGraph().find(Node.ANY, predicate, Node.ANY).forEachRemaining(t -> {
+                    Entity entity = TextQueryFuncs.entityFromQuad(definition, new Quad(Quad.defaultGraphIRI, t));
+                    if (entity != null) {
+                        index.addEntity(entity);
+                        count[0]++;
+                    }
+                });
+            }
+        });
+        index.commit();
+        return count[0];
+    }
+
+    // Lucene query syntax against one property: "final*", "fantsy~1", "\"god of war\""
+    public static List<Hit> search(Dataset text, Node property, String luceneQuery, int limit) {
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(
+            "PREFIX text: <" + TEXT_NS + "> " +
+            "SELECT ?s ?score ?literal WHERE { (?s ?score ?literal) text:query (?property ?query ?limit) }");
+        pss.setParam("property", property);
+        pss.setLiteral("query", luceneQuery);
+        pss.setLiteral("limit", limit);
+        List<Hit> hits = new ArrayList<>();
+        Txn.executeRead(text, () -> {
+            try (QueryExecution qexec = QueryExecutionFactory.create(pss.asQuery(), text)) {
+                ResultSet results = qexec.execSelect();
+                while (results.hasNext()) {
+                    QuerySolution row = results.next();
+                    hits.add(new Hit(row.get("s").asNode(), row.get("literal").asNode(),
+                        row.getLiteral("score").getFloat()));
+                }
+            }
+        });
+        return hits;
+    }
+
+    // Query 3 through the index; params override the default ?country (and ?maxHits)
+    public static ResultSetRewindable query3(Dataset text, Map<String, ?> params) {
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(QUERY_3);
+        CatalogQueries.defaults("query3").forEach(pss::setParam);
+        pss.setLiteral("maxHits", DEFAULT_MAX_HITS);
+        params.forEach((var, value) -> pss.setParam(var, QueryRegistry.toNode(value)));
+        return Txn.calculateRead(text, () -> {
+            try (QueryExecution qexec = QueryExecutionFactory.create(pss.asQuery(), text)) {
+                return ResultSetFactory.copyResults(qexec.execSelect());
+            }
+        });
+    }
+}
@@ -0,0 +1,381 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.vocabulary.RDF;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Summary views over the base catalog, kept up to date as triples come and go, so the
+// aggregate / threshold queries don't rescan every game each time:
+//
+//   counts  - games per series (partOfSeries), per developer (developedBy), per genre (hasGenre)
+//   sorted  - hasSalesCount, hasRating, hasMetacriticScore values in numeric order
+//
+// select() answers query1 (by rating), query2 (sales above ?minSales), query5 (series
+// counts) and query6 (score at least ?minScore) from them with the same rows as the
+// SPARQL, and returns null for the others. Threshold results stream in descending order
+// straight off the sorted index, so "top 10" or "above X" costs log(n) plus the rows
+// read rather than a pass over all games. The per-row joins (title, developer name,
+// rdf:type Game) are point lookups against the model given, so inferred types work.
+//
+// Listens to the base model like IncrementalTypeReasoner. Jena also reports duplicate
+// adds and removes of absent triples, so the views hold sets (games per group, triples
+// per value) rather than running totals, and a no-op event leaves them as they were.
+// Values that aren't numbers are left out of the sorted indexes: query2 and query6 drop
+// them in their FILTER anyway, but query1 has no FILTER and lists them too, so it goes
+// back to SPARQL (select() returns null) while any game has a non-numeric rating.
+public class CatalogViews extends StatementListener {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node GAME = NodeFactory.createURI(NS + "Game");
+    private static final Node GAME_SERIES = NodeFactory.createURI(NS + "GameSeries");
+    private static final Node HAS_TITLE = NodeFactory.createURI(NS + "hasTitle");
+    private static final Node HAS_NAME = NodeFactory.createURI(NS + "hasName");
+    private static final Node RELEASED_IN = NodeFactory.createURI(NS + "releasedIn");
+
+    public static final Node PART_OF_SERIES = NodeFactory.createURI(NS + "partOfSeries");
+    public static final Node DEVELOPED_BY = NodeFactory.createURI(NS + "developedBy");
+    public static final Node HAS_GENRE = NodeFactory.createURI(NS + "hasGenre");
+    public static final Node HAS_SALES_COUNT = NodeFactory.createURI(NS + "hasSalesCount");
+    public static final Node HAS_RATING = NodeFactory.createURI(NS + "hasRating");
+    public static final Node HAS_METACRITIC_SCORE = NodeFactory.createURI(NS + "hasMetacriticScore");
+
+    private static final Node[] COUNTED = { PART_OF_SERIES, DEVELOPED_BY, HAS_GENRE };
+    private static final Node[] SORTED = { HAS_SALES_COUNT, HAS_RATING, HAS_METACRITIC_SCORE };
+
+    private final Model baseModel;
+    private final Graph base;
+    // predicate -> group (series, developer, genre) -> the games pointing at it
+    private final Map<Node, Map<Node, Set<Node>>> counts = new HashMap<>();
+    // predicate -> value -> the triples carrying it
+    private final Map<Node, NavigableMap<BigDecimal, Set<Triple>>> sorted = new HashMap<>();
+    // predicate -> the triples of a sorted predicate whose value isn't a number
+    private final Map<Node, Set<Triple>> unsorted = new HashMap<>();
+    // query5's rows, built on first use and dropped when a series, its name or its games change
+    // (so they reflect the model of the first select after a change - in practice there is one)
+    private volatile List<Binding> seriesRows;
+
+    public CatalogViews(Model baseModel) {
+        this.baseModel = baseModel;
+        this.base = baseModel.getGraph();
+        for (Node predicate : COUNTED) {
+            counts.put(predicate, new ConcurrentHashMap<>());
+        }
+        for (Node predicate : SORTED) {
+            sorted.put(predicate, new ConcurrentSkipListMap<>());
+            unsorted.put(predicate, ConcurrentHashMap.newKeySet());
+        }
+        rebuild();
+        baseModel.register(this);
+    }
+
+    // stop listening to the base model
+    public void close() {
+        baseModel.unregister(this);
+    }
+
+    private synchronized void rebuild() {
+        counts.values().forEach(Map::clear);
+        sorted.values().forEach(Map::clear);
+        unsorted.values().forEach(Set::clear);
+        seriesRows = null;
+        for (Node predicate : COUNTED) {
+            base.find(Node.ANY, predicate, Node.ANY).forEachRemaining(this::added);
+        }
+        for (Node predicate : SORTED) {
+            base.find(Node.ANY, predicate, Node.ANY).forEachRemaining(this::added);
+        }
+    }
+
+    @Override
+    public void addedStatement(Statement stmt) {
+        added(stmt.asTriple());
+    }
+
+    @Override
+    public void removedStatement(Statement stmt) {
+        removed(stmt.asTriple());
+    }
+
+    // removeAll and friends don't say what went, start over
+    @Override
+    public void notifyEvent(Model m, Object event) {
+        if (event != GraphEvents.startRead && event != GraphEvents.finishRead) {
+            rebuild();
+        }
+    }
+
+    private synchronized void added(Triple triple) {
+        Node predicate = triple.getPredicate();
+        Map<Node, Set<Node>> groups = counts.get(predicate);
+        if (groups != null) {
+            groups.computeIfAbsent(triple.getObject(), k -> ConcurrentHashMap.newKeySet()).add(triple.getSubject());
+        }
+        NavigableMap<BigDecimal, Set<Triple>> index = sorted.get(predicate);
+        if (index != null) {
+            BigDecimal value = number(triple.getObject());
+            if (value != null) {
+                index.computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet()).add(triple);
+            } else {
+                unsorted.get(predicate).add(triple);
+            }
+        }
+        touched(triple);
+    }
+
+    private synchronized void removed(Triple triple) {
+        Node predicate = triple.getPredicate();
+        Map<Node, Set<Node>> groups = counts.get(predicate);
+        if (groups != null) {
+            groups.computeIfPresent(triple.getObject(), (group, games) -> {
+                games.remove(triple.getSubject());
+                return games.isEmpty() ? null : games;
+            });
+        }
+        NavigableMap<BigDecimal, Set<Triple>> index = sorted.get(predicate);
+        if (index != null) {
+            BigDecimal value = number(triple.getObject());
+            if (value != null) {
+                index.computeIfPresent(value, (k, triples) -> {
+                    triples.remove(triple);
+                    return triples.isEmpty() ? null : triples;
+                });
+            } else {
+                unsorted.get(predicate).remove(triple);
+            }
+        }
+        touched(triple);
+    }
+
+    private void touched(Triple triple) {
+        if (PART_OF_SERIES.equals(triple.getPredicate())
+                || ((HAS_NAME.equals(triple.getPredicate()) || TYPE.equals(triple.getPredicate()))
+                    && counts.get(PART_OF_SERIES).containsKey(triple.getSubject()))) {
+            seriesRows = null;
+        }
+    }
+
+    // --- the views themselves ---
+
+    // games per group for partOfSeries / developedBy / hasGenre, unordered
+    public Map<Node, Long> counts(Node predicate) {
+        Map<Node, Long> sizes = new HashMap<>();
+        groups(predicate).forEach((group, games) -> sizes.put(group, (long) games.size()));
+        return sizes;
+    }
+
+    public long count(Node predicate, Node group) {
+        Set<Node> games = groups(predicate).get(group);
+        return games == null ? 0 : games.size();
+    }
+
+    private Map<Node, Set<Node>> groups(Node predicate) {
+        Map<Node, Set<Node>> groups = counts.get(predicate);
+        if (groups == null) {
+            throw new IllegalArgumentException("No count view for " + predicate);
+        }
+        return groups;
+    }
+
+    // (game, predicate, value) triples with value above threshold, highest first;
+    // a null threshold means all of them
+    public Iterator<Triple> descending(Node predicate, BigDecimal threshold, boolean inclusive) {
+        NavigableMap<BigDecimal, Set<Triple>> index = sorted.get(predicate);
+        if (index == null) {
+            throw new IllegalArgumentException("No sorted view for " + predicate);
+        }
+        NavigableMap<BigDecimal, Set<Triple>> range = threshold == null ? index : index.tailMap(threshold, inclusive);
+        return flatMap(range.descendingMap().values().iterator(), Set::iterator);
+    }
+
+    // the n highest (game, predicate, value) triples
+    public List<Triple> top(Node predicate, int n) {
+        List<Triple> result = new ArrayList<>(n);
+        Iterator<Triple> iter = descending(predicate, null, true);
+        while (iter.hasNext() && result.size() < n) {
+            result.add(iter.next());
+        }
+        return result;
+    }
+
+    // --- named queries ---
+
+    // the named query answered from the views, or null if it isn't one they cover;
+    // params override the defaults as in QueryRegistry
+    public ResultSet select(String name, Map<String, ?> params, Model model) {
+        Map<String, Node> values = new HashMap<>(CatalogQueries.defaults(name));
+        params.forEach((var, value) -> values.put(var, QueryRegistry.toNode(value)));
+        Graph graph = model.getGraph();
+        switch (name) {
+            case "query1":
+                if (!unsorted.get(HAS_RATING).isEmpty()) {
+                    return null;
+                }
+                return results(flatMap(games(graph, descending(HAS_RATING, null, true)), rating ->
+                    join(rating, "rating", List.of(
+                        row -> objects(graph, rating.getSubject(), HAS_TITLE, row, "title"),
+                        row -> types(graph, rating.getSubject(), row)))), "title", "type", "rating");
+            case "query2":
+                return results(flatMap(games(graph, above(HAS_SALES_COUNT, values.get("minSales"), false)), sales ->
+                    join(sales, "sales", List.of(
+                        row -> objects(graph, sales.getSubject(), HAS_TITLE, row, "title"),
+                        row -> names(graph, sales.getSubject(), DEVELOPED_BY, row, "developer")))),
+                    "title", "sales", "developer");
+            case "query5":
+                return results(seriesRows(graph).iterator(), "seriesName", "gameCount");
+            case "query6":
+                return results(flatMap(games(graph, above(HAS_METACRITIC_SCORE, values.get("minScore"), true)), score ->
+                    join(score, "score", List.of(
+                        row -> objects(graph, score.getSubject(), HAS_TITLE, row, "title"),
+                        row -> objects(graph, score.getSubject(), RELEASED_IN, row, "year"),
+                        row -> names(graph, score.getSubject(), HAS_GENRE, row, "genre")))),
+                    "title", "score", "year", "genre");
+            default:
+                return null;
+        }
+    }
+
+    private Iterator<Triple> above(Node predicate, Node threshold, boolean inclusive) {
+        BigDecimal value = number(threshold);
+        // a non-numeric threshold makes the FILTER an error for every row
+        return value == null ? Collections.emptyIterator() : descending(predicate, value, inclusive);
+    }
+
+    // only subjects that are (possibly inferred) ps2:Games
+    private static Iterator<Triple> games(Graph graph, Iterator<Triple> triples) {
+        return filter(triples, t -> graph.contains(t.getSubject(), TYPE, GAME));
+    }
+
+    // GROUP BY ?seriesName over the maintained counts; a name shared by two series sums them
+    private List<Binding> seriesRows(Graph graph) {
+        List<Binding> rows = seriesRows;
+        if (rows != null) {
+            return rows;
+        }
+        Map<Node, Long> byName = new HashMap<>();
+        counts.get(PART_OF_SERIES).forEach((series, games) -> {
+            if (graph.contains(series, TYPE, GAME_SERIES)) {
+                long count = games.size();
+                graph.find(series, HAS_NAME, Node.ANY).forEachRemaining(t -> byName.merge(t.getObject(), count, Long::sum));
+            }
+        });
+        List<Map.Entry<Node, Long>> entries = new ArrayList<>(byName.entrySet());
+        entries.sort(Map.Entry.<Node, Long>comparingByValue().reversed());
+        rows = new ArrayList<>(entries.size());
+        for (Map.Entry<Node, Long> entry : entries) {
+            rows.add(Binding.builder()
+                .add(Var.alloc("seriesName"), entry.getKey())
+                .add(Var.alloc("gameCount"), NodeValue.makeInteger(entry.getValue()).asNode())
+                .build());
+        }
+        seriesRows = rows;
+        return rows;
+    }
+
+    // ?var bound to the value, then each step extends the rows every way it can
+    private static Iterator<Binding> join(Triple value, String var, List<Function<Binding, Iterator<Binding>>> steps) {
+        Iterator<Binding> rows = Collections.singletonList(
+            Binding.builder().add(Var.alloc(var), value.getObject()).build()).iterator();
+        for (Function<Binding, Iterator<Binding>> step : steps) {
+            rows = flatMap(rows, step);
+        }
+        return rows;
+    }
+
+    // row + ?var for each (subject predicate ?var)
+    private static Iterator<Binding> objects(Graph graph, Node subject, Node predicate, Binding row, String var) {
+        return graph.find(subject, predicate, Node.ANY).mapWith(t -> extend(row, var, t.getObject()));
+    }
+
+    // row + ?var for the names of whatever subject points at through predicate
+    private static Iterator<Binding> names(Graph graph, Node subject, Node predicate, Binding row, String var) {
+        return flatMap(graph.find(subject, predicate, Node.ANY), t -> objects(graph, t.getObject(), HAS_NAME, row, var));
+    }
+
+    // query1's ?type: every type but ps2:Game itself
+    private static Iterator<Binding> types(Graph graph, Node subject, Binding row) {
+        return graph.find(subject, TYPE, Node.ANY)
+            .filterDrop(t -> GAME.equals(t.getObject()))
+            .mapWith(t -> extend(row, "type", t.getObject()));
+    }
+
+    private static Binding extend(Binding row, String var, Node value) {
+        return Binding.builder(row).add(Var.alloc(var), value).build();
+    }
+
+    private static ResultSet results(Iterator<Binding> rows, String... vars) {
+        List<Var> projected = new ArrayList<>();
+        for (String var : vars) {
+            projected.add(Var.alloc(var));
+        }
+        return ResultSet.adapt(RowSetStream.create(projected, rows));
+    }
+
+    // numeric value of a literal, or null for anything SPARQL wouldn't compare as a number
+    static BigDecimal number(Node node) {
+        if (node == null || !node.isLiteral()) {
+            return null;
+        }
+        NodeValue value = NodeValue.makeNode(node);
+        if (value.isInteger() || value.isDecimal()) {
+            return value.getDecimal();
+        }
+        if ((value.isDouble() || value.isFloat()) && Double.isFinite(value.getDouble())) {
+            return BigDecimal.valueOf(value.getDouble());
+        }
+        return null;
+    }
+
+    private static <T, R> Iterator<R> flatMap(Iterator<T> outer, Function<T, Iterator<R>> inner) {
+        return new Iterator<>() {
+            private Iterator<R> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!outer.hasNext()) {
+                        return false;
+                    }
+                    current = inner.apply(outer.next());
+                }
+                return true;
+            }
+
+            @Override
+            public R next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    private static <T> Iterator<T> filter(Iterator<T> iter, Predicate<T> keep) {
+        return flatMap(iter, t -> keep.test(t) ? Collections.singletonList(t).iterator() : Collections.emptyIterator());
+    }
+}
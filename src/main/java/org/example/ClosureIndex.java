@@ -0,0 +1,410 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.pfunction.PFuncSimple;
+import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
+import org.apache.jena.sparql.util.IterLib;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Transitive closure of one predicate (ps2:isSequelOf, ps2:partOfSeries) kept as
+// interval labels, so "everything descending from God of War" or "is X somewhere down
+// Y's chain" doesn't re-walk the graph the way a sequelOf+ property path does.
+//
+// Edges point child -> parent (sequel isSequelOf original). Every weakly connected
+// family of nodes is a Component: a DFS from its roots (nodes with no parent) numbers
+// each node on the way down (pre) and up (post), and lays the nodes out in pre order.
+// Then
+//   descendants(x) = the nodes laid out between pre(x) and post(x)   - O(answer)
+//   reaches(x, y)  = pre(y) < pre(x) && post(x) <= post(y)            - O(1)
+// A node with two parents is visited once per parent and simply has two labels.
+//
+// Two things break the labels, so a DFS that runs into either gives up on them and
+// marks its component as walked instead - each node once, lookups below it follow the
+// edges like ancestors() does:
+//   - a cycle (no sense for sequels, but data is data): a node on one is its own
+//     descendant, which an interval can't say
+//   - shared sequels stacked on top of each other (diamond on diamond ...): every
+//     extra parent doubles the labels below it, so once a DFS has written more than
+//     twice its distinct nodes plus LABEL_SLACK labels it stops
+// descendants(), reaches() and ancestors() agree with the isSequelOf+ path either way.
+//
+// Listens to the base model. An added or removed edge relabels only the component(s)
+// at its two ends, not the whole index.
+//
+// For SPARQL, register() installs a property function:
+//   ?sequel fn:sequelOf ?original        same rows as  ?sequel ps2:isSequelOf+ ?original
+//   ?game fn:partOfSeries ?series        same rows as  ?game ps2:partOfSeries+ ?series
+// Property functions are global (ARQ's registry), so one index per function URI.
+public class ClosureIndex extends StatementListener {
+    public static final String FN = "http://example.org/ps2games/fn#";
+    public static final Node IS_SEQUEL_OF = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "isSequelOf");
+    public static final Node PART_OF_SERIES = NodeFactory.createURI(ResearchGraphWithReasoning.NS + "partOfSeries");
+
+    // "all games descending from ?original", answered from the index
+    public static final String DESCENDANTS_QUERY =
+        "PREFIX ps2: <http://example.org/ps2games#> " +
+        "PREFIX fn: <" + FN + "> " +
+        "SELECT ?title WHERE { " +
+        "  ?game fn:sequelOf ?original . " +
+        "  ?game ps2:hasTitle ?title . " +
+        "} ORDER BY ?title";
+
+    // one position of a node in a component's DFS
+    private static class Label {
+        final Component component;
+        final int pre;
+        final int post; // pre of the last node below this one
+
+        Label(Component component, int pre, int post) {
+            this.component = component;
+            this.pre = pre;
+            this.post = post;
+        }
+    }
+
+    private static class Component {
+        final List<Node> byPre = new ArrayList<>();
+        // labels unusable (cycle, or too many repeats): byPre lists each node once
+        // and lookups walk the edges
+        boolean walked;
+    }
+
+    // labels a DFS may write beyond twice its distinct nodes before it gives up
+    static final int LABEL_SLACK = 1024;
+
+    private final Model baseModel;
+    private final Node predicate;
+    private final Map<Node, Set<Node>> parents = new HashMap<>();
+    private final Map<Node, Set<Node>> children = new HashMap<>();
+    private final Map<Node, List<Label>> labels = new HashMap<>();
+    private long relabelled = 0;
+
+    public ClosureIndex(Model baseModel, Node predicate) {
+        this.baseModel = baseModel;
+        this.predicate = predicate;
+        rebuild();
+        baseModel.register(this);
+    }
+
+    // stop listening to the base model
+    public void close() {
+        baseModel.unregister(this);
+    }
+
+    private synchronized void rebuild() {
+        parents.clear();
+        children.clear();
+        labels.clear();
+        Graph graph = baseModel.getGraph();
+        graph.find(Node.ANY, predicate, Node.ANY).forEachRemaining(t -> link(t.getSubject(), t.getObject()));
+        Set<Node> all = new HashSet<>(parents.keySet());
+        all.addAll(children.keySet());
+        relabel(all);
+    }
+
+    @Override
+    public void addedStatement(Statement stmt) {
+        Triple triple = stmt.asTriple();
+        if (predicate.equals(triple.getPredicate())) {
+            changed(triple, true);
+        }
+    }
+
+    @Override
+    public void removedStatement(Statement stmt) {
+        Triple triple = stmt.asTriple();
+        if (predicate.equals(triple.getPredicate())) {
+            changed(triple, false);
+        }
+    }
+
+    // removeAll and friends don't say what went, start over
+    @Override
+    public void notifyEvent(Model m, Object event) {
+        if (event != GraphEvents.startRead && event != GraphEvents.finishRead) {
+            rebuild();
+        }
+    }
+
+    private synchronized void changed(Triple triple, boolean added) {
+        Node child = triple.getSubject();
+        Node parent = triple.getObject();
+        // everything in the components at either end before the change, and in the
+        // components those share a node with (a node with two parents sits in both)
+        Set<Node> affected = new HashSet<>();
+        Set<Component> seen = new HashSet<>();
+        Deque<Node> todo = new ArrayDeque<>(List.of(child, parent));
+        while (!todo.isEmpty()) {
+            Node node = todo.pop();
+            if (affected.add(node)) {
+                for (Label label : labels.getOrDefault(node, Collections.emptyList())) {
+                    if (seen.add(label.component)) {
+                        todo.addAll(label.component.byPre);
+                    }
+                }
+            }
+        }
+        if (added) {
+            link(child, parent);
+        } else {
+            unlink(child, parent);
+        }
+        relabel(affected);
+    }
+
+    private void link(Node child, Node parent) {
+        parents.computeIfAbsent(child, k -> new LinkedHashSet<>()).add(parent);
+        children.computeIfAbsent(parent, k -> new LinkedHashSet<>()).add(child);
+    }
+
+    private void unlink(Node child, Node parent) {
+        Set<Node> up = parents.get(child);
+        if (up != null && up.remove(parent) && up.isEmpty()) {
+            parents.remove(child);
+        }
+        Set<Node> down = children.get(parent);
+        if (down != null && down.remove(child) && down.isEmpty()) {
+            children.remove(parent);
+        }
+    }
+
+    // new components for every node in nodes, which must be a union of whole components
+    private void relabel(Set<Node> nodes) {
+        nodes.forEach(labels::remove);
+        Set<Node> done = new HashSet<>();
+        List<Node> starts = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!parents.containsKey(node)) {
+                starts.add(node);
+            }
+        }
+        // roots first, then whatever only a cycle leads to
+        for (int pass = 0; pass < 2; pass++) {
+            for (Node start : pass == 0 ? starts : new ArrayList<>(nodes)) {
+                if (done.contains(start) || !(parents.containsKey(start) || children.containsKey(start))) {
+                    continue;
+                }
+                Component component = new Component();
+                if (!label(start, component, done)) {
+                    // nodes still on the DFS stack have no label yet
+                    for (Node node : new HashSet<>(component.byPre)) {
+                        labels.getOrDefault(node, new ArrayList<>(0)).removeIf(label -> label.component == component);
+                    }
+                    component.byPre.clear();
+                    component.walked = true;
+                    walk(start, component, done);
+                }
+                relabelled += component.byPre.size();
+            }
+        }
+    }
+
+    // iterative DFS, chains can be thousands of sequels long. False if it hit a cycle or
+    // wrote too many labels, leaving the component half labelled for relabel to undo
+    private boolean label(Node root, Component component, Set<Node> done) {
+        Set<Node> onPath = new HashSet<>();
+        Set<Node> distinct = new HashSet<>();
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[] { root, enter(root, component, onPath, done), component.byPre.size() - 1 });
+        distinct.add(root);
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.peek();
+            @SuppressWarnings("unchecked")
+            Iterator<Node> next = (Iterator<Node>) frame[1];
+            if (next.hasNext()) {
+                Node child = next.next();
+                distinct.add(child);
+                if (onPath.contains(child) || component.byPre.size() >= 2 * distinct.size() + LABEL_SLACK) {
+                    return false;
+                }
+                stack.push(new Object[] { child, enter(child, component, onPath, done), component.byPre.size() - 1 });
+                continue;
+            }
+            stack.pop();
+            Node node = (Node) frame[0];
+            onPath.remove(node);
+            labels.computeIfAbsent(node, k -> new ArrayList<>(1))
+                .add(new Label(component, (Integer) frame[2], component.byPre.size() - 1));
+        }
+        return true;
+    }
+
+    private Iterator<Node> enter(Node node, Component component, Set<Node> onPath, Set<Node> done) {
+        component.byPre.add(node);
+        onPath.add(node);
+        done.add(node);
+        return children.getOrDefault(node, Collections.emptySet()).iterator();
+    }
+
+    // everything below root once each, with a label that only records membership
+    private void walk(Node root, Component component, Set<Node> done) {
+        for (Node node : reachable(root, children, true)) {
+            labels.computeIfAbsent(node, k -> new ArrayList<>(1))
+                .add(new Label(component, component.byPre.size(), component.byPre.size()));
+            component.byPre.add(node);
+            done.add(node);
+        }
+    }
+
+    // nodes reachable from start over edges, in DFS order; start itself only if it is on
+    // a cycle, unless includeStart
+    private static Set<Node> reachable(Node start, Map<Node, Set<Node>> edges, boolean includeStart) {
+        Set<Node> result = new LinkedHashSet<>();
+        if (includeStart) {
+            result.add(start);
+        }
+        Deque<Node> todo = new ArrayDeque<>(edges.getOrDefault(start, Collections.emptySet()));
+        while (!todo.isEmpty()) {
+            Node next = todo.pop();
+            if (result.add(next)) {
+                todo.addAll(edges.getOrDefault(next, Collections.emptySet()));
+            }
+        }
+        return result;
+    }
+
+    private boolean walked(Node node) {
+        for (Label label : labels.getOrDefault(node, Collections.emptyList())) {
+            if (label.component.walked) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- lookups ---
+
+    // every node below node (sequels of sequels ...), node itself only if it's on a cycle
+    public synchronized Set<Node> descendants(Node node) {
+        if (walked(node)) {
+            return reachable(node, children, false);
+        }
+        Set<Node> result = new LinkedHashSet<>();
+        for (Label label : labels.getOrDefault(node, Collections.emptyList())) {
+            result.addAll(label.component.byPre.subList(label.pre + 1, label.post + 1));
+        }
+        return result;
+    }
+
+    // every node above node (its original, that one's original ...), node itself only
+    // if it's on a cycle
+    public synchronized Set<Node> ancestors(Node node) {
+        return reachable(node, parents, false);
+    }
+
+    // true if descendant is somewhere below ancestor; same answer as
+    // descendants(ancestor).contains(descendant)
+    public synchronized boolean reaches(Node descendant, Node ancestor) {
+        if (walked(ancestor)) {
+            return reachable(ancestor, children, false).contains(descendant);
+        }
+        // labels of an unwalked node are exact below it: no cycle there, so a node
+        // never reaches itself and the strict pre < is right
+        for (Label below : labels.getOrDefault(descendant, Collections.emptyList())) {
+            for (Label above : labels.getOrDefault(ancestor, Collections.emptyList())) {
+                if (below.component == above.component && above.pre < below.pre && below.post <= above.post) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // the whole franchise node belongs to: its roots and everything below them, in DFS order
+    public synchronized Set<Node> chain(Node node) {
+        Set<Node> result = new LinkedHashSet<>();
+        for (Label label : labels.getOrDefault(node, Collections.emptyList())) {
+            result.addAll(label.component.byPre);
+        }
+        return result;
+    }
+
+    // every (descendant, ancestor) pair
+    public synchronized List<Node[]> pairs() {
+        List<Node[]> result = new ArrayList<>();
+        for (Node node : labels.keySet()) {
+            for (Node ancestor : ancestors(node)) {
+                result.add(new Node[] { node, ancestor });
+            }
+        }
+        return result;
+    }
+
+    // nodes labelled since creation, to see what updates cost
+    public synchronized long relabelled() {
+        return relabelled;
+    }
+
+    // --- SPARQL ---
+
+    // makes ?s <functionUri> ?o answer from this index
+    public void register(String functionUri) {
+        PropertyFunctionRegistry.get().put(functionUri, uri -> new ClosureFunction(this));
+    }
+
+    // the two functions the catalog uses, over one base model
+    public static void registerAll(Model baseModel) {
+        new ClosureIndex(baseModel, IS_SEQUEL_OF).register(FN + "sequelOf");
+        new ClosureIndex(baseModel, PART_OF_SERIES).register(FN + "partOfSeries");
+    }
+
+    private static class ClosureFunction extends PFuncSimple {
+        private final ClosureIndex index;
+
+        ClosureFunction(ClosureIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public QueryIterator execEvaluated(Binding binding, Node subject, Node predicate, Node object,
+                                           ExecutionContext execCxt) {
+            if (subject.isConcrete() && object.isConcrete()) {
+                return index.reaches(subject, object) ? IterLib.result(binding, execCxt) : IterLib.noResults(execCxt);
+            }
+            List<Binding> rows = new ArrayList<>();
+            if (subject.isConcrete()) {
+                for (Node ancestor : index.ancestors(subject)) {
+                    rows.add(Binding.builder(binding).add(Var.alloc(object), ancestor).build());
+                }
+            } else if (object.isConcrete()) {
+                for (Node descendant : index.descendants(object)) {
+                    rows.add(Binding.builder(binding).add(Var.alloc(subject), descendant).build());
+                }
+            } else {
+                for (Node[] pair : index.pairs()) {
+                    if (subject.equals(object)) {
+                        if (pair[0].equals(pair[1])) {
+                            rows.add(Binding.builder(binding).add(Var.alloc(subject), pair[0]).build());
+                        }
+                    } else {
+                        rows.add(Binding.builder(binding)
+                            .add(Var.alloc(subject), pair[0]).add(Var.alloc(object), pair[1]).build());
+                    }
+                }
+            }
+            return QueryIterPlainWrapper.create(rows.iterator(), execCxt);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Read-mostly in-memory graph that keeps triples as ints instead of Triple objects.
+//
+// Every IRI / literal / blank node gets an int id from a dictionary (one Node object per
+// distinct term, not per triple). The triples themselves live in three sorted int arrays
+// - SPO, POS and OSP, 12 bytes per triple each - and a find is a binary search for the
+// bound prefix followed by a scan of the range. With offHeap=true the arrays are direct
+// buffers, so the GC never has to look at them.
+//
+// Writes don't touch the arrays directly: new triples go into a small ordinary graph
+// (indexed, so finds still see them) and deletes into a second one that filters reads.
+// Once those hold more than max(4096, size/8) triples everything is merged into fresh
+// arrays - amortised O(1) per write, but a write-heavy workload is better off with the
+// default graph. Literals in the arrays are matched by term, like TDB2 (so "1"^^xsd:int
+// and "01"^^xsd:int are different); call compact() after loading to get that everywhere.
+//
+// Like the default graph, concurrent readers are fine but writers need the caller's lock.
+public class EncodedGraph extends GraphBase {
+    private static final int S = 0, P = 1, O = 2;
+    // tuple column -> triple position for each index
+    private static final int[] SPO = { S, P, O };
+    private static final int[] POS = { P, O, S };
+    private static final int[] OSP = { O, S, P };
+    private static final int MIN_COMPACT = 4096;
+
+    private final boolean offHeap;
+
+    // dictionary
+    private final Map<Node, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Node[] nodes = new Node[1024];
+    private int nodeCount = 0;
+
+    // sorted, immutable once built; replaced as a whole on compaction
+    private volatile Store store;
+    private final Graph pending = GraphFactory.createDefaultGraph();
+    private final Graph deleted = GraphFactory.createDefaultGraph();
+
+    private static class Store {
+        final IntBuffer spo;
+        final IntBuffer pos;
+        final IntBuffer osp;
+        final int size;
+
+        Store(IntBuffer spo, IntBuffer pos, IntBuffer osp, int size) {
+            this.spo = spo;
+            this.pos = pos;
+            this.osp = osp;
+            this.size = size;
+        }
+    }
+
+    public EncodedGraph() {
+        this(false);
+    }
+
+    public EncodedGraph(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.store = new Store(allocate(0), allocate(0), allocate(0), 0);
+    }
+
+    public static Model createModel(boolean offHeap) {
+        return ModelFactory.createModelForGraph(new EncodedGraph(offHeap));
+    }
+
+    // --- reads ---
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        ExtendedIterator<Triple> result = findInStore(store, pattern);
+        if (!deleted.isEmpty()) {
+            result = result.filterDrop(deleted::contains);
+        }
+        if (!pending.isEmpty()) {
+            result = result.andThen(pending.find(pattern));
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean graphBaseContains(Triple t) {
+        if (!t.isConcrete()) {
+            return super.graphBaseContains(t);
+        }
+        return pending.contains(t) || (storeContains(store, t) && !deleted.contains(t));
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return store.size - deleted.size() + pending.size();
+    }
+
+    private ExtendedIterator<Triple> findInStore(Store current, Triple pattern) {
+        Node s = pattern.getSubject(), p = pattern.getPredicate(), o = pattern.getObject();
+        int[] key = new int[3];
+        // pick the index whose leading columns are the bound positions
+        int[] order;
+        IntBuffer index;
+        if (s.isConcrete()) {
+            if (!p.isConcrete() && o.isConcrete()) {
+                order = OSP;
+                index = current.osp;
+            } else {
+                order = SPO;
+                index = current.spo;
+            }
+        } else if (p.isConcrete()) {
+            order = POS;
+            index = current.pos;
+        } else if (o.isConcrete()) {
+            order = OSP;
+            index = current.osp;
+        } else {
+            order = SPO;
+            index = current.spo;
+        }
+        Node[] terms = { s, p, o };
+        int prefix = 0;
+        while (prefix < 3 && terms[order[prefix]].isConcrete()) {
+            Integer id = ids.get(terms[order[prefix]]);
+            if (id == null) {
+                return NullIterator.instance(); // a term we've never seen can't match
+            }
+            key[prefix++] = id;
+        }
+        int from = lowerBound(index, current.size, key, prefix);
+        int to = upperBound(index, current.size, key, prefix);
+        return new RangeIterator(index, order, from, to, nodes);
+    }
+
+    private boolean storeContains(Store current, Triple t) {
+        Integer s = ids.get(t.getSubject()), p = ids.get(t.getPredicate()), o = ids.get(t.getObject());
+        if (s == null || p == null || o == null) {
+            return false;
+        }
+        int[] key = { s, p, o };
+        return lowerBound(current.spo, current.size, key, 3) < upperBound(current.spo, current.size, key, 3);
+    }
+
+    // --- writes ---
+
+    @Override
+    public void performAdd(Triple t) {
+        if (deleted.contains(t)) {
+            deleted.delete(t); // still in the arrays, just not hidden any more
+        } else if (!storeContains(store, t)) {
+            pending.add(t);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+        if (pending.contains(t)) {
+            pending.delete(t);
+        } else if (storeContains(store, t)) {
+            deleted.add(t);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void clear() {
+        store = new Store(allocate(0), allocate(0), allocate(0), 0);
+        pending.clear();
+        deleted.clear();
+        getEventManager().notifyEvent(this, GraphEvents.removeAll);
+    }
+
+    private void compactIfNeeded() {
+        if (pending.size() + deleted.size() > Math.max(MIN_COMPACT, store.size / 8)) {
+            compact();
+        }
+    }
+
+    // merges pending adds and deletes into new sorted arrays; call after a bulk load so
+    // reads don't go through the side graphs
+    public synchronized void compact() {
+        if (pending.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        Store current = store;
+        int[] adds = encode(pending);
+        int[] removes = encode(deleted);
+        IntBuffer spo = merge(current.spo, current.size, adds, removes, SPO);
+        IntBuffer pos = merge(current.pos, current.size, adds, removes, POS);
+        IntBuffer osp = merge(current.osp, current.size, adds, removes, OSP);
+        store = new Store(spo, pos, osp, spo.capacity() / 3);
+        pending.clear();
+        deleted.clear();
+    }
+
+    private int[] encode(Graph graph) {
+        int[] tuples = new int[graph.size() * 3];
+        int i = 0;
+        ExtendedIterator<Triple> iter = graph.find();
+        try {
+            while (iter.hasNext()) {
+                Triple t = iter.next();
+                tuples[i++] = id(t.getSubject());
+                tuples[i++] = id(t.getPredicate());
+                tuples[i++] = id(t.getObject());
+            }
+        } finally {
+            iter.close();
+        }
+        return tuples;
+    }
+
+    private synchronized int id(Node node) {
+        Integer id = ids.get(node);
+        if (id != null) {
+            return id;
+        }
+        if (nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        nodes[nodeCount] = node;
+        ids.put(node, nodeCount);
+        return nodeCount++;
+    }
+
+    // sorted store + sorted adds, minus removes, without duplicates, in one pass
+    private IntBuffer merge(IntBuffer index, int size, int[] spoAdds, int[] spoRemoves, int[] order) {
+        int[] adds = permute(spoAdds, order);
+        int[] removes = permute(spoRemoves, order);
+        sort(adds, 0, adds.length / 3);
+        sort(removes, 0, removes.length / 3);
+
+        int[] out = new int[(size + adds.length / 3) * 3];
+        int n = 0, i = 0, a = 0, r = 0;
+        int[] next = new int[3];
+        while (i < size || a < adds.length / 3) {
+            boolean fromStore = a >= adds.length / 3
+                || (i < size && compare(index, i, adds, a) <= 0);
+            if (fromStore) {
+                next[0] = index.get(i * 3);
+                next[1] = index.get(i * 3 + 1);
+                next[2] = index.get(i * 3 + 2);
+                i++;
+            } else {
+                System.arraycopy(adds, a * 3, next, 0, 3);
+                a++;
+            }
+            while (r < removes.length / 3 && compare(removes, r, next) < 0) {
+                r++;
+            }
+            if (r < removes.length / 3 && compare(removes, r, next) == 0) {
+                continue;
+            }
+            if (n > 0 && compare(out, n - 1, next) == 0) {
+                continue;
+            }
+            System.arraycopy(next, 0, out, n * 3, 3);
+            n++;
+        }
+        if (!offHeap) {
+            return IntBuffer.wrap(n * 3 == out.length ? out : Arrays.copyOf(out, n * 3));
+        }
+        IntBuffer buffer = allocate(n * 3);
+        buffer.put(out, 0, n * 3);
+        buffer.flip();
+        return buffer;
+    }
+
+    private IntBuffer allocate(int ints) {
+        if (offHeap) {
+            return ByteBuffer.allocateDirect(ints * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return IntBuffer.allocate(ints);
+    }
+
+    private static int[] permute(int[] spo, int[] order) {
+        int[] out = new int[spo.length];
+        for (int i = 0; i < spo.length; i += 3) {
+            out[i] = spo[i + order[0]];
+            out[i + 1] = spo[i + order[1]];
+            out[i + 2] = spo[i + order[2]];
+        }
+        return out;
+    }
+
+    // --- tuple arithmetic ---
+
+    // first tuple whose first k columns are >= key
+    private static int lowerBound(IntBuffer index, int size, int[] key, int k) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(index, mid, key, k) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // first tuple whose first k columns are > key
+    private static int upperBound(IntBuffer index, int size, int[] key, int k) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(index, mid, key, k) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int comparePrefix(IntBuffer index, int tuple, int[] key, int k) {
+        for (int c = 0; c < k; c++) {
+            int cmp = Integer.compare(index.get(tuple * 3 + c), key[c]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static int compare(IntBuffer index, int tuple, int[] other, int otherTuple) {
+        for (int c = 0; c < 3; c++) {
+            int cmp = Integer.compare(index.get(tuple * 3 + c), other[otherTuple * 3 + c]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static int compare(int[] tuples, int tuple, int[] key) {
+        for (int c = 0; c < 3; c++) {
+            int cmp = Integer.compare(tuples[tuple * 3 + c], key[c]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareTuples(int[] tuples, int x, int y) {
+        for (int c = 0; c < 3; c++) {
+            int cmp = Integer.compare(tuples[x * 3 + c], tuples[y * 3 + c]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static void swap(int[] tuples, int x, int y) {
+        for (int c = 0; c < 3; c++) {
+            int tmp = tuples[x * 3 + c];
+            tuples[x * 3 + c] = tuples[y * 3 + c];
+            tuples[y * 3 + c] = tmp;
+        }
+    }
+
+    // quicksort over 3-int tuples in [from, to), insertion sort for short ranges
+    private static void sort(int[] tuples, int from, int to) {
+        while (to - from > 16) {
+            int mid = (from + to) >>> 1;
+            // median of three into from
+            if (compareTuples(tuples, mid, from) < 0) swap(tuples, mid, from);
+            if (compareTuples(tuples, to - 1, from) < 0) swap(tuples, to - 1, from);
+            if (compareTuples(tuples, to - 1, mid) < 0) swap(tuples, to - 1, mid);
+            swap(tuples, from, mid);
+            // 3-way partition around tuples[from]: [from, lt) < pivot, [lt, gt) == pivot
+            int lt = from, i = from + 1, gt = to;
+            while (i < gt) {
+                int cmp = compareTuples(tuples, i, lt);
+                if (cmp < 0) {
+                    swap(tuples, i++, lt++);
+                } else if (cmp > 0) {
+                    swap(tuples, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+            // recurse into the smaller side, loop on the larger
+            if (lt - from < to - gt) {
+                sort(tuples, from, lt);
+                from = gt;
+            } else {
+                sort(tuples, gt, to);
+                to = lt;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && compareTuples(tuples, j, j - 1) < 0; j--) {
+                swap(tuples, j, j - 1);
+            }
+        }
+    }
+
+    // decodes tuples [from, to) of one index back into Triples
+    private static class RangeIterator extends NiceIterator<Triple> {
+        private final IntBuffer index;
+        private final int[] order;
+        private final Node[] dictionary;
+        private final int to;
+        private int next;
+
+        RangeIterator(IntBuffer index, int[] order, int from, int to, Node[] dictionary) {
+            this.index = index;
+            this.order = order;
+            this.next = from;
+            this.to = to;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < to;
+        }
+
+        @Override
+        public Triple next() {
+            if (next >= to) {
+                throw new NoSuchElementException();
+            }
+            Node[] spo = new Node[3];
+            for (int c = 0; c < 3; c++) {
+                spo[order[c]] = dictionary[index.get(next * 3 + c)];
+            }
+            next++;
+            return Triple.create(spo[S], spo[P], spo[O]);
+        }
+    }
+
+    // ids handed out so far, for the memory report
+    public int dictionarySize() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,344 @@
+package org.example;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Whole-graph analytics that SPARQL over the InfModel can't do in reasonable time:
+//
+//   pageRank()    - influence; games point at their developer, publisher, series, ...
+//                   so the studios behind many (well-connected) games score highest
+//   components()  - weakly connected components, e.g. over partOfSeries + isSequelOf
+//                   they are the franchises
+//   communities() - label propagation, e.g. over protagonists / antagonists / series
+//                   it groups characters that keep appearing together
+//
+// The model is projected once into compressed sparse rows (int offsets + int targets,
+// forward and reverse) keyed by dense node ids, and every iteration is a parallel
+// loop over those arrays on this instance's fork-join pool. Nothing touches Jena until
+// write() puts the results back as triples (ps2:influenceScore etc).
+public class GraphAnalytics implements AutoCloseable {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    public static final Node INFLUENCE_SCORE = NodeFactory.createURI(NS + "influenceScore");
+    public static final Node COMPONENT_ID = NodeFactory.createURI(NS + "componentId");
+    public static final Node COMMUNITY_ID = NodeFactory.createURI(NS + "communityId");
+
+    // schema edges would make every game a neighbour of ps2:Game
+    private static final Set<Node> SCHEMA = Set.of(RDF.type.asNode(), RDFS.subClassOf.asNode(),
+        RDFS.subPropertyOf.asNode(), RDFS.domain.asNode(), RDFS.range.asNode());
+
+    // every resource-to-resource edge except the schema ones
+    public static final Predicate<Node> ALL_EDGES = p -> !SCHEMA.contains(p);
+
+    // edges in CSR form; node ids are 0..nodeCount()-1 in order of first appearance
+    public static class Projection {
+        private final List<Node> nodes;
+        private final Map<Node, Integer> ids;
+        private final int[] outOffsets;
+        private final int[] outTargets;
+        private final int[] inOffsets;
+        private final int[] inSources;
+
+        private Projection(List<Node> nodes, Map<Node, Integer> ids, int[] sources, int[] targets, int edges) {
+            this.nodes = nodes;
+            this.ids = ids;
+            int n = nodes.size();
+            this.outOffsets = new int[n + 1];
+            this.outTargets = new int[edges];
+            this.inOffsets = new int[n + 1];
+            this.inSources = new int[edges];
+            fill(sources, targets, edges, outOffsets, outTargets);
+            fill(targets, sources, edges, inOffsets, inSources);
+        }
+
+        // counting sort of the edge list by from[]
+        private static void fill(int[] from, int[] to, int edges, int[] offsets, int[] adjacent) {
+            for (int e = 0; e < edges; e++) {
+                offsets[from[e] + 1]++;
+            }
+            for (int v = 1; v < offsets.length; v++) {
+                offsets[v] += offsets[v - 1];
+            }
+            int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+            for (int e = 0; e < edges; e++) {
+                adjacent[next[from[e]]++] = to[e];
+            }
+        }
+
+        // resources joined by predicates accepted by edges (e.g. ALL_EDGES)
+        public static Projection of(Graph graph, Predicate<Node> edges) {
+            Builder builder = new Builder(edges);
+            graph.find().forEachRemaining(builder::add);
+            return builder.build();
+        }
+
+        public int nodeCount() {
+            return nodes.size();
+        }
+
+        public int edgeCount() {
+            return outTargets.length;
+        }
+
+        public Node node(int id) {
+            return nodes.get(id);
+        }
+
+        // -1 if the node has no edges here
+        public int id(Node node) {
+            return ids.getOrDefault(node, -1);
+        }
+
+        public int outDegree(int v) {
+            return outOffsets[v + 1] - outOffsets[v];
+        }
+
+        // every node joined to v, either direction (twice if joined both ways)
+        public void forEachNeighbour(int v, IntConsumer action) {
+            for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                action.accept(outTargets[i]);
+            }
+            for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                action.accept(inSources[i]);
+            }
+        }
+    }
+
+    // collects a projection triple by triple, so it can be fed from a parser or
+    // generator stream without a Model in between
+    public static class Builder {
+        private final Predicate<Node> edges;
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<Node, Integer> ids = new HashMap<>();
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int size;
+
+        public Builder(Predicate<Node> edges) {
+            this.edges = edges;
+        }
+
+        public void add(Triple triple) {
+            Node object = triple.getObject();
+            if (object.isLiteral() || !edges.test(triple.getPredicate())) {
+                return;
+            }
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = id(triple.getSubject());
+            targets[size] = id(object);
+            size++;
+        }
+
+        private int id(Node node) {
+            Integer id = ids.get(node);
+            if (id == null) {
+                id = nodes.size();
+                ids.put(node, id);
+                nodes.add(node);
+            }
+            return id;
+        }
+
+        public Projection build() {
+            return new Projection(nodes, ids, sources, targets, size);
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public GraphAnalytics(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    // runs a parallel loop over 0..n on our pool instead of the common one
+    private void parallel(int n, IntConsumer body) {
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(body)).join();
+    }
+
+    private double parallelSum(int n, IntToDoubleFunction term) {
+        return pool.submit(() -> IntStream.range(0, n).parallel().mapToDouble(term).sum()).join();
+    }
+
+    // PageRank, pulled along the reverse edges so every node only writes its own rank.
+    // Nodes with no out-edges share their rank with everyone. Stops after maxIterations
+    // or when the ranks move less than tolerance (L1) in one iteration; ranks sum to 1
+    public double[] pageRank(Projection p, double damping, int maxIterations, double tolerance) {
+        int n = p.nodeCount();
+        if (n == 0) {
+            return new double[0];
+        }
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] current = rank;
+            parallel(n, v -> {
+                int degree = p.outDegree(v);
+                share[v] = degree == 0 ? 0 : current[v] / degree;
+            });
+            double dangling = parallelSum(n, v -> p.outDegree(v) == 0 ? current[v] : 0);
+            double base = (1 - damping) / n + damping * dangling / n;
+            double[] updated = next;
+            parallel(n, v -> {
+                double sum = 0;
+                for (int i = p.inOffsets[v]; i < p.inOffsets[v + 1]; i++) {
+                    sum += share[p.inSources[i]];
+                }
+                updated[v] = base + damping * sum;
+            });
+            double delta = parallelSum(n, v -> Math.abs(updated[v] - current[v]));
+            next = rank;
+            rank = updated;
+            if (delta < tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    // weakly connected components: every node ends up with the smallest id in its
+    // component. Labels only go down, so threads reading a stale neighbour label just
+    // catch up on the next pass
+    public int[] components(Projection p) {
+        int n = p.nodeCount();
+        int[] label = new int[n];
+        Arrays.setAll(label, v -> v);
+        AtomicBoolean changed = new AtomicBoolean(true);
+        while (changed.getAndSet(false)) {
+            parallel(n, v -> {
+                int min = label[v];
+                for (int i = p.outOffsets[v]; i < p.outOffsets[v + 1]; i++) {
+                    min = Math.min(min, label[p.outTargets[i]]);
+                }
+                for (int i = p.inOffsets[v]; i < p.inOffsets[v + 1]; i++) {
+                    min = Math.min(min, label[p.inSources[i]]);
+                }
+                if (min < label[v]) {
+                    label[v] = min;
+                    changed.set(true);
+                }
+            });
+        }
+        return label;
+    }
+
+    // label propagation: each round every node takes the label most common among its
+    // neighbours and itself (ties to the smaller label), all nodes at once from the
+    // previous round's labels. Stops after maxIterations or once fewer than 0.1% change
+    public int[] communities(Projection p, int maxIterations) {
+        int n = p.nodeCount();
+        int[] label = new int[n];
+        Arrays.setAll(label, v -> v);
+        int[] next = new int[n];
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            int[] current = label;
+            int[] updated = next;
+            AtomicInteger changes = new AtomicInteger();
+            parallel(n, v -> {
+                int outStart = p.outOffsets[v];
+                int outDegree = p.outOffsets[v + 1] - outStart;
+                int inStart = p.inOffsets[v];
+                int inDegree = p.inOffsets[v + 1] - inStart;
+                int[] seen = new int[outDegree + inDegree + 1];
+                for (int i = 0; i < outDegree; i++) {
+                    seen[i] = current[p.outTargets[outStart + i]];
+                }
+                for (int i = 0; i < inDegree; i++) {
+                    seen[outDegree + i] = current[p.inSources[inStart + i]];
+                }
+                seen[seen.length - 1] = current[v];
+                updated[v] = mostCommon(seen);
+                if (updated[v] != current[v]) {
+                    changes.incrementAndGet();
+                }
+            });
+            next = label;
+            label = updated;
+            if (changes.get() < Math.max(1, n / 1000)) {
+                break;
+            }
+        }
+        return label;
+    }
+
+    private static int mostCommon(int[] labels) {
+        Arrays.sort(labels);
+        int best = labels[0];
+        int bestCount = 0;
+        for (int i = 0; i < labels.length; ) {
+            int j = i;
+            while (j < labels.length && labels[j] == labels[i]) {
+                j++;
+            }
+            if (j - i > bestCount) {
+                best = labels[i];
+                bestCount = j - i;
+            }
+            i = j;
+        }
+        return best;
+    }
+
+    // puts values back on the nodes as property (xsd:double), replacing any old ones;
+    // only URI nodes, blank nodes keep no score
+    public static void write(Model model, Projection p, Node property, double[] values) {
+        write(model, p, property, v -> NodeFactory.createLiteral(Double.toString(values[v]), XSDDatatype.XSDdouble));
+    }
+
+    // the same for component / community labels (xsd:int)
+    public static void write(Model model, Projection p, Node property, int[] values) {
+        write(model, p, property, v -> NodeFactory.createLiteral(Integer.toString(values[v]), XSDDatatype.XSDint));
+    }
+
+    private static void write(Model model, Projection p, Node property, IntFunction<Node> value) {
+        Graph graph = model.getGraph();
+        graph.remove(Node.ANY, property, Node.ANY);
+        List<Triple> triples = new ArrayList<>(p.nodeCount());
+        for (int v = 0; v < p.nodeCount(); v++) {
+            if (p.node(v).isURI()) {
+                triples.add(Triple.create(p.node(v), property, value.apply(v)));
+            }
+        }
+        GraphUtil.add(graph, triples);
+    }
+
+    // ids of the k highest values, highest first
+    public static int[] top(double[] values, int k) {
+        return IntStream.range(0, values.length).boxed()
+            .sorted((a, b) -> Double.compare(values[b], values[a]))
+            .limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -1,139 +1,265 @@
 package org.example;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDF;
-import org.apache.jena.vocabulary.RDFS;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class GraphVizExporter {
-    
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final Node HAS_NAME = NodeFactory.createURI(NS + "hasName");
+    private static final Node HAS_TITLE = NodeFactory.createURI(NS + "hasTitle");
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node INFLUENCE_SCORE = GraphAnalytics.INFLUENCE_SCORE;
+
+    // Define colors for different node types
+    static final Map<String, String> nodeColors = new HashMap<>();
+    static {
+        nodeColors.put("Game", "#FF6B6B");
+        nodeColors.put("RPG", "#FF6B6B");
+        nodeColors.put("ActionGame", "#FF6B6B");
+        nodeColors.put("FightingGame", "#FF6B6B");
+        nodeColors.put("Developer", "#4ECDC4");
+        nodeColors.put("Character", "#45B7D1");
+        nodeColors.put("Protagonist", "#45B7D1");
+        nodeColors.put("Antagonist", "#FF4757");
+        nodeColors.put("GameSeries", "#96CEB4");
+        nodeColors.put("Genre", "#FFEAA7");
+        nodeColors.put("Award", "#DDA0DD");
+        nodeColors.put("Publisher", "#74B9FF");
+    }
+
     public static void exportToDot(Model model, String filename) {
-        try (FileWriter writer = new FileWriter(filename)) {
-            writer.write("digraph PS2Games {\n");
-            writer.write("    rankdir=LR;\n");
-            writer.write("    node [shape=box, style=filled];\n");
-            writer.write("    graph [bgcolor=white, fontname=\"Arial\", fontsize=16];\n");
-            writer.write("    edge [fontname=\"Arial\", fontsize=10];\n\n");
-            
-            // Define colors for different node types
-            Map<String, String> nodeColors = new HashMap<>();
-            nodeColors.put("Game", "#FF6B6B");
-            nodeColors.put("RPG", "#FF6B6B");
-            nodeColors.put("ActionGame", "#FF6B6B");
-            nodeColors.put("FightingGame", "#FF6B6B");
-            nodeColors.put("Developer", "#4ECDC4");
-            nodeColors.put("Character", "#45B7D1");
-            nodeColors.put("Protagonist", "#45B7D1");
-            nodeColors.put("Antagonist", "#FF4757");
-            nodeColors.put("GameSeries", "#96CEB4");
-            nodeColors.put("Genre", "#FFEAA7");
-            nodeColors.put("Award", "#DDA0DD");
-            nodeColors.put("Publisher", "#74B9FF");
-            
-            // Process all statements
-            StmtIterator iter = model.listStatements();
-            
-            while (iter.hasNext()) {
-                Statement stmt = iter.nextStatement();
-                Resource subject = stmt.getSubject();
-                Property predicate = stmt.getPredicate();
-                RDFNode object = stmt.getObject();
-                
-                String subjectId = getNodeId(subject);
-                String predicateLabel = getPredicateLabel(predicate);
-                
-                // Add subject node
-                String subjectType = getNodeType(model, subject);
-                String subjectColor = nodeColors.getOrDefault(subjectType, "#CCCCCC");
-                String subjectLabel = getNodeLabel(model, subject);
-                
-                writer.write(String.format("    \"%s\" [label=\"%s\", fillcolor=\"%s\", tooltip=\"%s\"];\n", 
-                    subjectId, subjectLabel, subjectColor, subjectType));
-                
-                if (object.isResource()) {
-                    Resource objectRes = object.asResource();
-                    String objectId = getNodeId(objectRes);
-                    String objectType = getNodeType(model, objectRes);
-                    String objectColor = nodeColors.getOrDefault(objectType, "#CCCCCC");
-                    String objectLabel = getNodeLabel(model, objectRes);
-                    
-                    writer.write(String.format("    \"%s\" [label=\"%s\", fillcolor=\"%s\", tooltip=\"%s\"];\n", 
-                        objectId, objectLabel, objectColor, objectType));
-                    
-                    // Add edge
-                    writer.write(String.format("    \"%s\" -> \"%s\" [label=\"%s\"];\n", 
-                        subjectId, objectId, predicateLabel));
-                }
-            }
-            
-            writer.write("}\n");
-            System.out.println("GraphViz DOT file created: " + filename);
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(filename), StandardCharsets.UTF_8), 64 * 1024)) {
+            long nodes = exportToDot(model, writer);
+            System.out.println("GraphViz DOT file created: " + filename + " (" + nodes + " nodes)");
             System.out.println("To create an image, run: dot -Tpng " + filename + " -o ps2_games_graph.png");
             System.out.println("Or use online GraphViz tools like: https://dreampuf.github.io/GraphvizOnline/");
-            
         } catch (IOException e) {
             System.err.println("Error writing DOT file: " + e.getMessage());
         }
     }
-    
-    private static String getNodeId(Resource resource) {
-        String uri = resource.getURI();
-        if (uri != null && uri.contains("#")) {
-            return uri.substring(uri.indexOf("#") + 1);
+
+    // One pass over the triples. A node is declared the first time it shows up (its
+    // label and type looked up once, right then) and after that only its id is written,
+    // so each node appears once no matter how many edges it has. Returns the node count;
+    // the writer is not closed.
+    public static long exportToDot(Model model, Writer writer) throws IOException {
+        Graph graph = model.getGraph();
+        writer.write("digraph PS2Games {\n");
+        writer.write("    rankdir=LR;\n");
+        writer.write("    node [shape=box, style=filled, fillcolor=\"#CCCCCC\"];\n");
+        writer.write("    graph [bgcolor=white, fontname=\"Arial\", fontsize=16];\n");
+        writer.write("    edge [fontname=\"Arial\", fontsize=10];\n\n");
+
+        Set<Node> declared = new HashSet<>();
+        ExtendedIterator<Triple> iter = graph.find();
+        try {
+            while (iter.hasNext()) {
+                Triple triple = iter.next();
+                Node subject = triple.getSubject();
+                Node object = triple.getObject();
+
+                if (declared.add(subject)) {
+                    writeNode(graph, subject, writer);
+                }
+                if (object.isLiteral()) {
+                    continue; // literals stay on the node label, not in the graph
+                }
+                if (declared.add(object)) {
+                    writeNode(graph, object, writer);
+                }
+                writer.write("    ");
+                writer.write(quote(getNodeId(subject)));
+                writer.write(" -> ");
+                writer.write(quote(getNodeId(object)));
+                writer.write(" [label=");
+                writer.write(quote(getPredicateLabel(triple.getPredicate())));
+                writer.write("];\n");
+            }
+        } finally {
+            iter.close();
         }
-        return resource.toString().replaceAll("[^a-zA-Z0-9]", "_");
+        writer.write("}\n");
+        writer.flush();
+        return declared.size();
     }
-    
-    private static String getNodeLabel(Model model, Resource resource) {
-        // Try to get a human-readable label
-        String ns = "http://example.org/ps2games#";
-        Property hasName = model.getProperty(ns + "hasName");
-        Property hasTitle = model.getProperty(ns + "hasTitle");
-        
-        if (resource.hasProperty(hasName)) {
-            return resource.getProperty(hasName).getString();
+
+    private static void writeNode(Graph graph, Node node, Writer writer) throws IOException {
+        String id = getNodeId(node);
+        String label = getNodeLabel(graph, node);
+        String type = getNodeType(graph, node);
+        String color = nodeColors.get(type);
+
+        writer.write("    ");
+        writer.write(quote(id));
+        writer.write(" [");
+        // dot already labels a node with its id, and the default fill is set once above
+        if (!label.equals(id)) {
+            writer.write("label=");
+            writer.write(quote(label));
+            writer.write(", ");
+        }
+        if (color != null) {
+            writer.write("fillcolor=\"");
+            writer.write(color);
+            writer.write("\", ");
+        }
+        // bigger boxes for influential nodes (GraphAnalytics' PageRank, 1.0 = average)
+        double score = influence(firstLiteral(graph, node, INFLUENCE_SCORE));
+        if (!Double.isNaN(score)) {
+            double scale = Math.max(0.75, Math.min(4, Math.sqrt(score)));
+            writer.write(String.format(Locale.ROOT, "width=%.2f, height=%.2f, fontsize=%.0f, ",
+                0.75 * scale, 0.5 * scale, 14 * scale));
+        }
+        writer.write("tooltip=");
+        writer.write(quote(type));
+        writer.write("];\n");
+    }
+
+    // the influence score if it is a usable number, NaN (= default size) for a missing,
+    // malformed, negative or infinite one - a bad value in the data shouldn't stop the export
+    static double influence(String score) {
+        if (score == null) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(score.trim());
+            return value >= 0 && !Double.isInfinite(value) ? value : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    static String getNodeId(Node node) {
+        if (node.isURI()) {
+            String uri = node.getURI();
+            int hash = uri.indexOf('#');
+            return hash >= 0 ? uri.substring(hash + 1) : uri;
         }
-        if (resource.hasProperty(hasTitle)) {
-            return resource.getProperty(hasTitle).getString();
+        return node.toString().replaceAll("[^a-zA-Z0-9]", "_");
+    }
+
+    static String getNodeLabel(Graph graph, Node node) {
+        // Try to get a human-readable label
+        String label = firstLiteral(graph, node, HAS_NAME);
+        if (label == null) {
+            label = firstLiteral(graph, node, HAS_TITLE);
         }
-        
         // Fall back to local name
-        return getNodeId(resource);
+        return label != null ? label : getNodeId(node);
+    }
+
+    static String firstLiteral(Graph graph, Node node, Node property) {
+        ExtendedIterator<Triple> iter = graph.find(node, property, Node.ANY);
+        try {
+            while (iter.hasNext()) {
+                Node value = iter.next().getObject();
+                if (value.isLiteral()) {
+                    return value.getLiteralLexicalForm();
+                }
+            }
+            return null;
+        } finally {
+            iter.close();
+        }
     }
-    
-    private static String getNodeType(Model model, Resource resource) {
-        StmtIterator typeIter = resource.listProperties(RDF.type);
-        while (typeIter.hasNext()) {
-            Statement stmt = typeIter.nextStatement();
-            RDFNode type = stmt.getObject();
-            if (type.isResource()) {
-                String typeUri = type.asResource().getURI();
-                if (typeUri != null && typeUri.contains("#")) {
-                    return typeUri.substring(typeUri.indexOf("#") + 1);
+
+    static String getNodeType(Graph graph, Node node) {
+        ExtendedIterator<Triple> iter = graph.find(node, TYPE, Node.ANY);
+        try {
+            while (iter.hasNext()) {
+                Node type = iter.next().getObject();
+                if (type.isURI() && type.getURI().contains("#")) {
+                    return type.getURI().substring(type.getURI().indexOf('#') + 1);
                 }
             }
+            return "Unknown";
+        } finally {
+            iter.close();
         }
-        return "Unknown";
     }
-    
-    private static String getPredicateLabel(Property predicate) {
+
+    static String getPredicateLabel(Node predicate) {
         String uri = predicate.getURI();
-        if (uri != null && uri.contains("#")) {
-            return uri.substring(uri.indexOf("#") + 1);
+        int hash = uri.indexOf('#');
+        return hash >= 0 ? uri.substring(hash + 1) : predicate.getLocalName();
+    }
+
+    // DOT string with quotes and backslashes escaped (titles like "Jak II: Renegade" are fine,
+    // but a stray quote in a name used to break the whole file)
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
         }
-        return predicate.getLocalName();
+        return sb.append('"').toString();
     }
-    
+
+    // PageRank as influenceScore (1.0 = average) unless the model already has scores
+    static void addInfluenceScores(Model model) {
+        if (model.getGraph().contains(Node.ANY, INFLUENCE_SCORE, Node.ANY)) {
+            return;
+        }
+        try (GraphAnalytics analytics = new GraphAnalytics(Runtime.getRuntime().availableProcessors())) {
+            GraphAnalytics.Projection projection = GraphAnalytics.Projection.of(model.getGraph(), GraphAnalytics.ALL_EDGES);
+            double[] rank = analytics.pageRank(projection, 0.85, 50, 1e-9);
+            for (int v = 0; v < rank.length; v++) {
+                rank[v] *= projection.nodeCount();
+            }
+            GraphAnalytics.write(model, projection, INFLUENCE_SCORE, rank);
+        }
+    }
+
+    // no arguments: the whole catalog, as before
+    // <seed> [hops] [nodeBudget] [aggregateThreshold]: only the neighbourhood of seed, e.g.
+    //   GraphVizExporter GodOfWar 2 200 25
+    // -Dps2.catalog picks another Turtle file (a SyntheticCatalogGenerator output, say)
+    // -Dps2.influence=true sizes nodes by PageRank (computed here if the file has no scores)
     public static void main(String[] args) {
-        // Load the model from the turtle file
-        Model model = ModelFactory.createDefaultModel();
-        
         try {
-            model.read("ps2_games_database.ttl", "TURTLE");
-            exportToDot(model, "ps2_games_graph.dot");
+            // Load the model - N-Triples dumps get parsed on all cores
+            Model model = ParallelCatalogLoader.loadModel(System.getProperty("ps2.catalog", "ps2_games_database.ttl"));
+            if (Boolean.getBoolean("ps2.influence")) {
+                addInfluenceScores(model);
+            }
+            if (args.length == 0) {
+                exportToDot(model, "ps2_games_graph.dot");
+                return;
+            }
+            int hops = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+            int nodeBudget = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+            int aggregateThreshold = args.length > 3 ? Integer.parseInt(args[3]) : 25;
+            NeighbourhoodExtractor extractor = new NeighbourhoodExtractor(model, hops, nodeBudget, aggregateThreshold);
+            long start = System.nanoTime();
+            Model neighbourhood = extractor.extract(args[0]);
+            System.out.printf("Extracted %d nodes / %d triples around %s in %.1f ms%n",
+                NeighbourhoodExtractor.nodeCount(neighbourhood), neighbourhood.size(), args[0],
+                (System.nanoTime() - start) / 1e6);
+            exportToDot(neighbourhood, "ps2_games_" + args[0].replaceAll("[^a-zA-Z0-9]", "_") + ".dot");
         } catch (Exception e) {
             System.err.println("Error loading model: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,266 @@
+package org.example;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Purpose-built reasoner for the only inference we actually use: rdfs:subClassOf
+// between Game/RPG/ActionGame/... and Character/Protagonist/Antagonist.
+//
+// The class hierarchy is numbered once and its transitive closure kept as one BitSet
+// of ancestors and one of descendants per class. Nothing is materialized for the
+// instances: a lookup of (?x rdf:type ps2:Game) becomes base lookups for Game, RPG,
+// ActionGame, ... and (ps2:GodOfWar rdf:type ?C) expands the asserted type upwards.
+// No rule engine involved, and the base graph stays the only copy of the data.
+public class HierarchyReasoner extends GraphBase {
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUBCLASS = RDFS.subClassOf.asNode();
+
+    // class hierarchy, rebuilt when a subClassOf triple changes. Never modified once
+    // built, so a reader that picked one up can keep using it while a rebuild publishes
+    // the next
+    private static final class Hierarchy {
+        final Map<Node, Integer> ids;
+        final Node[] classes;
+        final BitSet[] ancestors;   // reflexive
+        final BitSet[] descendants; // reflexive
+        final Graph subclassClosure;
+        // the change count the edges were read at
+        final long version;
+
+        Hierarchy(Map<Node, Integer> ids, Node[] classes, BitSet[] ancestors, BitSet[] descendants,
+                  Graph subclassClosure, long version) {
+            this.ids = ids;
+            this.classes = classes;
+            this.ancestors = ancestors;
+            this.descendants = descendants;
+            this.subclassClosure = subclassClosure;
+            this.version = version;
+        }
+    }
+
+    private final Graph base;
+    // bumped on every subClassOf change; a hierarchy built at an older count is stale
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Hierarchy hierarchy;
+
+    public HierarchyReasoner(Model baseModel) {
+        this.base = baseModel.getGraph();
+        baseModel.register(new StatementListener() {
+            @Override
+            public void addedStatement(Statement s) {
+                if (s.getPredicate().equals(RDFS.subClassOf)) {
+                    changes.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void removedStatement(Statement s) {
+                if (s.getPredicate().equals(RDFS.subClassOf)) {
+                    changes.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    // drop the current hierarchy, the next lookup rebuilds it from the base model
+    public void invalidate() {
+        changes.incrementAndGet();
+    }
+
+    public static Model createModel(Model baseModel) {
+        return ModelFactory.createModelForGraph(new HierarchyReasoner(baseModel));
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        Hierarchy h = hierarchy();
+        Node s = pattern.getSubject();
+        Node p = pattern.getPredicate();
+        Node o = pattern.getObject();
+
+        if (TYPE.equals(p)) {
+            return findTypes(h, s, o);
+        }
+        if (SUBCLASS.equals(p)) {
+            return h.subclassClosure.find(s, SUBCLASS, o);
+        }
+        if (p.isConcrete()) {
+            return base.find(s, p, o);
+        }
+        // predicate is a wildcard: plain triples plus both kinds of expanded ones
+        return base.find(s, p, o)
+            .filterDrop(t -> TYPE.equals(t.getPredicate()) || SUBCLASS.equals(t.getPredicate()))
+            .andThen(findTypes(h, s, o))
+            .andThen(h.subclassClosure.find(s, SUBCLASS, o));
+    }
+
+    private ExtendedIterator<Triple> findTypes(Hierarchy h, Node s, Node o) {
+        if (o.isConcrete()) {
+            Integer cls = h.ids.get(o);
+            if (cls == null) {
+                return base.find(s, TYPE, o); // not part of the hierarchy
+            }
+            // every asserted type below cls; an instance typed with two of them is
+            // reported once, by the lowest numbered one
+            ExtendedIterator<Triple> result = NullIterator.instance();
+            BitSet below = h.descendants[cls];
+            for (int d = below.nextSetBit(0); d >= 0; d = below.nextSetBit(d + 1)) {
+                int asserted = d;
+                result = result.andThen(base.find(s, TYPE, h.classes[d])
+                    .filterKeep(t -> owner(h, t.getSubject(), cls) == asserted)
+                    .mapWith(t -> Triple.create(t.getSubject(), TYPE, o)));
+            }
+            return result;
+        }
+        // ?C unbound: each asserted type expands to its superclasses
+        return WrappedIterator.create(Iter.asStream(base.find(s, TYPE, Node.ANY))
+            .flatMap(t -> expandType(h, t).stream())
+            .iterator());
+    }
+
+    private List<Triple> expandType(Hierarchy h, Triple asserted) {
+        Integer cls = h.ids.get(asserted.getObject());
+        if (cls == null) {
+            return List.of(asserted);
+        }
+        Node instance = asserted.getSubject();
+        List<Triple> result = new ArrayList<>();
+        BitSet above = h.ancestors[cls];
+        for (int a = above.nextSetBit(0); a >= 0; a = above.nextSetBit(a + 1)) {
+            if (owner(h, instance, a) == cls) {
+                result.add(Triple.create(instance, TYPE, h.classes[a]));
+            }
+        }
+        return result;
+    }
+
+    // lowest numbered asserted type of instance that is at or below cls
+    private int owner(Hierarchy h, Node instance, int cls) {
+        int best = Integer.MAX_VALUE;
+        ExtendedIterator<Triple> types = base.find(instance, TYPE, Node.ANY);
+        try {
+            while (types.hasNext()) {
+                Integer t = h.ids.get(types.next().getObject());
+                if (t != null && t < best && h.ancestors[t].get(cls)) {
+                    best = t;
+                }
+            }
+        } finally {
+            types.close();
+        }
+        return best;
+    }
+
+    // the current hierarchy, rebuilt first if a subClassOf triple changed since
+    private Hierarchy hierarchy() {
+        Hierarchy h = hierarchy;
+        return h == null || h.version != changes.get() ? rebuild() : h;
+    }
+
+    // builds the whole hierarchy off to the side and publishes it with one volatile
+    // write, so a reader never sees a half-assigned one. It is stamped with the change
+    // count read before the edges: a subClassOf change that lands during the build
+    // leaves it stale, and the next lookup builds again
+    private synchronized Hierarchy rebuild() {
+        long version = changes.get();
+        Hierarchy current = hierarchy;
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        List<Triple> edges = base.find(Node.ANY, SUBCLASS, Node.ANY).toList();
+        // sorted so the numbering (and so which duplicate wins) is stable between runs
+        TreeSet<String> names = new TreeSet<>();
+        Map<String, Node> byName = new HashMap<>();
+        for (Triple edge : edges) {
+            for (Node n : new Node[] { edge.getSubject(), edge.getObject() }) {
+                names.add(n.toString());
+                byName.put(n.toString(), n);
+            }
+        }
+
+        Map<Node, Integer> newIds = new HashMap<>();
+        Node[] newClasses = new Node[names.size()];
+        for (String name : names) {
+            newClasses[newIds.size()] = byName.get(name);
+            newIds.put(byName.get(name), newIds.size());
+        }
+
+        // direct edges, then close them (the hierarchy is tiny, a fixpoint loop is plenty)
+        BitSet[] up = new BitSet[newClasses.length];
+        for (int i = 0; i < up.length; i++) {
+            up[i] = new BitSet(up.length);
+            up[i].set(i);
+        }
+        for (Triple edge : edges) {
+            up[newIds.get(edge.getSubject())].set(newIds.get(edge.getObject()));
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BitSet row : up) {
+                int before = row.cardinality();
+                for (int a = row.nextSetBit(0); a >= 0; a = row.nextSetBit(a + 1)) {
+                    row.or(up[a]);
+                }
+                changed |= row.cardinality() != before;
+            }
+        }
+        BitSet[] down = new BitSet[newClasses.length];
+        for (int i = 0; i < down.length; i++) {
+            down[i] = new BitSet(down.length);
+        }
+        Graph closure = GraphFactory.createDefaultGraph();
+        for (int i = 0; i < up.length; i++) {
+            for (int a = up[i].nextSetBit(0); a >= 0; a = up[i].nextSetBit(a + 1)) {
+                down[a].set(i);
+                if (a != i) {
+                    closure.add(Triple.create(newClasses[i], SUBCLASS, newClasses[a]));
+                }
+            }
+        }
+        // keep asserted reflexive edges (C subClassOf C) as they were
+        edges.stream().filter(e -> e.getSubject().equals(e.getObject())).forEach(closure::add);
+
+        Hierarchy built = new Hierarchy(newIds, newClasses, up, down, closure, version);
+        hierarchy = built;
+        return built;
+    }
+
+    // writes go straight to the base model, the hierarchy notices subClassOf changes itself
+    @Override
+    public void performAdd(Triple t) {
+        base.add(t);
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+        base.delete(t);
+    }
+
+    @Override
+    protected PrefixMapping createPrefixMapping() {
+        return base.getPrefixMapping();
+    }
+}
@@ -0,0 +1,270 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.DisjointUnion;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps the rdf:type / rdfs:subClassOf entailments of the class hierarchy (Step 2:
+// RPG subClassOf Game, Protagonist subClassOf Character, ...) up to date while the
+// base model changes, instead of throwing the InfModel away after every new game.
+//
+// Every inferred (x rdf:type D) carries a support count = how many of x's asserted
+// types are subclasses of D. Adding a type bumps the counts of its superclasses,
+// removing it drops them, and a triple disappears when its count reaches zero - so
+// deletes only touch the one resource. A subClassOf change re-derives just the
+// instances of the classes below it.
+//
+// Jena fires add/remove events for duplicate adds and for removes of absent triples
+// too, so the counts only move when our own copy of the asserted types / hierarchy
+// actually changes. Bulk events (removeAll, removeAll(s, p, o)) carry no triples and
+// trigger a full recompute.
+//
+// Only the hierarchy entailments the catalog queries rely on are produced - no
+// domain/range or rdfs:Resource typing - which matches what the RDFS reasoner gives us
+// for this ontology.
+public class IncrementalTypeReasoner extends StatementListener {
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUBCLASS = RDFS.subClassOf.asNode();
+
+    private final Model baseModel;
+    private final Graph base;
+    // inferred triples that are NOT also asserted in base, so base + entailed never overlap
+    private final Graph entailed = GraphFactory.createDefaultGraph();
+
+    // our own copy of the asserted hierarchy: class -> direct superclasses
+    private final Map<Node, Set<Node>> directSupers = new HashMap<>();
+    private final Map<Node, Set<Node>> directSubs = new HashMap<>();
+    // cached transitive superclasses, cleared whenever the hierarchy changes
+    private final Map<Node, Set<Node>> ancestorCache = new HashMap<>();
+    // the asserted (x rdf:type C) triples the counts were built from
+    private final Set<Triple> asserted = new HashSet<>();
+    // (x rdf:type D) -> number of asserted types of x that are below D
+    private final Map<Triple, Integer> support = new HashMap<>();
+
+    public IncrementalTypeReasoner(Model baseModel) {
+        this.baseModel = baseModel;
+        this.base = baseModel.getGraph();
+        // full computation once, everything after this is deltas
+        rebuild();
+        baseModel.register(this);
+    }
+
+    // recompute everything from the base model
+    public void rebuild() {
+        entailed.clear();
+        directSupers.clear();
+        directSubs.clear();
+        ancestorCache.clear();
+        asserted.clear();
+        support.clear();
+
+        base.find(Node.ANY, SUBCLASS, Node.ANY).forEachRemaining(t -> link(t.getSubject(), t.getObject()));
+        for (Node cls : new ArrayList<>(directSupers.keySet())) {
+            deriveSubclassClosure(cls);
+        }
+        base.find(Node.ANY, TYPE, Node.ANY).forEachRemaining(t -> {
+            asserted.add(t);
+            addTypeSupport(t.getSubject(), t.getObject());
+        });
+    }
+
+    // base + maintained entailments, queried like any plain model
+    public Model model() {
+        return ModelFactory.createModelForGraph(new DisjointUnion(base, entailed));
+    }
+
+    public Graph entailedGraph() {
+        return entailed;
+    }
+
+    // stop listening to the base model
+    public void close() {
+        baseModel.unregister(this);
+    }
+
+    @Override
+    public void addedStatement(Statement stmt) {
+        Triple triple = stmt.asTriple();
+        // asserted now, so it must not also sit in the entailed graph
+        entailed.delete(triple);
+
+        if (TYPE.equals(triple.getPredicate())) {
+            if (asserted.add(triple)) {
+                addTypeSupport(triple.getSubject(), triple.getObject());
+            }
+        } else if (SUBCLASS.equals(triple.getPredicate()) && !isLinked(triple.getSubject(), triple.getObject())) {
+            changeHierarchy(triple.getSubject(), () -> link(triple.getSubject(), triple.getObject()));
+        }
+    }
+
+    @Override
+    public void removedStatement(Statement stmt) {
+        Triple triple = stmt.asTriple();
+
+        if (TYPE.equals(triple.getPredicate())) {
+            if (!asserted.remove(triple)) {
+                return;
+            }
+            removeTypeSupport(triple.getSubject(), triple.getObject());
+            // still implied by another asserted type?
+            if (support.containsKey(triple)) {
+                entailed.add(triple);
+            }
+        } else if (SUBCLASS.equals(triple.getPredicate()) && isLinked(triple.getSubject(), triple.getObject())) {
+            changeHierarchy(triple.getSubject(), () -> unlink(triple.getSubject(), triple.getObject()));
+        }
+    }
+
+    @Override
+    public void notifyEvent(Model m, Object event) {
+        if (event != GraphEvents.startRead && event != GraphEvents.finishRead) {
+            rebuild();
+        }
+    }
+
+    // --- rdf:type ---
+
+    private void addTypeSupport(Node instance, Node cls) {
+        for (Node ancestor : ancestors(cls)) {
+            Triple inferred = Triple.create(instance, TYPE, ancestor);
+            int count = support.merge(inferred, 1, Integer::sum);
+            if (count == 1 && !base.contains(inferred)) {
+                entailed.add(inferred);
+            }
+        }
+    }
+
+    private void removeTypeSupport(Node instance, Node cls) {
+        for (Node ancestor : ancestors(cls)) {
+            Triple inferred = Triple.create(instance, TYPE, ancestor);
+            Integer count = support.get(inferred);
+            if (count == null) {
+                continue;
+            }
+            if (count == 1) {
+                support.remove(inferred);
+                entailed.delete(inferred);
+            } else {
+                support.put(inferred, count - 1);
+            }
+        }
+    }
+
+    // --- rdfs:subClassOf ---
+
+    // a subClassOf edge leaving cls only changes the ancestors of cls and the classes
+    // below it, so only their instances and their subclass closure get re-derived
+    private void changeHierarchy(Node cls, Runnable change) {
+        Set<Node> affectedClasses = descendantsAndSelf(cls);
+        Set<Node> affectedInstances = new LinkedHashSet<>();
+        for (Node affected : affectedClasses) {
+            base.find(Node.ANY, TYPE, affected).forEachRemaining(t -> affectedInstances.add(t.getSubject()));
+        }
+
+        // retract with the old hierarchy...
+        for (Node instance : affectedInstances) {
+            base.find(instance, TYPE, Node.ANY).forEachRemaining(t -> removeTypeSupport(instance, t.getObject()));
+        }
+        for (Node affected : affectedClasses) {
+            retractSubclassClosure(affected);
+        }
+
+        change.run();
+        ancestorCache.clear();
+
+        // ...and re-derive with the new one
+        for (Node affected : affectedClasses) {
+            deriveSubclassClosure(affected);
+        }
+        for (Node instance : affectedInstances) {
+            base.find(instance, TYPE, Node.ANY).forEachRemaining(t -> addTypeSupport(instance, t.getObject()));
+        }
+    }
+
+    private void deriveSubclassClosure(Node cls) {
+        for (Node ancestor : ancestors(cls)) {
+            Triple inferred = Triple.create(cls, SUBCLASS, ancestor);
+            if (!base.contains(inferred)) {
+                entailed.add(inferred);
+            }
+        }
+    }
+
+    private void retractSubclassClosure(Node cls) {
+        for (Node ancestor : ancestors(cls)) {
+            entailed.delete(Triple.create(cls, SUBCLASS, ancestor));
+        }
+    }
+
+    private boolean isLinked(Node sub, Node sup) {
+        return directSupers.getOrDefault(sub, Collections.emptySet()).contains(sup);
+    }
+
+    private void link(Node sub, Node sup) {
+        directSupers.computeIfAbsent(sub, k -> new HashSet<>()).add(sup);
+        directSubs.computeIfAbsent(sup, k -> new HashSet<>()).add(sub);
+    }
+
+    private void unlink(Node sub, Node sup) {
+        Set<Node> supers = directSupers.get(sub);
+        if (supers != null) {
+            supers.remove(sup);
+        }
+        Set<Node> subs = directSubs.get(sup);
+        if (subs != null) {
+            subs.remove(sub);
+        }
+    }
+
+    // strict transitive superclasses (cls itself only if there is a cycle)
+    private Set<Node> ancestors(Node cls) {
+        Set<Node> cached = ancestorCache.get(cls);
+        if (cached != null) {
+            return cached;
+        }
+        Set<Node> result = walk(cls, directSupers);
+        ancestorCache.put(cls, result);
+        return result;
+    }
+
+    private Set<Node> descendantsAndSelf(Node cls) {
+        Set<Node> result = walk(cls, directSubs);
+        result.add(cls);
+        return result;
+    }
+
+    private static Set<Node> walk(Node start, Map<Node, Set<Node>> edges) {
+        Set<Node> seen = new LinkedHashSet<>();
+        Deque<Node> todo = new ArrayDeque<>(edges.getOrDefault(start, Collections.emptySet()));
+        while (!todo.isEmpty()) {
+            Node next = todo.pop();
+            if (seen.add(next)) {
+                todo.addAll(edges.getOrDefault(next, Collections.emptySet()));
+            }
+        }
+        return seen;
+    }
+
+    // number of (x rdf:type D) entailments currently supported, for the benchmark / debugging
+    public int supportedTypeCount() {
+        return support.size();
+    }
+}
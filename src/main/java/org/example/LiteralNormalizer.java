@@ -0,0 +1,126 @@
+package org.example;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.Quad;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ingest stage that turns the old plain-string numbers ("9.6", "17330000", "2001")
+// into proper xsd:decimal / xsd:int / xsd:gYear literals, so queries can compare
+// ?sales > 5000000 directly instead of casting every row.
+// Sits in front of any StreamRDF, so it works for loading and for rewriting files.
+public class LiteralNormalizer extends StreamRDFWrapper {
+    private static final String ns = ResearchGraphWithReasoning.NS;
+
+    // which predicate gets which datatype
+    static final Map<Node, RDFDatatype> DATATYPES = new HashMap<>();
+
+    static {
+        DATATYPES.put(NodeFactory.createURI(ns + "hasRating"), XSDDatatype.XSDdecimal);
+        DATATYPES.put(NodeFactory.createURI(ns + "hasSalesCount"), XSDDatatype.XSDint);
+        DATATYPES.put(NodeFactory.createURI(ns + "hasMetacriticScore"), XSDDatatype.XSDint);
+        DATATYPES.put(NodeFactory.createURI(ns + "releasedIn"), XSDDatatype.XSDgYear);
+        DATATYPES.put(NodeFactory.createURI(ns + "foundedIn"), XSDDatatype.XSDgYear);
+    }
+
+    private long rewritten = 0;
+    private long invalid = 0;
+
+    public LiteralNormalizer(StreamRDF destination) {
+        super(destination);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        super.triple(normalize(triple));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        Triple triple = normalize(quad.asTriple());
+        super.quad(Quad.create(quad.getGraph(), triple));
+    }
+
+    public long rewrittenCount() {
+        return rewritten;
+    }
+
+    // string values that don't parse as the target type are passed through untouched
+    public long invalidCount() {
+        return invalid;
+    }
+
+    private Triple normalize(Triple triple) {
+        RDFDatatype datatype = DATATYPES.get(triple.getPredicate());
+        Node object = triple.getObject();
+        if (datatype == null || !object.isLiteral()
+                || !XSDDatatype.XSDstring.equals(object.getLiteralDatatype())) {
+            return triple;
+        }
+        String lexical = object.getLiteralLexicalForm().trim();
+        if (!datatype.isValid(lexical)) {
+            invalid++;
+            return triple;
+        }
+        rewritten++;
+        return Triple.create(triple.getSubject(), triple.getPredicate(), NodeFactory.createLiteral(lexical, datatype));
+    }
+
+    // loader stage: read any RDF file into the model with numbers typed on the way in
+    public static LiteralNormalizer read(Model model, String filename) {
+        LiteralNormalizer normalizer = new LiteralNormalizer(StreamRDFLib.graph(model.getGraph()));
+        RDFParser.source(filename).parse(normalizer);
+        return normalizer;
+    }
+
+    // fix up a model that was already loaded with string values
+    public static long normalize(Model model) {
+        List<Triple> before = new ArrayList<>();
+        List<Triple> after = new ArrayList<>();
+        LiteralNormalizer normalizer = new LiteralNormalizer(StreamRDFLib.sinkNull());
+        for (Node predicate : DATATYPES.keySet()) {
+            model.getGraph().find(Node.ANY, predicate, Node.ANY).forEachRemaining(triple -> {
+                Triple typed = normalizer.normalize(triple);
+                if (typed != triple) {
+                    before.add(triple);
+                    after.add(typed);
+                }
+            });
+        }
+        before.forEach(model.getGraph()::delete);
+        after.forEach(model.getGraph()::add);
+        return normalizer.rewrittenCount();
+    }
+
+    // rewrites an existing string-typed .ttl into typed form:
+    // LiteralNormalizer ps2_games_database.ttl ps2_games_database_typed.ttl
+    public static void main(String[] args) throws IOException {
+        String input = args.length > 0 ? args[0] : "ps2_games_database.ttl";
+        String output = args.length > 1 ? args[1] : "ps2_games_database_typed.ttl";
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+            StreamRDF writer = StreamRDFWriter.getWriterStream(out, RDFFormat.TURTLE_BLOCKS);
+            LiteralNormalizer normalizer = new LiteralNormalizer(writer);
+            RDFParser.source(input).parse(normalizer); // the parser calls start()/finish()
+            System.out.println("Typed " + normalizer.rewrittenCount() + " literals, "
+                + normalizer.invalidCount() + " left as strings, written to " + output);
+        }
+    }
+}
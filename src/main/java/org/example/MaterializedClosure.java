@@ -0,0 +1,123 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.DisjointUnion;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.out.NodeFmtLib;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+// Runs the RDFS reasoner once, keeps only the triples it entailed (everything in the
+// closure that isn't already in the base model) and saves them as RDF Thrift.
+// Next start we just read that file back and put it next to the base graph, so queries
+// hit two plain graphs instead of going through the rule engine.
+//
+// Next to the file goes <file>.fingerprint with the size and a hash of the base model
+// it was computed from. A closure whose fingerprint doesn't match the base any more
+// (or that has none) is computed again rather than served stale.
+public class MaterializedClosure {
+    public static final String DEFAULT_FILE = "ps2_closure.rt";
+    static final String FINGERPRINT_SUFFIX = ".fingerprint";
+
+    // forward-materializes the full RDFS closure and returns only the entailed part
+    public static Model materialize(Model baseModel) {
+        InfModel infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSReasoner(), baseModel);
+        Graph base = baseModel.getGraph();
+        Model entailed = ModelFactory.createDefaultModel();
+        Graph entailedGraph = entailed.getGraph();
+
+        Iterator<Triple> closure = infModel.getGraph().find();
+        while (closure.hasNext()) {
+            Triple triple = closure.next();
+            if (!base.contains(triple)) {
+                entailedGraph.add(triple);
+            }
+        }
+        return entailed;
+    }
+
+    public static void save(Model entailed, String filename) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filename))) {
+            RDFDataMgr.write(out, entailed, RDFFormat.RDF_THRIFT);
+        }
+    }
+
+    public static Model load(String filename) {
+        return RDFDataMgr.loadModel(filename);
+    }
+
+    // base + entailed as one model; the two never overlap (see materialize) so a
+    // DisjointUnion is enough and skips the duplicate check a normal Union does
+    public static Model withClosure(Model baseModel, Model entailed) {
+        return ModelFactory.createModelForGraph(new DisjointUnion(baseModel.getGraph(), entailed.getGraph()));
+    }
+
+    // reuses the snapshot at filename if it was computed from this base, otherwise
+    // computes and saves it (with its fingerprint)
+    public static Model loadOrMaterialize(Model baseModel, String filename) {
+        String fingerprint = fingerprint(baseModel);
+        Path stamp = Paths.get(filename + FINGERPRINT_SUFFIX);
+        if (new File(filename).exists() && fingerprint.equals(readFingerprint(stamp))) {
+            return withClosure(baseModel, load(filename));
+        }
+        Model entailed = materialize(baseModel);
+        try {
+            save(entailed, filename);
+            // written last, so a closure that didn't save completely never matches
+            Files.write(stamp, fingerprint.getBytes(StandardCharsets.UTF_8));
+            System.out.println("Saved " + entailed.size() + " entailed triples to " + filename);
+        } catch (IOException e) {
+            System.err.println("Error saving closure: " + e.getMessage());
+        }
+        return withClosure(baseModel, entailed);
+    }
+
+    // "<triples> <hash>": a sum of per-triple 64-bit hashes of the N-Triples form, so
+    // the order the base was loaded in doesn't matter. Blank nodes all hash alike (their
+    // labels change with every parse), so for them only the triple count and the rest of
+    // each triple are compared
+    static String fingerprint(Model baseModel) {
+        long hash = 0;
+        long triples = 0;
+        Iterator<Triple> iter = baseModel.getGraph().find();
+        while (iter.hasNext()) {
+            Triple triple = iter.next();
+            hash += hash(hash(hash(0xcbf29ce484222325L, triple.getSubject()), triple.getPredicate()), triple.getObject());
+            triples++;
+        }
+        return triples + " " + Long.toHexString(hash);
+    }
+
+    // FNV-1a over the node's N-Triples text
+    private static long hash(long hash, Node node) {
+        String text = node.isBlank() ? "_:" : NodeFmtLib.strNT(node);
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return (hash ^ ' ') * 0x100000001b3L;
+    }
+
+    private static String readFingerprint(Path stamp) {
+        try {
+            return Files.exists(stamp) ? new String(Files.readAllBytes(stamp), StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null; // unreadable counts as stale
+        }
+    }
+}
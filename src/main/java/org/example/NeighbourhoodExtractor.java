@@ -0,0 +1,211 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDF;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Pulls the k-hop neighbourhood of one resource (a game, developer, series, ...) out of
+// the catalog so GraphVizExporter / visualize.html only get what fits on a screen.
+//
+// Breadth-first from the seed using the subject and object indexes, so the cost is the
+// edges of the nodes it visits, not the size of the catalog. It stops taking new nodes at
+// the node budget (nearest first). When one node has more than aggregateThreshold edges
+// of the same predicate in the same direction - every game of a genre, every instance
+// of a class - those neighbours are not expanded but collapsed into a single count node,
+// e.g. "2412 x hasGenre". The count is taken in the same pass that groups the edges,
+// and that pass reads at most SCAN_CAP edges of a node per direction, so a hub with a
+// million games costs no more than one with ten thousand ("10000+ x hasGenre").
+public class NeighbourhoodExtractor {
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node HAS_NAME = NodeFactory.createURI(NS + "hasName");
+    private static final Node HAS_TITLE = NodeFactory.createURI(NS + "hasTitle");
+
+    // edges read per node and direction; past it counts are labelled "10000+"
+    static final int SCAN_CAP = 10_000;
+
+    // one predicate's edges of a node: the triples while there are at most
+    // aggregateThreshold of them, after that only the count
+    private static final class Group {
+        List<Triple> triples = new ArrayList<>();
+        long count;
+        boolean more; // the scan stopped before the end of the node's edges
+    }
+
+    private final Graph graph;
+    private final int hops;
+    private final int nodeBudget;
+    private final int aggregateThreshold;
+
+    public NeighbourhoodExtractor(Graph graph, int hops, int nodeBudget, int aggregateThreshold) {
+        this.graph = graph;
+        this.hops = hops;
+        this.nodeBudget = nodeBudget;
+        this.aggregateThreshold = aggregateThreshold;
+    }
+
+    public NeighbourhoodExtractor(Model model, int hops, int nodeBudget, int aggregateThreshold) {
+        this(model.getGraph(), hops, nodeBudget, aggregateThreshold);
+    }
+
+    // "GodOfWar", a full URI, or a title / name like "Kingdom Hearts"
+    public Node resolve(String seed) {
+        if (seed.contains("://")) {
+            return NodeFactory.createURI(seed);
+        }
+        Node byLocalName = NodeFactory.createURI(NS + seed);
+        if (graph.contains(byLocalName, Node.ANY, Node.ANY) || graph.contains(Node.ANY, Node.ANY, byLocalName)) {
+            return byLocalName;
+        }
+        for (Node property : new Node[] { HAS_TITLE, HAS_NAME }) {
+            ExtendedIterator<Triple> iter = graph.find(Node.ANY, property, NodeFactory.createLiteral(seed));
+            try {
+                if (iter.hasNext()) {
+                    return iter.next().getSubject();
+                }
+            } finally {
+                iter.close();
+            }
+        }
+        throw new IllegalArgumentException("No resource found for seed: " + seed);
+    }
+
+    public Model extract(String seed) {
+        return extract(resolve(seed));
+    }
+
+    // the subgraph as a fresh model: edges between the kept nodes, the kept nodes' own
+    // literals and types (so labels and colours still work), plus the count nodes
+    public Model extract(Node seed) {
+        Map<Node, Integer> depth = new LinkedHashMap<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        Graph out = ModelFactory.createDefaultModel().getGraph();
+        List<Triple> edges = new ArrayList<>();
+
+        depth.put(seed, 0);
+        queue.add(seed);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            int d = depth.get(node);
+            copyLiteralsAndTypes(node, out);
+            if (d >= hops) {
+                continue;
+            }
+            for (boolean outgoing : new boolean[] { true, false }) {
+                for (Map.Entry<Node, Group> group : groupByPredicate(node, outgoing).entrySet()) {
+                    if (group.getValue().triples == null) {
+                        addAggregate(node, group.getKey(), group.getValue(), outgoing, out);
+                        continue;
+                    }
+                    for (Triple t : group.getValue().triples) {
+                        Node neighbour = outgoing ? t.getObject() : t.getSubject();
+                        if (!depth.containsKey(neighbour)) {
+                            if (depth.size() >= nodeBudget) {
+                                continue;
+                            }
+                            depth.put(neighbour, d + 1);
+                            queue.add(neighbour);
+                        }
+                        edges.add(t);
+                    }
+                }
+            }
+        }
+        // only now do we know which nodes made it under the budget
+        for (Triple t : edges) {
+            if (depth.containsKey(t.getSubject()) && depth.containsKey(t.getObject())) {
+                out.add(t);
+            }
+        }
+        Model model = ModelFactory.createModelForGraph(out);
+        model.setNsPrefixes(graph.getPrefixMapping());
+        return model;
+    }
+
+    // resource-valued edges of node in one direction, per predicate. A group drops its
+    // triples as soon as it passes the threshold (it is going to be a count node) and
+    // only counts from then on; the whole scan stops after SCAN_CAP edges
+    private Map<Node, Group> groupByPredicate(Node node, boolean outgoing) {
+        Map<Node, Group> groups = new LinkedHashMap<>();
+        ExtendedIterator<Triple> iter = outgoing ? graph.find(node, Node.ANY, Node.ANY) : graph.find(Node.ANY, Node.ANY, node);
+        try {
+            int scanned = 0;
+            while (iter.hasNext()) {
+                if (scanned++ == SCAN_CAP) {
+                    groups.values().forEach(g -> g.more = true);
+                    break;
+                }
+                Triple t = iter.next();
+                if (t.getObject().isLiteral()) {
+                    continue; // literals come along with the node itself
+                }
+                Group group = groups.computeIfAbsent(t.getPredicate(), k -> new Group());
+                group.count++;
+                if (group.triples != null) {
+                    group.triples.add(t);
+                    if (group.triples.size() > aggregateThreshold) {
+                        group.triples = null;
+                    }
+                }
+            }
+        } finally {
+            iter.close();
+        }
+        return groups;
+    }
+
+    private void copyLiteralsAndTypes(Node node, Graph out) {
+        ExtendedIterator<Triple> iter = graph.find(node, Node.ANY, Node.ANY);
+        try {
+            while (iter.hasNext()) {
+                Triple t = iter.next();
+                if (t.getObject().isLiteral() || TYPE.equals(t.getPredicate())) {
+                    out.add(t);
+                }
+            }
+        } finally {
+            iter.close();
+        }
+    }
+
+    private void addAggregate(Node node, Node predicate, Group counted, boolean outgoing, Graph out) {
+        String label = counted.count + (counted.more ? "+" : "") + " x " + predicate.getLocalName();
+        Node group = NodeFactory.createURI(NS + "group_" + localName(node) + "_" + predicate.getLocalName()
+            + (outgoing ? "_out" : "_in"));
+        out.add(Triple.create(group, HAS_NAME, NodeFactory.createLiteral(label)));
+        out.add(outgoing ? Triple.create(node, predicate, group) : Triple.create(group, predicate, node));
+    }
+
+    private static String localName(Node node) {
+        if (node.isURI()) {
+            String uri = node.getURI();
+            return uri.substring(Math.max(uri.lastIndexOf('#'), uri.lastIndexOf('/')) + 1);
+        }
+        return node.toString().replaceAll("[^a-zA-Z0-9]", "_");
+    }
+
+    // how many distinct nodes ended up in an extracted model, for logging
+    static int nodeCount(Model model) {
+        Set<Node> nodes = new HashSet<>();
+        model.getGraph().find().forEachRemaining(t -> {
+            nodes.add(t.getSubject());
+            if (!t.getObject().isLiteral()) {
+                nodes.add(t.getObject());
+            }
+        });
+        return nodes.size();
+    }
+}
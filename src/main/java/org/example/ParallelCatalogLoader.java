@@ -0,0 +1,362 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFParserBuilder;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Loads big catalog dumps with the parsing spread over several threads.
+//
+// N-Triples / N-Quads are line based, so the file is cut into chunks at line breaks and
+// each chunk parsed by its own worker. Turtle (and anything compressed) can't be split
+// like that and gets one dedicated parser thread instead. Either way the parsers hand
+// batches of triples through a bounded queue to the calling thread, which is the only
+// one touching the target graph and adds each batch in one go. The queue bound keeps
+// fast parsers from piling the whole file up in memory while the inserts catch up.
+//
+// N-Quads are flattened into the target graph. Blank node labels are scoped to one
+// load: the chunks of a file share a label-to-node mapping (seeded afresh for every
+// load), so _:b1 in two chunks is still one node, but the _:b1 of another file or of
+// an earlier load of the same file is a different one. Turtle gets the parser's own
+// per-document labelling.
+public class ParallelCatalogLoader {
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    public static final long DEFAULT_CHUNK_BYTES = 32L * 1024 * 1024;
+
+    // marks one producer as done; compared by identity
+    private static final List<Triple> END = new ArrayList<>(0);
+
+    private final int threads;
+    private final int batchSize;
+    private final long chunkBytes;
+
+    public ParallelCatalogLoader() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE, DEFAULT_CHUNK_BYTES);
+    }
+
+    public ParallelCatalogLoader(int threads, int batchSize, long chunkBytes) {
+        if (threads < 1 || batchSize < 1 || chunkBytes < 1) {
+            throw new IllegalArgumentException("threads, batchSize and chunkBytes must be positive");
+        }
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.chunkBytes = chunkBytes;
+    }
+
+    // what one load did
+    public static class Stats {
+        private final long triples;
+        private final long nanos;
+        private final long peakHeapBytes;
+        private final int chunks;
+
+        Stats(long triples, long nanos, long peakHeapBytes, int chunks) {
+            this.triples = triples;
+            this.nanos = nanos;
+            this.peakHeapBytes = peakHeapBytes;
+            this.chunks = chunks;
+        }
+
+        public long triples() {
+            return triples;
+        }
+
+        public long millis() {
+            return nanos / 1_000_000;
+        }
+
+        public double triplesPerSecond() {
+            return nanos == 0 ? 0 : triples * 1e9 / nanos;
+        }
+
+        // sum of each heap pool's peak, so an upper bound on the real peak
+        public long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        public int chunks() {
+            return chunks;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d triples in %,d ms (%,.0f triples/s, %d chunks, peak heap %,d MB)",
+                triples, millis(), triplesPerSecond(), chunks, peakHeapBytes / (1024 * 1024));
+        }
+    }
+
+    public static Model loadModel(String filename) {
+        Model model = CatalogGraphs.createModel();
+        Stats stats = new ParallelCatalogLoader().load(filename, model);
+        CatalogGraphs.compact(model);
+        System.out.println("Loaded " + filename + ": " + stats);
+        return model;
+    }
+
+    public Stats load(String filename, Model target) {
+        return load(filename, target.getGraph());
+    }
+
+    public Stats load(String filename, Graph target) {
+        resetHeapPeaks();
+        long start = System.nanoTime();
+
+        Lang lang = RDFLanguages.filenameToLang(filename);
+        if (lang == null) {
+            throw new IllegalArgumentException("Can't tell the RDF syntax of " + filename);
+        }
+        boolean splittable = (Lang.NTRIPLES.equals(lang) || Lang.NQUADS.equals(lang)) && !isCompressed(filename);
+
+        BlockingQueue<List<Triple>> queue = new ArrayBlockingQueue<>(Math.max(2, threads * 4));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Map<String, String> prefixes = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(splittable ? threads : 1, r -> {
+            Thread t = new Thread(r, "catalog-parser");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long triples = 0;
+        int producers;
+        FileChannel channel = null;
+        try {
+            if (splittable) {
+                channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+                List<long[]> chunks = chunks(channel);
+                producers = chunks.size();
+                // same seed in every chunk: a label hashes to the same node whichever
+                // worker meets it, and only within this load
+                UUID seed = UUID.randomUUID();
+                for (long[] chunk : chunks) {
+                    InputStream in = new ChannelRangeInputStream(channel, chunk[0], chunk[1]);
+                    pool.execute(() -> parse(RDFParser.source(in).lang(lang)
+                        .labelToNode(LabelToNode.createScopeByDocumentHash(seed)), queue, prefixes, failure));
+                }
+            } else {
+                producers = 1;
+                pool.execute(() -> parse(RDFParser.source(filename).lang(lang), queue, prefixes, failure));
+            }
+
+            int finished = 0;
+            while (finished < producers) {
+                List<Triple> batch = queue.take();
+                if (failure.get() != null) {
+                    break; // no point inserting the rest of a broken file
+                }
+                if (batch == END) {
+                    finished++;
+                    continue;
+                }
+                GraphUtil.add(target, batch);
+                triples += batch.size();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading " + filename, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading " + filename, e);
+        } finally {
+            // also unblocks parsers stuck on a full queue if the insert side blew up
+            pool.shutdownNow();
+            closeQuietly(channel);
+        }
+        if (failure.get() != null) {
+            throw new RuntimeException("Error parsing " + filename + ": " + failure.get().getMessage(), failure.get());
+        }
+        prefixes.forEach(target.getPrefixMapping()::setNsPrefix);
+        return new Stats(triples, System.nanoTime() - start, heapPeak(), producers);
+    }
+
+    // runs on a parser thread; always ends with END on the queue, even when it fails
+    private void parse(RDFParserBuilder parser, BlockingQueue<List<Triple>> queue, Map<String, String> prefixes,
+                       AtomicReference<Throwable> failure) {
+        Batcher batcher = new Batcher(queue, prefixes);
+        try {
+            parser.parse(batcher);
+            batcher.flush();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // collects parsed triples into batches of batchSize for the queue
+    private class Batcher extends StreamRDFBase {
+        private final BlockingQueue<List<Triple>> queue;
+        private final Map<String, String> prefixes;
+        private List<Triple> batch = new ArrayList<>(batchSize);
+
+        Batcher(BlockingQueue<List<Triple>> queue, Map<String, String> prefixes) {
+            this.queue = queue;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            batch.add(triple);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void quad(Quad quad) {
+            triple(quad.asTriple());
+        }
+
+        @Override
+        public void prefix(String prefix, String iri) {
+            prefixes.put(prefix, iri);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Loader stopped", e);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    // [start, end) byte ranges of about chunkBytes each, every one ending just after a newline
+    private List<long[]> chunks(FileChannel channel) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            long end = nextLineStart(channel, Math.min(size, start + chunkBytes));
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static boolean isCompressed(String filename) {
+        return filename.endsWith(".gz") || filename.endsWith(".bz2") || filename.endsWith(".sz");
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // read-only, nothing to lose
+            }
+        }
+    }
+
+    // reads [start, end) of a shared channel with positional reads, so workers don't
+    // fight over the channel position
+    private static class ChannelRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        ChannelRangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+    }
+
+    // load a dump and print throughput: ParallelCatalogLoader <file.nt|file.nq|file.ttl> [threads]
+    public static void main(String[] args) {
+        String filename = args.length > 0 ? args[0] : "ps2_games_database.ttl";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Model model = ModelFactory.createDefaultModel();
+        Stats stats = new ParallelCatalogLoader(threads, DEFAULT_BATCH_SIZE, DEFAULT_CHUNK_BYTES).load(filename, model);
+        System.out.println(filename + " with " + threads + " threads: " + stats);
+    }
+}
@@ -0,0 +1,325 @@
+package org.example;
+
+import org.apache.jena.atlas.lib.Closeable;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.WrappedGraph;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.reasoner.rulesys.BasicForwardRuleInfGraph;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Where query time goes, per query name: parse and optimise (once per compile), RDFS
+// inference (the InfGraph's prepare, usually only the first query pays), time to the
+// first row, time to drain everything, rows, rule firings and graph lookups.
+//
+// -Dps2.metrics picks how much:
+//   off      - nothing, QueryRegistry runs queries bare
+//   basic    - timers, rows and rule firings (default; a handful of nanoTime calls per query)
+//   detailed - also counts graph lookups by wrapping the graph, which costs a virtual call
+//              per find and stops TDB2 from using its own BGP execution, so not for production
+//
+// Stats are registered as MXBeans (org.example:type=QueryStats,name=query3 ...). Queries
+// slower than -Dps2.slowQueryMillis (500 by default) are logged to stderr with their
+// parameters-substituted algebra.
+public class QueryMetrics {
+    public enum Level { OFF, BASIC, DETAILED }
+
+    private static volatile Level level = Level.valueOf(System.getProperty("ps2.metrics", "basic").toUpperCase());
+    private static volatile long slowQueryNanos = Long.getLong("ps2.slowQueryMillis", 500) * 1_000_000;
+
+    private static final Map<String, QueryStats> STATS = new ConcurrentHashMap<>();
+
+    public static Level level() {
+        return level;
+    }
+
+    // for the overhead benchmark and tests
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static void setSlowQueryMillis(long millis) {
+        slowQueryNanos = millis * 1_000_000;
+    }
+
+    public static QueryStats stats(String name) {
+        return STATS.computeIfAbsent(name, QueryMetrics::register);
+    }
+
+    public static Map<String, QueryStats> all() {
+        return STATS;
+    }
+
+    private static QueryStats register(String name) {
+        QueryStats stats = new QueryStats();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats,
+                new ObjectName("org.example:type=QueryStats,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            // already there (another classloader, a second registry): keep counting locally
+            System.err.println("Could not register query stats for " + name + ": " + e.getMessage());
+        }
+        return stats;
+    }
+
+    // called by QueryRegistry when a query is parsed and optimised
+    static void compiled(String name, long parseNanos, long optimizeNanos) {
+        if (level == Level.OFF) {
+            return;
+        }
+        QueryStats stats = stats(name);
+        stats.compilations.increment();
+        stats.parseNanos.add(parseNanos);
+        stats.optimizeNanos.add(optimizeNanos);
+    }
+
+    // runs op against graph (QueryRegistry has already checked the level isn't OFF);
+    // the numbers get recorded once the returned rows are drained or closed
+    static Iterator<Binding> execute(String name, Op op, Graph graph) {
+        long rulesBefore = rulesFired(graph);
+        long inference = inferenceNanos(graph);
+        Graph target = level == Level.DETAILED ? new CountingGraph(graph) : graph;
+        long start = System.nanoTime();
+        QueryIterator iter = Algebra.exec(op, target);
+        return new InstrumentedIterator(name, op, target, graph, iter, start, inference, rulesBefore);
+    }
+
+    // forces the RDFS closure before the clock for the query itself starts, so
+    // inference shows up as its own number
+    static long inferenceNanos(Graph graph) {
+        if (!(graph instanceof InfGraph)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        ((InfGraph) graph).prepare();
+        return System.nanoTime() - start;
+    }
+
+    static long rulesFired(Graph graph) {
+        return graph instanceof BasicForwardRuleInfGraph ? ((BasicForwardRuleInfGraph) graph).getNRulesFired() : 0;
+    }
+
+    public static class QueryStats implements QueryStatsMXBean {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder compilations = new LongAdder();
+        private final LongAdder parseNanos = new LongAdder();
+        private final LongAdder optimizeNanos = new LongAdder();
+        private final LongAdder inferenceNanos = new LongAdder();
+        private final LongAdder firstRowNanos = new LongAdder();
+        private final LongAdder executeNanos = new LongAdder();
+        private final AtomicLong maxExecuteNanos = new AtomicLong();
+        private volatile long lastExecuteNanos = 0;
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder derivations = new LongAdder();
+        private final LongAdder slowQueries = new LongAdder();
+
+        void executed(long inference, long firstRow, long execute, long rowCount, long lookupCount, long derived) {
+            executions.increment();
+            inferenceNanos.add(inference);
+            firstRowNanos.add(firstRow);
+            executeNanos.add(execute);
+            maxExecuteNanos.accumulateAndGet(execute, Math::max);
+            lastExecuteNanos = execute;
+            rows.add(rowCount);
+            lookups.add(lookupCount);
+            derivations.add(derived);
+        }
+
+        @Override
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        @Override
+        public long getCompilations() {
+            return compilations.sum();
+        }
+
+        @Override
+        public double getTotalParseMillis() {
+            return parseNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getTotalOptimizeMillis() {
+            return optimizeNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getTotalInferenceMillis() {
+            return inferenceNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getMeanFirstRowMillis() {
+            long n = executions.sum();
+            return n == 0 ? 0 : firstRowNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMeanExecuteMillis() {
+            long n = executions.sum();
+            return n == 0 ? 0 : executeNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMaxExecuteMillis() {
+            return maxExecuteNanos.get() / 1e6;
+        }
+
+        @Override
+        public double getLastExecuteMillis() {
+            return lastExecuteNanos / 1e6;
+        }
+
+        @Override
+        public long getTotalRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public long getTotalLookups() {
+            return lookups.sum();
+        }
+
+        @Override
+        public long getTotalDerivations() {
+            return derivations.sum();
+        }
+
+        @Override
+        public long getSlowQueries() {
+            return slowQueries.sum();
+        }
+
+        @Override
+        public void reset() {
+            for (LongAdder adder : new LongAdder[] { executions, compilations, parseNanos, optimizeNanos,
+                    inferenceNanos, firstRowNanos, executeNanos, rows, lookups, derivations, slowQueries }) {
+                adder.reset();
+            }
+            maxExecuteNanos.set(0);
+            lastExecuteNanos = 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d runs, mean %.2f ms (first row %.2f ms), max %.2f ms, %d rows, %d lookups, %d derivations",
+                getExecutions(), getMeanExecuteMillis(), getMeanFirstRowMillis(), getMaxExecuteMillis(),
+                getTotalRows(), getTotalLookups(), getTotalDerivations());
+        }
+    }
+
+    // counts every find / contains that reaches the graph; one per query execution,
+    // used from one thread, so a plain long is enough
+    static class CountingGraph extends WrappedGraph {
+        long lookups = 0;
+
+        CountingGraph(Graph base) {
+            super(base);
+        }
+
+        @Override
+        public ExtendedIterator<Triple> find(Triple pattern) {
+            lookups++;
+            return super.find(pattern);
+        }
+
+        @Override
+        public ExtendedIterator<Triple> find(Node s, Node p, Node o) {
+            lookups++;
+            return super.find(s, p, o);
+        }
+
+        @Override
+        public boolean contains(Triple t) {
+            lookups++;
+            return super.contains(t);
+        }
+
+        @Override
+        public boolean contains(Node s, Node p, Node o) {
+            lookups++;
+            return super.contains(s, p, o);
+        }
+    }
+
+    private static class InstrumentedIterator implements Iterator<Binding>, Closeable {
+        private final String name;
+        private final Op op;
+        private final Graph graph;
+        private final QueryIterator iter;
+        private final long start;
+        private final long inference;
+        private final long rulesBefore;
+        private final Graph original;
+        private long firstRow = -1;
+        private long rows = 0;
+        private boolean finished = false;
+
+        InstrumentedIterator(String name, Op op, Graph graph, Graph original, QueryIterator iter, long start,
+                             long inference, long rulesBefore) {
+            this.name = name;
+            this.op = op;
+            this.graph = graph;
+            this.original = original;
+            this.iter = iter;
+            this.start = start;
+            this.inference = inference;
+            this.rulesBefore = rulesBefore;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+            boolean more = iter.hasNext();
+            if (firstRow < 0) {
+                firstRow = System.nanoTime() - start;
+            }
+            if (!more) {
+                close();
+            }
+            return more;
+        }
+
+        @Override
+        public Binding next() {
+            rows++;
+            return iter.next();
+        }
+
+        @Override
+        public void close() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            iter.close();
+            long execute = System.nanoTime() - start;
+            long lookups = graph instanceof CountingGraph ? ((CountingGraph) graph).lookups : 0;
+            QueryStats stats = stats(name);
+            stats.executed(inference, Math.max(firstRow, 0), execute, rows, lookups, rulesFired(original) - rulesBefore);
+            if (execute > slowQueryNanos) {
+                stats.slowQueries.increment();
+                System.err.printf("Slow query %s: %.1f ms (first row %.1f ms, inference %.1f ms), %d rows, %d lookups%n%s",
+                    name, execute / 1e6, Math.max(firstRow, 0) / 1e6, inference / 1e6, rows, lookups, op);
+            }
+        }
+    }
+}
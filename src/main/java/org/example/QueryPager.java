@@ -0,0 +1,131 @@
+package org.example;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// LIMIT/OFFSET pagination over the named catalog queries. Each page comes back with
+// an opaque cursor that carries the query name, parameters and position, so a client
+// just hands the cursor back to get the next page. Pages run the query with its ORDER BY
+// extended by every projected variable (QueryRegistry.select with a window), so rows
+// that tie on the written sort keys can't move between pages - as long as the model
+// doesn't change between them, every row shows up exactly once.
+//
+// A cursor comes back from the client, so next() checks it like any other input: a
+// page size outside 1..MAX_PAGE_SIZE, a negative offset or a part it can't parse is an
+// IllegalArgumentException("Malformed cursor").
+public class QueryPager {
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private final QueryRegistry registry;
+
+    public QueryPager(QueryRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static class Page {
+        private final List<String> vars;
+        private final List<QuerySolution> rows;
+        private final String nextCursor;
+
+        Page(List<String> vars, List<QuerySolution> rows, String nextCursor) {
+            this.vars = vars;
+            this.rows = rows;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<String> vars() {
+            return vars;
+        }
+
+        // at most pageSize rows
+        public List<QuerySolution> rows() {
+            return rows;
+        }
+
+        // null on the last page
+        public String nextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
+
+    public Page first(String name, Map<String, ?> params, Model model, int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Map<String, Node> values = new TreeMap<>();
+        params.forEach((var, value) -> values.put(var, QueryRegistry.toNode(value)));
+        return fetch(name, values, 0, pageSize, model);
+    }
+
+    public Page next(String cursor, Model model) {
+        String name;
+        long offset;
+        int pageSize;
+        Map<String, Node> values = new TreeMap<>();
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n");
+            if (parts.length < 3) {
+                throw malformed();
+            }
+            name = parts[0];
+            offset = Long.parseLong(parts[1]);
+            pageSize = Integer.parseInt(parts[2]);
+            for (int i = 3; i < parts.length; i++) {
+                int eq = parts[i].indexOf('=');
+                if (eq <= 0) {
+                    throw malformed();
+                }
+                values.put(parts[i].substring(0, eq), NodeFactoryExtra.parseNode(parts[i].substring(eq + 1)));
+            }
+        } catch (RuntimeException e) {
+            // bad base64, numbers or node syntax
+            throw malformed();
+        }
+        if (offset < 0 || pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw malformed();
+        }
+        return fetch(name, values, offset, pageSize, model);
+    }
+
+    private static IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed cursor");
+    }
+
+    private Page fetch(String name, Map<String, Node> params, long offset, int pageSize, Model model) {
+        // ask for one extra row to find out whether there is a next page
+        ResultSet results = registry.select(registry.named(name), params, model, offset, pageSize + 1L);
+        List<QuerySolution> rows = new ArrayList<>(pageSize);
+        boolean more;
+        try {
+            while (rows.size() < pageSize && results.hasNext()) {
+                rows.add(results.next());
+            }
+            more = results.hasNext();
+        } finally {
+            results.close();
+        }
+        String next = more ? cursor(name, params, offset + pageSize, pageSize) : null;
+        return new Page(results.getResultVars(), rows, next);
+    }
+
+    private static String cursor(String name, Map<String, Node> params, long offset, int pageSize) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append('\n').append(offset).append('\n').append(pageSize);
+        params.forEach((var, node) -> sb.append('\n').append(var).append('=').append(NodeFmtLib.strNT(node)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
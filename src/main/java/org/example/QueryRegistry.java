@@ -0,0 +1,262 @@
+package org.example;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.SortCondition;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.OpSlice;
+import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.expr.NodeValue;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Parses and optimises each query once and keeps the compiled algebra in a bounded
+// LRU cache, so running the same named query thousands of times doesn't re-parse it.
+// Thresholds, countries etc. are query variables (?minSales, ?country, ...) that get
+// substituted into the cached plan per call instead of being concatenated into the text.
+//
+// With a StatsOptimizer set, the plan is re-ordered per call after substitution, so the
+// statistics see the real thresholds (?minScore = 90, not an unknown ?minScore).
+public class QueryRegistry {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // one parsed + optimised query
+    public static class CompiledQuery {
+        private final String name;
+        private final Query query;
+        private final Op op;
+        private final List<Var> vars;
+        private final Map<String, Node> defaults;
+        private final String normalized;
+        private final long parseNanos;
+        private final long optimizeNanos;
+        private volatile Op windowOp;
+
+        CompiledQuery(String name, Query query, Op op, Map<String, Node> defaults, long parseNanos, long optimizeNanos) {
+            this.name = name;
+            this.query = query;
+            this.op = op;
+            this.vars = query.getProjectVars();
+            this.defaults = defaults;
+            this.normalized = query.serialize();
+            this.parseNanos = parseNanos;
+            this.optimizeNanos = optimizeNanos;
+        }
+
+        // query1..query8, or "adhoc" for raw SPARQL text
+        public String name() {
+            return name;
+        }
+
+        public Query query() {
+            return query;
+        }
+
+        public Op op() {
+            return op;
+        }
+
+        public List<Var> vars() {
+            return vars;
+        }
+
+        // the query as Jena prints it, the same for texts that only differ in layout
+        public String normalized() {
+            return normalized;
+        }
+
+        public long parseNanos() {
+            return parseNanos;
+        }
+
+        public long optimizeNanos() {
+            return optimizeNanos;
+        }
+
+        // the plan for windows: every projected variable not already in ORDER BY is
+        // appended to it (or becomes it), so rows that tie on the written keys still come
+        // out in one fixed order and consecutive OFFSET windows neither skip nor repeat
+        // any. Rows equal on all of them are identical, so their order doesn't matter.
+        // Compiled on first use, most queries are never windowed
+        Op windowOp() {
+            Op window = windowOp;
+            if (window == null) {
+                Query total = query.cloneQuery();
+                Set<Var> ordered = new HashSet<>();
+                if (total.getOrderBy() != null) {
+                    for (SortCondition condition : total.getOrderBy()) {
+                        if (condition.getExpression().isVariable()) {
+                            ordered.add(condition.getExpression().asVar());
+                        }
+                    }
+                }
+                for (Var var : total.getProjectVars()) {
+                    if (ordered.add(var)) {
+                        total.addOrderBy(var, Query.ORDER_DEFAULT);
+                    }
+                }
+                window = Algebra.optimize(Algebra.compile(total));
+                windowOp = window;
+            }
+            return window;
+        }
+    }
+
+    private final Map<String, CompiledQuery> cache;
+    private volatile StatsOptimizer optimizer;
+    private long hits = 0;
+    private long misses = 0;
+
+    public QueryRegistry() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueryRegistry(int capacity) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // a catalog query by name (query1..query8), with its default parameters
+    public CompiledQuery named(String name) {
+        return compile("named:" + name, name, CatalogQueries.template(name), CatalogQueries.defaults(name));
+    }
+
+    // any SPARQL SELECT text, cached by its exact text
+    public CompiledQuery compile(String queryString) {
+        return compile(queryString, "adhoc", queryString, Map.of());
+    }
+
+    private synchronized CompiledQuery compile(String key, String name, String queryString, Map<String, Node> defaults) {
+        CompiledQuery compiled = cache.get(key);
+        if (compiled != null) {
+            hits++;
+            return compiled;
+        }
+        misses++;
+        long start = System.nanoTime();
+        Query query = QueryFactory.create(queryString);
+        long parsed = System.nanoTime();
+        Op op = Algebra.optimize(Algebra.compile(query));
+        long optimized = System.nanoTime();
+
+        compiled = new CompiledQuery(name, query, op, defaults, parsed - start, optimized - parsed);
+        QueryMetrics.compiled(name, parsed - start, optimized - parsed);
+        cache.put(key, compiled);
+        return compiled;
+    }
+
+    // null (the default) runs ARQ's plan as it is
+    public void setOptimizer(StatsOptimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+
+    public StatsOptimizer optimizer() {
+        return optimizer;
+    }
+
+    // runs a named catalog query; params override the defaults, e.g. Map.of("minSales", 10000000)
+    public ResultSet select(String name, Map<String, ?> params, Model model) {
+        return select(named(name), params, model);
+    }
+
+    public ResultSet select(CompiledQuery compiled, Map<String, ?> params, Model model) {
+        return exec(compiled, bind(compiled.op, compiled, params), model);
+    }
+
+    // one window of the results, OFFSET/LIMIT applied on top of the cached plan with its
+    // order made total (see CompiledQuery.windowOp), so windows page through it exactly
+    public ResultSet select(CompiledQuery compiled, Map<String, ?> params, Model model, long offset, long limit) {
+        return exec(compiled, new OpSlice(bind(compiled.windowOp(), compiled, params), offset, limit), model);
+    }
+
+    // the plan that would run for these parameters, with estimated vs actual rows per
+    // step (needs an optimizer, see StatsOptimizer.explain)
+    public String explain(CompiledQuery compiled, Map<String, ?> params, Model model) {
+        StatsOptimizer optimizer = this.optimizer;
+        if (optimizer == null) {
+            throw new IllegalStateException("No statistics to explain with, call setOptimizer first");
+        }
+        return optimizer.explain(substitute(compiled.op, compiled, params), model.getGraph(), model);
+    }
+
+    // the plan to run: substituted, then re-ordered if there is an optimizer
+    private Op bind(Op plan, CompiledQuery compiled, Map<String, ?> params) {
+        StatsOptimizer optimizer = this.optimizer;
+        Op op = substitute(plan, compiled, params);
+        return optimizer == null ? op : optimizer.optimize(op);
+    }
+
+    // a cached plan of compiled with the parameters (defaults overridden by params) substituted in
+    private static Op substitute(Op plan, CompiledQuery compiled, Map<String, ?> params) {
+        Map<String, Node> values = new HashMap<>(compiled.defaults);
+        params.forEach((var, value) -> values.put(var, toNode(value)));
+        if (values.isEmpty()) {
+            return plan;
+        }
+        BindingBuilder builder = Binding.builder();
+        values.forEach((var, node) -> builder.add(Var.alloc(var), node));
+        return Substitute.substitute(plan, builder.build());
+    }
+
+    // timed and counted per query name unless -Dps2.metrics=off, see QueryMetrics
+    private static ResultSet exec(CompiledQuery compiled, Op op, Model model) {
+        if (QueryMetrics.level() == QueryMetrics.Level.OFF) {
+            QueryIterator iter = Algebra.exec(op, model.getGraph());
+            return ResultSet.adapt(RowSetStream.create(compiled.vars, iter));
+        }
+        return ResultSet.adapt(RowSetStream.create(compiled.vars, QueryMetrics.execute(compiled.name, op, model.getGraph())));
+    }
+
+    // Java values to RDF terms for parameters
+    static Node toNode(Object value) {
+        if (value instanceof Node) {
+            return (Node) value;
+        }
+        if (value instanceof RDFNode) {
+            return ((RDFNode) value).asNode();
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return NodeValue.makeInteger(((Number) value).longValue()).asNode();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return NodeValue.makeDouble(((Number) value).doubleValue()).asNode();
+        }
+        if (value instanceof BigDecimal) {
+            return NodeFactory.createLiteral(((BigDecimal) value).toPlainString(), XSDDatatype.XSDdecimal);
+        }
+        return NodeFactory.createLiteral(String.valueOf(value));
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example;
+
+// what JMX (jconsole, VisualVM, a JMX exporter) sees for one query name,
+// under org.example:type=QueryStats,name=<query name>
+public interface QueryStatsMXBean {
+
+    long getExecutions();
+
+    long getCompilations();
+
+    double getTotalParseMillis();
+
+    double getTotalOptimizeMillis();
+
+    double getTotalInferenceMillis();
+
+    double getMeanFirstRowMillis();
+
+    double getMeanExecuteMillis();
+
+    double getMaxExecuteMillis();
+
+    double getLastExecuteMillis();
+
+    long getTotalRows();
+
+    long getTotalLookups();
+
+    long getTotalDerivations();
+
+    long getSlowQueries();
+
+    void reset();
+}
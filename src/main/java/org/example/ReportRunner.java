@@ -0,0 +1,225 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.system.Txn;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Runs a batch of named catalog queries (the nightly report: hundreds of them) side by
+// side on a fork-join pool instead of one after another. They are all read-only, so
+// the only things to get right are:
+//
+//   - the model must be safe to read from many threads. Plain in-memory graphs,
+//     snapshots and HierarchyReasoner are (once its hierarchy is built); Jena's rule
+//     InfGraphs are not - their backward chainer keeps per-query state - so readSafe()
+//     materialises those once into a plain graph first.
+//   - TDB2 transactions belong to a thread, so with a Dataset every query opens its own
+//     read transaction (all of them see the same committed state if nobody writes).
+//   - output comes back in the order the batch was given, whatever order queries finish.
+//
+// Each query is also formatted to text on its worker, so printing at the end is a copy.
+// A query that fails doesn't take the batch down, its Report carries the error.
+public class ReportRunner implements AutoCloseable {
+
+    // one query of the batch
+    public static class Request {
+        private final String name;
+        private final Map<String, ?> params;
+
+        public Request(String name, Map<String, ?> params) {
+            this.name = name;
+            this.params = params;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Map<String, ?> params() {
+            return params;
+        }
+    }
+
+    public static class Report {
+        private final Request request;
+        private final ResultSetRewindable results;
+        private final String text;
+        private final long nanos;
+        private final RuntimeException error;
+
+        Report(Request request, ResultSetRewindable results, String text, long nanos, RuntimeException error) {
+            this.request = request;
+            this.results = results;
+            this.text = text;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        public Request request() {
+            return request;
+        }
+
+        // null if the query failed
+        public ResultSetRewindable results() {
+            return results;
+        }
+
+        // the results as ResultSetFormatter's text table
+        public String text() {
+            return text;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        public RuntimeException error() {
+            return error;
+        }
+    }
+
+    private final QueryRegistry registry;
+    private final ForkJoinPool pool;
+
+    public ReportRunner(int parallelism) {
+        this(new QueryRegistry(), parallelism);
+    }
+
+    // registry is shared by the workers (compile() is synchronized)
+    public ReportRunner(QueryRegistry registry, int parallelism) {
+        this.registry = registry;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    // every name with its default parameters
+    public static List<Request> requests(Collection<String> names) {
+        List<Request> batch = new ArrayList<>();
+        for (String name : names) {
+            batch.add(new Request(name, Map.of()));
+        }
+        return batch;
+    }
+
+    // model has to be safe for concurrent reads, see readSafe()
+    public List<Report> run(List<Request> batch, Model model) {
+        return run(batch, request -> execute(request, model));
+    }
+
+    // snapshots never change, nothing to prepare
+    public List<Report> run(List<Request> batch, CatalogSnapshots.Snapshot snapshot) {
+        return run(batch, snapshot.model());
+    }
+
+    // the reasoning model (CatalogReasoning mode) is built once, in a read transaction on
+    // this thread, made readSafe() and shared by all the workers; each query still runs
+    // in its own read transaction since the base graph lives in the dataset. Building it
+    // once also means "materialized" reads or writes the closure file once, and the
+    // listener of "incremental" is taken off the base model again when the batch is done
+    public List<Report> run(List<Request> batch, Dataset dataset, String reasoner) {
+        Model base = dataset.getDefaultModel();
+        if ("incremental".equals(reasoner)) {
+            IncrementalTypeReasoner incremental = Txn.calculateRead(dataset, () -> new IncrementalTypeReasoner(base));
+            try {
+                return run(batch, dataset, incremental.model());
+            } finally {
+                incremental.close();
+            }
+        }
+        Model model = Txn.calculateRead(dataset, () -> readSafe(CatalogReasoning.reasoningModel(base, reasoner)));
+        return run(batch, dataset, model);
+    }
+
+    private List<Report> run(List<Request> batch, Dataset dataset, Model model) {
+        return run(batch, request -> Txn.calculateRead(dataset, () -> execute(request, model)));
+    }
+
+    private List<Report> run(List<Request> batch, Function<Request, Report> task) {
+        // submit everything, then collect in batch order
+        List<Future<Report>> futures = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            futures.add(pool.submit(() -> task.apply(request)));
+        }
+        List<Report> reports = new ArrayList<>(batch.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                reports.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for reports", e);
+            } catch (ExecutionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+                reports.add(new Report(batch.get(i), null, null, 0, cause));
+            }
+        }
+        return reports;
+    }
+
+    private Report execute(Request request, Model model) {
+        long start = System.nanoTime();
+        try {
+            QueryRegistry.CompiledQuery compiled = registry.named(request.name());
+            ResultSetRewindable results = ResultSetFactory.copyResults(registry.select(compiled, request.params(), model));
+            String text = ResultSetFormatter.asText(results, compiled.query());
+            results.reset();
+            return new Report(request, results, text, System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            return new Report(request, null, null, System.nanoTime() - start, e);
+        }
+    }
+
+    // prints the reports in batch order, the same way runQuery does
+    public static void print(List<Report> reports, PrintStream out) {
+        for (Report report : reports) {
+            out.println("\n==== " + CatalogQueries.title(report.request().name()) + " ====");
+            if (report.error() != null) {
+                out.println("Failed: " + report.error());
+                continue;
+            }
+            out.print(report.text());
+            out.printf("(execute+format %.2f ms)%n", report.nanos() / 1e6);
+        }
+    }
+
+    // a model the workers can share: rule InfGraphs are materialised into a plain
+    // in-memory copy (once per batch, so pick a cheaper reasoner for big catalogs),
+    // HierarchyReasoner gets its hierarchy built before anyone races to do it
+    public static Model readSafe(Model model) {
+        Graph graph = model.getGraph();
+        if (graph instanceof InfGraph) {
+            ((InfGraph) graph).prepare();
+            Model copy = ModelFactory.createDefaultModel();
+            copy.add(model);
+            copy.setNsPrefixes(model.getNsPrefixMap());
+            return copy;
+        }
+        if (graph instanceof HierarchyReasoner) {
+            graph.find(Node.ANY, Node.ANY, Node.ANY).hasNext();
+        }
+        return model;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
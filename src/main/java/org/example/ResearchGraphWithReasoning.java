@@ -1,21 +1,202 @@
 package org.example;
 
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.rdf.model.*;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
 import org.apache.jena.query.*;
 import org.apache.jena.reasoner.*;
 import org.apache.jena.reasoner.rulesys.*;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
 
 public class ResearchGraphWithReasoning {
+    // setting up namespace - basically our unique identifier
+    public static final String NS = "http://example.org/ps2games#";
+
     public static void main(String[] args) {
-        // setting up namespace - basically our unique identifier
-        String ns = "http://example.org/ps2games#";
+        if (CatalogStore.enabled()) {
+            runFromStore();
+            return;
+        }
+
+        Model baseModel = buildBaseModel();
+
+        // Step 10: Print Base Model
+        System.out.println("==== PS2 Games Database RDF Graph (Turtle) ====");
+        baseModel.write(System.out, "TURTLE"); // outputs in turtle format
+        
+        // Save to file - so we can look at it later
+        try (FileOutputStream out = new FileOutputStream("ps2_games_database.ttl")) {
+            baseModel.write(out, "TURTLE");
+            System.out.println("\nGraph saved to ps2_games_database.ttl");
+        } catch (Exception e) {
+            System.err.println("Error saving to file: " + e.getMessage());
+        }
+
+        // Step 11: Apply Reasoning
+        // this is where it gets smart - reasoner can infer new facts
+        // (RDFS rule reasoner by default, -Dps2.reasoner picks another way - see CatalogReasoning)
+        Model infModel = CatalogReasoning.reasoningModel(baseModel);
+        cache.attach(baseModel); // cached results go stale when the base model changes
+        if (Boolean.getBoolean("ps2.views")) {
+            views = new CatalogViews(baseModel); // -Dps2.views=true: queries 1, 2, 5, 6 from the summary views
+        }
+
+        // -Dps2.changelog=dir: every change to the base model from here on goes to an RDF Patch
+        // log there, with a fresh snapshot now and every 100k changes (see CatalogChangeLog)
+        String changeLogDir = System.getProperty("ps2.changelog");
+        CatalogChangeLog changeLog = changeLogDir == null ? null
+            : new CatalogChangeLog(baseModel, Paths.get(changeLogDir), 100_000);
+
+        // Step 12: Run Complex SPARQL Queries
+        runCatalogQueries(infModel);
+
+        // -Dps2.text=true: the same Query 3 through a Lucene index instead of the CONTAINS scan
+        if (Boolean.getBoolean("ps2.text")) {
+            runTextQuery(CatalogTextIndex.inMemory(baseModel));
+        }
+
+        // -Dps2.closure=true: whole sequel chains from the closure index (fn:sequelOf)
+        if (Boolean.getBoolean("ps2.closure")) {
+            ClosureIndex.registerAll(baseModel);
+            QueryRegistry.CompiledQuery descendants = registry.compile(ClosureIndex.DESCENDANTS_QUERY);
+            System.out.println("\n==== Games descending from God of War ====");
+            ResultSetFormatter.out(System.out, registry.select(descendants,
+                Map.of("original", baseModel.getResource(NS + "GodOfWar")), infModel), descendants.query());
+        }
+
+        // -Dps2.analytics=true: PageRank influence, franchises (components) and character
+        // communities, written back onto the base model
+        if (Boolean.getBoolean("ps2.analytics")) {
+            runAnalytics(baseModel);
+        }
+
+        // -Dps2.recommend=true: games like Final Fantasy X by shared genre, developer, series, awards, rating
+        if (Boolean.getBoolean("ps2.recommend")) {
+            GameRecommender recommender = new GameRecommender(baseModel);
+            System.out.println("\n==== Players who liked Final Fantasy X may like ====");
+            for (GameRecommender.Match match : recommender.similar(baseModel.getResource(NS + "FinalFantasyX").asNode(), 5)) {
+                Statement title = baseModel.getResource(match.game().getURI()).getProperty(baseModel.createProperty(NS + "hasTitle"));
+                System.out.printf("  %-40s %.2f%n", title == null ? match.game().getLocalName() : title.getString(),
+                    match.similarity());
+            }
+        }
+
+        if (changeLog != null) {
+            changeLog.close();
+            System.out.println("\nChange log: " + changeLog.changes() + " changes in generation "
+                + changeLog.generation() + " under " + changeLogDir);
+        }
+    }
+
+    // -Dps2.store=tdb2: serve the queries from the on-disk TDB2 store instead of
+    // rebuilding the catalog, the Turtle file is only read on the very first start
+    private static void runFromStore() {
+        long start = System.nanoTime();
+        Dataset dataset = CatalogStore.open(CatalogStore.directory(), "ps2_games_database.ttl");
+        // includes the bulk load on a first start
+        System.out.printf("Opened %s in %d ms%n", CatalogStore.directory(), (System.nanoTime() - start) / 1_000_000);
+        if (PARALLELISM > 1) {
+            // TDB2 transactions are per thread, so every query opens its own read transaction
+            try (ReportRunner runner = new ReportRunner(registry, PARALLELISM)) {
+                ReportRunner.print(runner.run(ReportRunner.requests(CatalogQueries.all().keySet()), dataset,
+                    System.getProperty("ps2.reasoner", "rdfs")), System.out);
+            }
+            return;
+        }
+        dataset.executeRead(() -> {
+            Model infModel = CatalogReasoning.reasoningModel(dataset.getDefaultModel());
+            runCatalogQueries(infModel);
+        });
+        if (Boolean.getBoolean("ps2.text")) {
+            start = System.nanoTime();
+            Dataset text = CatalogTextIndex.open(dataset, CatalogStore.directory() + "-text");
+            // a first open indexes the whole store
+            System.out.printf("Text index ready in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            runTextQuery(text);
+        }
+    }
+
+    private static void runAnalytics(Model baseModel) {
+        try (GraphAnalytics analytics = new GraphAnalytics(Runtime.getRuntime().availableProcessors())) {
+            GraphAnalytics.Projection all = GraphAnalytics.Projection.of(baseModel.getGraph(), GraphAnalytics.ALL_EDGES);
+            double[] rank = analytics.pageRank(all, 0.85, 50, 1e-9);
+            // scaled so 1.0 is an average node
+            double[] influence = Arrays.stream(rank).map(r -> r * all.nodeCount()).toArray();
+            GraphAnalytics.write(baseModel, all, GraphAnalytics.INFLUENCE_SCORE, influence);
+            System.out.println("\n==== Most influential (PageRank) ====");
+            for (int v : GraphAnalytics.top(influence, 10)) {
+                System.out.printf("  %-30s %.2f%n", all.node(v).getLocalName(), influence[v]);
+            }
+
+            Set<Node> franchise = Set.of(NodeFactory.createURI(NS + "partOfSeries"), NodeFactory.createURI(NS + "isSequelOf"));
+            GraphAnalytics.Projection series = GraphAnalytics.Projection.of(baseModel.getGraph(), franchise::contains);
+            GraphAnalytics.write(baseModel, series, GraphAnalytics.COMPONENT_ID, analytics.components(series));
+
+            Set<Node> cast = Set.of(NodeFactory.createURI(NS + "hasProtagonist"), NodeFactory.createURI(NS + "hasAntagonist"),
+                NodeFactory.createURI(NS + "partOfSeries"));
+            GraphAnalytics.Projection characters = GraphAnalytics.Projection.of(baseModel.getGraph(), cast::contains);
+            GraphAnalytics.write(baseModel, characters, GraphAnalytics.COMMUNITY_ID, analytics.communities(characters, 20));
+            System.out.printf("%d nodes scored, %d franchise nodes, %d character-cluster nodes%n",
+                all.nodeCount(), series.nodeCount(), characters.nodeCount());
+        }
+    }
+
+    private static void runTextQuery(Dataset text) {
+        System.out.println("\n==== " + CatalogQueries.title("query3") + " (text index) ====");
+        long start = System.nanoTime();
+        ResultSetRewindable results = CatalogTextIndex.query3(text, Map.of());
+        long executeNanos = System.nanoTime() - start;
+        ResultSetFormatter.out(System.out, results);
+        System.out.printf("(execute %.2f ms)%n", executeNanos / 1e6);
+    }
+
+    // now we can ask complex questions about our data
+    // (the query text lives in CatalogQueries so the benchmarks can reuse it)
+    private static void runCatalogQueries(Model model) {
+        // -Dps2.optimizer=stats: join order from catalog statistics instead of the written order
+        if ("stats".equals(System.getProperty("ps2.optimizer"))) {
+            long start = System.nanoTime();
+            registry.setOptimizer(new StatsOptimizer(CatalogStatistics.collect(model.getGraph())));
+            System.out.printf("Collected catalog statistics in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+        }
+        if (PARALLELISM > 1) {
+            try (ReportRunner runner = new ReportRunner(registry, PARALLELISM)) {
+                ReportRunner.print(runner.run(ReportRunner.requests(CatalogQueries.all().keySet()),
+                    ReportRunner.readSafe(model)), System.out);
+            }
+            return;
+        }
+        for (String name : CatalogQueries.all().keySet()) {
+            System.out.println("\n==== " + CatalogQueries.title(name) + " ====");
+            runQuery(name, model);
+            // -Dps2.explain=true: the plan with estimated vs actual rows (needs -Dps2.optimizer=stats)
+            if (Boolean.getBoolean("ps2.explain") && registry.optimizer() != null) {
+                System.out.print(registry.explain(registry.named(name), Map.of(), model));
+            }
+        }
+        System.out.println("\nResult cache: " + cache);
+        if (QueryMetrics.level() != QueryMetrics.Level.OFF) {
+            System.out.println("Query stats (also on JMX under org.example:type=QueryStats):");
+            QueryMetrics.all().forEach((name, stats) -> System.out.println("  " + name + ": " + stats));
+        }
+    }
+
+    // Steps 1-9: builds the PS2 catalog in memory
+    // split out of main so benchmarks can build the same model without the printing
+    public static Model buildBaseModel() {
+        String ns = NS;
 
         // Step 1: Create base RDF model
-        // this is where all our data will live
-        Model baseModel = ModelFactory.createDefaultModel();
+        // this is where all our data will live (-Dps2.graph picks the graph implementation)
+        Model baseModel = CatalogGraphs.createModel();
 
         // Namespaced properties - these are like the "verbs" in our sentences
         // so we can say "game X has title Y" or "developer Z developed game A"
@@ -24,10 +205,10 @@ public class ResearchGraphWithReasoning {
         Property developedBy = baseModel.createProperty(ns + "developedBy"); // who made the game
         Property publishedBy = baseModel.createProperty(ns + "publishedBy"); // who released it
         Property hasGenre = baseModel.createProperty(ns + "hasGenre");
-        Property releasedIn = baseModel.createProperty(ns + "releasedIn"); // year it came out
-        Property hasRating = baseModel.createProperty(ns + "hasRating"); // user rating
-        Property hasSalesCount = baseModel.createProperty(ns + "hasSalesCount"); // how many copies sold
-        Property hasMetacriticScore = baseModel.createProperty(ns + "hasMetacriticScore"); // critic scores
+        Property releasedIn = baseModel.createProperty(ns + "releasedIn"); // year it came out (xsd:gYear)
+        Property hasRating = baseModel.createProperty(ns + "hasRating"); // user rating (xsd:decimal)
+        Property hasSalesCount = baseModel.createProperty(ns + "hasSalesCount"); // how many copies sold (xsd:int)
+        Property hasMetacriticScore = baseModel.createProperty(ns + "hasMetacriticScore"); // critic scores (xsd:int)
         Property partOfSeries = baseModel.createProperty(ns + "partOfSeries"); // like FF series
         Property hasProtagonist = baseModel.createProperty(ns + "hasProtagonist"); // main character
         Property hasAntagonist = baseModel.createProperty(ns + "hasAntagonist"); // bad guy
@@ -38,7 +219,7 @@ public class ResearchGraphWithReasoning {
         Property isSequelOf = baseModel.createProperty(ns + "isSequelOf"); // god of war 2 is sequel of god of war
         Property hasGameplayHours = baseModel.createProperty(ns + "hasGameplayHours"); // how long to beat
         Property hasMultiplayer = baseModel.createProperty(ns + "hasMultiplayer"); // yes/no
-        Property foundedIn = baseModel.createProperty(ns + "foundedIn"); // when company started
+        Property foundedIn = baseModel.createProperty(ns + "foundedIn"); // when company started (xsd:gYear)
         Property headquarteredIn = baseModel.createProperty(ns + "headquarteredIn"); // where company is based
 
         // Step 2: Create Ontology Classes
@@ -115,31 +296,31 @@ public class ResearchGraphWithReasoning {
         Resource squareEnix = baseModel.createResource(ns + "SquareEnix")
                 .addProperty(RDF.type, Developer)
                 .addProperty(hasName, "Square Enix") // japanese company, makes FF
-                .addProperty(foundedIn, "1986")
+                .addProperty(foundedIn, "1986", XSDDatatype.XSDgYear)
                 .addProperty(headquarteredIn, "Tokyo, Japan");
 
         Resource rockstarGames = baseModel.createResource(ns + "RockstarGames")
                 .addProperty(RDF.type, Developer)
                 .addProperty(hasName, "Rockstar Games") // american company, makes GTA
-                .addProperty(foundedIn, "1998")
+                .addProperty(foundedIn, "1998", XSDDatatype.XSDgYear)
                 .addProperty(headquarteredIn, "New York, USA");
 
         Resource namco = baseModel.createResource(ns + "Namco")
                 .addProperty(RDF.type, Developer)
                 .addProperty(hasName, "Namco") // old japanese company, makes tekken
-                .addProperty(foundedIn, "1955")
+                .addProperty(foundedIn, "1955", XSDDatatype.XSDgYear)
                 .addProperty(headquarteredIn, "Tokyo, Japan");
 
         Resource konami = baseModel.createResource(ns + "Konami")
                 .addProperty(RDF.type, Developer)
                 .addProperty(hasName, "Konami") // another japanese company
-                .addProperty(foundedIn, "1969")
+                .addProperty(foundedIn, "1969", XSDDatatype.XSDgYear)
                 .addProperty(headquarteredIn, "Tokyo, Japan");
 
         Resource santaMonicaStudio = baseModel.createResource(ns + "SantaMonicaStudio")
                 .addProperty(RDF.type, Developer)
                 .addProperty(hasName, "Santa Monica Studio") // sony's studio, makes god of war
-                .addProperty(foundedIn, "1999")
+                .addProperty(foundedIn, "1999", XSDDatatype.XSDgYear)
                 .addProperty(headquarteredIn, "Los Angeles, USA");
 
         // Step 6: Create Publishers
@@ -196,10 +377,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, squareEnix) // square made it
                 .addProperty(publishedBy, sony) // sony published it
                 .addProperty(hasGenre, rpgGenre)
-                .addProperty(releasedIn, "2001") // came out in 2001
-                .addProperty(hasRating, "9.0") // really good rating
-                .addProperty(hasSalesCount, "8500000") // sold 8.5 million
-                .addProperty(hasMetacriticScore, "92") // critics liked it
+                .addProperty(releasedIn, "2001", XSDDatatype.XSDgYear) // came out in 2001
+                .addProperty(hasRating, "9.0", XSDDatatype.XSDdecimal) // really good rating
+                .addProperty(hasSalesCount, "8500000", XSDDatatype.XSDint) // sold 8.5 million
+                .addProperty(hasMetacriticScore, "92", XSDDatatype.XSDint) // critics liked it
                 .addProperty(partOfSeries, finalFantasySeries)
                 .addProperty(hasProtagonist, cloud) // cloud is main character
                 .addProperty(hasAntagonist, sephiroth) // sephiroth is bad guy
@@ -215,10 +396,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, rockstarGames) // rockstar made it
                 .addProperty(publishedBy, take2) // take2 published
                 .addProperty(hasGenre, actionGenre)
-                .addProperty(releasedIn, "2004") // 2004 release
-                .addProperty(hasRating, "9.6") // amazing rating
-                .addProperty(hasSalesCount, "17330000") // best seller, 17+ million
-                .addProperty(hasMetacriticScore, "95") // critics loved it
+                .addProperty(releasedIn, "2004", XSDDatatype.XSDgYear) // 2004 release
+                .addProperty(hasRating, "9.6", XSDDatatype.XSDdecimal) // amazing rating
+                .addProperty(hasSalesCount, "17330000", XSDDatatype.XSDint) // best seller, 17+ million
+                .addProperty(hasMetacriticScore, "95", XSDDatatype.XSDint) // critics loved it
                 .addProperty(partOfSeries, grandTheftAutoSeries)
                 .addProperty(hasProtagonist, cj) // CJ is main character
                 .addProperty(hasLocation, "San Andreas") // california based
@@ -233,10 +414,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, namco) // namco made and published
                 .addProperty(publishedBy, namco)
                 .addProperty(hasGenre, fightingGenre)
-                .addProperty(releasedIn, "1998") // old game, 1998
-                .addProperty(hasRating, "9.5") // excellent rating
-                .addProperty(hasSalesCount, "8360000") // sold well
-                .addProperty(hasMetacriticScore, "96") // critics loved it
+                .addProperty(releasedIn, "1998", XSDDatatype.XSDgYear) // old game, 1998
+                .addProperty(hasRating, "9.5", XSDDatatype.XSDdecimal) // excellent rating
+                .addProperty(hasSalesCount, "8360000", XSDDatatype.XSDint) // sold well
+                .addProperty(hasMetacriticScore, "96", XSDDatatype.XSDint) // critics loved it
                 .addProperty(partOfSeries, tekkenSeries)
                 .addProperty(hasProtagonist, jin) // jin is main fighter
                 .addProperty(hasLocation, "Various") // fights in different places
@@ -250,10 +431,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, konami) // konami made it
                 .addProperty(publishedBy, konami)
                 .addProperty(hasGenre, actionGenre)
-                .addProperty(releasedIn, "2001") // 2001 release
-                .addProperty(hasRating, "9.6") // amazing game
-                .addProperty(hasSalesCount, "7000000") // sold 7 million
-                .addProperty(hasMetacriticScore, "96") // perfect scores
+                .addProperty(releasedIn, "2001", XSDDatatype.XSDgYear) // 2001 release
+                .addProperty(hasRating, "9.6", XSDDatatype.XSDdecimal) // amazing game
+                .addProperty(hasSalesCount, "7000000", XSDDatatype.XSDint) // sold 7 million
+                .addProperty(hasMetacriticScore, "96", XSDDatatype.XSDint) // perfect scores
                 .addProperty(partOfSeries, metalGearSeries)
                 .addProperty(hasProtagonist, solidSnake) // snake is main character
                 .addProperty(hasLocation, "Big Shell") // takes place on oil rig
@@ -267,10 +448,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, santaMonicaStudio) // santa monica made it
                 .addProperty(publishedBy, sony) // sony published
                 .addProperty(hasGenre, actionGenre)
-                .addProperty(releasedIn, "2005") // 2005 release
-                .addProperty(hasRating, "9.0") // great game
-                .addProperty(hasSalesCount, "4600000") // sold well
-                .addProperty(hasMetacriticScore, "94") // critics loved it
+                .addProperty(releasedIn, "2005", XSDDatatype.XSDgYear) // 2005 release
+                .addProperty(hasRating, "9.0", XSDDatatype.XSDdecimal) // great game
+                .addProperty(hasSalesCount, "4600000", XSDDatatype.XSDint) // sold well
+                .addProperty(hasMetacriticScore, "94", XSDDatatype.XSDint) // critics loved it
                 .addProperty(hasProtagonist, kratos) // kratos is angry main character
                 .addProperty(hasLocation, "Ancient Greece") // greek mythology setting
                 .addProperty(hasAgeRating, "M") // violent content
@@ -283,10 +464,10 @@ public class ResearchGraphWithReasoning {
                 .addProperty(developedBy, santaMonicaStudio) // same studio
                 .addProperty(publishedBy, sony) // sony again
                 .addProperty(hasGenre, actionGenre)
-                .addProperty(releasedIn, "2007") // 2007 release
-                .addProperty(hasRating, "9.2") // even better than first
-                .addProperty(hasSalesCount, "4240000") // similar sales
-                .addProperty(hasMetacriticScore, "93") // still great scores
+                .addProperty(releasedIn, "2007", XSDDatatype.XSDgYear) // 2007 release
+                .addProperty(hasRating, "9.2", XSDDatatype.XSDdecimal) // even better than first
+                .addProperty(hasSalesCount, "4240000", XSDDatatype.XSDint) // similar sales
+                .addProperty(hasMetacriticScore, "93", XSDDatatype.XSDint) // still great scores
                 .addProperty(hasProtagonist, kratos) // kratos again
                 .addProperty(hasLocation, "Ancient Greece") // same setting
                 .addProperty(hasAgeRating, "M") // still violent
@@ -294,159 +475,49 @@ public class ResearchGraphWithReasoning {
                 .addProperty(hasGameplayHours, "10") // bit longer
                 .addProperty(hasMultiplayer, "No"); // single player
 
-        // Step 10: Print Base Model
-        System.out.println("==== PS2 Games Database RDF Graph (Turtle) ====");
-        baseModel.write(System.out, "TURTLE"); // outputs in turtle format
-        
-        // Save to file - so we can look at it later
-        try (FileOutputStream out = new FileOutputStream("ps2_games_database.ttl")) {
-            baseModel.write(out, "TURTLE");
-            System.out.println("\nGraph saved to ps2_games_database.ttl");
-        } catch (Exception e) {
-            System.err.println("Error saving to file: " + e.getMessage());
+        CatalogGraphs.compact(baseModel);
+        return baseModel;
+    }
+
+    // parsed queries are cached here, so running the same query again skips parse/optimise
+    private static final QueryRegistry registry = new QueryRegistry();
+    // and results too, until a triple they depend on changes
+    private static final ResultCache cache = new ResultCache(registry);
+    // -Dps2.parallel=N runs the catalog queries N at a time through ReportRunner
+    private static final int PARALLELISM = Integer.getInteger("ps2.parallel", 1);
+    // maintained counts / sorted indexes, only with -Dps2.views=true
+    private static CatalogViews views;
+
+    // helper method to run queries
+    // -Dps2.output=tsv|csv|jsonl|json streams rows out as they come instead of the text table
+    private static void runQuery(String name, Model model) {
+        QueryRegistry.CompiledQuery compiled = registry.named(name);
+        String output = System.getProperty("ps2.output", "text");
+        if (!"text".equals(output)) {
+            long start = System.nanoTime();
+            try {
+                long rows = StreamingResultWriter.write(select(compiled, model),
+                    StreamingResultWriter.Format.parse(output), System.out);
+                System.out.printf("(%d rows, parse %.2f ms, optimise %.2f ms, execute+write %.2f ms)%n", rows,
+                    compiled.parseNanos() / 1e6, compiled.optimizeNanos() / 1e6, (System.nanoTime() - start) / 1e6);
+            } catch (IOException e) {
+                System.err.println("Error writing results: " + e.getMessage());
+            }
+            return;
         }
 
-        // Step 11: Apply Reasoning
-        // this is where it gets smart - reasoner can infer new facts
-        Reasoner reasoner = ReasonerRegistry.getRDFSReasoner();
-        InfModel infModel = ModelFactory.createInfModel(reasoner, baseModel);
+        long start = System.nanoTime();
+        ResultSetRewindable results = ResultSetFactory.copyResults(select(compiled, model));
+        long executeNanos = System.nanoTime() - start;
 
-        // Step 12: Run Complex SPARQL Queries
-        // now we can ask complex questions about our data
-        
-        // Query 1: Find all games (inferred from subclasses)
-        // this will find RPGs, Action games etc because reasoner knows they're Games
-        String query1 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
-            "SELECT ?title ?type ?rating WHERE { " +
-            "  ?game a ps2:Game . " + // find things that are Games
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game a ?type . " + // what specific type
-            "  ?game ps2:hasRating ?rating . " +
-            "  FILTER(?type != ps2:Game) " + // don't show generic Game type
-            "} ORDER BY DESC(xsd:double(?rating))"; // order by rating, highest first
-        
-        System.out.println("\n==== Query 1: All PS2 Games by Rating ====");
-        runQuery(query1, infModel);
-
-        // Query 2: Find best-selling games
-        // only games that sold more than 5 million copies
-        String query2 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
-            "SELECT ?title ?sales ?developer WHERE { " +
-            "  ?game a ps2:Game . " +
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game ps2:hasSalesCount ?sales . " +
-            "  ?game ps2:developedBy ?dev . " +
-            "  ?dev ps2:hasName ?developer . " +
-            "  FILTER(xsd:int(?sales) > 5000000) " + // more than 5 million
-            "} ORDER BY DESC(xsd:int(?sales))"; // highest sales first
-        
-        System.out.println("\n==== Query 2: Best-Selling PS2 Games (>5M sales) ====");
-        runQuery(query2, infModel);
-
-        // Query 3: Find Japanese developers and their games
-        // interesting cultural analysis
-        String query3 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "SELECT ?developer ?title ?year WHERE { " +
-            "  ?dev a ps2:Developer . " +
-            "  ?dev ps2:hasName ?developer . " +
-            "  ?dev ps2:headquarteredIn ?location . " +
-            "  ?game ps2:developedBy ?dev . " +
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game ps2:releasedIn ?year . " +
-            "  FILTER(CONTAINS(?location, 'Japan')) " + // only japanese companies
-            "} ORDER BY ?developer ?year";
-        
-        System.out.println("\n==== Query 3: Japanese Developers and Their Games ====");
-        runQuery(query3, infModel);
-
-        // Query 4: Find action games with protagonists
-        // looking at character relationships
-        String query4 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "SELECT ?title ?protagonist ?location WHERE { " +
-            "  ?game a ps2:ActionGame . " + // only action games
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game ps2:hasProtagonist ?protag . " +
-            "  ?protag ps2:hasName ?protagonist . " +
-            "  ?game ps2:hasLocation ?location . " +
-            "} ORDER BY ?title";
-        
-        System.out.println("\n==== Query 4: Action Games with Protagonists ====");
-        runQuery(query4, infModel);
-
-        // Query 5: Find game series with multiple games
-        // using aggregation to count games per series
-        String query5 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "SELECT ?seriesName (COUNT(?game) AS ?gameCount) WHERE { " +
-            "  ?series a ps2:GameSeries . " +
-            "  ?series ps2:hasName ?seriesName . " +
-            "  ?game ps2:partOfSeries ?series . " +
-            "} GROUP BY ?seriesName " + // group by series
-            "HAVING (COUNT(?game) > 0) " + // only series with games
-            "ORDER BY DESC(?gameCount)"; // most games first
-        
-        System.out.println("\n==== Query 5: Game Series with Game Counts ====");
-        runQuery(query5, infModel);
-
-        // Query 6: Find games with high Metacritic scores
-        // critic favorites
-        String query6 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
-            "SELECT ?title ?score ?year ?genre WHERE { " +
-            "  ?game a ps2:Game . " +
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game ps2:hasMetacriticScore ?score . " +
-            "  ?game ps2:releasedIn ?year . " +
-            "  ?game ps2:hasGenre ?genreRes . " +
-            "  ?genreRes ps2:hasName ?genre . " +
-            "  FILTER(xsd:int(?score) >= 90) " + // 90+ metacritic score
-            "} ORDER BY DESC(xsd:int(?score))"; // highest scores first
-        
-        System.out.println("\n==== Query 6: High-Scoring Games (Metacritic >= 90) ====");
-        runQuery(query6, infModel);
-
-        // Query 7: Find sequels and their predecessors
-        // sequel relationships
-        String query7 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "SELECT ?sequelTitle ?originalTitle WHERE { " +
-            "  ?sequel ps2:isSequelOf ?original . " + // sequel relationship
-            "  ?sequel ps2:hasTitle ?sequelTitle . " +
-            "  ?original ps2:hasTitle ?originalTitle . " +
-            "} ORDER BY ?originalTitle";
-        
-        System.out.println("\n==== Query 7: Game Sequels and Their Predecessors ====");
-        runQuery(query7, infModel);
-
-        // Query 8: Find award-winning games
-        // games that won awards
-        String query8 = 
-            "PREFIX ps2: <http://example.org/ps2games#> " +
-            "SELECT ?title ?awardName ?developer WHERE { " +
-            "  ?game ps2:wonAward ?award . " + // games with awards
-            "  ?award ps2:hasName ?awardName . " +
-            "  ?game ps2:hasTitle ?title . " +
-            "  ?game ps2:developedBy ?dev . " +
-            "  ?dev ps2:hasName ?developer . " +
-            "} ORDER BY ?awardName";
-        
-        System.out.println("\n==== Query 8: Award-Winning Games ====");
-        runQuery(query8, infModel);
+        ResultSetFormatter.out(System.out, results, compiled.query()); // prints results nicely
+        System.out.printf("(parse %.2f ms, optimise %.2f ms, execute %.2f ms)%n",
+            compiled.parseNanos() / 1e6, compiled.optimizeNanos() / 1e6, executeNanos / 1e6);
     }
 
-    // helper method to run queries
-    private static void runQuery(String queryString, Model model) {
-        Query query = QueryFactory.create(queryString);
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, model)) {
-            ResultSet results = qexec.execSelect();
-            ResultSetFormatter.out(System.out, results, query); // prints results nicely
-        }
+    // from the summary views when they cover the query, otherwise cache / SPARQL
+    private static ResultSet select(QueryRegistry.CompiledQuery compiled, Model model) {
+        ResultSet viewed = views == null ? null : views.select(compiled.name(), Map.of(), model);
+        return viewed != null ? viewed : cache.select(compiled, Map.of(), model);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,364 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVisitorBase;
+import org.apache.jena.sparql.algebra.OpWalker;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpExtend;
+import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpGroup;
+import org.apache.jena.sparql.algebra.op.OpPath;
+import org.apache.jena.sparql.algebra.op.OpPropFunc;
+import org.apache.jena.sparql.algebra.op.OpQuadPattern;
+import org.apache.jena.sparql.algebra.op.OpTriple;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunction;
+import org.apache.jena.sparql.expr.ExprFunctionOp;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+// Result cache in front of QueryRegistry for the dashboard queries (series counts,
+// award winners, ...) that get asked over and over while the data hardly changes.
+//
+// Entries are keyed by the graph queried, the normalised query text and the parameter
+// values, and are
+// dropped by LRU size, by age (ttl), or - the important one - as soon as a triple is
+// added or removed with a predicate the query reads. The predicates come from walking
+// the query algebra once on a miss; a query with a variable predicate (or a path /
+// property function we can't see into) depends on everything. Any rdfs: change
+// (subClassOf etc.) can change inferred types, so it clears the whole cache.
+//
+// Listens to the *base* model - writes through an InfModel end up there as well.
+public class ResultCache {
+    public static final int DEFAULT_CAPACITY = 128;
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    public static final int DEFAULT_MAX_ROWS = 10_000;
+
+    // marks "reads every predicate" in the dependency index
+    private static final Node ANY_PREDICATE = Node.ANY;
+
+    private static class Entry {
+        final List<Var> vars;
+        final List<Binding> rows;
+        final Set<Node> predicates;
+        final long expiresAt;
+
+        Entry(List<Var> vars, List<Binding> rows, Set<Node> predicates, long expiresAt) {
+            this.vars = vars;
+            this.rows = rows;
+            this.predicates = predicates;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final QueryRegistry registry;
+    private final long ttlMillis;
+    private final int maxRows;
+    private final Map<String, Entry> entries;
+    // predicate -> keys of the entries that read it
+    private final Map<Node, Set<String>> dependents = new HashMap<>();
+    // a number per graph queried, for the keys; weak so the cache doesn't keep old
+    // snapshots alive (graphs compare by identity)
+    private final Map<Graph, Long> graphIds = new WeakHashMap<>();
+    private long nextGraphId = 0;
+    // bumped on every invalidation so a result computed across a write isn't stored
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    private Model attachedTo;
+    private final StatementListener listener = new StatementListener() {
+        @Override
+        public void addedStatement(Statement s) {
+            invalidate(s.getPredicate().asNode());
+        }
+
+        @Override
+        public void removedStatement(Statement s) {
+            invalidate(s.getPredicate().asNode());
+        }
+
+        // removeAll and other bulk events don't say what changed
+        @Override
+        public void notifyEvent(Model m, Object event) {
+            invalidateAll();
+        }
+    };
+
+    public ResultCache(QueryRegistry registry) {
+        this(registry, DEFAULT_CAPACITY, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ROWS);
+    }
+
+    // results with more than maxRows rows aren't kept, they'd push everything else out
+    public ResultCache(QueryRegistry registry, int capacity, long ttlMillis, int maxRows) {
+        this.registry = registry;
+        this.ttlMillis = ttlMillis;
+        this.maxRows = maxRows;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    unlink(eldest.getKey(), eldest.getValue());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // start invalidating on changes to baseModel
+    public synchronized void attach(Model baseModel) {
+        detach();
+        baseModel.register(listener);
+        attachedTo = baseModel;
+    }
+
+    public synchronized void detach() {
+        if (attachedTo != null) {
+            attachedTo.unregister(listener);
+            attachedTo = null;
+        }
+    }
+
+    public ResultSet select(String name, Map<String, ?> params, Model model) {
+        return select(registry.named(name), params, model);
+    }
+
+    public ResultSet select(QueryRegistry.CompiledQuery compiled, Map<String, ?> params, Model model) {
+        String key = key(graphId(model.getGraph()), compiled, params);
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits++;
+                return replay(entry);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                unlink(key, entry);
+                evictions++;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        // run outside the lock, other queries shouldn't wait for this one
+        ResultSet results = registry.select(compiled, params, model);
+        List<Binding> rows = new ArrayList<>();
+        while (rows.size() < maxRows && results.hasNext()) {
+            rows.add(results.nextBinding());
+        }
+        if (results.hasNext()) {
+            // too big to keep: hand back what we read followed by the rest
+            Iterator<Binding> rest = new Iterator<>() {
+                public boolean hasNext() {
+                    return results.hasNext();
+                }
+
+                public Binding next() {
+                    return results.nextBinding();
+                }
+            };
+            return ResultSet.adapt(RowSetStream.create(compiled.vars(), concat(rows.iterator(), rest)));
+        }
+
+        Entry entry = new Entry(compiled.vars(), rows, readPredicates(compiled.op()),
+            System.currentTimeMillis() + ttlMillis);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                Entry old = entries.put(key, entry);
+                if (old != null) {
+                    unlink(key, old);
+                }
+                for (Node predicate : entry.predicates) {
+                    dependents.computeIfAbsent(predicate, k -> new HashSet<>()).add(key);
+                }
+            }
+        }
+        return replay(entry);
+    }
+
+    public synchronized void invalidate(Node predicate) {
+        generation++;
+        if (predicate.isURI() && predicate.getURI().startsWith(RDFS.getURI())) {
+            invalidateAll();
+            return;
+        }
+        drop(dependents.get(predicate));
+        drop(dependents.get(ANY_PREDICATE));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        dependents.clear();
+    }
+
+    private void drop(Set<String> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : new ArrayList<>(keys)) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unlink(key, entry);
+                invalidations++;
+            }
+        }
+    }
+
+    private void unlink(String key, Entry entry) {
+        for (Node predicate : entry.predicates) {
+            Set<String> keys = dependents.get(predicate);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    dependents.remove(predicate);
+                }
+            }
+        }
+    }
+
+    private static ResultSet replay(Entry entry) {
+        return ResultSet.adapt(RowSetStream.create(entry.vars, entry.rows.iterator()));
+    }
+
+    private static <T> Iterator<T> concat(Iterator<T> first, Iterator<T> second) {
+        return new Iterator<>() {
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            public T next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
+    }
+
+    private synchronized long graphId(Graph graph) {
+        return graphIds.computeIfAbsent(graph, g -> nextGraphId++);
+    }
+
+    // the graph, then the normalised text (Jena's own serialisation, so whitespace /
+    // prefixes in the original don't matter) plus the parameters in name order; defaults
+    // are part of the text
+    private static String key(long graph, QueryRegistry.CompiledQuery compiled, Map<String, ?> params) {
+        StringBuilder key = new StringBuilder().append(graph).append('\n').append(compiled.normalized());
+        new TreeMap<>(params).forEach((var, value) ->
+            key.append('\n').append(var).append('=').append(NodeFmtLib.strNT(QueryRegistry.toNode(value))));
+        return key.toString();
+    }
+
+    // every predicate a query can read, or ANY_PREDICATE if we can't tell
+    static Set<Node> readPredicates(Op op) {
+        Set<Node> predicates = new HashSet<>();
+        OpWalker.walk(op, new OpVisitorBase() {
+            @Override
+            public void visit(OpBGP opBGP) {
+                opBGP.getPattern().forEach(t -> add(t.getPredicate()));
+            }
+
+            @Override
+            public void visit(OpTriple opTriple) {
+                add(opTriple.getTriple().getPredicate());
+            }
+
+            @Override
+            public void visit(OpQuadPattern quadPattern) {
+                quadPattern.getPattern().forEach(q -> add(q.getPredicate()));
+            }
+
+            @Override
+            public void visit(OpPath opPath) {
+                add(ANY_PREDICATE);
+            }
+
+            @Override
+            public void visit(OpPropFunc opPropFunc) {
+                add(ANY_PREDICATE);
+            }
+
+            // EXISTS / NOT EXISTS hide patterns inside expressions
+            @Override
+            public void visit(OpFilter opFilter) {
+                opFilter.getExprs().forEach(this::expr);
+            }
+
+            @Override
+            public void visit(OpExtend opExtend) {
+                opExtend.getVarExprList().getExprs().values().forEach(this::expr);
+            }
+
+            @Override
+            public void visit(OpGroup opGroup) {
+                opGroup.getGroupVars().getExprs().values().forEach(this::expr);
+            }
+
+            private void expr(Expr expr) {
+                if (expr instanceof ExprFunctionOp) {
+                    predicates.addAll(readPredicates(((ExprFunctionOp) expr).getGraphPattern()));
+                }
+                if (expr instanceof ExprFunction) {
+                    ((ExprFunction) expr).getArgs().forEach(this::expr);
+                }
+            }
+
+            private void add(Node predicate) {
+                predicates.add(predicate.isConcrete() ? predicate : ANY_PREDICATE);
+            }
+        });
+        return predicates;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // dropped for size or age
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // dropped because the data they read changed
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d entries, %d hits, %d misses, %d evictions, %d invalidations",
+            entries.size(), hits, misses, evictions, invalidations);
+    }
+}
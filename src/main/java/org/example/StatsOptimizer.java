@@ -0,0 +1,311 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.Op1;
+import org.apache.jena.sparql.algebra.op.Op2;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpJoin;
+import org.apache.jena.sparql.algebra.op.OpN;
+import org.apache.jena.sparql.algebra.op.OpSequence;
+import org.apache.jena.sparql.algebra.op.OpTable;
+import org.apache.jena.sparql.algebra.op.OpTriple;
+import org.apache.jena.sparql.core.BasicPattern;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.serializer.SerializationContext;
+import org.apache.jena.sparql.util.ExprUtils;
+import org.apache.jena.sparql.util.FmtUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Plans the conjunctive parts of a query (BGPs, joins of them and the FILTERs over
+// them) with CatalogStatistics instead of the order they were written in:
+//
+//   - greedy: start from the pattern with the fewest estimated rows, then keep adding
+//     the connected pattern that leaves the fewest rows (cross products only when
+//     nothing connects)
+//   - every FILTER goes right after the step that binds its last variable, and its
+//     selectivity counts when picking that step, so FILTER(xsd:int(?score) >= 90)
+//     pulls hasMetacriticScore to the front when few games pass it
+//
+// Only FILTERs sitting directly over a block move. A FILTER inside a nested group
+// ({ ... { ?g :p ?x FILTER(...) } }) is scoped to that group and can't see the outer
+// variables, so such a group is a barrier: it is planned on its own and joined as is.
+//
+// ARQ's in-memory engine re-sorts any BGP of two or more patterns with its own fixed
+// heuristic, so the plan comes out as a sequence of one-pattern BGPs, which it runs in
+// the given order feeding each one the previous one's rows.
+//
+// explain() prints the plan with estimated and actual rows after every step.
+public class StatsOptimizer {
+
+    // one step of a plan: a triple pattern or a FILTER, with the rows expected after it
+    public static class Step {
+        private final Triple pattern;
+        private final Expr filter;
+        private final double estimate;
+
+        Step(Triple pattern, Expr filter, double estimate) {
+            this.pattern = pattern;
+            this.filter = filter;
+            this.estimate = estimate;
+        }
+
+        public boolean isFilter() {
+            return filter != null;
+        }
+
+        public Triple pattern() {
+            return pattern;
+        }
+
+        public Expr filter() {
+            return filter;
+        }
+
+        public double estimate() {
+            return estimate;
+        }
+
+        String format(PrefixMapping prefixes) {
+            return isFilter() ? "FILTER " + ExprUtils.fmtSPARQL(new ExprList(filter), new SerializationContext(prefixes))
+                : FmtUtils.stringForTriple(pattern, prefixes);
+        }
+    }
+
+    private final CatalogStatistics stats;
+
+    public StatsOptimizer(CatalogStatistics stats) {
+        this.stats = stats;
+    }
+
+    public CatalogStatistics statistics() {
+        return stats;
+    }
+
+    // op with every conjunctive block replanned, everything around them left alone
+    public Op optimize(Op op) {
+        if (isBlock(op)) {
+            List<Triple> patterns = new ArrayList<>();
+            List<Expr> filters = new ArrayList<>();
+            flatten(op, patterns, filters);
+            return patterns.isEmpty() ? op : build(plan(patterns, filters, true));
+        }
+        if (op instanceof Op1) {
+            return ((Op1) op).copy(optimize(((Op1) op).getSubOp()));
+        }
+        if (op instanceof Op2) {
+            return ((Op2) op).copy(optimize(((Op2) op).getLeft()), optimize(((Op2) op).getRight()));
+        }
+        if (op instanceof OpN) {
+            List<Op> elements = new ArrayList<>();
+            for (Op element : ((OpN) op).getElements()) {
+                elements.add(optimize(element));
+            }
+            return ((OpN) op).copy(elements);
+        }
+        return op;
+    }
+
+    // patterns and filters that can be evaluated in any order: filters over a join of
+    // patterns, none below the top
+    private static boolean isBlock(Op op) {
+        if (op instanceof OpFilter) {
+            return isBlock(((OpFilter) op).getSubOp());
+        }
+        return isPatterns(op);
+    }
+
+    private static boolean isPatterns(Op op) {
+        if (op instanceof OpBGP || op instanceof OpTriple) {
+            return true;
+        }
+        if (op instanceof OpTable) {
+            // the unit table ARQ puts under filters that need no pattern
+            return ((OpTable) op).isJoinIdentity();
+        }
+        if (op instanceof OpJoin) {
+            return isPatterns(((OpJoin) op).getLeft()) && isPatterns(((OpJoin) op).getRight());
+        }
+        if (op instanceof OpSequence) {
+            return ((OpSequence) op).getElements().stream().allMatch(StatsOptimizer::isPatterns);
+        }
+        return false;
+    }
+
+    private static void flatten(Op op, List<Triple> patterns, List<Expr> filters) {
+        if (op instanceof OpBGP) {
+            patterns.addAll(((OpBGP) op).getPattern().getList());
+        } else if (op instanceof OpTriple) {
+            patterns.add(((OpTriple) op).getTriple());
+        } else if (op instanceof OpFilter) {
+            filters.addAll(((OpFilter) op).getExprs().getList());
+            flatten(((OpFilter) op).getSubOp(), patterns, filters);
+        } else if (op instanceof OpJoin) {
+            flatten(((OpJoin) op).getLeft(), patterns, filters);
+            flatten(((OpJoin) op).getRight(), patterns, filters);
+        } else if (op instanceof OpSequence) {
+            for (Op element : ((OpSequence) op).getElements()) {
+                flatten(element, patterns, filters);
+            }
+        }
+    }
+
+    // reorder = false keeps the written order, for comparing against
+    public List<Step> plan(List<Triple> patterns, List<Expr> filters, boolean reorder) {
+        List<Triple> remaining = new ArrayList<>(patterns);
+        List<Expr> pending = new ArrayList<>(filters);
+        Set<Var> bound = new HashSet<>();
+        // which predicate each variable is the object of, for the histograms
+        Map<Var, Node> objectOf = new HashMap<>();
+        for (Triple pattern : patterns) {
+            if (Var.isVar(pattern.getObject()) && pattern.getPredicate().isConcrete()) {
+                objectOf.putIfAbsent(Var.alloc(pattern.getObject()), pattern.getPredicate());
+            }
+        }
+
+        List<Step> steps = new ArrayList<>();
+        double rows = 1;
+        while (!remaining.isEmpty()) {
+            Triple best = remaining.get(0);
+            if (reorder) {
+                double bestRows = Double.MAX_VALUE;
+                boolean bestConnected = false;
+                for (Triple candidate : remaining) {
+                    Set<Var> vars = vars(candidate);
+                    boolean connected = bound.isEmpty() || vars.stream().anyMatch(bound::contains);
+                    Set<Var> after = new HashSet<>(bound);
+                    after.addAll(vars);
+                    double candidateRows = rows * stats.estimate(candidate, bound);
+                    for (Expr filter : pending) {
+                        if (after.containsAll(filter.getVarsMentioned())) {
+                            candidateRows *= stats.selectivity(filter, objectOf);
+                        }
+                    }
+                    if ((connected && !bestConnected) || (connected == bestConnected && candidateRows < bestRows)) {
+                        best = candidate;
+                        bestRows = candidateRows;
+                        bestConnected = connected;
+                    }
+                }
+            }
+            remaining.remove(best);
+            rows *= stats.estimate(best, bound);
+            bound.addAll(vars(best));
+            steps.add(new Step(best, null, rows));
+            for (Expr filter : new ArrayList<>(pending)) {
+                if (bound.containsAll(filter.getVarsMentioned())) {
+                    rows *= stats.selectivity(filter, objectOf);
+                    steps.add(new Step(null, filter, rows));
+                    pending.remove(filter);
+                }
+            }
+        }
+        // variables no pattern binds: the filter sees them unbound, same as ARQ's plan
+        for (Expr filter : pending) {
+            rows *= stats.selectivity(filter, objectOf);
+            steps.add(new Step(null, filter, rows));
+        }
+        return steps;
+    }
+
+    private static Set<Var> vars(Triple pattern) {
+        Set<Var> vars = new HashSet<>();
+        for (Node node : new Node[] { pattern.getSubject(), pattern.getPredicate(), pattern.getObject() }) {
+            if (Var.isVar(node)) {
+                vars.add(Var.alloc(node));
+            }
+        }
+        return vars;
+    }
+
+    // the steps as a sequence of one-pattern BGPs with the filters wrapped in where they go
+    static Op build(List<Step> steps) {
+        Op op = null;
+        for (Step step : steps) {
+            if (step.isFilter()) {
+                op = OpFilter.filter(step.filter(), op == null ? OpTable.unit() : op);
+            } else {
+                Op bgp = new OpBGP(BasicPattern.wrap(List.of(step.pattern())));
+                op = op == null ? bgp : OpSequence.create(op, bgp);
+            }
+        }
+        return op;
+    }
+
+    // every block of op planned against graph, with estimated vs actual rows per step.
+    // Actual rows come from running each prefix of the plan, so this runs the query
+    // once per step - fine for looking at a plan, not for production
+    public String explain(Op op, Graph graph, PrefixMapping prefixes) {
+        List<Op> blocks = new ArrayList<>();
+        blocks(op, blocks);
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Statistics over %,d triples%n", stats.triples()));
+        for (Op block : blocks) {
+            List<Triple> patterns = new ArrayList<>();
+            List<Expr> filters = new ArrayList<>();
+            flatten(block, patterns, filters);
+            List<Step> steps = plan(patterns, filters, true);
+            out.append(String.format("%3s  %-60s %12s %12s%n", "#", "step", "est. rows", "actual rows"));
+            for (int i = 0; i < steps.size(); i++) {
+                long actual = count(build(steps.subList(0, i + 1)), graph);
+                out.append(String.format("%3d  %-60s %12s %,12d%n", i + 1, steps.get(i).format(prefixes),
+                    CatalogStatistics.format(steps.get(i).estimate()), actual));
+            }
+            out.append(String.format("estimated intermediate rows: %s planned, %s as written%n",
+                CatalogStatistics.format(intermediate(steps)),
+                CatalogStatistics.format(intermediate(plan(patterns, filters, false)))));
+        }
+        return out.toString();
+    }
+
+    private static void blocks(Op op, List<Op> blocks) {
+        if (isBlock(op)) {
+            blocks.add(op);
+        } else if (op instanceof Op1) {
+            blocks(((Op1) op).getSubOp(), blocks);
+        } else if (op instanceof Op2) {
+            blocks(((Op2) op).getLeft(), blocks);
+            blocks(((Op2) op).getRight(), blocks);
+        } else if (op instanceof OpN) {
+            for (Op element : ((OpN) op).getElements()) {
+                blocks(element, blocks);
+            }
+        }
+    }
+
+    // rough cost of a plan: rows flowing out of every step
+    static double intermediate(List<Step> steps) {
+        double total = 0;
+        for (Step step : steps) {
+            total += step.estimate();
+        }
+        return total;
+    }
+
+    private static long count(Op op, Graph graph) {
+        QueryIterator iter = Algebra.exec(op, graph);
+        try {
+            long rows = 0;
+            while (iter.hasNext()) {
+                iter.next();
+                rows++;
+            }
+            return rows;
+        } finally {
+            iter.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.example;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.out.NodeFmtLib;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Writes query results row by row as the iterator produces them, unlike
+// ResultSetFormatter.out which reads everything first to work out column widths.
+// Memory stays bounded by the writer buffer (ORDER BY still sorts inside the engine,
+// but the output side doesn't keep a second copy of millions of rows).
+public class StreamingResultWriter {
+
+    public enum Format {
+        TSV, CSV, JSONL, SPARQL_JSON;
+
+        // accepts tsv, csv, jsonl, json / sparql-json
+        public static Format parse(String name) {
+            switch (name.toLowerCase()) {
+                case "tsv": return TSV;
+                case "csv": return CSV;
+                case "jsonl": return JSONL;
+                case "json":
+                case "sparql-json": return SPARQL_JSON;
+                default: throw new IllegalArgumentException("Unknown output format: " + name);
+            }
+        }
+    }
+
+    // writes all rows and returns how many there were; out is flushed, not closed
+    public static long write(ResultSet results, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = write(results, format, writer);
+        writer.flush();
+        return rows;
+    }
+
+    public static long write(ResultSet results, Format format, Writer writer) throws IOException {
+        List<String> vars = results.getResultVars();
+        long rows = 0;
+        switch (format) {
+            case TSV:
+                writer.write(join(vars, "\t", true));
+                writer.write('\n');
+                while (results.hasNext()) {
+                    QuerySolution row = results.next();
+                    for (int i = 0; i < vars.size(); i++) {
+                        if (i > 0) writer.write('\t');
+                        RDFNode value = row.get(vars.get(i));
+                        if (value != null) writer.write(NodeFmtLib.strNT(value.asNode()));
+                    }
+                    writer.write('\n');
+                    rows++;
+                }
+                break;
+            case CSV:
+                writer.write(join(vars, ",", false));
+                writer.write("\r\n");
+                while (results.hasNext()) {
+                    QuerySolution row = results.next();
+                    for (int i = 0; i < vars.size(); i++) {
+                        if (i > 0) writer.write(',');
+                        RDFNode value = row.get(vars.get(i));
+                        if (value != null) writer.write(csv(plain(value.asNode())));
+                    }
+                    writer.write("\r\n");
+                    rows++;
+                }
+                break;
+            case JSONL:
+                while (results.hasNext()) {
+                    QuerySolution row = results.next();
+                    writer.write('{');
+                    boolean first = true;
+                    for (String var : vars) {
+                        RDFNode value = row.get(var);
+                        if (value == null) continue;
+                        if (!first) writer.write(',');
+                        first = false;
+                        writer.write(json(var));
+                        writer.write(':');
+                        writer.write(jsonValue(value.asNode()));
+                    }
+                    writer.write("}\n");
+                    rows++;
+                }
+                break;
+            case SPARQL_JSON:
+                writer.write("{\"head\":{\"vars\":[");
+                for (int i = 0; i < vars.size(); i++) {
+                    if (i > 0) writer.write(',');
+                    writer.write(json(vars.get(i)));
+                }
+                writer.write("]},\"results\":{\"bindings\":[\n");
+                while (results.hasNext()) {
+                    QuerySolution row = results.next();
+                    if (rows > 0) writer.write(",\n");
+                    writer.write('{');
+                    boolean first = true;
+                    for (String var : vars) {
+                        RDFNode value = row.get(var);
+                        if (value == null) continue;
+                        if (!first) writer.write(',');
+                        first = false;
+                        writer.write(json(var));
+                        writer.write(':');
+                        writer.write(sparqlJsonTerm(value.asNode()));
+                    }
+                    writer.write('}');
+                    rows++;
+                }
+                writer.write("\n]}}\n");
+                break;
+        }
+        return rows;
+    }
+
+    private static String join(List<String> vars, String separator, boolean questionMarks) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < vars.size(); i++) {
+            if (i > 0) sb.append(separator);
+            if (questionMarks) sb.append('?');
+            sb.append(vars.get(i));
+        }
+        return sb.toString();
+    }
+
+    // the value the way a spreadsheet wants it: no quotes, no datatypes
+    private static String plain(Node node) {
+        if (node.isURI()) return node.getURI();
+        if (node.isBlank()) return "_:" + node.getBlankNodeLabel();
+        return node.getLiteralLexicalForm();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // JSON Lines keeps numbers and booleans as JSON values, everything else as strings
+    private static String jsonValue(Node node) {
+        if (node.isLiteral()) {
+            String datatype = node.getLiteralDatatypeURI();
+            String lexical = node.getLiteralLexicalForm();
+            boolean numeric = datatype != null && (datatype.equals(XSDDatatype.XSDint.getURI())
+                || datatype.equals(XSDDatatype.XSDinteger.getURI())
+                || datatype.equals(XSDDatatype.XSDlong.getURI())
+                || datatype.equals(XSDDatatype.XSDdecimal.getURI())
+                || datatype.equals(XSDDatatype.XSDdouble.getURI()));
+            if (numeric && node.getLiteral().isWellFormed() && lexical.matches("[+-]?[0-9]+(\\.[0-9]+)?([eE][+-]?[0-9]+)?")) {
+                return lexical.startsWith("+") ? lexical.substring(1) : lexical;
+            }
+            if (XSDDatatype.XSDboolean.getURI().equals(datatype) && node.getLiteral().isWellFormed()) {
+                return String.valueOf(node.getLiteralValue());
+            }
+        }
+        return json(plain(node));
+    }
+
+    private static String sparqlJsonTerm(Node node) {
+        if (node.isURI()) {
+            return "{\"type\":\"uri\",\"value\":" + json(node.getURI()) + "}";
+        }
+        if (node.isBlank()) {
+            return "{\"type\":\"bnode\",\"value\":" + json(node.getBlankNodeLabel()) + "}";
+        }
+        StringBuilder sb = new StringBuilder("{\"type\":\"literal\",\"value\":");
+        sb.append(json(node.getLiteralLexicalForm()));
+        String lang = node.getLiteralLanguage();
+        if (lang != null && !lang.isEmpty()) {
+            sb.append(",\"xml:lang\":").append(json(lang));
+        } else if (!XSDDatatype.XSDstring.getURI().equals(node.getLiteralDatatypeURI())) {
+            sb.append(",\"datatype\":").append(json(node.getLiteralDatatypeURI()));
+        }
+        return sb.append('}').toString();
+    }
+
+    static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
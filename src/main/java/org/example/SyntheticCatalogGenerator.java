@@ -0,0 +1,222 @@
+package org.example;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+// Generates a fake PS2 catalog with the same schema as ResearchGraphWithReasoning
+// (games, developers, publishers, series, characters, awards) but at any size,
+// so we can see how load / inference / queries scale from 10^4 up to 10^7 triples.
+// Output is streamed, so big catalogs can go straight to a file without a Model.
+public class SyntheticCatalogGenerator {
+    // roughly how many triples one game brings with it (its own ~17 plus its share
+    // of characters, developers and series) - used to turn a triple budget into a game count
+    static final int TRIPLES_PER_GAME = 21;
+
+    private static final String[] GAME_CLASSES = {
+        "RPG", "ActionGame", "PlatformGame", "FightingGame", "RacingGame", "SportGame"
+    };
+    private static final String[] GENRES = {
+        "RPGGenre", "ActionGenre", "PlatformGenre", "FightingGenre", "RacingGenre", "SportGenre"
+    };
+    private static final String[] GENRE_NAMES = {
+        "Role-Playing Game", "Action", "Platform", "Fighting", "Racing", "Sport"
+    };
+    private static final String[] LOCATIONS = {
+        "Tokyo, Japan", "Osaka, Japan", "Kyoto, Japan", "New York, USA", "Los Angeles, USA",
+        "Seattle, USA", "London, UK", "Montreal, Canada", "Paris, France", "Stockholm, Sweden"
+    };
+    private static final String[] AGE_RATINGS = { "E", "T", "M" };
+
+    private final long games;
+    private final long seed;
+    private final boolean typedLiterals;
+
+    public SyntheticCatalogGenerator(long targetTriples, long seed) {
+        this(targetTriples, seed, true);
+    }
+
+    // typedLiterals=false reproduces the old all-strings catalog ("9.6", "17330000")
+    // which is handy for comparing against the typed form
+    public SyntheticCatalogGenerator(long targetTriples, long seed, boolean typedLiterals) {
+        this.games = Math.max(1, targetTriples / TRIPLES_PER_GAME);
+        this.seed = seed;
+        this.typedLiterals = typedLiterals;
+    }
+
+    public long gameCount() {
+        return games;
+    }
+
+    // convenience for small/medium sizes - everything ends up in an in-memory model
+    // (the default graph, or whatever -Dps2.graph asks for)
+    public Model generateModel() {
+        return generateModel(CatalogGraphs.createModel());
+    }
+
+    public Model generateModel(Model model) {
+        StreamRDF out = StreamRDFLib.graph(model.getGraph());
+        out.start();
+        generate(out);
+        out.finish();
+        CatalogGraphs.compact(model);
+        return model;
+    }
+
+    // writes the catalog as streaming Turtle, fine for 10^7 triples
+    public void writeTurtle(String filename) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(new FileOutputStream(filename))) {
+            StreamRDF out = StreamRDFWriter.getWriterStream(file, RDFFormat.TURTLE_BLOCKS);
+            out.start();
+            out.prefix("ps2", ResearchGraphWithReasoning.NS);
+            generate(out);
+            out.finish();
+        }
+    }
+
+    // one triple per line, the shape vendor dumps come in (and what ParallelCatalogLoader splits)
+    public void writeNTriples(String filename) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(new FileOutputStream(filename))) {
+            StreamRDF out = StreamRDFWriter.getWriterStream(file, RDFFormat.NTRIPLES);
+            out.start();
+            generate(out);
+            out.finish();
+        }
+    }
+
+    public void generate(StreamRDF out) {
+        Random random = new Random(seed);
+        long developers = Math.max(1, games / 20);
+        long publishers = Math.max(1, games / 50);
+        long series = Math.max(1, games / 10);
+        long awards = Math.max(2, games / 1000 + 5);
+
+        // same class hierarchy as Step 2 of the hand-written catalog
+        for (String gameClass : GAME_CLASSES) {
+            out.triple(Triple.create(uri(gameClass), RDFS.subClassOf.asNode(), uri("Game")));
+        }
+        out.triple(Triple.create(uri("Protagonist"), RDFS.subClassOf.asNode(), uri("Character")));
+        out.triple(Triple.create(uri("Antagonist"), RDFS.subClassOf.asNode(), uri("Character")));
+
+        for (int i = 0; i < GENRES.length; i++) {
+            Node genre = uri(GENRES[i]);
+            out.triple(Triple.create(genre, RDF.type.asNode(), uri("Genre")));
+            out.triple(Triple.create(genre, uri("hasName"), literal(GENRE_NAMES[i])));
+        }
+
+        for (long i = 0; i < series; i++) {
+            Node s = uri("Series" + i);
+            out.triple(Triple.create(s, RDF.type.asNode(), uri("GameSeries")));
+            out.triple(Triple.create(s, uri("hasName"), literal("Series " + i)));
+        }
+
+        for (long i = 0; i < developers; i++) {
+            Node dev = uri("Developer" + i);
+            out.triple(Triple.create(dev, RDF.type.asNode(), uri("Developer")));
+            out.triple(Triple.create(dev, uri("hasName"), literal("Developer " + i)));
+            out.triple(Triple.create(dev, uri("foundedIn"), typed(Integer.toString(1950 + random.nextInt(55)), XSDDatatype.XSDgYear)));
+            out.triple(Triple.create(dev, uri("headquarteredIn"), literal(LOCATIONS[random.nextInt(LOCATIONS.length)])));
+        }
+
+        for (long i = 0; i < publishers; i++) {
+            Node pub = uri("Publisher" + i);
+            out.triple(Triple.create(pub, RDF.type.asNode(), uri("Publisher")));
+            out.triple(Triple.create(pub, uri("hasName"), literal("Publisher " + i)));
+        }
+
+        for (long i = 0; i < awards; i++) {
+            Node award = uri("Award" + i);
+            out.triple(Triple.create(award, RDF.type.asNode(), uri("Award")));
+            out.triple(Triple.create(award, uri("hasName"), literal("Award " + i)));
+        }
+
+        // last game seen per series, so sequels chain up like God of War -> God of War II
+        long[] lastInSeries = new long[(int) Math.min(series, Integer.MAX_VALUE)];
+        Arrays.fill(lastInSeries, -1);
+
+        for (long i = 0; i < games; i++) {
+            Node game = uri("Game" + i);
+            int kind = random.nextInt(GAME_CLASSES.length);
+            out.triple(Triple.create(game, RDF.type.asNode(), uri(GAME_CLASSES[kind])));
+            out.triple(Triple.create(game, uri("hasTitle"), literal("Game Title " + i)));
+            out.triple(Triple.create(game, uri("developedBy"), uri("Developer" + (long) (random.nextDouble() * developers))));
+            out.triple(Triple.create(game, uri("publishedBy"), uri("Publisher" + (long) (random.nextDouble() * publishers))));
+            out.triple(Triple.create(game, uri("hasGenre"), uri(GENRES[kind])));
+            out.triple(Triple.create(game, uri("releasedIn"), typed(Integer.toString(2000 + random.nextInt(14)), XSDDatatype.XSDgYear)));
+            out.triple(Triple.create(game, uri("hasRating"), typed(String.format(Locale.ROOT, "%.1f", 5.0 + random.nextInt(50) / 10.0), XSDDatatype.XSDdecimal)));
+            out.triple(Triple.create(game, uri("hasSalesCount"), typed(Integer.toString(10000 + random.nextInt(17_000_000)), XSDDatatype.XSDint)));
+            out.triple(Triple.create(game, uri("hasMetacriticScore"), typed(Integer.toString(40 + random.nextInt(60)), XSDDatatype.XSDint)));
+            out.triple(Triple.create(game, uri("hasLocation"), literal("Location " + random.nextInt(500))));
+            out.triple(Triple.create(game, uri("hasAgeRating"), literal(AGE_RATINGS[random.nextInt(AGE_RATINGS.length)])));
+            out.triple(Triple.create(game, uri("hasGameplayHours"), literal(Integer.toString(5 + random.nextInt(100)))));
+            out.triple(Triple.create(game, uri("hasMultiplayer"), literal(random.nextBoolean() ? "Yes" : "No")));
+
+            // most games belong to a series, some of those are sequels of the previous entry
+            if (random.nextInt(10) < 7) {
+                int s = (int) (random.nextDouble() * lastInSeries.length);
+                out.triple(Triple.create(game, uri("partOfSeries"), uri("Series" + s)));
+                if (lastInSeries[s] >= 0 && random.nextInt(10) < 3) {
+                    out.triple(Triple.create(game, uri("isSequelOf"), uri("Game" + lastInSeries[s])));
+                }
+                lastInSeries[s] = i;
+            }
+
+            Node protagonist = uri("Protagonist" + i);
+            out.triple(Triple.create(protagonist, RDF.type.asNode(), uri("Protagonist")));
+            out.triple(Triple.create(protagonist, uri("hasName"), literal("Hero " + i)));
+            out.triple(Triple.create(game, uri("hasProtagonist"), protagonist));
+
+            if (random.nextInt(10) < 3) {
+                Node antagonist = uri("Antagonist" + i);
+                out.triple(Triple.create(antagonist, RDF.type.asNode(), uri("Antagonist")));
+                out.triple(Triple.create(antagonist, uri("hasName"), literal("Villain " + i)));
+                out.triple(Triple.create(game, uri("hasAntagonist"), antagonist));
+            }
+
+            if (random.nextInt(10) == 0) {
+                out.triple(Triple.create(game, uri("wonAward"), uri("Award" + (long) (random.nextDouble() * awards))));
+            }
+        }
+    }
+
+    private static Node uri(String localName) {
+        return NodeFactory.createURI(ResearchGraphWithReasoning.NS + localName);
+    }
+
+    private static Node literal(String value) {
+        return NodeFactory.createLiteral(value);
+    }
+
+    private Node typed(String value, RDFDatatype datatype) {
+        return typedLiterals ? NodeFactory.createLiteral(value, datatype) : literal(value);
+    }
+
+    // quick way to make a test file: SyntheticCatalogGenerator <triples> <file.ttl|file.nt>
+    public static void main(String[] args) throws IOException {
+        long triples = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        String filename = args.length > 1 ? args[1] : "synthetic_catalog.ttl";
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(triples, 42);
+        if (filename.endsWith(".nt")) {
+            generator.writeNTriples(filename);
+        } else {
+            generator.writeTurtle(filename);
+        }
+        System.out.println("Wrote " + generator.gameCount() + " games to " + filename);
+    }
+}
@@ -0,0 +1,581 @@
+package org.example;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Level-of-detail JSON export of the catalog for visualize.html: instead of one DOT file
+// with everything in it, a directory of small tiles the viewer fetches only for the part
+// of the graph on screen.
+//
+//   index.json               - bounds, counts, colours and the tiles of every level
+//   <level>/<tx>_<ty>.json   - the nodes inside one tile and the edges starting at them
+//
+// Levels, coarsest first:
+//
+//   0  one node per genre, sized by its games; edges count the links between genres
+//   1  one node per series (games in no series: a "standalone" group per genre)
+//   2  every resource, with label, type, influenceScore and its outgoing edges
+//
+// Positions are worked out here rather than by the browser: genres sit round a circle,
+// each with room for its games, a genre's series on a sunflower (golden angle) spiral
+// inside it, biggest first, and a series' games on a small spiral round the series.
+// Everything else (developers, characters, awards, ...) goes to the middle of the games
+// it is linked to. That is a couple of passes over the edges instead of a force-directed
+// layout, so it scales with the catalog and draws the same picture every time.
+//
+// Memory: the layout keeps a few numbers per node next to the edge projection, and the
+// tiles are written one at a time straight to disk, looking labels up as they go - there
+// is never more than one tile of JSON in memory.
+public class TiledGraphExporter {
+    // about how many nodes a tile holds at levels 1 and 2
+    static final int TILE_NODES = 2_000;
+    private static final double SPACING = 10;
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    private static final String[] LEVEL_NAMES = { "genres", "series", "nodes" };
+
+    // the genres or series of levels 0 and 1
+    private static class Clusters {
+        // the genre / series resource, null for "Other" and the standalone groups
+        final List<Node> nodes = new ArrayList<>();
+        int[] parent = new int[16];
+        int[] size = new int[16];
+        double[] x;
+        double[] y;
+        double[] radius;
+
+        int add(Node node, int parentCluster) {
+            int id = nodes.size();
+            if (id == size.length) {
+                parent = Arrays.copyOf(parent, id * 2);
+                size = Arrays.copyOf(size, id * 2);
+            }
+            nodes.add(node);
+            parent[id] = parentCluster;
+            return id;
+        }
+
+        int count() {
+            return nodes.size();
+        }
+    }
+
+    // writes the "nodes" and "edges" of one tile, the items being order[from..to)
+    private interface TileBody {
+        void write(Writer out, int[] order, int from, int to) throws IOException;
+    }
+
+    private final Graph graph;
+    private final GraphAnalytics.Projection p;
+    private final double[] x;
+    private final double[] y;
+    // each node's cluster at levels 0 and 1 (for the others, that of the first game they
+    // are linked to), -1 if none
+    private final int[] genreOf;
+    private final int[] seriesOf;
+    private final boolean[] game;
+    private final Clusters genres = new Clusters();
+    private final Clusters series = new Clusters();
+    private int games;
+    private double minX = Double.MAX_VALUE;
+    private double minY = Double.MAX_VALUE;
+    private double maxX = -Double.MAX_VALUE;
+    private double maxY = -Double.MAX_VALUE;
+
+    public TiledGraphExporter(Graph graph) {
+        this.graph = graph;
+        this.p = GraphAnalytics.Projection.of(graph, GraphAnalytics.ALL_EDGES);
+        int n = p.nodeCount();
+        this.x = new double[n];
+        this.y = new double[n];
+        this.genreOf = new int[n];
+        this.seriesOf = new int[n];
+        this.game = new boolean[n];
+        Arrays.fill(genreOf, -1);
+        Arrays.fill(seriesOf, -1);
+        cluster(first(CatalogViews.HAS_GENRE), first(CatalogViews.PART_OF_SERIES));
+        layout();
+    }
+
+    // by node id, the id of the first resource it points at through predicate, -1 if none
+    private int[] first(Node predicate) {
+        int[] first = new int[p.nodeCount()];
+        Arrays.fill(first, -1);
+        graph.find(Node.ANY, predicate, Node.ANY).forEachRemaining(t -> {
+            int subject = p.id(t.getSubject());
+            int object = p.id(t.getObject());
+            if (subject >= 0 && object >= 0 && first[subject] < 0) {
+                first[subject] = object;
+            }
+        });
+        return first;
+    }
+
+    // games are whatever has a genre or a series; a game goes with its series, the series
+    // with the genre of the first of its games
+    private void cluster(int[] genreNode, int[] seriesNode) {
+        Map<Integer, Integer> genreIds = new HashMap<>();
+        // series node id, or -1 - genre cluster for the standalone games of a genre
+        Map<Integer, Integer> seriesIds = new HashMap<>();
+        for (int v = 0; v < p.nodeCount(); v++) {
+            if (genreNode[v] < 0 && seriesNode[v] < 0) {
+                continue;
+            }
+            Integer s = seriesNode[v] >= 0 ? seriesIds.get(seriesNode[v]) : null;
+            if (s == null) {
+                int g = genreIds.computeIfAbsent(genreNode[v], k -> genres.add(k < 0 ? null : p.node(k), -1));
+                int key = seriesNode[v] >= 0 ? seriesNode[v] : -1 - g;
+                s = seriesIds.computeIfAbsent(key, k -> series.add(k >= 0 ? p.node(k) : null, g));
+            }
+            seriesOf[v] = s;
+            genreOf[v] = series.parent[s];
+            series.size[s]++;
+            genres.size[series.parent[s]]++;
+            game[v] = true;
+            games++;
+        }
+        genreIds.forEach((node, g) -> {
+            if (node >= 0 && seriesOf[node] < 0) {
+                genreOf[node] = g;
+            }
+        });
+        seriesIds.forEach((node, s) -> {
+            if (node >= 0 && seriesOf[node] < 0) {
+                seriesOf[node] = s;
+                genreOf[node] = series.parent[s];
+            }
+        });
+    }
+
+    private void layout() {
+        int n = p.nodeCount();
+        boolean[] placed = new boolean[n];
+        placeGenres();
+        placeSeries();
+
+        // games on a spiral round their series
+        int[] next = new int[series.count()];
+        for (int v = 0; v < n; v++) {
+            if (game[v]) {
+                int s = seriesOf[v];
+                int j = next[s]++;
+                double r = SPACING * Math.sqrt(j + 0.5);
+                x[v] = series.x[s] + r * Math.cos(j * GOLDEN_ANGLE);
+                y[v] = series.y[s] + r * Math.sin(j * GOLDEN_ANGLE);
+                placed[v] = true;
+            }
+        }
+        // the genre and series resources on their cluster's centre
+        for (int g = 0; g < genres.count(); g++) {
+            place(genres.nodes.get(g), genres.x[g], genres.y[g], placed);
+        }
+        for (int s = 0; s < series.count(); s++) {
+            place(series.nodes.get(s), series.x[s], series.y[s], placed);
+        }
+        // the rest between the games they are linked to, then between anything placed
+        for (int pass = 0; pass < 2; pass++) {
+            boolean gamesOnly = pass == 0;
+            for (int v = 0; v < n; v++) {
+                if (!placed[v]) {
+                    placed[v] = centroid(v, placed, gamesOnly);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (placed[v]) {
+                extend(x[v], y[v], 0);
+            }
+        }
+        // and what is linked to nothing placed on a ring outside everything, long enough
+        // for all of it
+        int left = 0;
+        for (int v = 0; v < n; v++) {
+            left += placed[v] ? 0 : 1;
+        }
+        double outside = minX > maxX ? 0 : Math.max(Math.max(-minX, maxX), Math.max(-minY, maxY));
+        double ring = Math.max(outside + 4 * SPACING, SPACING * left / (2 * Math.PI));
+        for (int v = 0, k = 0; v < n; v++) {
+            if (!placed[v]) {
+                double angle = 2 * Math.PI * k++ / left;
+                x[v] = ring * Math.cos(angle);
+                y[v] = ring * Math.sin(angle);
+                extend(x[v], y[v], SPACING);
+            }
+        }
+    }
+
+    // round a circle, each genre given an arc as long as its disc is wide; the circle is
+    // sized so neighbouring discs clear each other on the chord, not just on the arc
+    private void placeGenres() {
+        int count = genres.count();
+        genres.x = new double[count];
+        genres.y = new double[count];
+        genres.radius = new double[count];
+        double gap = 4 * SPACING;
+        double circumference = 0;
+        for (int g = 0; g < count; g++) {
+            genres.radius[g] = discRadius(genres.size[g]);
+            circumference += 2 * genres.radius[g] + gap;
+        }
+        double ring = count <= 1 ? 0 : circumference / (2 * count * Math.sin(Math.PI / count));
+        double along = 0;
+        for (int g = 0; g < count; g++) {
+            along += genres.radius[g] + gap / 2;
+            double angle = 2 * Math.PI * along / circumference;
+            genres.x[g] = ring * Math.cos(angle);
+            genres.y[g] = ring * Math.sin(angle);
+            along += genres.radius[g] + gap / 2;
+            extend(genres.x[g], genres.y[g], genres.radius[g]);
+        }
+    }
+
+    // a sunflower per genre, biggest series nearest the middle, each series as far out as
+    // the games before it need room for
+    private void placeSeries() {
+        int count = series.count();
+        series.x = new double[count];
+        series.y = new double[count];
+        series.radius = new double[count];
+        Integer[] order = new Integer[count];
+        Arrays.setAll(order, s -> s);
+        Arrays.sort(order, Comparator.<Integer>comparingInt(s -> series.parent[s])
+            .thenComparingInt(s -> -series.size[s]).thenComparingInt(s -> s));
+        int genre = -1;
+        int k = 0;
+        long before = 0;
+        for (int s : order) {
+            if (series.parent[s] != genre) {
+                genre = series.parent[s];
+                k = 0;
+                before = 0;
+            }
+            double r = k == 0 ? 0 : 1.2 * SPACING * Math.sqrt(before + series.size[s] / 2.0);
+            series.x[s] = genres.x[genre] + r * Math.cos(k * GOLDEN_ANGLE);
+            series.y[s] = genres.y[genre] + r * Math.sin(k * GOLDEN_ANGLE);
+            series.radius[s] = SPACING * Math.sqrt(series.size[s] + 0.5) + SPACING / 2;
+            before += series.size[s];
+            k++;
+        }
+    }
+
+    private static double discRadius(int games) {
+        return SPACING * (1.2 * Math.sqrt(games) + 1);
+    }
+
+    private void place(Node node, double px, double py, boolean[] placed) {
+        int v = node == null ? -1 : p.id(node);
+        if (v >= 0 && !placed[v]) {
+            x[v] = px;
+            y[v] = py;
+            placed[v] = true;
+        }
+    }
+
+    // v at the mean of its placed neighbours (only games, if gamesOnly), nudged off it by a
+    // hash of the node so the developers of one game don't all land on the same point;
+    // false if there were none
+    private boolean centroid(int v, boolean[] placed, boolean gamesOnly) {
+        double[] sum = new double[3];
+        int[] firstGame = { -1 };
+        p.forEachNeighbour(v, w -> {
+            if (placed[w] && (!gamesOnly || game[w])) {
+                sum[0] += x[w];
+                sum[1] += y[w];
+                sum[2]++;
+                if (firstGame[0] < 0 && game[w]) {
+                    firstGame[0] = w;
+                }
+            }
+        });
+        if (sum[2] == 0) {
+            return false;
+        }
+        long h = GameRecommender.mix(p.node(v).hashCode());
+        double angle = (h & 0xffff) / 65536.0 * 2 * Math.PI;
+        double r = SPACING * (0.5 + ((h >>> 16) & 0xff) / 128.0);
+        x[v] = sum[0] / sum[2] + r * Math.cos(angle);
+        y[v] = sum[1] / sum[2] + r * Math.sin(angle);
+        if (firstGame[0] >= 0 && seriesOf[v] < 0) {
+            genreOf[v] = genreOf[firstGame[0]];
+            seriesOf[v] = seriesOf[firstGame[0]];
+        }
+        return true;
+    }
+
+    private void extend(double px, double py, double margin) {
+        minX = Math.min(minX, px - margin);
+        minY = Math.min(minY, py - margin);
+        maxX = Math.max(maxX, px + margin);
+        maxY = Math.max(maxY, py + margin);
+    }
+
+    public int nodeCount() {
+        return p.nodeCount();
+    }
+
+    public int edgeCount() {
+        return p.edgeCount();
+    }
+
+    // where the layout put node, null if it isn't in the export
+    public double[] position(Node node) {
+        int v = p.id(node);
+        return v < 0 ? null : new double[] { x[v], y[v] };
+    }
+
+    // writes index.json and the tiles of every level into directory; returns the number
+    // of tiles written
+    public int export(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        if (p.nodeCount() == 0) {
+            extend(0, 0, SPACING);
+        }
+        double extent = Math.max(maxX - minX, maxY - minY) + SPACING;
+        Map<String, Integer> types = new TreeMap<>();
+
+        long[][] genreLinks = links(genreOf);
+        List<String> level0 = writeTiles(directory, 0, genres.count(), genres.x, genres.y, extent,
+            (out, order, from, to) -> writeClusters(out, 0, genres, genreLinks, order, from, to));
+        long[][] seriesLinks = links(seriesOf);
+        double seriesTile = tileSize(series.count());
+        List<String> level1 = writeTiles(directory, 1, series.count(), series.x, series.y, seriesTile,
+            (out, order, from, to) -> writeClusters(out, 1, series, seriesLinks, order, from, to));
+        double nodeTile = tileSize(p.nodeCount());
+        List<String> level2 = writeTiles(directory, 2, p.nodeCount(), x, y, nodeTile,
+            (out, order, from, to) -> writeNodes(out, order, from, to, types));
+
+        try (Writer out = Files.newBufferedWriter(directory.resolve("index.json"), StandardCharsets.UTF_8)) {
+            out.write("{\"nodes\":" + p.nodeCount() + ",\"edges\":" + p.edgeCount() + ",\"games\":" + games);
+            out.write(",\"bounds\":[" + number(minX) + "," + number(minY) + "," + number(maxX) + "," + number(maxY) + "]");
+            out.write(",\"types\":{");
+            writeMap(out, types);
+            out.write("},\"colors\":{");
+            writeMap(out, new TreeMap<>(GraphVizExporter.nodeColors));
+            out.write("},\"levels\":[");
+            double[] sizes = { extent, seriesTile, nodeTile };
+            List<List<String>> tiles = List.of(level0, level1, level2);
+            for (int level = 0; level < sizes.length; level++) {
+                out.write(level == 0 ? "" : ",");
+                out.write("{\"level\":" + level + ",\"name\":\"" + LEVEL_NAMES[level] + "\",\"tileSize\":"
+                    + number(sizes[level]) + ",\"tiles\":[");
+                for (int t = 0; t < tiles.get(level).size(); t++) {
+                    out.write((t == 0 ? "\"" : ",\"") + tiles.get(level).get(t) + "\"");
+                }
+                out.write("]}");
+            }
+            out.write("]}\n");
+        }
+        return level0.size() + level1.size() + level2.size();
+    }
+
+    // square tiles holding about TILE_NODES of count items each, if they were spread
+    // evenly; never so small the grid gets over a million cells
+    private double tileSize(int count) {
+        double width = maxX - minX + SPACING;
+        double height = maxY - minY + SPACING;
+        double even = Math.sqrt(width * height * TILE_NODES / Math.max(count, 1));
+        return Math.max(Math.max(even, 4 * SPACING), Math.max(width, height) / 1024);
+    }
+
+    // groups items 0..count-1 by the tile their (xs, ys) falls in (a counting sort, so
+    // just two int arrays) and writes each non-empty tile as <level>/<tx>_<ty>.json
+    private List<String> writeTiles(Path directory, int level, int count, double[] xs, double[] ys,
+                                    double size, TileBody body) throws IOException {
+        Path dir = Files.createDirectories(directory.resolve(Integer.toString(level)));
+        int columns = (int) ((maxX - minX) / size) + 1;
+        int rows = (int) ((maxY - minY) / size) + 1;
+        int[] offsets = new int[columns * rows + 1];
+        int[] tileOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            int tx = (int) ((xs[i] - minX) / size);
+            int ty = (int) ((ys[i] - minY) / size);
+            tileOf[i] = tx * rows + ty;
+            offsets[tileOf[i] + 1]++;
+        }
+        for (int t = 1; t < offsets.length; t++) {
+            offsets[t] += offsets[t - 1];
+        }
+        int[] order = new int[count];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int i = 0; i < count; i++) {
+            order[next[tileOf[i]]++] = i;
+        }
+        List<String> written = new ArrayList<>();
+        for (int t = 0; t < columns * rows; t++) {
+            if (offsets[t] == offsets[t + 1]) {
+                continue;
+            }
+            String key = (t / rows) + "_" + (t % rows);
+            try (Writer out = Files.newBufferedWriter(dir.resolve(key + ".json"), StandardCharsets.UTF_8)) {
+                out.write("{\"level\":" + level + ",\"tile\":\"" + key + "\",");
+                body.write(out, order, offsets[t], offsets[t + 1]);
+                out.write("}\n");
+            }
+            written.add(key);
+        }
+        return written;
+    }
+
+    // links between different clusters as sorted {(a << 32) | b} and their counts, a < b;
+    // every edge is seen from both of its ends, hence the halving
+    private long[][] links(int[] clusterOf) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int v = 0; v < p.nodeCount(); v++) {
+            int a = clusterOf[v];
+            if (a < 0) {
+                continue;
+            }
+            p.forEachNeighbour(v, w -> {
+                int b = clusterOf[w];
+                if (b >= 0 && a != b) {
+                    counts.merge(((long) Math.min(a, b) << 32) | Math.max(a, b), 1, Integer::sum);
+                }
+            });
+        }
+        long[] pairs = counts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] linkCounts = new long[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            linkCounts[i] = counts.get(pairs[i]) / 2;
+        }
+        return new long[][] { pairs, linkCounts };
+    }
+
+    private void writeClusters(Writer out, int level, Clusters clusters, long[][] links,
+                               int[] order, int from, int to) throws IOException {
+        String prefix = level == 0 ? "g" : "s";
+        out.write("\"nodes\":[");
+        for (int i = from; i < to; i++) {
+            int c = order[i];
+            out.write(i == from ? "{" : ",{");
+            out.write("\"id\":\"" + prefix + c + "\",\"label\":" + StreamingResultWriter.json(clusterLabel(level, c)));
+            out.write(",\"type\":\"" + (level == 0 ? "Genre" : "GameSeries") + "\"");
+            out.write(",\"x\":" + number(clusters.x[c]) + ",\"y\":" + number(clusters.y[c]));
+            out.write(",\"radius\":" + number(clusters.radius[c]) + ",\"count\":" + clusters.size[c] + "}");
+        }
+        out.write("],\"edges\":[");
+        boolean firstEdge = true;
+        long[] pairs = links[0];
+        for (int i = from; i < to; i++) {
+            int a = order[i];
+            int at = Arrays.binarySearch(pairs, (long) a << 32);
+            for (int e = at < 0 ? -at - 1 : at; e < pairs.length && (int) (pairs[e] >>> 32) == a; e++) {
+                int b = (int) pairs[e];
+                out.write(firstEdge ? "{" : ",{");
+                out.write("\"from\":\"" + prefix + a + "\",\"to\":\"" + prefix + b + "\",\"count\":" + links[1][e]);
+                out.write(",\"x2\":" + number(clusters.x[b]) + ",\"y2\":" + number(clusters.y[b]) + "}");
+                firstEdge = false;
+            }
+        }
+        out.write("]");
+    }
+
+    private String clusterLabel(int level, int c) {
+        Clusters clusters = level == 0 ? genres : series;
+        Node node = clusters.nodes.get(c);
+        if (node != null) {
+            return GraphVizExporter.getNodeLabel(graph, node);
+        }
+        if (level == 0) {
+            return "Other";
+        }
+        return clusterLabel(0, series.parent[c]) + " (standalone)";
+    }
+
+    // edges carry the far end's position, so they can be drawn before its tile is loaded
+    private void writeNodes(Writer out, int[] order, int from, int to, Map<String, Integer> types) throws IOException {
+        out.write("\"nodes\":[");
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            Node node = p.node(v);
+            String type = GraphVizExporter.getNodeType(graph, node);
+            types.merge(type, 1, Integer::sum);
+            out.write(i == from ? "{" : ",{");
+            out.write("\"id\":" + v + ",\"label\":" + StreamingResultWriter.json(GraphVizExporter.getNodeLabel(graph, node)));
+            out.write(",\"type\":" + StreamingResultWriter.json(type));
+            out.write(",\"x\":" + number(x[v]) + ",\"y\":" + number(y[v]));
+            // a score that doesn't parse (or isn't finite) is left out rather than written as NaN
+            double score = GraphVizExporter.influence(GraphVizExporter.firstLiteral(graph, node, GraphAnalytics.INFLUENCE_SCORE));
+            if (Double.isFinite(score)) {
+                out.write(",\"score\":" + number(score));
+            }
+            out.write("}");
+        }
+        out.write("],\"edges\":[");
+        boolean firstEdge = true;
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            ExtendedIterator<Triple> iter = graph.find(p.node(v), Node.ANY, Node.ANY);
+            try {
+                while (iter.hasNext()) {
+                    Triple t = iter.next();
+                    int w = p.id(t.getObject());
+                    if (w < 0 || !GraphAnalytics.ALL_EDGES.test(t.getPredicate())) {
+                        continue;
+                    }
+                    out.write(firstEdge ? "{" : ",{");
+                    out.write("\"from\":" + v + ",\"to\":" + w + ",\"label\":"
+                        + StreamingResultWriter.json(GraphVizExporter.getPredicateLabel(t.getPredicate())));
+                    out.write(",\"x2\":" + number(x[w]) + ",\"y2\":" + number(y[w]) + "}");
+                    firstEdge = false;
+                }
+            } finally {
+                iter.close();
+            }
+        }
+        out.write("]");
+    }
+
+    private static void writeMap(Writer out, Map<String, ?> map) throws IOException {
+        boolean first = true;
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            out.write(first ? "" : ",");
+            out.write(StreamingResultWriter.json(entry.getKey()) + ":");
+            Object value = entry.getValue();
+            out.write(value instanceof String ? StreamingResultWriter.json((String) value) : value.toString());
+            first = false;
+        }
+    }
+
+    // one decimal is plenty for a position
+    static String number(double value) {
+        return Double.toString(Math.round(value * 10) / 10.0);
+    }
+
+    // [outputDir]: the catalog as tiles for visualize.html, into graph-tiles/ by default
+    // -Dps2.catalog picks another Turtle file (a SyntheticCatalogGenerator output, say)
+    // -Dps2.influence=true sizes nodes by PageRank (computed here if the file has no scores)
+    public static void main(String[] args) {
+        try {
+            Model model = ParallelCatalogLoader.loadModel(System.getProperty("ps2.catalog", "ps2_games_database.ttl"));
+            if (Boolean.getBoolean("ps2.influence")) {
+                GraphVizExporter.addInfluenceScores(model);
+            }
+            Path directory = Paths.get(args.length > 0 ? args[0] : "graph-tiles");
+            long start = System.nanoTime();
+            TiledGraphExporter exporter = new TiledGraphExporter(model.getGraph());
+            double layoutMs = (System.nanoTime() - start) / 1e6;
+            int tiles = exporter.export(directory);
+            System.out.printf("Laid out %,d nodes / %,d edges in %.0f ms, wrote %,d tiles to %s in %.0f ms%n",
+                exporter.nodeCount(), exporter.edgeCount(), layoutMs, tiles, directory,
+                (System.nanoTime() - start) / 1e6 - layoutMs);
+        } catch (Exception e) {
+            System.err.println("Error exporting tiles: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.RDF;
+import java.io.StringReader;
+
+/**
+ * Records built through CatalogBuilder come out as the same triples
+ * the Model API would have made, from code, CSV and JSON lines.
+ */
+public class CatalogBuilderTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public CatalogBuilderTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogBuilderTest.class );
+    }
+
+    public void testGameMatchesModelApi()
+    {
+        Model expected = ModelFactory.createDefaultModel();
+        Property p = expected.createProperty( NS + "hasTitle" );
+        expected.createResource( NS + "FinalFantasyX" )
+            .addProperty( RDF.type, expected.createResource( NS + "RPG" ) )
+            .addProperty( p, "Final Fantasy X" )
+            .addProperty( expected.createProperty( NS + "developedBy" ), expected.createResource( NS + "SquareEnix" ) )
+            .addProperty( expected.createProperty( NS + "releasedIn" ), "2001", XSDDatatype.XSDgYear )
+            .addProperty( expected.createProperty( NS + "hasSalesCount" ), "8500000", XSDDatatype.XSDint )
+            .addProperty( expected.createProperty( NS + "wonAward" ), expected.createResource( NS + "BestRPG" ) );
+
+        Model actual = ModelFactory.createDefaultModel();
+        try ( CatalogBuilder builder = new CatalogBuilder( actual ) )
+        {
+            builder.add( new CatalogBuilder.Game( "FinalFantasyX" ).type( "RPG" ).title( "Final Fantasy X" )
+                .developer( "SquareEnix" ).year( 2001 ).sales( 8500000 ).award( "BestRPG" ) );
+        }
+        assertTrue( expected.isIsomorphicWith( actual ) );
+    }
+
+    public void testSmallBatches()
+    {
+        Model model = ModelFactory.createDefaultModel();
+        CatalogBuilder builder = new CatalogBuilder( model.getGraph(), null, 3 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            builder.add( new CatalogBuilder.Award( "Award" + i ).name( "Award " + i ) );
+        }
+        assertEquals( 6, builder.batches() );
+        builder.close();
+        assertEquals( 20, model.size() );
+        assertEquals( 20, builder.triples() );
+    }
+
+    public void testCsv() throws Exception
+    {
+        String csv = "id,name,headquarters,founded\n"
+            + "SquareEnix,Square Enix,\"Tokyo, Japan\",1986\n"
+            + "Naughty,Naughty Dog,,\n";
+        Model model = ModelFactory.createDefaultModel();
+        try ( CatalogBuilder builder = new CatalogBuilder( model ) )
+        {
+            assertEquals( 2, builder.readCsv( new StringReader( csv ), "developer" ) );
+        }
+        Resource square = model.getResource( NS + "SquareEnix" );
+        assertEquals( "Tokyo, Japan", square.getProperty( model.getProperty( NS + "headquarteredIn" ) ).getString() );
+        assertFalse( model.getResource( NS + "Naughty" ).hasProperty( model.getProperty( NS + "foundedIn" ) ) );
+        assertEquals( 6, model.size() );
+    }
+
+    public void testJsonLinesIntoADataset() throws Exception
+    {
+        String json = "{\"kind\":\"series\",\"id\":\"TekkenSeries\",\"name\":\"Tekken\"}\n"
+            + "{\"kind\":\"game\",\"id\":\"Tekken4\",\"type\":\"FightingGame\",\"series\":\"TekkenSeries\","
+            + "\"score\":79,\"awards\":[\"GameOfYear\",\"BestFighting\"]}\n";
+        Dataset dataset = DatasetFactory.createTxnMem();
+        try ( CatalogBuilder builder = new CatalogBuilder( dataset ) )
+        {
+            assertEquals( 2, builder.readJsonLines( new StringReader( json ) ) );
+        }
+        long size = Txn.calculateRead( dataset, () -> dataset.getDefaultModel().size() );
+        assertEquals( 7, size );
+    }
+}
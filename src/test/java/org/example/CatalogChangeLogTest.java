@@ -0,0 +1,134 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.apache.jena.vocabulary.RDF;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A replica bootstrapped from the log directory ends up with the same
+ * base model, and the same inferred answers, as the primary.
+ */
+public class CatalogChangeLogTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public CatalogChangeLogTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogChangeLogTest.class );
+    }
+
+    private static void addGames( Model model, int from, int to )
+    {
+        Property title = model.createProperty( NS + "hasTitle" );
+        for ( int i = from; i < to; i++ )
+        {
+            model.createResource( NS + "LoggedGame" + i )
+                .addProperty( RDF.type, model.createResource( NS + "RPG" ) )
+                .addProperty( title, "Logged Game " + i );
+        }
+    }
+
+    public void testReplicaMatchesPrimary() throws IOException
+    {
+        Path dir = Files.createTempDirectory( "changelog" );
+        Model primary = ResearchGraphWithReasoning.buildBaseModel();
+        try ( CatalogChangeLog log = new CatalogChangeLog( primary, dir, 1_000_000 ) )
+        {
+            CatalogChangeLog.Replica replica = new CatalogChangeLog.Replica( dir, "rdfs" );
+            assertTrue( replica.base().isIsomorphicWith( primary ) );
+
+            addGames( primary, 0, 10 );
+            Resource ff10 = primary.getResource( NS + "FinalFantasyX" );
+            primary.remove( ff10.listProperties( primary.createProperty( NS + "hasRating" ) ).toList() );
+            // nothing visible before the batch is committed
+            assertEquals( 0, replica.catchUp() );
+            log.flush();
+            assertTrue( replica.catchUp() > 0 );
+            assertTrue( replica.base().isIsomorphicWith( primary ) );
+
+            Model inferred = CatalogReasoning.reasoningModel( primary, "rdfs" );
+            QueryRegistry registry = new QueryRegistry();
+            ResultSetRewindable expected = ResultSetFactory.copyResults( registry.select( "query1", Map.of(), inferred ) );
+            ResultSetRewindable actual = ResultSetFactory.copyResults( registry.select( "query1", Map.of(), replica.inferred() ) );
+            assertTrue( ResultSetCompare.equalsByTerm( expected, actual ) );
+        }
+    }
+
+    public void testCatchesUpAcrossSnapshots() throws IOException
+    {
+        Path dir = Files.createTempDirectory( "changelog" );
+        Model primary = ResearchGraphWithReasoning.buildBaseModel();
+        try ( CatalogChangeLog log = new CatalogChangeLog( primary, dir, 15 ) )
+        {
+            CatalogChangeLog.Replica replica = new CatalogChangeLog.Replica( dir, "hierarchy" );
+            long start = log.generation();
+            addGames( primary, 0, 20 );
+            log.flush();
+            assertTrue( log.generation() > start + 1 );
+            replica.catchUp();
+            assertEquals( log.generation(), replica.generation() );
+            assertTrue( replica.base().isIsomorphicWith( primary ) );
+        }
+    }
+
+    public void testIncrementalReplicaAfterReload() throws IOException
+    {
+        Path dir = Files.createTempDirectory( "changelog" );
+        Model primary = ResearchGraphWithReasoning.buildBaseModel();
+        try ( CatalogChangeLog log = new CatalogChangeLog( primary, dir, 1_000_000 ) )
+        {
+            CatalogChangeLog.Replica replica = new CatalogChangeLog.Replica( dir, "incremental" );
+            Resource tekken3 = primary.getResource( NS + "Tekken3" );
+            Resource game = primary.getResource( NS + "Game" );
+            assertTrue( replica.inferred().contains( tekken3, RDF.type, game ) );
+
+            primary.removeAll( tekken3, RDF.type, null );
+            // the replica's generation is deleted, so it has to reload the newest snapshot
+            log.snapshot();
+            log.snapshot();
+            log.snapshot();
+            long before = replica.generation();
+            replica.catchUp();
+            assertTrue( replica.generation() > before + 1 );
+            assertTrue( replica.base().isIsomorphicWith( primary ) );
+            assertFalse( replica.inferred().contains( tekken3, RDF.type, game ) );
+
+            Model inferred = CatalogReasoning.reasoningModel( primary, "rdfs" );
+            assertEquals( Collections.emptyList(), CatalogQueries.compareAll( inferred, replica.inferred() ) );
+        }
+    }
+
+    public void testReplicaBeforeAnyPrimaryStartsEmpty() throws IOException
+    {
+        Path dir = Files.createTempDirectory( "changelog" );
+        CatalogChangeLog.Replica replica = new CatalogChangeLog.Replica( dir, "hierarchy" );
+        assertEquals( 0, replica.base().size() );
+        assertEquals( 0, replica.catchUp() );
+
+        Model primary = ResearchGraphWithReasoning.buildBaseModel();
+        try ( CatalogChangeLog log = new CatalogChangeLog( primary, dir, 1_000_000 ) )
+        {
+            replica.catchUp();
+            assertEquals( log.generation(), replica.generation() );
+            assertTrue( replica.base().isIsomorphicWith( primary ) );
+        }
+    }
+}
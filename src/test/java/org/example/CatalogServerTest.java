@@ -0,0 +1,129 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The server in-process on an ephemeral loopback port: named queries are
+ * served, and updates are refused unless explicitly enabled.
+ */
+public class CatalogServerTest
+    extends TestCase
+{
+    private CatalogSnapshots snapshots;
+    private CatalogServer server;
+
+    public CatalogServerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogServerTest.class );
+    }
+
+    @Override
+    protected void setUp() throws IOException
+    {
+        snapshots = new CatalogSnapshots( ResearchGraphWithReasoning.buildBaseModel() );
+        server = new CatalogServer( snapshots, 0, 2 );
+        server.start();
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        server.stop();
+    }
+
+    private HttpURLConnection open( String path ) throws IOException
+    {
+        return (HttpURLConnection) new URL( server.url() + path ).openConnection();
+    }
+
+    private static String read( HttpURLConnection connection ) throws IOException
+    {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        try ( InputStream body = in )
+        {
+            return new String( body.readAllBytes(), StandardCharsets.UTF_8 );
+        }
+    }
+
+    private int rows( String query )
+    {
+        try ( QueryExecution qexec = QueryExecutionFactory.create( query, snapshots.current().model() ) )
+        {
+            return ResultSetFormatter.consume( qexec.execSelect() );
+        }
+    }
+
+    public void testBindsLoopbackOnly() throws IOException
+    {
+        assertTrue( server.port() > 0 );
+        assertTrue( server.url().startsWith( "http://" ) );
+        assertTrue( InetAddress.getByName( new URL( server.url() ).getHost() ).isLoopbackAddress() );
+    }
+
+    public void testNamedQuery() throws IOException
+    {
+        HttpURLConnection connection = open( "/query/query1?format=tsv" );
+        assertEquals( 200, connection.getResponseCode() );
+        assertEquals( "1", connection.getHeaderField( "X-Snapshot-Version" ) );
+        String[] lines = read( connection ).split( "\n" );
+        assertEquals( rows( CatalogQueries.get( "query1" ) ) + 1, lines.length );
+        assertTrue( lines[0].startsWith( "?" ) );
+    }
+
+    public void testUnknownQueryIsBadRequest() throws IOException
+    {
+        assertEquals( 400, open( "/query/nosuchquery" ).getResponseCode() );
+    }
+
+    public void testBadWindowIsBadRequest() throws IOException
+    {
+        assertEquals( 400, open( "/query/query1?offset=-5&limit=3" ).getResponseCode() );
+        assertEquals( 400, open( "/query/query1?limit=-1" ).getResponseCode() );
+        assertEquals( 400, open( "/query/query1?offset=two" ).getResponseCode() );
+        assertEquals( 200, open( "/query/query1?offset=0&limit=3" ).getResponseCode() );
+    }
+
+    public void testUpdateRejected() throws IOException
+    {
+        long triples = snapshots.current().base().size();
+        HttpURLConnection connection = open( "/update" );
+        connection.setRequestMethod( "POST" );
+        connection.setDoOutput( true );
+        try ( OutputStream out = connection.getOutputStream() )
+        {
+            out.write( "CLEAR ALL".getBytes( StandardCharsets.UTF_8 ) );
+        }
+        assertEquals( 403, connection.getResponseCode() );
+        read( connection );
+        assertEquals( 1, snapshots.current().version() );
+        assertEquals( triples, snapshots.current().base().size() );
+    }
+
+    public void testSnapshotAndQueryList() throws IOException
+    {
+        HttpURLConnection snapshot = open( "/snapshot" );
+        assertEquals( 200, snapshot.getResponseCode() );
+        assertTrue( read( snapshot ).contains( "\"version\":1" ) );
+
+        HttpURLConnection queries = open( "/queries" );
+        assertEquals( 200, queries.getResponseCode() );
+        assertTrue( read( queries ).contains( "\"name\":\"query1\"" ) );
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.vocabulary.RDF;
+import java.util.Collections;
+
+/**
+ * Snapshots must not change once handed out, and a published
+ * snapshot must carry the inferred types of what was written.
+ */
+public class CatalogSnapshotsTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public CatalogSnapshotsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogSnapshotsTest.class );
+    }
+
+    public void testQueriesMatchRdfs()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        CatalogSnapshots snapshots = new CatalogSnapshots( base );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll(
+            CatalogReasoning.reasoningModel( base, "rdfs" ), snapshots.current().model() ) );
+    }
+
+    public void testOldSnapshotUnchangedAfterPublish()
+    {
+        CatalogSnapshots snapshots = new CatalogSnapshots( ResearchGraphWithReasoning.buildBaseModel() );
+        CatalogSnapshots.Snapshot before = snapshots.current();
+        long sizeBefore = before.model().size();
+
+        CatalogSnapshots.Snapshot after = snapshots.publish( model ->
+            model.createResource( NS + "Okami" ).addProperty( RDF.type, model.getResource( NS + "ActionGame" ) ) );
+
+        assertEquals( before.version() + 1, after.version() );
+        assertSame( after, snapshots.current() );
+        assertEquals( sizeBefore, before.model().size() );
+
+        Resource okami = after.model().getResource( NS + "Okami" );
+        assertTrue( after.model().contains( okami, RDF.type, after.model().getResource( NS + "Game" ) ) );
+        assertFalse( before.model().contains( okami, RDF.type, before.model().getResource( NS + "Game" ) ) );
+    }
+
+    public void testFailedPublishChangesNothing()
+    {
+        CatalogSnapshots snapshots = new CatalogSnapshots( ResearchGraphWithReasoning.buildBaseModel() );
+        CatalogSnapshots.Snapshot before = snapshots.current();
+        long sizeBefore = before.base().size();
+
+        try
+        {
+            snapshots.publish( model -> {
+                model.removeAll();
+                throw new IllegalStateException( "half-way" );
+            } );
+            fail( "publish should rethrow" );
+        }
+        catch ( IllegalStateException expected )
+        {
+        }
+        assertSame( before, snapshots.current() );
+
+        // the next publish starts from the untouched master, not the half-applied one
+        CatalogSnapshots.Snapshot after = snapshots.publish( model -> { } );
+        assertEquals( sizeBefore, after.base().size() );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( before.model(), after.model() ) );
+    }
+
+    public void testUpdateIsStagedThenApplied()
+    {
+        CatalogSnapshots snapshots = new CatalogSnapshots( ResearchGraphWithReasoning.buildBaseModel() );
+        CatalogSnapshots.Snapshot after = snapshots.publish( model -> UpdateAction.parseExecute(
+            "PREFIX ps2: <" + NS + "> PREFIX rdf: <" + RDF.getURI() + ">"
+                + " INSERT DATA { ps2:Okami rdf:type ps2:ActionGame }", model ) );
+        assertTrue( after.model().contains( after.model().getResource( NS + "Okami" ), RDF.type,
+            after.model().getResource( NS + "Game" ) ) );
+
+        after = snapshots.publish( model -> UpdateAction.parseExecute(
+            "PREFIX ps2: <" + NS + "> DELETE WHERE { ps2:Okami ?p ?o }", model ) );
+        assertFalse( after.model().contains( after.model().getResource( NS + "Okami" ), null, (RDFNode) null ) );
+    }
+}
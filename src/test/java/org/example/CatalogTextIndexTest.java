@@ -0,0 +1,93 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.apache.jena.system.Txn;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text index lookups agree with the FILTER scans and follow writes
+ * made through the text dataset.
+ */
+public class CatalogTextIndexTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    private Model base;
+    private Dataset text;
+
+    public CatalogTextIndexTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogTextIndexTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        base = ResearchGraphWithReasoning.buildBaseModel();
+        text = CatalogTextIndex.inMemory( base );
+    }
+
+    public void testQuery3MatchesTheFilterVersion()
+    {
+        ResultSetRewindable expected;
+        try ( QueryExecution qexec = QueryExecutionFactory.create( CatalogQueries.get( "query3" ), base ) )
+        {
+            expected = ResultSetFactory.copyResults( qexec.execSelect() );
+        }
+        ResultSetRewindable actual = CatalogTextIndex.query3( text, Map.of() );
+        assertTrue( expected.size() > 0 );
+        assertTrue( ResultSetCompare.equalsByTerm( expected, actual ) );
+    }
+
+    public void testQuery3MatchesWholeWordsOnly()
+    {
+        // a piece of a word is a CONTAINS match but not a Lucene one
+        ParameterizedSparqlString plain = new ParameterizedSparqlString( CatalogQueries.get( "query3" ) );
+        plain.setLiteral( "country", "Jap" );
+        try ( QueryExecution qexec = QueryExecutionFactory.create( plain.asQuery(), base ) )
+        {
+            assertTrue( ResultSetFactory.copyResults( qexec.execSelect() ).size() > 0 );
+        }
+        assertEquals( 0, CatalogTextIndex.query3( text, Map.of( "country", "Jap" ) ).size() );
+    }
+
+    public void testPrefixSearchOnTitles()
+    {
+        List<CatalogTextIndex.Hit> hits = CatalogTextIndex.search( text, CatalogTextIndex.HAS_TITLE, "fant*", 10 );
+        assertFalse( hits.isEmpty() );
+        for ( CatalogTextIndex.Hit hit : hits )
+        {
+            assertTrue( hit.literal().getLiteralLexicalForm().contains( "Fantasy" ) );
+        }
+    }
+
+    public void testFuzzySearchOnNames()
+    {
+        assertFalse( CatalogTextIndex.search( text, CatalogTextIndex.HAS_NAME, "squre~1", 10 ).isEmpty() );
+    }
+
+    public void testWritesThroughTheDatasetAreIndexed()
+    {
+        Txn.executeWrite( text, () -> text.getDefaultModel()
+            .createResource( NS + "TestGame" )
+            .addProperty( text.getDefaultModel().createProperty( NS + "hasTitle" ), "Zanzibar Racer" ) );
+        assertEquals( 1, CatalogTextIndex.search( text, CatalogTextIndex.HAS_TITLE, "zanzibar", 10 ).size() );
+    }
+}
@@ -0,0 +1,125 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.apache.jena.vocabulary.RDF;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The summary views give the same answers as the SPARQL they stand in for,
+ * before and after the catalog changes.
+ */
+public class CatalogViewsTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    private Model base;
+    private Model model;
+    private CatalogViews views;
+    private QueryRegistry registry;
+
+    public CatalogViewsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( CatalogViewsTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        base = ResearchGraphWithReasoning.buildBaseModel();
+        model = HierarchyReasoner.createModel( base );
+        views = new CatalogViews( base );
+        registry = new QueryRegistry();
+    }
+
+    public void testSameAnswersAsSparql()
+    {
+        for ( String name : List.of( "query1", "query2", "query5", "query6" ) )
+        {
+            assertSameRows( name, Map.of() );
+        }
+        assertSameRows( "query2", Map.of( "minSales", 10000000 ) );
+        assertSameRows( "query6", Map.of( "minScore", 95 ) );
+    }
+
+    public void testOtherQueriesAreNotCovered()
+    {
+        assertNull( views.select( "query3", Map.of(), model ) );
+    }
+
+    public void testFollowsInsertsAndDeletes()
+    {
+        Resource series = base.getResource( NS + "FinalFantasySeries" );
+        long before = views.count( CatalogViews.PART_OF_SERIES, series.asNode() );
+
+        Resource game = base.createResource( NS + "TestGame" )
+            .addProperty( RDF.type, base.getResource( NS + "ActionGame" ) )
+            .addProperty( base.getProperty( NS + "hasTitle" ), "Test Game" )
+            .addLiteral( base.getProperty( NS + "hasSalesCount" ), 99000000 )
+            .addProperty( base.getProperty( NS + "partOfSeries" ), series );
+        assertEquals( before + 1, views.count( CatalogViews.PART_OF_SERIES, series.asNode() ) );
+        assertEquals( game.asNode(), views.top( CatalogViews.HAS_SALES_COUNT, 1 ).get( 0 ).getSubject() );
+        assertSameRows( "query2", Map.of() );
+        assertSameRows( "query5", Map.of() );
+
+        base.removeAll( game, null, null );
+        assertEquals( before, views.count( CatalogViews.PART_OF_SERIES, series.asNode() ) );
+        assertSameRows( "query2", Map.of() );
+        assertSameRows( "query5", Map.of() );
+    }
+
+    public void testNoOpEventsLeaveCountsAlone()
+    {
+        Resource series = base.getResource( NS + "FinalFantasySeries" );
+        Resource ff10 = base.getResource( NS + "FinalFantasyX" );
+        Resource godOfWar = base.getResource( NS + "GodOfWar" );
+        long before = views.count( CatalogViews.PART_OF_SERIES, series.asNode() );
+        assertTrue( base.contains( ff10, base.getProperty( NS + "partOfSeries" ), series ) );
+
+        // already there: a duplicate add, then the same triple again via add(Model)
+        base.add( ff10, base.getProperty( NS + "partOfSeries" ), series );
+        Model copy = ModelFactory.createDefaultModel();
+        copy.add( ff10, base.getProperty( NS + "partOfSeries" ), series );
+        base.add( copy );
+        assertEquals( before, views.count( CatalogViews.PART_OF_SERIES, series.asNode() ) );
+
+        // not there: removing it changes nothing
+        base.remove( godOfWar, base.getProperty( NS + "partOfSeries" ), series );
+        assertEquals( before, views.count( CatalogViews.PART_OF_SERIES, series.asNode() ) );
+
+        base.remove( ff10, base.getProperty( NS + "partOfSeries" ), series );
+        assertEquals( before - 1, views.count( CatalogViews.PART_OF_SERIES, series.asNode() ) );
+        assertSameRows( "query5", Map.of() );
+    }
+
+    public void testNonNumericRatingFallsBackToSparql()
+    {
+        Resource ff10 = base.getResource( NS + "FinalFantasyX" );
+        base.add( ff10, base.getProperty( NS + "hasRating" ), "excellent" );
+        assertNull( views.select( "query1", Map.of(), model ) );
+
+        base.remove( ff10, base.getProperty( NS + "hasRating" ), base.createLiteral( "excellent" ) );
+        assertSameRows( "query1", Map.of() );
+    }
+
+    private void assertSameRows( String name, Map<String, ?> params )
+    {
+        ResultSetRewindable expected = ResultSetFactory.copyResults( registry.select( name, params, model ) );
+        ResultSetRewindable actual = ResultSetFactory.copyResults( views.select( name, params, model ) );
+        assertTrue( name + " " + params, ResultSetCompare.equalsByTerm( expected, actual ) );
+    }
+}
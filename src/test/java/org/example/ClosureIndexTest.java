@@ -0,0 +1,166 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import java.util.Set;
+
+/**
+ * The closure index answers like the isSequelOf+ path, also after
+ * chains are joined, split and branched.
+ */
+public class ClosureIndexTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final String PREFIXES = "PREFIX ps2: <" + NS + "> PREFIX fn: <" + ClosureIndex.FN + "> ";
+
+    private Model model;
+    private Property isSequelOf;
+    private ClosureIndex index;
+
+    public ClosureIndexTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ClosureIndexTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        model = ModelFactory.createDefaultModel();
+        isSequelOf = model.createProperty( NS + "isSequelOf" );
+        // A <- B <- C
+        model.add( game( "B" ), isSequelOf, game( "A" ) );
+        model.add( game( "C" ), isSequelOf, game( "B" ) );
+        index = new ClosureIndex( model, ClosureIndex.IS_SEQUEL_OF );
+        index.register( ClosureIndex.FN + "sequelOf" );
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        index.close();
+    }
+
+    public void testChain()
+    {
+        assertEquals( Set.of( node( "B" ), node( "C" ) ), index.descendants( node( "A" ) ) );
+        assertEquals( Set.of( node( "B" ), node( "A" ) ), index.ancestors( node( "C" ) ) );
+        assertTrue( index.reaches( node( "C" ), node( "A" ) ) );
+        assertFalse( index.reaches( node( "A" ), node( "C" ) ) );
+        assertSameAsPath();
+    }
+
+    public void testJoinAndSplit()
+    {
+        // X <- Y, then Y's original turns out to be C
+        model.add( game( "Y" ), isSequelOf, game( "X" ) );
+        model.add( game( "X" ), isSequelOf, game( "C" ) );
+        assertEquals( Set.of( node( "B" ), node( "C" ), node( "X" ), node( "Y" ) ), index.descendants( node( "A" ) ) );
+        assertSameAsPath();
+
+        model.remove( game( "C" ), isSequelOf, game( "B" ) );
+        assertEquals( Set.of( node( "B" ) ), index.descendants( node( "A" ) ) );
+        assertEquals( Set.of( node( "X" ), node( "Y" ) ), index.descendants( node( "C" ) ) );
+        assertSameAsPath();
+    }
+
+    public void testTwoOriginals()
+    {
+        // D continues both B and a spin-off S
+        model.add( game( "D" ), isSequelOf, game( "B" ) );
+        model.add( game( "D" ), isSequelOf, game( "S" ) );
+        assertTrue( index.reaches( node( "D" ), node( "A" ) ) );
+        assertTrue( index.reaches( node( "D" ), node( "S" ) ) );
+        assertEquals( Set.of( node( "D" ) ), index.descendants( node( "S" ) ) );
+        assertSameAsPath();
+    }
+
+    public void testCycle()
+    {
+        // A <- B <- C, and then A turns out to be a sequel of C
+        model.add( game( "A" ), isSequelOf, game( "C" ) );
+        Set<Node> all = Set.of( node( "A" ), node( "B" ), node( "C" ) );
+        for ( Node node : all )
+        {
+            assertEquals( all, index.descendants( node ) );
+            assertEquals( all, index.ancestors( node ) );
+            assertTrue( index.reaches( node, node ) );
+        }
+        assertSameAsPath();
+
+        // and back to a plain chain
+        model.remove( game( "A" ), isSequelOf, game( "C" ) );
+        assertFalse( index.reaches( node( "A" ), node( "A" ) ) );
+        assertEquals( Set.of( node( "B" ), node( "C" ) ), index.descendants( node( "A" ) ) );
+        assertSameAsPath();
+    }
+
+    public void testStackedDiamondsStayLinear()
+    {
+        // A <- L1, R1 <- M1 <- L2, R2 <- M2 ... every level doubles the DFS paths
+        Resource top = game( "A" );
+        for ( int level = 1; level <= 30; level++ )
+        {
+            Resource left = game( "L" + level );
+            Resource right = game( "R" + level );
+            Resource merge = game( "M" + level );
+            model.add( left, isSequelOf, top );
+            model.add( right, isSequelOf, top );
+            model.add( merge, isSequelOf, left );
+            model.add( merge, isSequelOf, right );
+            top = merge;
+        }
+        // 2^30 labels if every path got its own
+        assertTrue( "relabelled " + index.relabelled(), index.relabelled() < 1_000_000 );
+        assertEquals( 2 + 30 * 3, index.descendants( node( "A" ) ).size() );
+        assertTrue( index.reaches( node( "M30" ), node( "A" ) ) );
+        assertFalse( index.reaches( node( "A" ), node( "M30" ) ) );
+        assertTrue( ResultSetCompare.equalsByTerm(
+            select( "SELECT ?s { ?s ps2:isSequelOf+ ps2:L5 }" ),
+            select( "SELECT ?s { ?s fn:sequelOf ps2:L5 }" ) ) );
+    }
+
+    private void assertSameAsPath()
+    {
+        assertTrue( ResultSetCompare.equalsByTerm(
+            select( "SELECT ?s ?o { ?s ps2:isSequelOf+ ?o }" ),
+            select( "SELECT ?s ?o { ?s fn:sequelOf ?o }" ) ) );
+        assertTrue( ResultSetCompare.equalsByTerm(
+            select( "SELECT ?s { ?s ps2:isSequelOf+ ps2:A }" ),
+            select( "SELECT ?s { ?s fn:sequelOf ps2:A }" ) ) );
+    }
+
+    private ResultSetRewindable select( String query )
+    {
+        try ( QueryExecution qexec = QueryExecutionFactory.create( PREFIXES + query, model ) )
+        {
+            return ResultSetFactory.copyResults( qexec.execSelect() );
+        }
+    }
+
+    private Resource game( String name )
+    {
+        return model.createResource( NS + name );
+    }
+
+    private Node node( String name )
+    {
+        return game( name ).asNode();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * The encoded graph must answer Query 1-8 like the default graph
+ * and stay consistent through adds, deletes and compactions.
+ */
+public class EncodedGraphTest
+    extends TestCase
+{
+    public EncodedGraphTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( EncodedGraphTest.class );
+    }
+
+    public void testCatalogQueriesMatchDefaultGraph()
+    {
+        assertSameAnswers( ResearchGraphWithReasoning.buildBaseModel(), false );
+    }
+
+    public void testSyntheticCatalogQueriesMatchDefaultGraph()
+    {
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator( 20000, 7 );
+        assertSameAnswers( generator.generateModel( ModelFactory.createDefaultModel() ), false );
+        assertSameAnswers( generator.generateModel( ModelFactory.createDefaultModel() ), true );
+    }
+
+    public void testRandomUpdatesMatchDefaultGraph()
+    {
+        Random random = new Random( 1 );
+        Graph expected = GraphFactory.createDefaultGraph();
+        EncodedGraph actual = new EncodedGraph();
+        Node[] terms = new Node[40];
+        for ( int i = 0; i < terms.length; i++ )
+        {
+            terms[i] = i % 4 == 0 ? NodeFactory.createLiteral( "v" + i ) : NodeFactory.createURI( "http://example.org/n" + i );
+        }
+        // enough operations to go through several compactions
+        for ( int i = 0; i < 30000; i++ )
+        {
+            Triple t = Triple.create( terms[1 + random.nextInt( 3 )], terms[5 + random.nextInt( 3 )],
+                terms[random.nextInt( terms.length )] );
+            if ( random.nextInt( 3 ) == 0 )
+            {
+                expected.delete( t );
+                actual.delete( t );
+            }
+            else
+            {
+                expected.add( t );
+                actual.add( t );
+            }
+            if ( i % 997 == 0 )
+            {
+                assertSameTriples( expected, actual );
+            }
+        }
+        assertSameTriples( expected, actual );
+        actual.compact();
+        assertSameTriples( expected, actual );
+
+        for ( Node term : terms )
+        {
+            assertEquals( expected.find( term, Node.ANY, Node.ANY ).toSet(), actual.find( term, Node.ANY, Node.ANY ).toSet() );
+            assertEquals( expected.find( Node.ANY, term, Node.ANY ).toSet(), actual.find( Node.ANY, term, Node.ANY ).toSet() );
+            assertEquals( expected.find( Node.ANY, Node.ANY, term ).toSet(), actual.find( Node.ANY, Node.ANY, term ).toSet() );
+            assertEquals( expected.find( terms[1], Node.ANY, term ).toSet(), actual.find( terms[1], Node.ANY, term ).toSet() );
+        }
+    }
+
+    private static void assertSameTriples( Graph expected, Graph actual )
+    {
+        assertEquals( expected.size(), actual.size() );
+        assertEquals( new HashSet<>( expected.find().toList() ), new HashSet<>( actual.find().toList() ) );
+    }
+
+    private static void assertSameAnswers( Model defaultModel, boolean offHeap )
+    {
+        Model encoded = EncodedGraph.createModel( offHeap );
+        encoded.add( defaultModel );
+        CatalogGraphs.compact( encoded );
+        assertEquals( defaultModel.size(), encoded.size() );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll(
+            CatalogReasoning.reasoningModel( defaultModel, "rdfs" ), CatalogReasoning.reasoningModel( encoded, "rdfs" ) ) );
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import java.util.List;
+
+/**
+ * Similar games come from shared genre / developer / series / awards,
+ * and follow the model as games are added and changed.
+ */
+public class GameRecommenderTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public GameRecommenderTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( GameRecommenderTest.class );
+    }
+
+    public void testTwinIsMostSimilar()
+    {
+        Model model = ResearchGraphWithReasoning.buildBaseModel();
+        GameRecommender recommender = new GameRecommender( model );
+        Resource ff10 = model.getResource( NS + "FinalFantasyX" );
+        Resource twin = model.createResource( NS + "FinalFantasyXTwin" );
+        model.listStatements( ff10, null, (RDFNode) null ).toList().forEach( s -> model.add( twin, s.getPredicate(), s.getObject() ) );
+
+        List<GameRecommender.Match> matches = recommender.similar( ff10.asNode(), 3 );
+        assertFalse( matches.isEmpty() );
+        assertEquals( twin.asNode(), matches.get( 0 ).game() );
+        assertEquals( 1.0, matches.get( 0 ).similarity(), 1e-9 );
+        for ( GameRecommender.Match match : matches )
+        {
+            assertFalse( ff10.asNode().equals( match.game() ) );
+        }
+    }
+
+    public void testFollowsChanges()
+    {
+        Model model = ResearchGraphWithReasoning.buildBaseModel();
+        GameRecommender recommender = new GameRecommender( model );
+        Property genre = model.createProperty( NS + "hasGenre" );
+        Resource a = model.createResource( NS + "TestGameA" ).addProperty( genre, model.createResource( NS + "TestGenre" ) );
+        Resource b = model.createResource( NS + "TestGameB" ).addProperty( genre, model.createResource( NS + "TestGenre" ) );
+
+        Node bNode = b.asNode();
+        assertEquals( bNode, recommender.similar( a.asNode(), 1 ).get( 0 ).game() );
+        int size = recommender.size();
+        model.removeAll( b, genre, null );
+        assertEquals( size - 1, recommender.size() );
+        assertTrue( recommender.similar( a.asNode(), 1 ).isEmpty() );
+    }
+
+    public void testNonPositiveKRejected()
+    {
+        Model model = ResearchGraphWithReasoning.buildBaseModel();
+        GameRecommender recommender = new GameRecommender( model );
+        Node ff10 = model.getResource( NS + "FinalFantasyX" ).asNode();
+        for ( int k : new int[] { 0, -1 } )
+        {
+            try
+            {
+                recommender.similar( ff10, k );
+                fail( "k = " + k + " accepted" );
+            }
+            catch ( IllegalArgumentException expected )
+            {
+            }
+            try
+            {
+                recommender.exact( List.of( ff10 ), k );
+                fail( "k = " + k + " accepted by exact" );
+            }
+            catch ( IllegalArgumentException expected )
+            {
+            }
+        }
+        assertEquals( 1, recommender.exact( List.of( ff10 ), 1 ).size() );
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import java.util.Arrays;
+
+/**
+ * PageRank, components and label propagation over the CSR projection,
+ * and the scores written back onto the model.
+ */
+public class GraphAnalyticsTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final Node LINK = NodeFactory.createURI( NS + "link" );
+
+    public GraphAnalyticsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( GraphAnalyticsTest.class );
+    }
+
+    private static Node node( String name )
+    {
+        return NodeFactory.createURI( NS + name );
+    }
+
+    private static void link( Graph graph, String from, String to )
+    {
+        graph.add( Triple.create( node( from ), LINK, node( to ) ) );
+    }
+
+    public void testHubRanksHighest()
+    {
+        Model model = ModelFactory.createDefaultModel();
+        for ( String game : new String[] { "a", "b", "c", "d" } )
+        {
+            link( model.getGraph(), game, "studio" );
+        }
+        link( model.getGraph(), "a", "b" );
+        try ( GraphAnalytics analytics = new GraphAnalytics( 2 ) )
+        {
+            GraphAnalytics.Projection p = GraphAnalytics.Projection.of( model.getGraph(), GraphAnalytics.ALL_EDGES );
+            double[] rank = analytics.pageRank( p, 0.85, 100, 1e-12 );
+            assertEquals( 1.0, Arrays.stream( rank ).sum(), 1e-9 );
+            assertEquals( p.id( node( "studio" ) ), GraphAnalytics.top( rank, 1 )[0] );
+
+            GraphAnalytics.write( model, p, GraphAnalytics.INFLUENCE_SCORE, rank );
+            assertEquals( p.nodeCount(), model.getGraph().find( Node.ANY, GraphAnalytics.INFLUENCE_SCORE, Node.ANY ).toList().size() );
+        }
+    }
+
+    public void testComponentsAndCommunities()
+    {
+        Graph graph = ModelFactory.createDefaultModel().getGraph();
+        // two triangles joined by one edge, plus a separate pair
+        link( graph, "a1", "a2" );
+        link( graph, "a2", "a3" );
+        link( graph, "a3", "a1" );
+        link( graph, "b1", "b2" );
+        link( graph, "b2", "b3" );
+        link( graph, "b3", "b1" );
+        link( graph, "a1", "b1" );
+        link( graph, "x", "y" );
+        try ( GraphAnalytics analytics = new GraphAnalytics( 4 ) )
+        {
+            GraphAnalytics.Projection p = GraphAnalytics.Projection.of( graph, GraphAnalytics.ALL_EDGES );
+            int[] component = analytics.components( p );
+            assertEquals( component[p.id( node( "a1" ) )], component[p.id( node( "b3" ) )] );
+            assertEquals( component[p.id( node( "x" ) )], component[p.id( node( "y" ) )] );
+            assertFalse( component[p.id( node( "a1" ) )] == component[p.id( node( "x" ) )] );
+
+            int[] community = analytics.communities( p, 20 );
+            assertEquals( community[p.id( node( "a2" ) )], community[p.id( node( "a3" ) )] );
+            assertEquals( community[p.id( node( "b2" ) )], community[p.id( node( "b3" ) )] );
+        }
+    }
+}
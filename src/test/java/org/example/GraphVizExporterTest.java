@@ -0,0 +1,90 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * DOT export: every node declared once, labels quoted so names with
+ * quotes don't break the file, and a bad influence score ignored.
+ */
+public class GraphVizExporterTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public GraphVizExporterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( GraphVizExporterTest.class );
+    }
+
+    private static String export( Model model ) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        GraphVizExporter.exportToDot( model, out );
+        return out.toString();
+    }
+
+    private static int occurrences( String text, String needle )
+    {
+        int count = 0;
+        for ( int at = text.indexOf( needle ); at >= 0; at = text.indexOf( needle, at + 1 ) )
+        {
+            count++;
+        }
+        return count;
+    }
+
+    public void testEachNodeDeclaredOnce() throws IOException
+    {
+        Model model = ModelFactory.createDefaultModel();
+        Property developedBy = model.createProperty( NS + "developedBy" );
+        Resource studio = model.createResource( NS + "Studio" ).addProperty( RDF.type, model.createResource( NS + "Developer" ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            model.createResource( NS + "Game" + i ).addProperty( developedBy, studio );
+        }
+        String dot = export( model );
+
+        // one declaration, five edges into it
+        assertEquals( 1, occurrences( dot, "    \"Studio\" [" ) );
+        assertEquals( 5, occurrences( dot, "-> \"Studio\" [label=\"developedBy\"]" ) );
+        assertTrue( dot.contains( "fillcolor=\"#4ECDC4\"" ) );
+        assertTrue( dot.trim().endsWith( "}" ) );
+    }
+
+    public void testQuotesEscaped() throws IOException
+    {
+        Model model = ModelFactory.createDefaultModel();
+        model.createResource( NS + "Quoted" ).addProperty( model.createProperty( NS + "hasName" ), "The \"Best\" \\ Game" );
+        String dot = export( model );
+        assertTrue( dot, dot.contains( "label=\"The \\\"Best\\\" \\\\ Game\"" ) );
+    }
+
+    public void testBadInfluenceScoreIgnored() throws IOException
+    {
+        Model model = ModelFactory.createDefaultModel();
+        Property score = model.createProperty( GraphAnalytics.INFLUENCE_SCORE.getURI() );
+        model.createResource( NS + "Broken" ).addProperty( score, "n/a" );
+        model.createResource( NS + "Big" ).addProperty( score, "4.0" );
+        String dot = export( model );
+
+        assertEquals( 1, occurrences( dot, "width=" ) );
+        assertTrue( dot.contains( "\"Big\" [width=1.50, height=1.00, fontsize=28" ) );
+        assertTrue( Double.isNaN( GraphVizExporter.influence( "-1" ) ) );
+        assertTrue( Double.isNaN( GraphVizExporter.influence( "Infinity" ) ) );
+        assertEquals( 2.5, GraphVizExporter.influence( " 2.5 " ) );
+    }
+}
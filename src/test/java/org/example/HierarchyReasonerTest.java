@@ -0,0 +1,100 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.WrappedGraph;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The hierarchy-only reasoner must give the same answers to
+ * Query 1-8 as the full RDFS reasoner.
+ */
+public class HierarchyReasonerTest
+    extends TestCase
+{
+    public HierarchyReasonerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( HierarchyReasonerTest.class );
+    }
+
+    public void testCatalogQueriesMatchRdfs()
+    {
+        assertSameAnswers( ResearchGraphWithReasoning.buildBaseModel() );
+    }
+
+    public void testSyntheticCatalogQueriesMatchRdfs()
+    {
+        assertSameAnswers( new SyntheticCatalogGenerator( 20000, 11 ).generateModel() );
+    }
+
+    public void testInstanceWithTwoTypesReportedOnce()
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        Resource godOfWar = baseModel.getResource( ResearchGraphWithReasoning.NS + "GodOfWar" );
+        Resource game = baseModel.getResource( ResearchGraphWithReasoning.NS + "Game" );
+        baseModel.add( godOfWar, RDF.type, baseModel.getResource( ResearchGraphWithReasoning.NS + "RPG" ) );
+
+        Model hierarchy = HierarchyReasoner.createModel( baseModel );
+        assertEquals( 1, hierarchy.listStatements( godOfWar, RDF.type, game ).toList().size() );
+        assertSameAnswers( baseModel );
+    }
+
+    public void testChangeDuringRebuildIsNotLost()
+    {
+        String ns = ResearchGraphWithReasoning.NS;
+        Graph graph = ResearchGraphWithReasoning.buildBaseModel().getGraph();
+        Node openWorldGame = NodeFactory.createURI( ns + "OpenWorldGame" );
+        Triple added = Triple.create( openWorldGame, RDFS.subClassOf.asNode(), NodeFactory.createURI( ns + "ActionGame" ) );
+        boolean[] fired = { false };
+        // adds a subClassOf edge right after the reasoner has read the old ones
+        Graph racing = new WrappedGraph( graph )
+        {
+            @Override
+            public ExtendedIterator<Triple> find( Node s, Node p, Node o )
+            {
+                List<Triple> found = super.find( s, p, o ).toList();
+                if ( RDFS.subClassOf.asNode().equals( p ) && !fired[0] )
+                {
+                    fired[0] = true;
+                    add( added );
+                }
+                return WrappedIterator.create( found.iterator() );
+            }
+        };
+        Model baseModel = ModelFactory.createModelForGraph( racing );
+        Model hierarchy = HierarchyReasoner.createModel( baseModel );
+        Resource openWorld = baseModel.getResource( ns + "OpenWorldGame" );
+        Resource game = baseModel.getResource( ns + "Game" );
+
+        hierarchy.contains( openWorld, RDFS.subClassOf, game );
+        assertTrue( fired[0] );
+        assertTrue( hierarchy.contains( openWorld, RDFS.subClassOf, game ) );
+    }
+
+    private static void assertSameAnswers( Model baseModel )
+    {
+        InfModel infModel = ModelFactory.createInfModel( ReasonerRegistry.getRDFSReasoner(), baseModel );
+        Model hierarchy = HierarchyReasoner.createModel( baseModel );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( infModel, hierarchy ) );
+    }
+}
@@ -0,0 +1,118 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.Collections;
+
+/**
+ * Incremental maintenance has to keep giving the same answers as
+ * rebuilding the RDFS InfModel after inserts and deletes.
+ */
+public class IncrementalTypeReasonerTest
+    extends TestCase
+{
+    private static final String ns = ResearchGraphWithReasoning.NS;
+
+    public IncrementalTypeReasonerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( IncrementalTypeReasonerTest.class );
+    }
+
+    public void testInsertAndDeleteGame()
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        IncrementalTypeReasoner reasoner = new IncrementalTypeReasoner( baseModel );
+
+        Resource okami = baseModel.createResource( ns + "Okami" )
+            .addProperty( RDF.type, baseModel.createResource( ns + "ActionGame" ) )
+            .addProperty( baseModel.createProperty( ns + "hasTitle" ), "Okami" );
+        assertTrue( reasoner.model().contains( okami, RDF.type, baseModel.createResource( ns + "Game" ) ) );
+        assertSameAnswers( baseModel, reasoner );
+
+        baseModel.remove( okami.listProperties().toList() );
+        assertFalse( reasoner.model().contains( okami, RDF.type, baseModel.createResource( ns + "Game" ) ) );
+        assertSameAnswers( baseModel, reasoner );
+    }
+
+    public void testHierarchyChange()
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        IncrementalTypeReasoner reasoner = new IncrementalTypeReasoner( baseModel );
+        Resource game = baseModel.createResource( ns + "Game" );
+        Resource actionGame = baseModel.createResource( ns + "ActionGame" );
+        Resource gtaSanAndreas = baseModel.createResource( ns + "GTASanAndreas" );
+
+        // ActionGame stops being a Game: GTA loses its inferred Game type
+        baseModel.remove( actionGame, RDFS.subClassOf, game );
+        assertFalse( reasoner.model().contains( gtaSanAndreas, RDF.type, game ) );
+        assertSameAnswers( baseModel, reasoner );
+
+        // and gets it back through an intermediate class
+        Resource openWorld = baseModel.createResource( ns + "OpenWorldGame" );
+        baseModel.add( openWorld, RDFS.subClassOf, game );
+        baseModel.add( actionGame, RDFS.subClassOf, openWorld );
+        assertTrue( reasoner.model().contains( gtaSanAndreas, RDF.type, game ) );
+        assertTrue( reasoner.model().contains( actionGame, RDFS.subClassOf, game ) );
+        assertSameAnswers( baseModel, reasoner );
+    }
+
+    public void testDuplicateAddAndPhantomRemove()
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        IncrementalTypeReasoner reasoner = new IncrementalTypeReasoner( baseModel );
+        Resource game = baseModel.createResource( ns + "Game" );
+        Resource actionGame = baseModel.createResource( ns + "ActionGame" );
+        Resource gtaSanAndreas = baseModel.createResource( ns + "GTASanAndreas" );
+        Resource okami = baseModel.createResource( ns + "Okami" );
+
+        // removing a type GTA never had must not touch the one it has
+        baseModel.remove( gtaSanAndreas, RDF.type, baseModel.createResource( ns + "RPG" ) );
+        assertTrue( reasoner.model().contains( gtaSanAndreas, RDF.type, game ) );
+        assertSameAnswers( baseModel, reasoner );
+
+        // two adds of the same triple are one assertion, one remove takes it away
+        baseModel.add( okami, RDF.type, actionGame );
+        baseModel.add( okami, RDF.type, actionGame );
+        baseModel.remove( okami, RDF.type, actionGame );
+        assertFalse( reasoner.model().contains( okami, RDF.type, game ) );
+        assertSameAnswers( baseModel, reasoner );
+
+        // same for the hierarchy
+        baseModel.remove( actionGame, RDFS.subClassOf, baseModel.createResource( ns + "Character" ) );
+        baseModel.add( actionGame, RDFS.subClassOf, game );
+        assertTrue( reasoner.model().contains( gtaSanAndreas, RDF.type, game ) );
+        assertSameAnswers( baseModel, reasoner );
+    }
+
+    public void testRemoveAll()
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        IncrementalTypeReasoner reasoner = new IncrementalTypeReasoner( baseModel );
+
+        baseModel.removeAll();
+        assertEquals( 0, reasoner.entailedGraph().size() );
+        assertEquals( 0, reasoner.supportedTypeCount() );
+
+        baseModel.add( ResearchGraphWithReasoning.buildBaseModel() );
+        assertSameAnswers( baseModel, reasoner );
+    }
+
+    private static void assertSameAnswers( Model baseModel, IncrementalTypeReasoner reasoner )
+    {
+        InfModel infModel = ModelFactory.createInfModel( ReasonerRegistry.getRDFSReasoner(), baseModel );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( infModel, reasoner.model() ) );
+    }
+}
@@ -0,0 +1,148 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Plain-string ratings, sales, scores and years become typed literals;
+ * anything that doesn't parse, or isn't a plain string, is left alone.
+ */
+public class LiteralNormalizerTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final Node GAME = NodeFactory.createURI( NS + "GranTurismo3" );
+
+    public LiteralNormalizerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( LiteralNormalizerTest.class );
+    }
+
+    private static Node normalized( String predicate, Node value )
+    {
+        Graph graph = GraphFactory.createDefaultGraph();
+        LiteralNormalizer normalizer = new LiteralNormalizer( StreamRDFLib.graph( graph ) );
+        normalizer.triple( Triple.create( GAME, NodeFactory.createURI( NS + predicate ), value ) );
+        return graph.find().next().getObject();
+    }
+
+    private static void assertTyped( String predicate, String input, String lexical, RDFDatatype datatype )
+    {
+        Node value = normalized( predicate, NodeFactory.createLiteral( input ) );
+        assertEquals( predicate, datatype, value.getLiteralDatatype() );
+        assertEquals( predicate, lexical, value.getLiteralLexicalForm() );
+    }
+
+    public void testRatingBecomesDecimal()
+    {
+        assertTyped( "hasRating", "9.6", "9.6", XSDDatatype.XSDdecimal );
+    }
+
+    public void testSalesBecomeInt()
+    {
+        assertTyped( "hasSalesCount", "17330000", "17330000", XSDDatatype.XSDint );
+    }
+
+    public void testScoreBecomesIntTrimmed()
+    {
+        assertTyped( "hasMetacriticScore", " 97 ", "97", XSDDatatype.XSDint );
+    }
+
+    public void testYearsBecomeGYear()
+    {
+        assertTyped( "releasedIn", "2001", "2001", XSDDatatype.XSDgYear );
+        assertTyped( "foundedIn", "1986", "1986", XSDDatatype.XSDgYear );
+    }
+
+    public void testMalformedLeftUntouched()
+    {
+        Graph graph = GraphFactory.createDefaultGraph();
+        LiteralNormalizer normalizer = new LiteralNormalizer( StreamRDFLib.graph( graph ) );
+        Triple[] malformed = {
+            Triple.create( GAME, NodeFactory.createURI( NS + "hasSalesCount" ), NodeFactory.createLiteral( "17.3 million" ) ),
+            Triple.create( GAME, NodeFactory.createURI( NS + "hasRating" ), NodeFactory.createLiteral( "N/A" ) ),
+            Triple.create( GAME, NodeFactory.createURI( NS + "releasedIn" ), NodeFactory.createLiteral( "early 2001" ) ),
+        };
+        for ( Triple triple : malformed )
+        {
+            normalizer.triple( triple );
+        }
+        for ( Triple triple : malformed )
+        {
+            assertTrue( triple.toString(), graph.contains( triple ) );
+        }
+        assertEquals( 3, normalizer.invalidCount() );
+        assertEquals( 0, normalizer.rewrittenCount() );
+    }
+
+    public void testOnlyPlainStringsOfKnownPredicates()
+    {
+        // already typed, language tagged, an IRI, or a predicate we don't type
+        Node typed = NodeFactory.createLiteral( "9", XSDDatatype.XSDinteger );
+        assertEquals( typed, normalized( "hasRating", typed ) );
+        Node tagged = NodeFactory.createLiteral( "2001", "en" );
+        assertEquals( tagged, normalized( "releasedIn", tagged ) );
+        Node iri = NodeFactory.createURI( NS + "Year2001" );
+        assertEquals( iri, normalized( "releasedIn", iri ) );
+        Node title = NodeFactory.createLiteral( "2001" );
+        assertEquals( title, normalized( "hasTitle", title ) );
+    }
+
+    public void testQuadsKeepTheirGraph()
+    {
+        Node graphName = NodeFactory.createURI( NS + "imports" );
+        Quad[] seen = new Quad[1];
+        LiteralNormalizer normalizer = new LiteralNormalizer( new StreamRDFBase()
+        {
+            @Override
+            public void quad( Quad quad )
+            {
+                seen[0] = quad;
+            }
+        } );
+        normalizer.quad( Quad.create( graphName, GAME, NodeFactory.createURI( NS + "hasRating" ), NodeFactory.createLiteral( "8.5" ) ) );
+        assertEquals( graphName, seen[0].getGraph() );
+        assertEquals( XSDDatatype.XSDdecimal, seen[0].getObject().getLiteralDatatype() );
+    }
+
+    public void testReadAndNormalizeModel() throws IOException
+    {
+        File file = File.createTempFile( "strings-", ".ttl" );
+        file.deleteOnExit();
+        try ( FileWriter writer = new FileWriter( file ) )
+        {
+            writer.write( "@prefix ps2: <" + NS + "> .\n" );
+            writer.write( "ps2:GranTurismo3 ps2:hasSalesCount \"14890000\" ; ps2:hasRating \"9.5\" ; ps2:releasedIn \"n/a\" .\n" );
+        }
+        Model read = ModelFactory.createDefaultModel();
+        LiteralNormalizer normalizer = LiteralNormalizer.read( read, file.getPath() );
+        assertEquals( 2, normalizer.rewrittenCount() );
+        assertEquals( 1, normalizer.invalidCount() );
+
+        Model loaded = ModelFactory.createDefaultModel();
+        loaded.read( file.toURI().toString(), "TTL" );
+        assertEquals( 2, LiteralNormalizer.normalize( loaded ) );
+        assertTrue( loaded.isIsomorphicWith( read ) );
+    }
+}
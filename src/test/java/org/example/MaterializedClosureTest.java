@@ -0,0 +1,86 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.vocabulary.RDF;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The materialized closure must answer the eight catalog queries
+ * exactly like the live RDFS InfModel.
+ */
+public class MaterializedClosureTest
+    extends TestCase
+{
+    public MaterializedClosureTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( MaterializedClosureTest.class );
+    }
+
+    public void testReloadedClosureMatchesInfModel() throws Exception
+    {
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        InfModel infModel = ModelFactory.createInfModel( ReasonerRegistry.getRDFSReasoner(), baseModel );
+
+        File file = File.createTempFile( "closure", ".rt" );
+        file.deleteOnExit();
+        MaterializedClosure.save( MaterializedClosure.materialize( baseModel ), file.getPath() );
+        Model materialized = MaterializedClosure.withClosure( baseModel, MaterializedClosure.load( file.getPath() ) );
+
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( infModel, materialized ) );
+    }
+
+    public void testClosureOnSyntheticCatalog()
+    {
+        Model baseModel = new SyntheticCatalogGenerator( 20000, 7 ).generateModel();
+        InfModel infModel = ModelFactory.createInfModel( ReasonerRegistry.getRDFSReasoner(), baseModel );
+        Model materialized = MaterializedClosure.withClosure( baseModel, MaterializedClosure.materialize( baseModel ) );
+
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( infModel, materialized ) );
+    }
+
+    public void testStaleClosureIsRecomputed() throws Exception
+    {
+        String ns = ResearchGraphWithReasoning.NS;
+        Model baseModel = ResearchGraphWithReasoning.buildBaseModel();
+        File file = File.createTempFile( "closure", ".rt" );
+        file.delete();
+        file.deleteOnExit();
+        new File( file.getPath() + MaterializedClosure.FINGERPRINT_SUFFIX ).deleteOnExit();
+        MaterializedClosure.loadOrMaterialize( baseModel, file.getPath() );
+
+        // same base: the file is reused as is, whatever is in it
+        MaterializedClosure.save( ModelFactory.createDefaultModel(), file.getPath() );
+        assertEquals( baseModel.size(), MaterializedClosure.loadOrMaterialize( baseModel, file.getPath() ).size() );
+
+        // changed base: computed again, and it covers the new game
+        baseModel.createResource( ns + "Okami" ).addProperty( RDF.type, baseModel.getResource( ns + "ActionGame" ) );
+        Model reloaded = MaterializedClosure.loadOrMaterialize( baseModel, file.getPath() );
+        assertTrue( reloaded.contains( reloaded.getResource( ns + "Okami" ), RDF.type, reloaded.getResource( ns + "Game" ) ) );
+        InfModel infModel = ModelFactory.createInfModel( ReasonerRegistry.getRDFSReasoner(), baseModel );
+        assertEquals( Collections.emptyList(), CatalogQueries.compareAll( infModel, reloaded ) );
+    }
+
+    public void testFingerprintIgnoresOrder()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        Model reversed = ModelFactory.createDefaultModel();
+        List<Statement> statements = base.listStatements().toList();
+        Collections.reverse( statements );
+        reversed.add( statements );
+        assertEquals( MaterializedClosure.fingerprint( base ), MaterializedClosure.fingerprint( reversed ) );
+    }
+}
@@ -0,0 +1,143 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Neighbourhood extraction respects the hop radius and node budget
+ * and collapses big groups into count nodes.
+ */
+public class NeighbourhoodExtractorTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public NeighbourhoodExtractorTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( NeighbourhoodExtractorTest.class );
+    }
+
+    public void testOneHopAroundGame()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        Model sub = new NeighbourhoodExtractor( base, 1, 100, 100 ).extract( "GodOfWar" );
+
+        Resource godOfWar = sub.getResource( NS + "GodOfWar" );
+        assertTrue( sub.contains( godOfWar, sub.getProperty( NS + "developedBy" ), sub.getResource( NS + "SantaMonicaStudio" ) ) );
+        assertTrue( sub.contains( godOfWar, sub.getProperty( NS + "hasTitle" ) ) );
+        // the studio is one hop away, so its own edges are not followed
+        assertEquals( 1, sub.listSubjectsWithProperty( sub.getProperty( NS + "developedBy" ) ).toList().size() );
+    }
+
+    public void testZeroHopsIsJustTheSeed()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        Model sub = new NeighbourhoodExtractor( base, 0, 100, 100 ).extract( "GodOfWar" );
+
+        assertFalse( sub.contains( null, sub.getProperty( NS + "developedBy" ) ) );
+        assertTrue( sub.contains( sub.getResource( NS + "GodOfWar" ), sub.getProperty( NS + "hasTitle" ) ) );
+    }
+
+    public void testResolveByTitle()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        NeighbourhoodExtractor extractor = new NeighbourhoodExtractor( base, 1, 100, 100 );
+        assertEquals( base.getResource( NS + "GodOfWar" ).asNode(),
+            extractor.resolve( base.getResource( NS + "GodOfWar" ).getProperty( base.getProperty( NS + "hasTitle" ) ).getString() ) );
+    }
+
+    public void testNodeBudget()
+    {
+        Model base = new SyntheticCatalogGenerator( 20000, 3 ).generateModel();
+        Model sub = new NeighbourhoodExtractor( base, 3, 30, 1000000 ).extract( "Developer0" );
+        int walked = 0;
+        for ( Resource r : sub.listSubjects().toList() )
+        {
+            if ( r.hasProperty( sub.getProperty( NS + "hasName" ) ) || r.hasProperty( sub.getProperty( NS + "hasTitle" ) ) )
+            {
+                walked++;
+            }
+        }
+        assertTrue( "visited " + walked, walked <= 30 );
+    }
+
+    public void testHighDegreeNodeCollapsed()
+    {
+        Model base = new SyntheticCatalogGenerator( 20000, 3 ).generateModel();
+        Model sub = new NeighbourhoodExtractor( base, 1, 100, 10 ).extract( "ActionGenre" );
+
+        Resource group = sub.getResource( NS + "group_ActionGenre_hasGenre_in" );
+        assertTrue( sub.contains( group, sub.getProperty( NS + "hasGenre" ), sub.getResource( NS + "ActionGenre" ) ) );
+        assertTrue( group.getProperty( sub.getProperty( NS + "hasName" ) ).getString().endsWith( " x hasGenre" ) );
+        // none of the games themselves
+        assertFalse( sub.listSubjectsWithProperty( sub.getProperty( NS + "hasTitle" ) ).hasNext() );
+    }
+
+    /** Counts every triple handed out by find(). */
+    private static class CountingGraph
+        extends GraphBase
+    {
+        private final Graph base;
+        long reads;
+
+        CountingGraph( Graph base )
+        {
+            this.base = base;
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind( Triple pattern )
+        {
+            return base.find( pattern ).mapWith( t -> {
+                reads++;
+                return t;
+            } );
+        }
+    }
+
+    public void testHubScanIsBounded()
+    {
+        Graph base = ModelFactory.createDefaultModel().getGraph();
+        int games = NeighbourhoodExtractor.SCAN_CAP * 3;
+        for ( int i = 0; i < games; i++ )
+        {
+            base.add( Triple.create( NodeFactory.createURI( NS + "Game" + i ),
+                NodeFactory.createURI( NS + "hasGenre" ), NodeFactory.createURI( NS + "ActionGenre" ) ) );
+        }
+        CountingGraph counting = new CountingGraph( base );
+        Model sub = new NeighbourhoodExtractor( counting, 1, 100, 10 )
+            .extract( NodeFactory.createURI( NS + "ActionGenre" ) );
+
+        assertTrue( "read " + counting.reads, counting.reads <= NeighbourhoodExtractor.SCAN_CAP );
+        Resource group = sub.getResource( NS + "group_ActionGenre_hasGenre_in" );
+        assertEquals( NeighbourhoodExtractor.SCAN_CAP + "+ x hasGenre",
+            group.getProperty( sub.getProperty( NS + "hasName" ) ).getString() );
+    }
+
+    public void testSmallHubCountIsExact()
+    {
+        Graph base = ModelFactory.createDefaultModel().getGraph();
+        for ( int i = 0; i < 25; i++ )
+        {
+            base.add( Triple.create( NodeFactory.createURI( NS + "Game" + i ),
+                NodeFactory.createURI( NS + "hasGenre" ), NodeFactory.createURI( NS + "ActionGenre" ) ) );
+        }
+        Model sub = new NeighbourhoodExtractor( base, 1, 100, 10 ).extract( NodeFactory.createURI( NS + "ActionGenre" ) );
+        assertEquals( "25 x hasGenre", sub.getResource( NS + "group_ActionGenre_hasGenre_in" )
+            .getProperty( sub.getProperty( NS + "hasName" ) ).getString() );
+    }
+}
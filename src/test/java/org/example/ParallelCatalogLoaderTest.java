@@ -0,0 +1,122 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * The parallel loader must end up with exactly the graph the
+ * plain serial parser produces, however the file gets chunked.
+ */
+public class ParallelCatalogLoaderTest
+    extends TestCase
+{
+    public ParallelCatalogLoaderTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ParallelCatalogLoaderTest.class );
+    }
+
+    public void testNTriplesMatchesSerialLoad() throws IOException
+    {
+        File file = File.createTempFile( "catalog-", ".nt" );
+        file.deleteOnExit();
+        new SyntheticCatalogGenerator( 50000, 5 ).writeNTriples( file.getPath() );
+
+        // tiny chunks and batches so there are lots of both
+        assertSameAsSerial( file, new ParallelCatalogLoader( 4, 100, 16 * 1024 ) );
+        assertSameAsSerial( file, new ParallelCatalogLoader( 1, 100000, 1024 * 1024 * 1024 ) );
+    }
+
+    public void testTurtleMatchesSerialLoad() throws IOException
+    {
+        File file = File.createTempFile( "catalog-", ".ttl" );
+        file.deleteOnExit();
+        new SyntheticCatalogGenerator( 20000, 5 ).writeTurtle( file.getPath() );
+
+        assertSameAsSerial( file, new ParallelCatalogLoader( 4, 100, 16 * 1024 ) );
+    }
+
+    public void testBlankNodesAcrossChunks() throws IOException
+    {
+        File file = File.createTempFile( "bnodes-", ".nt" );
+        file.deleteOnExit();
+        try ( FileWriter writer = new FileWriter( file ) )
+        {
+            for ( int i = 0; i < 2000; i++ )
+            {
+                writer.write( "_:b" + ( i % 10 ) + " <http://example.org/ps2games#hasName> \"name " + i + "\" .\n" );
+            }
+        }
+        Model model = ModelFactory.createDefaultModel();
+        new ParallelCatalogLoader( 4, 50, 1024 ).load( file.getPath(), model );
+        assertEquals( 10, model.listSubjects().toList().size() );
+        assertSameAsSerial( file, new ParallelCatalogLoader( 4, 50, 1024 ) );
+    }
+
+    public void testBlankNodesNotSharedBetweenLoads() throws IOException
+    {
+        File nt = File.createTempFile( "bnodes-", ".nt" );
+        nt.deleteOnExit();
+        File ttl = File.createTempFile( "bnodes-", ".ttl" );
+        ttl.deleteOnExit();
+        try ( FileWriter writer = new FileWriter( nt ) )
+        {
+            writer.write( "_:b1 <http://example.org/ps2games#hasName> \"first\" .\n" );
+        }
+        try ( FileWriter writer = new FileWriter( ttl ) )
+        {
+            writer.write( "_:b1 <http://example.org/ps2games#hasName> \"second\" .\n" );
+        }
+        Model model = ModelFactory.createDefaultModel();
+        ParallelCatalogLoader loader = new ParallelCatalogLoader( 2, 10, 16 );
+        loader.load( nt.getPath(), model );
+        loader.load( nt.getPath(), model );
+        loader.load( ttl.getPath(), model );
+        // the same label in two loads and two files is three different nodes
+        assertEquals( 3, model.listSubjects().toList().size() );
+    }
+
+    public void testParseErrorIsReported() throws IOException
+    {
+        File file = File.createTempFile( "broken-", ".nt" );
+        file.deleteOnExit();
+        try ( FileWriter writer = new FileWriter( file ) )
+        {
+            writer.write( "<http://example.org/a> <http://example.org/b> \"ok\" .\n" );
+            writer.write( "this is not n-triples\n" );
+        }
+        try
+        {
+            new ParallelCatalogLoader( 2, 10, 16 ).load( file.getPath(), ModelFactory.createDefaultModel() );
+            fail( "expected a parse error" );
+        }
+        catch ( RuntimeException expected )
+        {
+            assertTrue( expected.getMessage().startsWith( "Error parsing" ) );
+        }
+    }
+
+    private static void assertSameAsSerial( File file, ParallelCatalogLoader loader )
+    {
+        Model serial = ModelFactory.createDefaultModel();
+        RDFDataMgr.read( serial, file.getPath() );
+
+        Model parallel = ModelFactory.createDefaultModel();
+        ParallelCatalogLoader.Stats stats = loader.load( file.getPath(), parallel );
+
+        assertEquals( serial.size(), parallel.size() );
+        assertEquals( serial.size(), stats.triples() );
+        assertTrue( serial.isIsomorphicWith( parallel ) );
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import java.util.Map;
+
+/**
+ * Query stats are recorded per query name once the rows are drained.
+ */
+public class QueryMetricsTest
+    extends TestCase
+{
+    private Model model;
+    private QueryRegistry registry;
+
+    public QueryMetricsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( QueryMetricsTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        model = HierarchyReasoner.createModel( ResearchGraphWithReasoning.buildBaseModel() );
+        registry = new QueryRegistry();
+        QueryMetrics.stats( "query5" ).reset();
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        QueryMetrics.setLevel( QueryMetrics.Level.BASIC );
+    }
+
+    public void testBasicCountsRowsAndRuns()
+    {
+        QueryMetrics.setLevel( QueryMetrics.Level.BASIC );
+        long rows = drain( registry.select( "query5", Map.of(), model ) );
+        drain( registry.select( "query5", Map.of(), model ) );
+
+        QueryMetrics.QueryStats stats = QueryMetrics.stats( "query5" );
+        assertEquals( 2, stats.getExecutions() );
+        assertEquals( 1, stats.getCompilations() );
+        assertEquals( 2 * rows, stats.getTotalRows() );
+        assertEquals( 0, stats.getTotalLookups() );
+    }
+
+    public void testDetailedCountsLookups()
+    {
+        QueryMetrics.setLevel( QueryMetrics.Level.DETAILED );
+        drain( registry.select( "query5", Map.of(), model ) );
+        assertTrue( QueryMetrics.stats( "query5" ).getTotalLookups() > 0 );
+    }
+
+    public void testOffRecordsNothing()
+    {
+        QueryMetrics.setLevel( QueryMetrics.Level.OFF );
+        drain( registry.select( "query5", Map.of(), model ) );
+        assertEquals( 0, QueryMetrics.stats( "query5" ).getExecutions() );
+    }
+
+    private static long drain( ResultSet results )
+    {
+        long rows = 0;
+        while ( results.hasNext() )
+        {
+            results.next();
+            rows++;
+        }
+        return rows;
+    }
+}
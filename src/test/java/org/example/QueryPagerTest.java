@@ -0,0 +1,172 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.out.NodeFmtLib;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paging through a query page by page gives back every row of the
+ * unpaged query exactly once, ORDER BY ties included.
+ */
+public class QueryPagerTest
+    extends TestCase
+{
+    private static Model model;
+
+    public QueryPagerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( QueryPagerTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        if ( model == null )
+        {
+            // plenty of rows tying on the sort keys (same developer and year, same title)
+            model = HierarchyReasoner.createModel( new SyntheticCatalogGenerator( 4000, 11 ).generateModel() );
+        }
+    }
+
+    private static String row( List<String> vars, QuerySolution solution )
+    {
+        StringBuilder sb = new StringBuilder();
+        for ( String var : vars )
+        {
+            RDFNode value = solution.get( var );
+            sb.append( value == null ? "-" : NodeFmtLib.strNT( value.asNode() ) ).append( '\t' );
+        }
+        return sb.toString();
+    }
+
+    private static List<String> unpaged( QueryRegistry registry, String name )
+    {
+        List<String> rows = new ArrayList<>();
+        ResultSet results = registry.select( name, Map.of(), model );
+        while ( results.hasNext() )
+        {
+            rows.add( row( results.getResultVars(), results.next() ) );
+        }
+        return rows;
+    }
+
+    private static List<String> paged( QueryPager pager, String name, int pageSize )
+    {
+        List<String> rows = new ArrayList<>();
+        QueryPager.Page page = pager.first( name, Map.of(), model, pageSize );
+        while ( true )
+        {
+            assertTrue( page.rows().size() <= pageSize );
+            for ( QuerySolution solution : page.rows() )
+            {
+                rows.add( row( page.vars(), solution ) );
+            }
+            if ( !page.hasNext() )
+            {
+                return rows;
+            }
+            assertEquals( pageSize, page.rows().size() );
+            page = pager.next( page.nextCursor(), model );
+        }
+    }
+
+    public void testPagesCoverEveryRowOnce()
+    {
+        QueryRegistry registry = new QueryRegistry();
+        QueryPager pager = new QueryPager( registry );
+        for ( String name : CatalogQueries.all().keySet() )
+        {
+            List<String> expected = unpaged( registry, name );
+            for ( int pageSize : new int[] { 3, 25 } )
+            {
+                List<String> actual = paged( pager, name, pageSize );
+                Collections.sort( actual );
+                List<String> sorted = new ArrayList<>( expected );
+                Collections.sort( sorted );
+                assertEquals( name + " in pages of " + pageSize, sorted, actual );
+            }
+        }
+    }
+
+    public void testPagesKeepTheWrittenOrder()
+    {
+        QueryRegistry registry = new QueryRegistry();
+        // ORDER BY DESC(?sales): the sales column reads the same paged or not
+        List<String> expected = new ArrayList<>();
+        for ( String row : unpaged( registry, "query2" ) )
+        {
+            expected.add( row.split( "\t" )[1] );
+        }
+        List<String> actual = new ArrayList<>();
+        for ( String row : paged( new QueryPager( registry ), "query2", 5 ) )
+        {
+            actual.add( row.split( "\t" )[1] );
+        }
+        assertEquals( expected, actual );
+    }
+
+    public void testParametersTravelInTheCursor()
+    {
+        QueryPager pager = new QueryPager( new QueryRegistry() );
+        QueryPager.Page first = pager.first( "query2", Map.of( "minSales", 0 ), model, 2 );
+        assertTrue( first.hasNext() );
+        QueryPager.Page second = pager.next( first.nextCursor(), model );
+        assertEquals( 2, second.rows().size() );
+        assertFalse( row( first.vars(), first.rows().get( 1 ) ).equals( row( second.vars(), second.rows().get( 0 ) ) ) );
+    }
+
+    public void testBadPageSizeAndCursor()
+    {
+        QueryPager pager = new QueryPager( new QueryRegistry() );
+        try
+        {
+            pager.first( "query1", Map.of(), model, 0 );
+            fail( "pageSize 0 accepted" );
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+        // not base64, then well-encoded but with bad parts
+        assertMalformed( pager, "not a cursor!" );
+        for ( String cursor : new String[] {
+            "query1",
+            "query1\n-5\n10",
+            "query1\n0\n-1",
+            "query1\n0\n2000000000",
+            "query1\n0\nten",
+            "query1\n0\n10\nminScore" } )
+        {
+            assertMalformed( pager,
+                Base64.getUrlEncoder().withoutPadding().encodeToString( cursor.getBytes( StandardCharsets.UTF_8 ) ) );
+        }
+    }
+
+    private void assertMalformed( QueryPager pager, String cursor )
+    {
+        try
+        {
+            pager.next( cursor, model );
+            fail( "malformed cursor accepted: " + cursor );
+        }
+        catch ( IllegalArgumentException expected )
+        {
+            assertEquals( "Malformed cursor", expected.getMessage() );
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Parameters substituted into the cached plans override the defaults
+ * and become literals of the right datatype; the cache counts hits.
+ */
+public class QueryRegistryTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public QueryRegistryTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( QueryRegistryTest.class );
+    }
+
+    private static int count( QueryRegistry registry, String name, Map<String, ?> params, Model model )
+    {
+        return ResultSetFormatter.consume( registry.select( name, params, model ) );
+    }
+
+    public void testDefaultsMatchTheWrittenQuery()
+    {
+        Model model = CatalogReasoning.reasoningModel( ResearchGraphWithReasoning.buildBaseModel(), "rdfs" );
+        QueryRegistry registry = new QueryRegistry();
+        for ( String name : CatalogQueries.all().keySet() )
+        {
+            try ( QueryExecution qexec = QueryExecutionFactory.create( CatalogQueries.get( name ), model ) )
+            {
+                assertTrue( name, ResultSetCompare.equalsByTerm( ResultSetFactory.copyResults( qexec.execSelect() ),
+                    ResultSetFactory.copyResults( registry.select( name, Map.of(), model ) ) ) );
+            }
+        }
+    }
+
+    public void testParameterOverridesDefault()
+    {
+        Model model = CatalogReasoning.reasoningModel( ResearchGraphWithReasoning.buildBaseModel(), "rdfs" );
+        QueryRegistry registry = new QueryRegistry();
+        int byDefault = count( registry, "query2", Map.of(), model );
+        assertTrue( byDefault > 0 );
+        assertTrue( count( registry, "query2", Map.of( "minSales", 0 ), model ) > byDefault );
+        assertEquals( 0, count( registry, "query2", Map.of( "minSales", Long.MAX_VALUE ), model ) );
+        // the override is per call, the cached plan keeps its default
+        assertEquals( byDefault, count( registry, "query2", Map.of(), model ) );
+
+        assertEquals( 0, count( registry, "query3", Map.of( "country", "Atlantis" ), model ) );
+        assertEquals( 0, count( registry, "query4",
+            Map.of( "gameClass", NodeFactory.createURI( NS + "NoSuchClass" ) ), model ) );
+    }
+
+    public void testJavaValuesBecomeTypedLiterals()
+    {
+        Node integer = QueryRegistry.toNode( 42 );
+        assertEquals( XSDDatatype.XSDinteger.getURI(), integer.getLiteralDatatypeURI() );
+        assertEquals( "42", integer.getLiteralLexicalForm() );
+        assertEquals( integer, QueryRegistry.toNode( 42L ) );
+
+        Node decimal = QueryRegistry.toNode( new BigDecimal( "9.50" ) );
+        assertEquals( XSDDatatype.XSDdecimal.getURI(), decimal.getLiteralDatatypeURI() );
+        assertEquals( "9.50", decimal.getLiteralLexicalForm() );
+        assertEquals( XSDDatatype.XSDdecimal.getURI(), QueryRegistry.toNode( new BigDecimal( "1E+3" ) ).getLiteralDatatypeURI() );
+        assertEquals( "1000", QueryRegistry.toNode( new BigDecimal( "1E+3" ) ).getLiteralLexicalForm() );
+
+        assertEquals( XSDDatatype.XSDdouble.getURI(), QueryRegistry.toNode( 2.5 ).getLiteralDatatypeURI() );
+
+        Node string = QueryRegistry.toNode( "Japan" );
+        assertEquals( XSDDatatype.XSDstring.getURI(), string.getLiteralDatatypeURI() );
+        assertEquals( "Japan", string.getLiteralLexicalForm() );
+        assertEquals( "", string.getLiteralLanguage() );
+
+        Node uri = NodeFactory.createURI( NS + "RPG" );
+        assertSame( uri, QueryRegistry.toNode( uri ) );
+        Model model = ResearchGraphWithReasoning.buildBaseModel();
+        assertEquals( uri, QueryRegistry.toNode( model.getResource( NS + "RPG" ) ) );
+    }
+
+    public void testRepeatedNamedIsAHit()
+    {
+        QueryRegistry registry = new QueryRegistry();
+        QueryRegistry.CompiledQuery first = registry.named( "query1" );
+        assertEquals( 0, registry.hits() );
+        assertEquals( 1, registry.misses() );
+
+        assertSame( first, registry.named( "query1" ) );
+        assertEquals( 1, registry.hits() );
+        assertEquals( 1, registry.misses() );
+        assertEquals( 1, registry.size() );
+
+        // same text as adhoc SPARQL is its own entry
+        registry.compile( CatalogQueries.get( "query1" ) );
+        registry.compile( CatalogQueries.get( "query1" ) );
+        assertEquals( 2, registry.hits() );
+        assertEquals( 2, registry.misses() );
+    }
+
+    public void testLeastRecentlyUsedEvicted()
+    {
+        QueryRegistry registry = new QueryRegistry( 2 );
+        registry.named( "query1" );
+        registry.named( "query2" );
+        registry.named( "query1" );
+        registry.named( "query3" ); // evicts query2, query1 was used more recently
+        assertEquals( 2, registry.size() );
+        registry.named( "query1" );
+        assertEquals( 2, registry.hits() );
+        registry.named( "query2" );
+        assertEquals( 4, registry.misses() );
+    }
+
+    public void testUnknownName()
+    {
+        try
+        {
+            new QueryRegistry().named( "query99" );
+            fail( "unknown query accepted" );
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+    }
+}
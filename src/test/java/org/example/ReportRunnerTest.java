@@ -0,0 +1,105 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.apache.jena.system.Txn;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries run side by side give the same answers as one at a time,
+ * in the order they were asked.
+ */
+public class ReportRunnerTest
+    extends TestCase
+{
+    public ReportRunnerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ReportRunnerTest.class );
+    }
+
+    public void testSameAnswersInBatchOrder()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        Model model = ReportRunner.readSafe( CatalogReasoning.reasoningModel( base, "rdfs" ) );
+        List<ReportRunner.Request> batch = new ArrayList<>();
+        for ( int i = 0; i < 5; i++ )
+        {
+            batch.addAll( ReportRunner.requests( CatalogQueries.all().keySet() ) );
+        }
+
+        List<ReportRunner.Report> reports;
+        try ( ReportRunner runner = new ReportRunner( 4 ) )
+        {
+            reports = runner.run( batch, model );
+        }
+        assertEquals( batch.size(), reports.size() );
+        QueryRegistry registry = new QueryRegistry();
+        for ( int i = 0; i < batch.size(); i++ )
+        {
+            ReportRunner.Report report = reports.get( i );
+            assertSame( batch.get( i ), report.request() );
+            assertNull( report.error() );
+            ResultSetRewindable expected = ResultSetFactory.copyResults(
+                registry.select( report.request().name(), Map.of(), model ) );
+            assertTrue( report.request().name(), ResultSetCompare.equalsByTerm( expected, report.results() ) );
+        }
+    }
+
+    public void testFailureStaysInItsReport()
+    {
+        Model model = ResearchGraphWithReasoning.buildBaseModel();
+        List<ReportRunner.Request> batch = List.of(
+            new ReportRunner.Request( "query7", Map.of() ),
+            new ReportRunner.Request( "noSuchQuery", Map.of() ) );
+        try ( ReportRunner runner = new ReportRunner( 2 ) )
+        {
+            List<ReportRunner.Report> reports = runner.run( batch, model );
+            assertNull( reports.get( 0 ).error() );
+            assertTrue( reports.get( 1 ).error() instanceof IllegalArgumentException );
+        }
+    }
+
+    public void testDatasetWithSharedReasoningModel()
+    {
+        Model base = ResearchGraphWithReasoning.buildBaseModel();
+        Model expected = CatalogReasoning.reasoningModel( base, "rdfs" );
+        Dataset dataset = DatasetFactory.createTxnMem();
+        Txn.executeWrite( dataset, () -> dataset.getDefaultModel().add( base ) );
+        List<ReportRunner.Request> batch = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            batch.addAll( ReportRunner.requests( CatalogQueries.all().keySet() ) );
+        }
+
+        QueryRegistry registry = new QueryRegistry();
+        try ( ReportRunner runner = new ReportRunner( 4 ) )
+        {
+            for ( String reasoner : new String[] { "rdfs", "incremental", "hierarchy" } )
+            {
+                List<ReportRunner.Report> reports = runner.run( batch, dataset, reasoner );
+                for ( ReportRunner.Report report : reports )
+                {
+                    assertNull( reasoner, report.error() );
+                    ResultSetRewindable answers = ResultSetFactory.copyResults(
+                        registry.select( report.request().name(), Map.of(), expected ) );
+                    assertTrue( reasoner + " " + report.request().name(),
+                        ResultSetCompare.equalsByTerm( answers, report.results() ) );
+                }
+            }
+        }
+    }
+}
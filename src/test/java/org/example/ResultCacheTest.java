@@ -0,0 +1,135 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDFS;
+import java.util.Map;
+
+/**
+ * Cached results are reused until a triple with a predicate
+ * the query reads changes, and not a moment longer.
+ */
+public class ResultCacheTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    private Model base;
+    private Model model;
+    private ResultCache cache;
+
+    public ResultCacheTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ResultCacheTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        base = ResearchGraphWithReasoning.buildBaseModel();
+        model = HierarchyReasoner.createModel( base );
+        cache = new ResultCache( new QueryRegistry() );
+        cache.attach( base );
+    }
+
+    public void testSecondCallIsAHit()
+    {
+        int first = rows( "query5" );
+        assertEquals( first, rows( "query5" ) );
+        assertEquals( 1, cache.hits() );
+        assertEquals( 1, cache.misses() );
+    }
+
+    public void testParametersAreSeparateEntries()
+    {
+        rows( "query2" );
+        cache.select( "query2", Map.of( "minSales", 10000000 ), model );
+        assertEquals( 0, cache.hits() );
+        assertEquals( 2, cache.size() );
+    }
+
+    public void testOnlyQueriesReadingThePredicateAreInvalidated()
+    {
+        int awardsBefore = rows( "query8" );
+        int series = rows( "query5" );
+        int sequels = rows( "query7" );
+
+        // wonAward only: query8 reads it, series counts and sequels don't
+        base.getResource( NS + "GodOfWar" ).addProperty( base.getProperty( NS + "wonAward" ),
+            base.getResource( NS + "GameOfYear" ) );
+
+        assertEquals( 1, cache.invalidations() );
+        assertEquals( 2, cache.size() );
+        assertEquals( series, rows( "query5" ) );
+        assertEquals( sequels, rows( "query7" ) );
+        assertEquals( 2, cache.hits() );
+        assertEquals( awardsBefore + 1, rows( "query8" ) ); // recomputed, sees the new award
+        assertEquals( 2, cache.hits() );
+    }
+
+    public void testModelsAreSeparateEntries()
+    {
+        int full = rows( "query5" );
+        Model empty = HierarchyReasoner.createModel( ModelFactory.createDefaultModel() );
+        ResultSetRewindable other = ResultSetFactory.copyResults( cache.select( "query5", Map.of(), empty ) );
+        assertTrue( full > 0 );
+        assertEquals( 0, other.size() );
+        assertEquals( 0, cache.hits() );
+        assertEquals( 2, cache.size() );
+    }
+
+    public void testRowLimitIsInclusive()
+    {
+        int awards = rows( "query8" );
+        cache = new ResultCache( new QueryRegistry(), 8, ResultCache.DEFAULT_TTL_MILLIS, awards );
+        assertEquals( awards, rows( "query8" ) );
+        assertEquals( 1, cache.size() );
+
+        cache = new ResultCache( new QueryRegistry(), 8, ResultCache.DEFAULT_TTL_MILLIS, awards - 1 );
+        assertEquals( awards, rows( "query8" ) ); // all rows still come back, just not kept
+        assertEquals( 0, cache.size() );
+    }
+
+    public void testSchemaChangeClearsEverything()
+    {
+        rows( "query5" );
+        rows( "query8" );
+        base.add( base.getResource( NS + "TestGame" ), RDFS.subClassOf, base.getResource( NS + "Game" ) );
+        assertEquals( 0, cache.size() );
+    }
+
+    public void testSizeEviction()
+    {
+        cache = new ResultCache( new QueryRegistry(), 2, ResultCache.DEFAULT_TTL_MILLIS, ResultCache.DEFAULT_MAX_ROWS );
+        rows( "query5" );
+        rows( "query7" );
+        rows( "query8" );
+        assertEquals( 2, cache.size() );
+        assertEquals( 1, cache.evictions() );
+    }
+
+    public void testPredicatesOfAQuery()
+    {
+        QueryRegistry registry = new QueryRegistry();
+        assertTrue( ResultCache.readPredicates( registry.named( "query5" ).op() )
+            .contains( base.getProperty( NS + "partOfSeries" ).asNode() ) );
+        assertFalse( ResultCache.readPredicates( registry.named( "query5" ).op() )
+            .contains( base.getProperty( NS + "wonAward" ).asNode() ) );
+    }
+
+    private int rows( String name )
+    {
+        ResultSetRewindable results = ResultSetFactory.copyResults( cache.select( name, Map.of(), model ) );
+        return results.size();
+    }
+}
@@ -0,0 +1,115 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Each output format writes every row, with the escaping its readers
+ * expect; SPARQL JSON reads back as the same results.
+ */
+public class StreamingResultWriterTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+    private static final String QUERY =
+        "SELECT ?game ?title ?sales WHERE { ?game <" + NS + "hasTitle> ?title "
+            + "OPTIONAL { ?game <" + NS + "hasSales> ?sales } } ORDER BY ?game";
+
+    public StreamingResultWriterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( StreamingResultWriterTest.class );
+    }
+
+    private static Model model()
+    {
+        Model model = ModelFactory.createDefaultModel();
+        Property title = model.createProperty( NS + "hasTitle" );
+        Property sales = model.createProperty( NS + "hasSales" );
+        model.createResource( NS + "A" ).addProperty( title, "Ratchet, \"Clank\"" )
+            .addLiteral( sales, model.createTypedLiteral( "1200000", XSDDatatype.XSDinteger ) );
+        model.createResource( NS + "B" ).addProperty( title, "Two\nlines\tand a \\" );
+        return model;
+    }
+
+    private static ResultSetRewindable results()
+    {
+        try ( QueryExecution qexec = QueryExecutionFactory.create( QUERY, model() ) )
+        {
+            return ResultSetFactory.copyResults( qexec.execSelect() );
+        }
+    }
+
+    private static String write( ResultSet results, StreamingResultWriter.Format format ) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals( 2, StreamingResultWriter.write( results, format, out ) );
+        return new String( out.toByteArray(), StandardCharsets.UTF_8 );
+    }
+
+    public void testTsv() throws IOException
+    {
+        String[] lines = write( results(), StreamingResultWriter.Format.TSV ).split( "\n", -1 );
+        assertEquals( "?game\t?title\t?sales", lines[0] );
+        assertEquals( "<" + NS + "A>\t\"Ratchet, \\\"Clank\\\"\"\t1200000", lines[1] );
+        // escaped, so still one line; the unbound ?sales is an empty column
+        assertEquals( "<" + NS + "B>\t\"Two\\nlines\\tand a \\\\\"\t", lines[2] );
+        assertEquals( "", lines[3] );
+    }
+
+    public void testCsv() throws IOException
+    {
+        String csv = write( results(), StreamingResultWriter.Format.CSV );
+        assertEquals( "game,title,sales\r\n"
+            + NS + "A,\"Ratchet, \"\"Clank\"\"\",1200000\r\n"
+            + NS + "B,\"Two\nlines\tand a \\\",\r\n", csv );
+    }
+
+    public void testJsonLines() throws IOException
+    {
+        String[] lines = write( results(), StreamingResultWriter.Format.JSONL ).split( "\n" );
+        assertEquals( 2, lines.length );
+        assertEquals( "{\"game\":\"" + NS + "A\",\"title\":\"Ratchet, \\\"Clank\\\"\",\"sales\":1200000}", lines[0] );
+        assertEquals( "{\"game\":\"" + NS + "B\",\"title\":\"Two\\nlines\\tand a \\\\\"}", lines[1] );
+    }
+
+    public void testSparqlJsonReadsBack() throws IOException
+    {
+        String json = write( results(), StreamingResultWriter.Format.SPARQL_JSON );
+        ResultSet parsed = ResultSetFactory.fromJSON( new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) ) );
+        assertTrue( ResultSetCompare.equalsByTerm( results(), ResultSetFactory.copyResults( parsed ) ) );
+    }
+
+    public void testFormatNames()
+    {
+        assertEquals( StreamingResultWriter.Format.SPARQL_JSON, StreamingResultWriter.Format.parse( "json" ) );
+        assertEquals( StreamingResultWriter.Format.TSV, StreamingResultWriter.Format.parse( "TSV" ) );
+        try
+        {
+            StreamingResultWriter.Format.parse( "xml" );
+            fail( "xml accepted" );
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.ModelFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tiled level-of-detail export: clustered layout, every node in exactly one
+ * tile, and the genre / series levels.
+ */
+public class TiledGraphExporterTest
+    extends TestCase
+{
+    private static final String NS = ResearchGraphWithReasoning.NS;
+
+    public TiledGraphExporterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( TiledGraphExporterTest.class );
+    }
+
+    private static Node node( String name )
+    {
+        return NodeFactory.createURI( NS + name );
+    }
+
+    private static void add( Graph graph, String s, Node p, String o )
+    {
+        graph.add( Triple.create( node( s ), p, node( o ) ) );
+    }
+
+    private static Graph catalog()
+    {
+        Graph graph = ModelFactory.createDefaultModel().getGraph();
+        for ( String game : new String[] { "FFX", "FFXII", "KingdomHearts" } )
+        {
+            add( graph, game, CatalogViews.HAS_GENRE, "RPGGenre" );
+            add( graph, game, CatalogViews.DEVELOPED_BY, "SquareEnix" );
+        }
+        add( graph, "FFX", CatalogViews.PART_OF_SERIES, "FinalFantasy" );
+        add( graph, "FFXII", CatalogViews.PART_OF_SERIES, "FinalFantasy" );
+        add( graph, "GTASA", CatalogViews.HAS_GENRE, "ActionGenre" );
+        add( graph, "GTASA", CatalogViews.DEVELOPED_BY, "Rockstar" );
+        add( graph, "FFX", NodeFactory.createURI( NS + "hasProtagonist" ), "Tidus" );
+        // linked to no game at all
+        add( graph, "Lonely", NodeFactory.createURI( NS + "knows" ), "Alone" );
+        return graph;
+    }
+
+    private static double distance( TiledGraphExporter exporter, String a, String b )
+    {
+        double[] pa = exporter.position( node( a ) );
+        double[] pb = exporter.position( node( b ) );
+        return Math.hypot( pa[0] - pb[0], pa[1] - pb[1] );
+    }
+
+    private static List<String> tiles( Path directory, int level ) throws IOException
+    {
+        try ( Stream<Path> files = Files.list( directory.resolve( Integer.toString( level ) ) ) )
+        {
+            return files.sorted().map( file -> {
+                try
+                {
+                    return new String( Files.readAllBytes( file ), StandardCharsets.UTF_8 );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            } ).collect( Collectors.toList() );
+        }
+    }
+
+    private static int occurrences( List<String> texts, String needle )
+    {
+        int count = 0;
+        for ( String text : texts )
+        {
+            for ( int at = text.indexOf( needle ); at >= 0; at = text.indexOf( needle, at + 1 ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void testLayoutKeepsSeriesTogether()
+    {
+        TiledGraphExporter exporter = new TiledGraphExporter( catalog() );
+        assertTrue( distance( exporter, "FFX", "FFXII" ) < distance( exporter, "FFX", "GTASA" ) );
+        assertTrue( distance( exporter, "FFX", "FinalFantasy" ) < distance( exporter, "FFX", "GTASA" ) );
+        // a developer sits among its games, not out with the other genre
+        assertTrue( distance( exporter, "SquareEnix", "FFX" ) < distance( exporter, "SquareEnix", "GTASA" ) );
+        assertNotNull( exporter.position( node( "Lonely" ) ) );
+        assertNull( exporter.position( node( "Nobody" ) ) );
+    }
+
+    public void testEveryNodeInOneTile() throws IOException
+    {
+        TiledGraphExporter exporter = new TiledGraphExporter( catalog() );
+        Path directory = Files.createTempDirectory( "tiles" );
+        int written = exporter.export( directory );
+
+        String index = new String( Files.readAllBytes( directory.resolve( "index.json" ) ), StandardCharsets.UTF_8 );
+        assertTrue( index.contains( "\"nodes\":" + exporter.nodeCount() ) );
+        assertTrue( index.contains( "\"games\":4" ) );
+
+        List<String> genres = tiles( directory, 0 );
+        List<String> series = tiles( directory, 1 );
+        List<String> nodes = tiles( directory, 2 );
+        assertEquals( written, genres.size() + series.size() + nodes.size() );
+        assertEquals( 1, genres.size() );
+        // RPG and Action, linked through nothing but still both there
+        assertEquals( 2, occurrences( genres, "\"type\":\"Genre\"" ) );
+        // Final Fantasy, and the standalone games of each genre
+        assertEquals( 3, occurrences( series, "\"type\":\"GameSeries\"" ) );
+        assertEquals( 2, occurrences( series, "(standalone)" ) );
+        // only nodes carry a type, only edges a target position
+        assertEquals( exporter.nodeCount(), occurrences( nodes, "\"type\":" ) );
+        assertEquals( exporter.edgeCount(), occurrences( nodes, "\"x2\":" ) );
+    }
+
+    public void testBadInfluenceScoresAreLeftOut() throws IOException
+    {
+        Graph graph = catalog();
+        graph.add( Triple.create( node( "FFX" ), GraphAnalytics.INFLUENCE_SCORE, NodeFactory.createLiteral( "high" ) ) );
+        graph.add( Triple.create( node( "FFXII" ), GraphAnalytics.INFLUENCE_SCORE, NodeFactory.createLiteral( "NaN" ) ) );
+        graph.add( Triple.create( node( "GTASA" ), GraphAnalytics.INFLUENCE_SCORE, NodeFactory.createLiteral( "2.5" ) ) );
+        TiledGraphExporter exporter = new TiledGraphExporter( graph );
+        Path directory = Files.createTempDirectory( "tiles" );
+        exporter.export( directory );
+
+        List<String> nodes = tiles( directory, 2 );
+        assertEquals( 1, occurrences( nodes, "\"score\":" ) );
+        assertEquals( 1, occurrences( nodes, "\"score\":2.5" ) );
+        assertEquals( 0, occurrences( nodes, "NaN" ) );
+    }
+}